@@ -123,6 +123,30 @@ tasks.test {
     }
 }
 
+/* Micro-benchmark of the JSON readers: ./gradlew jsonReaderBenchmark */
+tasks.register<JavaExec>("jsonReaderBenchmark") {
+    group = "verification"
+    description = "Compares the tree-based and the tape-based JSON readers"
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("org.app.weathermode.JsonReaderBenchmark")
+}
+
+/* Binary city database compiled from worldcities.csv (see CityDatabaseWriter) */
+val worldCitiesCsv = file("src/main/resources/files/worldcities.csv")
+val cityDatabaseDir = layout.buildDirectory.dir("generated/citydb")
+val cityDatabase = tasks.register<JavaExec>("cityDatabase") {
+    group = "build"
+    description = "Compiles worldcities.csv into the memory-mappable city database"
+    classpath = sourceSets["main"].output.classesDirs + configurations["runtimeClasspath"]
+    mainClass.set("org.app.weathermode.model.locationselector.CityDatabaseWriter")
+    inputs.files(worldCitiesCsv)
+    outputs.dir(cityDatabaseDir)
+    onlyIf { worldCitiesCsv.exists() }
+    args(worldCitiesCsv.path, cityDatabaseDir.get().file("files/worldcities.bin").asFile.path)
+}
+// The CSV stays in the jar: LocationSelectorImpl compiles it when the binary database is missing or unreadable
+sourceSets["main"].resources.srcDir(files(cityDatabaseDir).builtBy(cityDatabase))
+
 tasks.withType<Copy> {
     duplicatesStrategy = DuplicatesStrategy.EXCLUDE
 }
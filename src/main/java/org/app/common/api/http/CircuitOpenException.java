@@ -0,0 +1,36 @@
+package org.app.common.api.http;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Exception thrown by an {@link HttpTransport} when a request is rejected without being sent,
+ * because the circuit breaker of its host is open after repeated failures.
+ */
+public class CircuitOpenException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = -6178400153361278925L;
+
+    /** The host whose circuit is open. */
+    private final String host;
+
+    /**
+     * Constructs a new exception for the given host.
+     *
+     * @param host the host whose circuit is open
+     */
+    public CircuitOpenException(final String host) {
+        super("Circuit open for host " + host);
+        this.host = host;
+    }
+
+    /**
+     * Returns the host whose circuit is open.
+     *
+     * @return the host name
+     */
+    public String getHost() {
+        return this.host;
+    }
+}
@@ -0,0 +1,35 @@
+package org.app.common.api.http;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Exception thrown by an {@link HttpTransport} when the server answers with a non-successful status.
+ */
+public class HttpStatusException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 4810569927374512361L;
+
+    /** The HTTP status code of the response. */
+    private final int statusCode;
+
+    /**
+     * Constructs a new exception for the given status code.
+     *
+     * @param statusCode the HTTP status code of the response
+     */
+    public HttpStatusException(final int statusCode) {
+        super("Unexpected HTTP status " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Returns the HTTP status code of the response.
+     *
+     * @return the status code
+     */
+    public int getStatusCode() {
+        return this.statusCode;
+    }
+}
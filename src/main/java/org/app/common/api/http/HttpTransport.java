@@ -0,0 +1,57 @@
+package org.app.common.api.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shared HTTP transport used for every outbound GET request of the application.
+ *
+ * <p>Implementations keep connections alive and reuse them across requests, so the TCP and TLS
+ * handshakes are paid once per host rather than once per call. A response whose status is not
+ * in the 2xx range is reported as an {@link HttpStatusException}.
+ */
+public interface HttpTransport {
+
+    /**
+     * Performs a GET request and returns the response body as a stream, without buffering it.
+     *
+     * <p>The caller must close the returned stream so that the connection can be reused. Reading the
+     * body is bounded by the same timeout as the request: once it expires the stream is closed and
+     * reads fail with an {@link IOException}, so a stalled server cannot block the caller forever.
+     *
+     * @param url the complete URL to request
+     * @return the response body
+     * @throws IOException if the request fails, times out or the response status is not successful
+     */
+    InputStream openStream(String url) throws IOException;
+
+    /**
+     * Performs a GET request and returns the whole response body as text.
+     *
+     * <p>Receiving the body is bounded by the same timeout as the request.
+     *
+     * @param url the complete URL to request
+     * @return the response body, decoded with the charset declared by the server (UTF-8 by default)
+     * @throws IOException if the request fails, times out or the response status is not successful
+     */
+    String getString(String url) throws IOException;
+
+    /**
+     * Asynchronous variant of {@link #openStream(String)}.
+     *
+     * @param url the complete URL to request
+     * @return a future completed with the response body, or completed exceptionally with an
+     *         {@link IOException} if the request fails
+     */
+    CompletableFuture<InputStream> openStreamAsync(String url);
+
+    /**
+     * Asynchronous variant of {@link #getString(String)}.
+     *
+     * @param url the complete URL to request
+     * @return a future completed with the response body, or completed exceptionally with an
+     *         {@link IOException} if the request fails
+     */
+    CompletableFuture<String> getStringAsync(String url);
+}
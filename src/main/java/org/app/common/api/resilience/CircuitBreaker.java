@@ -0,0 +1,55 @@
+package org.app.common.api.resilience;
+
+/**
+ * Stops calls towards an endpoint that keeps failing, so that callers fail fast instead of
+ * waiting for timeouts and the endpoint gets time to recover.
+ *
+ * <p>The breaker starts {@link State#CLOSED}. After too many consecutive failures it becomes
+ * {@link State#OPEN} and rejects every call; once a cool-down period has elapsed it lets a single
+ * probe call through ({@link State#HALF_OPEN}), whose outcome closes or reopens it.
+ */
+public interface CircuitBreaker {
+
+    /**
+     * The states of a circuit breaker.
+     */
+    enum State {
+        /** Calls are allowed. */
+        CLOSED,
+        /** Calls are rejected until the cool-down period elapses. */
+        OPEN,
+        /** A single probe call is allowed to test whether the endpoint recovered. */
+        HALF_OPEN
+    }
+
+    /**
+     * Asks permission for a call. Every granted call must be followed by {@link #onSuccess()},
+     * {@link #onFailure()} or {@link #onCancelled()}.
+     *
+     * @return {@code true} if the call may be made
+     */
+    boolean tryAcquire();
+
+    /**
+     * Records that a granted call succeeded.
+     */
+    void onSuccess();
+
+    /**
+     * Records that a granted call failed.
+     */
+    void onFailure();
+
+    /**
+     * Records that a granted call was abandoned before an outcome was known, e.g. because the
+     * calling thread was interrupted. The call counts neither as a success nor as a failure.
+     */
+    void onCancelled();
+
+    /**
+     * Returns the current state.
+     *
+     * @return the current state
+     */
+    State getState();
+}
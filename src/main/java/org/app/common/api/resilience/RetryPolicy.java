@@ -0,0 +1,74 @@
+package org.app.common.api.resilience;
+
+import org.app.common.api.http.CircuitOpenException;
+import org.app.common.api.http.HttpStatusException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides how many times, and after how long, a failed outbound call is attempted again.
+ *
+ * <p>Implementations wait between attempts so that a failing endpoint is not hammered with
+ * back-to-back requests. Waiting is interruptible: an interrupted thread stops retrying and keeps
+ * its interrupt status.
+ */
+public interface RetryPolicy {
+
+    /**
+     * Returns the maximum number of attempts, including the first one.
+     *
+     * @return the maximum number of attempts
+     */
+    int getMaxAttempts();
+
+    /**
+     * Returns the time to wait before the given retry.
+     *
+     * @param retry the retry number, starting from 1 for the second attempt
+     * @return the time to wait before that attempt
+     */
+    Duration delayBefore(int retry);
+
+    /**
+     * Runs an attempt until it succeeds or the attempts are exhausted.
+     *
+     * @param attempt the attempt, returning {@code true} on success
+     * @return {@code true} if one of the attempts succeeded, {@code false} if all of them failed or
+     *         the thread was interrupted while waiting
+     */
+    boolean run(BooleanSupplier attempt);
+
+    /**
+     * Runs an action until it succeeds, the attempts are exhausted or it fails with an error that
+     * is not worth retrying (see {@link #isRetryable(Exception)}).
+     *
+     * @param action the action to run
+     * @param <T> the type of the result
+     * @return the result of the first successful attempt
+     * @throws Exception the error of the last attempt
+     */
+    <T> T call(Callable<T> action) throws Exception; // NOPMD
+
+    /**
+     * Tells whether a failure is worth another attempt. Network errors and server-side HTTP
+     * statuses (5xx and 429) are; client errors and open circuits are not.
+     *
+     * @param error the error of the failed attempt
+     * @return {@code true} if the call may succeed when attempted again
+     */
+    // CHECKSTYLE: MagicNumber OFF
+    static boolean isRetryable(final Exception error) {
+        if (error instanceof CircuitOpenException) {
+            return false;
+        }
+        if (error instanceof HttpStatusException status) {
+            final int code = status.getStatusCode();
+            return code >= 500 || code == 429;
+        }
+        return error instanceof IOException;
+    }
+    // CHECKSTYLE: MagicNumber ON
+}
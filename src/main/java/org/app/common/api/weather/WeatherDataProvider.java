@@ -1,6 +1,7 @@
 package org.app.common.api.weather;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,6 +16,21 @@ public interface WeatherDataProvider {
      * @param lng      the longitude of the location
      * @param dateTime the time for which weather is requested
      * @return an {@link Optional} containing the weather data, or empty if unavailable
+     * @throws WeatherFetchException if the weather data could not be downloaded
      */
-    Optional<Map<String, Number>> getWeatherInfo(double lat, double lng, LocalDateTime dateTime);
+    Optional<Map<String, Number>> getWeatherInfo(double lat, double lng, LocalDateTime dateTime)
+            throws WeatherFetchException;
+
+    /**
+     * Retrieves weather data for several coordinates and times at once.
+     *
+     * <p>Implementations should group the queries so that as few remote requests as possible are made.
+     *
+     * @param queries the locations and times for which weather is requested
+     * @return a list with one element per query, in the same order; an element is empty
+     *         if weather data for that query is unavailable
+     * @throws WeatherFetchException if the weather data of some queries could not be downloaded;
+     *                               the exception tells which ones
+     */
+    List<Optional<Map<String, Number>>> getWeatherInfo(List<WeatherQuery> queries) throws WeatherFetchException;
 }
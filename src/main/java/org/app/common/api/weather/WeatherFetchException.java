@@ -0,0 +1,39 @@
+package org.app.common.api.weather;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * Exception thrown by a {@link WeatherDataProvider} when the weather data of some queries of a batch
+ * could not be downloaded, as opposed to being unavailable at the source.
+ */
+public class WeatherFetchException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = -6071843290425513208L;
+
+    /** The indexes of the failed queries in the batch. */
+    private final List<Integer> failedQueries;
+
+    /**
+     * Constructs a new exception.
+     *
+     * @param message       the detail message
+     * @param failedQueries the indexes of the failed queries in the batch, in ascending order
+     * @param cause         the error of the first failed request
+     */
+    public WeatherFetchException(final String message, final List<Integer> failedQueries, final Throwable cause) {
+        super(message, cause);
+        this.failedQueries = List.copyOf(failedQueries);
+    }
+
+    /**
+     * Returns the indexes of the queries whose weather data could not be downloaded.
+     *
+     * @return the indexes of the failed queries in the batch, in ascending order
+     */
+    public List<Integer> getFailedQueries() {
+        return this.failedQueries;
+    }
+}
@@ -0,0 +1,53 @@
+package org.app.common.api.weather;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single point of a batch weather lookup: a location and the time for which weather is requested.
+ */
+public final class WeatherQuery {
+
+    private final double latitude;
+    private final double longitude;
+    private final LocalDateTime dateTime;
+
+    /**
+     * Constructs a new weather query.
+     *
+     * @param latitude  the latitude of the location
+     * @param longitude the longitude of the location
+     * @param dateTime  the time for which weather is requested
+     */
+    public WeatherQuery(final double latitude, final double longitude, final LocalDateTime dateTime) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.dateTime = dateTime;
+    }
+
+    /**
+     * Returns the latitude of the location.
+     *
+     * @return the latitude in decimal degrees
+     */
+    public double getLatitude() {
+        return this.latitude;
+    }
+
+    /**
+     * Returns the longitude of the location.
+     *
+     * @return the longitude in decimal degrees
+     */
+    public double getLongitude() {
+        return this.longitude;
+    }
+
+    /**
+     * Returns the time for which weather is requested.
+     *
+     * @return the requested {@link LocalDateTime}
+     */
+    public LocalDateTime getDateTime() {
+        return this.dateTime;
+    }
+}
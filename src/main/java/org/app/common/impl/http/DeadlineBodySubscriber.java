@@ -0,0 +1,118 @@
+package org.app.common.impl.http;
+
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body subscriber that must receive the whole body within a deadline, counted from when the
+ * response headers arrive.
+ *
+ * <p>When the deadline expires the subscription is cancelled and the wrapped subscriber fails with an
+ * {@link HttpTimeoutException}. No thread waits for the body in the meantime. Signals are serialized,
+ * so the wrapped subscriber never sees the timeout concurrently with a chunk of the body.
+ *
+ * @param <T> the type of the body
+ */
+final class DeadlineBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private final HttpResponse.BodySubscriber<T> delegate;
+    private final Duration deadline;
+    private final ScheduledExecutorService timer;
+    private Flow.Subscription subscription;
+    private ScheduledFuture<?> timeout;
+    private boolean done;
+
+    /**
+     * Wraps a body subscriber.
+     *
+     * @param delegate the subscriber that builds the body
+     * @param deadline the time allowed to receive the whole body
+     * @param timer the executor that enforces the deadline
+     */
+    DeadlineBodySubscriber(final HttpResponse.BodySubscriber<T> delegate, final Duration deadline,
+                           final ScheduledExecutorService timer) {
+        this.delegate = delegate;
+        this.deadline = deadline;
+        this.timer = timer;
+    }
+
+    /**
+     * Returns a handler whose subscribers are bounded by a deadline.
+     *
+     * @param handler the handler to wrap
+     * @param deadline the time allowed to receive the whole body
+     * @param timer the executor that enforces the deadline
+     * @param <T> the type of the body
+     * @return the bounded handler
+     */
+    static <T> HttpResponse.BodyHandler<T> bounded(final HttpResponse.BodyHandler<T> handler, final Duration deadline,
+                                                   final ScheduledExecutorService timer) {
+        return info -> new DeadlineBodySubscriber<>(handler.apply(info), deadline, timer);
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return this.delegate.getBody();
+    }
+
+    @Override
+    public synchronized void onSubscribe(final Flow.Subscription s) {
+        this.subscription = s;
+        this.timeout = this.timer.schedule(this::expire, this.deadline.toMillis(), TimeUnit.MILLISECONDS);
+        this.delegate.onSubscribe(s);
+    }
+
+    @Override
+    public synchronized void onNext(final List<ByteBuffer> item) {
+        if (!this.done) {
+            this.delegate.onNext(item);
+        }
+    }
+
+    @Override
+    public synchronized void onError(final Throwable throwable) {
+        if (this.finish()) {
+            this.delegate.onError(throwable);
+        }
+    }
+
+    @Override
+    public synchronized void onComplete() {
+        if (this.finish()) {
+            this.delegate.onComplete();
+        }
+    }
+
+    private synchronized void expire() {
+        if (!this.done) {
+            this.done = true;
+            this.subscription.cancel();
+            this.delegate.onError(new HttpTimeoutException(
+                    "Response body not received within " + this.deadline.toMillis() + " ms"));
+        }
+    }
+
+    /**
+     * Marks the body as terminated and stops the deadline.
+     *
+     * @return {@code false} if the body had already terminated
+     */
+    private boolean finish() {
+        if (this.done) {
+            return false;
+        }
+        this.done = true;
+        if (this.timeout != null) {
+            this.timeout.cancel(false);
+        }
+        return true;
+    }
+}
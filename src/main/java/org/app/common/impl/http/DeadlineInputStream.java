@@ -0,0 +1,131 @@
+package org.app.common.impl.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body that must be read, and closed, within a deadline.
+ *
+ * <p>When the deadline expires the underlying stream is closed and the thread blocked in a read, if
+ * any, is interrupted: closing alone does not wake a reader waiting for the next chunk of an
+ * {@link java.net.http.HttpClient} body. The interrupted read, and every later one, fails with an
+ * {@link HttpTimeoutException}; the interrupt status of the reader is cleared, since the interrupt
+ * was only the means to wake it up.
+ */
+final class DeadlineInputStream extends FilterInputStream {
+
+    private final Duration deadline;
+    private final ScheduledFuture<?> timeout;
+    /** Guards {@link #reader} and {@link #expired}, so that an interrupt never escapes a read. */
+    private final Object lock = new Object();
+    private Thread reader;
+    private boolean expired;
+
+    /**
+     * Wraps a body and starts its deadline.
+     *
+     * @param in the body to wrap
+     * @param deadline the time allowed to read the whole body
+     * @param timer the executor that enforces the deadline
+     */
+    DeadlineInputStream(final InputStream in, final Duration deadline, final ScheduledExecutorService timer) {
+        super(in);
+        this.deadline = deadline;
+        this.timeout = timer.schedule(this::expire, deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int read() throws IOException {
+        this.enter();
+        try {
+            return super.read();
+        } catch (final IOException e) {
+            throw this.failure(e);
+        } finally {
+            this.exit();
+        }
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        this.enter();
+        try {
+            return super.read(b, off, len);
+        } catch (final IOException e) {
+            throw this.failure(e);
+        } finally {
+            this.exit();
+        }
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        this.enter();
+        try {
+            return super.skip(n);
+        } catch (final IOException e) {
+            throw this.failure(e);
+        } finally {
+            this.exit();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.timeout.cancel(false);
+        super.close();
+    }
+
+    private void expire() {
+        synchronized (this.lock) {
+            this.expired = true;
+            try {
+                this.in.close();
+            } catch (final IOException ignored) { // NOPMD
+                // the reader fails anyway once woken up
+            }
+            if (this.reader != null) {
+                this.reader.interrupt();
+            }
+        }
+    }
+
+    private void enter() throws IOException {
+        synchronized (this.lock) {
+            if (this.expired) {
+                throw this.timedOut();
+            }
+            this.reader = Thread.currentThread();
+        }
+    }
+
+    private void exit() {
+        synchronized (this.lock) {
+            this.reader = null;
+            if (this.expired) {
+                Thread.interrupted(); // NOPMD
+            }
+        }
+    }
+
+    private IOException failure(final IOException e) {
+        synchronized (this.lock) {
+            if (!this.expired) {
+                return e;
+            }
+        }
+        final IOException timedOut = this.timedOut();
+        timedOut.initCause(e);
+        return timedOut;
+    }
+
+    private HttpTimeoutException timedOut() {
+        return new HttpTimeoutException("Response body not read within " + this.deadline.toMillis() + " ms");
+    }
+}
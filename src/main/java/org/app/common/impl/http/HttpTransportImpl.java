@@ -0,0 +1,335 @@
+package org.app.common.impl.http;
+
+import org.app.common.api.http.CircuitOpenException;
+import org.app.common.api.http.HttpStatusException;
+import org.app.common.api.http.HttpTransport;
+import org.app.common.api.resilience.CircuitBreaker;
+import org.app.common.impl.resilience.CircuitBreakerImpl;
+import org.app.common.impl.resilience.HedgedRequests;
+import org.app.common.impl.resilience.LatencyTracker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * {@link HttpTransport} backed by a single {@link HttpClient}.
+ *
+ * <p>The client negotiates HTTP/2 when the server supports it and falls back to HTTP/1.1 with
+ * keep-alive otherwise; in both cases connections are pooled per host and shared by all the
+ * requests issued through the same instance. Redirects are followed, except from HTTPS to HTTP.
+ *
+ * <p>Every host has its own {@link CircuitBreaker}: after repeated network errors or server-side
+ * statuses (5xx, 429) further requests to that host fail immediately with a
+ * {@link CircuitOpenException} until the host gets a chance to recover. Optionally, requests slower
+ * than the 95th percentile of the recent latencies of their host are hedged with a second identical
+ * request (see {@link HedgedRequests}).
+ *
+ * <p>The request timeout bounds both the arrival of the response headers and, counted again from
+ * then, the body: a text body not fully received in time fails with an
+ * {@link java.net.http.HttpTimeoutException}, and a stream returned by {@link #openStream(String)}
+ * or {@link #openStreamAsync(String)} that is still open when the timeout expires is closed, so its
+ * pending and later reads fail the same way. This way a server that stalls in the middle of a body
+ * cannot block the reader, or leave an asynchronous request pending, indefinitely.
+ *
+ * <p>The application-wide instance is returned by {@link #shared()}. Its timeouts can be tuned with
+ * the {@value #CONNECT_TIMEOUT_PROPERTY} and {@value #REQUEST_TIMEOUT_PROPERTY} system properties,
+ * expressed in milliseconds, and hedging is enabled by setting {@value #HEDGING_PROPERTY} to
+ * {@code true}.
+ */
+public final class HttpTransportImpl implements HttpTransport {
+
+    /** System property overriding the connect timeout of the shared instance, in milliseconds. */
+    public static final String CONNECT_TIMEOUT_PROPERTY = "app.http.connectTimeoutMillis";
+    /** System property overriding the request timeout of the shared instance, in milliseconds. */
+    public static final String REQUEST_TIMEOUT_PROPERTY = "app.http.requestTimeoutMillis";
+    /** System property enabling hedged requests in the shared instance. */
+    public static final String HEDGING_PROPERTY = "app.http.hedging";
+    /** Default time allowed to open a connection. */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    /** Default time allowed for the response headers to arrive, and then for a streamed body to be read. */
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    /** Default number of consecutive failures that opens the circuit of a host. */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    /** Default time a circuit stays open before a probe request is let through. */
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * Some of the scraped sites reject the default Java user agent, so a browser-like one is sent.
+     */
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/124.0 Safari/537.36";
+    private static final int FIRST_SUCCESS_STATUS = 200;
+    private static final int FIRST_REDIRECT_STATUS = 300;
+    private static final int FIRST_SERVER_ERROR_STATUS = 500;
+    private static final int TOO_MANY_REQUESTS_STATUS = 429;
+    private static final double HEDGING_PERCENTILE = 0.95;
+
+    private static final HttpTransport SHARED = new HttpTransportImpl(
+            Duration.ofMillis(Long.getLong(CONNECT_TIMEOUT_PROPERTY, DEFAULT_CONNECT_TIMEOUT.toMillis())),
+            Duration.ofMillis(Long.getLong(REQUEST_TIMEOUT_PROPERTY, DEFAULT_REQUEST_TIMEOUT.toMillis())),
+            DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION, Boolean.getBoolean(HEDGING_PROPERTY));
+
+    /** Enforces the body deadline of the responses of every instance. */
+    private static final ScheduledExecutorService BODY_TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = new Thread(r, "http-body-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final boolean hedging;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new transport with its own connection pool, the default circuit breaker settings
+     * and no hedging.
+     *
+     * @param connectTimeout the time allowed to open a connection
+     * @param requestTimeout the time allowed for the response headers to arrive once the request is sent,
+     *                       and then for a streamed body to be read
+     */
+    public HttpTransportImpl(final Duration connectTimeout, final Duration requestTimeout) {
+        this(connectTimeout, requestTimeout, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION, false);
+    }
+
+    /**
+     * Constructs a new transport with its own connection pool.
+     *
+     * @param connectTimeout the time allowed to open a connection
+     * @param requestTimeout the time allowed for the response headers to arrive once the request is sent,
+     *                       and then for a streamed body to be read
+     * @param failureThreshold the number of consecutive failures that opens the circuit of a host
+     * @param openDuration the time a circuit stays open before a probe request is let through
+     * @param hedging whether requests slower than the p95 latency of their host are hedged
+     */
+    public HttpTransportImpl(final Duration connectTimeout, final Duration requestTimeout,
+                             final int failureThreshold, final Duration openDuration, final boolean hedging) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.hedging = hedging;
+    }
+
+    /**
+     * Returns the transport shared by the whole application.
+     *
+     * @return the shared transport
+     */
+    public static HttpTransport shared() {
+        return SHARED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream openStream(final String url) throws IOException {
+        return this.withDeadline(this.send(url, HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getString(final String url) throws IOException {
+        return this.send(url, this.bounded(HttpResponse.BodyHandlers.ofString()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<InputStream> openStreamAsync(final String url) {
+        return this.sendAsync(url, HttpResponse.BodyHandlers.ofInputStream()).thenApply(this::withDeadline);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<String> getStringAsync(final String url) {
+        return this.sendAsync(url, this.bounded(HttpResponse.BodyHandlers.ofString()));
+    }
+
+    /**
+     * Returns the state of the circuit breaker of a host.
+     *
+     * @param host the host name
+     * @return the state of its circuit; {@link CircuitBreaker.State#CLOSED} if never contacted
+     */
+    public CircuitBreaker.State getCircuitState(final String host) {
+        return this.breakerOf(host).getState();
+    }
+
+    private InputStream withDeadline(final InputStream body) {
+        return new DeadlineInputStream(body, this.requestTimeout, BODY_TIMER);
+    }
+
+    private <T> HttpResponse.BodyHandler<T> bounded(final HttpResponse.BodyHandler<T> handler) {
+        return DeadlineBodySubscriber.bounded(handler, this.requestTimeout, BODY_TIMER);
+    }
+
+    private <T> T send(final String url, final HttpResponse.BodyHandler<T> handler) throws IOException {
+        if (this.hedging) {
+            return await(this.sendAsync(url, handler));
+        }
+        final HttpRequest request = this.newRequest(url);
+        final String host = request.uri().getHost();
+        final CircuitBreaker breaker = this.breakerOf(host);
+        if (!breaker.tryAcquire()) {
+            throw new CircuitOpenException(host);
+        }
+        final long start = System.nanoTime();
+        try {
+            return this.outcome(host, breaker, start, this.client.send(request, handler));
+        } catch (final HttpStatusException e) {
+            throw e;
+        } catch (final IOException e) {
+            breaker.onFailure();
+            throw e;
+        } catch (final InterruptedException e) {
+            breaker.onCancelled();
+            Thread.currentThread().interrupt();
+            final InterruptedIOException interrupted = new InterruptedIOException("HTTP request interrupted");
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+    }
+
+    private <T> CompletableFuture<T> sendAsync(final String url, final HttpResponse.BodyHandler<T> handler) {
+        final HttpRequest request;
+        try {
+            request = this.newRequest(url);
+        } catch (final IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        final Optional<Duration> budget = this.hedging
+                ? this.latencyOf(request.uri().getHost()).percentile(HEDGING_PERCENTILE)
+                : Optional.empty();
+        return budget.isPresent()
+                ? HedgedRequests.hedge(() -> this.attemptAsync(request, handler), budget.get(), HttpTransportImpl::release)
+                : this.attemptAsync(request, handler);
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(final HttpRequest request, final HttpResponse.BodyHandler<T> handler) {
+        final String host = request.uri().getHost();
+        final CircuitBreaker breaker = this.breakerOf(host);
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new CircuitOpenException(host));
+        }
+        final long start = System.nanoTime();
+        return this.client.sendAsync(request, handler).handle((response, error) -> {
+            if (error != null) {
+                breaker.onFailure();
+                throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+            }
+            try {
+                return this.outcome(host, breaker, start, response);
+            } catch (final HttpStatusException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Records the outcome of a response in the circuit breaker and the latency statistics of its host.
+     */
+    private <T> T outcome(final String host, final CircuitBreaker breaker, final long start,
+                          final HttpResponse<T> response) throws HttpStatusException {
+        final int status = response.statusCode();
+        if (status >= FIRST_SERVER_ERROR_STATUS || status == TOO_MANY_REQUESTS_STATUS) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+        final T body = body(response);
+        this.latencyOf(host).record(Duration.ofNanos(System.nanoTime() - start));
+        return body;
+    }
+
+    private CircuitBreaker breakerOf(final String host) {
+        return this.breakers.computeIfAbsent(String.valueOf(host),
+                h -> new CircuitBreakerImpl(this.failureThreshold, this.openDuration));
+    }
+
+    private LatencyTracker latencyOf(final String host) {
+        return this.latencies.computeIfAbsent(String.valueOf(host), h -> new LatencyTracker());
+    }
+
+    private HttpRequest newRequest(final String url) throws IOException {
+        try {
+            return HttpRequest.newBuilder(URI.create(url))
+                    .timeout(this.requestTimeout)
+                    .header("User-Agent", USER_AGENT)
+                    .GET()
+                    .build();
+        } catch (final IllegalArgumentException e) {
+            throw new IOException("Invalid URL", e);
+        }
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException interrupted = new InterruptedIOException("HTTP request interrupted");
+            interrupted.initCause(e);
+            throw interrupted;
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the body of a successful response. The body of a failed one is released so that the
+     * connection goes back to the pool.
+     */
+    private static <T> T body(final HttpResponse<T> response) throws HttpStatusException {
+        final int status = response.statusCode();
+        if (status < FIRST_SUCCESS_STATUS || status >= FIRST_REDIRECT_STATUS) {
+            release(response.body());
+            throw new HttpStatusException(status);
+        }
+        return response.body();
+    }
+
+    /**
+     * Releases a body that will not be read.
+     */
+    private static void release(final Object body) {
+        if (body instanceof InputStream stream) {
+            try {
+                stream.close();
+            } catch (final IOException ignored) { // NOPMD
+                // the connection is discarded instead of being reused
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.app.common.impl.resilience;
+
+import org.app.common.api.resilience.CircuitBreaker;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link CircuitBreaker} that opens after a number of consecutive failures.
+ *
+ * <p>Instances are thread-safe.
+ */
+public final class CircuitBreakerImpl implements CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    /* guarded by this */
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    /**
+     * Constructs a new closed breaker.
+     *
+     * @param failureThreshold the number of consecutive failures that opens the circuit
+     * @param openDuration how long the circuit stays open before a probe call is allowed
+     * @throws IllegalArgumentException if {@code failureThreshold} is not positive
+     */
+    public CircuitBreakerImpl(final int failureThreshold, final Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    /**
+     * Constructs a new closed breaker reading the time from the given clock, in nanoseconds.
+     */
+    CircuitBreakerImpl(final int failureThreshold, final Duration openDuration, final LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("The failure threshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean tryAcquire() {
+        if (this.state == State.OPEN && this.clock.getAsLong() - this.openedAt >= this.openNanos) {
+            this.state = State.HALF_OPEN;
+            this.probeInFlight = false;
+        }
+        return switch (this.state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> {
+                final boolean granted = !this.probeInFlight;
+                this.probeInFlight = true;
+                yield granted;
+            }
+            default -> false;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void onSuccess() {
+        this.consecutiveFailures = 0;
+        this.probeInFlight = false;
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void onFailure() {
+        this.consecutiveFailures++;
+        this.probeInFlight = false;
+        if (this.state == State.HALF_OPEN || this.consecutiveFailures >= this.failureThreshold) {
+            this.state = State.OPEN;
+            this.openedAt = this.clock.getAsLong();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void onCancelled() {
+        this.probeInFlight = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized State getState() {
+        return this.state;
+    }
+}
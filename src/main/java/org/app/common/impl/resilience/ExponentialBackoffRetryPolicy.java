@@ -0,0 +1,137 @@
+package org.app.common.impl.resilience;
+
+import org.app.common.api.resilience.RetryPolicy;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+/**
+ * {@link RetryPolicy} with exponential backoff and full jitter.
+ *
+ * <p>Before retry {@code n} the policy waits a random time between zero and
+ * {@code min(maxDelay, baseDelay * 2^(n-1))}. The randomness spreads the retries of many clients
+ * over time, so that they do not hit a recovering endpoint all at once.
+ */
+public final class ExponentialBackoffRetryPolicy implements RetryPolicy {
+
+    /** Maximum exponent applied to the base delay, which keeps the computation from overflowing. */
+    private static final int MAX_EXPONENT = 30;
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final DoubleSupplier random;
+    private final Sleeper sleeper;
+
+    /**
+     * Constructs a new policy.
+     *
+     * @param maxAttempts the maximum number of attempts, including the first one
+     * @param baseDelay the upper bound of the wait before the first retry
+     * @param maxDelay the upper bound of any wait
+     * @throws IllegalArgumentException if {@code maxAttempts} is not positive or a delay is negative
+     */
+    public ExponentialBackoffRetryPolicy(final int maxAttempts, final Duration baseDelay, final Duration maxDelay) {
+        this(maxAttempts, baseDelay, maxDelay, () -> ThreadLocalRandom.current().nextDouble(), Thread::sleep);
+    }
+
+    /**
+     * Constructs a new policy with the given sources of randomness and of waiting.
+     */
+    ExponentialBackoffRetryPolicy(final int maxAttempts, final Duration baseDelay, final Duration maxDelay,
+                                  final DoubleSupplier random, final Sleeper sleeper) {
+        if (maxAttempts < 1 || baseDelay.isNegative() || maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Invalid retry policy parameters");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.random = random;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Duration delayBefore(final int retry) {
+        final long exponential = this.baseDelay.toMillis() << Math.min(Math.max(retry - 1, 0), MAX_EXPONENT);
+        final long ceiling = Math.min(this.maxDelay.toMillis(), exponential < 0 ? Long.MAX_VALUE : exponential);
+        return Duration.ofMillis((long) (this.random.getAsDouble() * ceiling));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean run(final BooleanSupplier attempt) {
+        for (int i = 0; i < this.maxAttempts; i++) {
+            if (i > 0 && !this.pause(i)) {
+                return false;
+            }
+            if (attempt.getAsBoolean()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T call(final Callable<T> action) throws Exception { // NOPMD
+        for (int i = 0;; i++) {
+            try {
+                return action.call();
+            } catch (final Exception e) { // NOPMD
+                if (i + 1 >= this.maxAttempts || !RetryPolicy.isRetryable(e) || !this.pause(i + 1)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits before the given retry.
+     *
+     * @return {@code false} if the thread was interrupted, whose interrupt status is restored
+     */
+    private boolean pause(final int retry) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        try {
+            this.sleeper.sleep(this.delayBefore(retry).toMillis());
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Blocks the calling thread; replaced in tests to avoid real waits.
+     */
+    @FunctionalInterface
+    interface Sleeper {
+        /**
+         * Waits for the given time.
+         *
+         * @param millis the time to wait, in milliseconds
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        void sleep(long millis) throws InterruptedException;
+    }
+}
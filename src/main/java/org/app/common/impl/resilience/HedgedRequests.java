@@ -0,0 +1,53 @@
+package org.app.common.impl.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests: when a request is slower than a latency budget, an identical second request is
+ * sent and the first successful response wins. This bounds the tail latency caused by a single slow
+ * connection or server at the cost of a few duplicate requests, so it must only be used for
+ * idempotent requests.
+ */
+public final class HedgedRequests {
+
+    private HedgedRequests() {
+    }
+
+    /**
+     * Sends a request and, if it has not completed within the budget, a second identical one.
+     *
+     * @param request the supplier of the request; invoked once or twice
+     * @param budget the time after which the second request is sent
+     * @param discard receives the response that arrives second, e.g. to release its resources
+     * @param <T> the type of the response
+     * @return a future completed with the first successful response, or with the error of the last
+     *         request if none succeeds
+     */
+    public static <T> CompletableFuture<T> hedge(final Supplier<CompletableFuture<T>> request,
+                                                 final Duration budget, final Consumer<? super T> discard) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger inFlight = new AtomicInteger(1);
+        final BiConsumer<T, Throwable> onComplete = (value, error) -> {
+            if (error == null) {
+                if (!result.complete(value)) {
+                    discard.accept(value);
+                }
+            } else if (inFlight.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        };
+        request.get().whenComplete(onComplete);
+        CompletableFuture.delayedExecutor(budget.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (!result.isDone() && inFlight.getAndIncrement() > 0) {
+                request.get().whenComplete(onComplete);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package org.app.common.impl.resilience;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Keeps the latencies of the most recent calls towards an endpoint and computes their percentiles,
+ * which are used as the latency budget of hedged requests.
+ *
+ * <p>Instances are thread-safe.
+ */
+public final class LatencyTracker {
+
+    /** Number of samples kept; older ones are overwritten. */
+    public static final int WINDOW = 64;
+    /** Minimum number of samples before percentiles are reported. */
+    public static final int MIN_SAMPLES = 20;
+
+    /* guarded by this */
+    private final long[] samples = new long[WINDOW];
+    private int next;
+    private int count;
+
+    /**
+     * Records the latency of a completed call.
+     *
+     * @param latency the time the call took
+     */
+    public synchronized void record(final Duration latency) {
+        this.samples[this.next] = latency.toNanos();
+        this.next = (this.next + 1) % WINDOW;
+        this.count = Math.min(this.count + 1, WINDOW);
+    }
+
+    /**
+     * Returns the given percentile of the recorded latencies.
+     *
+     * @param percentile the percentile, between 0 (exclusive) and 1 (inclusive), e.g. 0.95
+     * @return the percentile, or {@link Optional#empty()} if fewer than {@value #MIN_SAMPLES} calls
+     *         were recorded
+     */
+    public Optional<Duration> percentile(final double percentile) {
+        final long[] sorted;
+        synchronized (this) {
+            if (this.count < MIN_SAMPLES) {
+                return Optional.empty();
+            }
+            sorted = Arrays.copyOf(this.samples, this.count);
+        }
+        Arrays.sort(sorted);
+        final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return Optional.of(Duration.ofNanos(sorted[Math.max(0, Math.min(index, sorted.length - 1))]));
+    }
+}
@@ -0,0 +1,73 @@
+package org.app.common.impl.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.app.travelmode.model.google.dto.GoogleDtoTypeAdapters;
+import org.app.travelmode.model.google.dto.directions.DirectionsResponse;
+import org.app.travelmode.model.google.dto.placeautocomplete.PlaceAutocompleteResponse;
+
+/**
+ * Owner of the JSON mappers shared by the whole application.
+ *
+ * <p>Both {@link Gson} and {@link ObjectMapper} are thread-safe once configured, while building
+ * them is expensive: Jackson scans the classpath for modules and both libraries resolve their
+ * adapters or serializers on first use. The instances returned here are built once, with the
+ * hand-written {@link GoogleDtoTypeAdapters} registered, and warmed up for the response types read
+ * on every request. {@link #projectedGson()} binds the Directions responses with only the fields
+ * needed by the route analysis.
+ */
+public final class Serializers {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new GoogleDtoTypeAdapters())
+            .create();
+
+    private static final Gson PROJECTED_GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(GoogleDtoTypeAdapters.projected())
+            .create();
+
+    private static final ObjectMapper JACKSON = new ObjectMapper()
+            .registerModule(new Jdk8Module())
+            .findAndRegisterModules();
+
+    static {
+        GSON.getAdapter(DirectionsResponse.class);
+        GSON.getAdapter(PlaceAutocompleteResponse.class);
+        PROJECTED_GSON.getAdapter(DirectionsResponse.class);
+    }
+
+    private Serializers() {
+    }
+
+    /**
+     * Returns the shared Gson instance.
+     *
+     * @return the shared {@link Gson}
+     */
+    public static Gson gson() {
+        return GSON;
+    }
+
+    /**
+     * Returns the shared Gson instance that binds the Google DTOs in projected mode (see
+     * {@link GoogleDtoTypeAdapters#projected()}).
+     *
+     * @return the shared projected {@link Gson}
+     */
+    public static Gson projectedGson() {
+        return PROJECTED_GSON;
+    }
+
+    /**
+     * Returns the shared Jackson mapper. It must not be reconfigured: derive
+     * {@link com.fasterxml.jackson.databind.ObjectReader ObjectReader}s and
+     * {@link com.fasterxml.jackson.databind.ObjectWriter ObjectWriter}s from it instead.
+     *
+     * @return the shared {@link ObjectMapper}
+     */
+    public static ObjectMapper jackson() {
+        return JACKSON;
+    }
+}
@@ -4,11 +4,13 @@ import java.io.File;
 import java.io.IOException;
 import java.util.logging.Logger;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import org.app.common.impl.serialization.Serializers;
+
 /**
  * <h2>ConfigManager</h2>
  * <p>Singleton <em>utility class</em> responsabile del <strong>lifecycle</strong>
@@ -30,26 +32,21 @@ public final class ConfigManager {
     private static AppConfig config;
 
     /**
-     * <p>Singleton di {@link ObjectMapper} predisposto al supporto di:</p>
-     * <ul>
-     *   <li>{@link Jdk8Module} – serializzazione/deserializzazione di
-     *       {@link java.util.Optional};</li>
-     *   <li><code>findAndRegisterModules()</code> – auto-registrazione di moduli
-     *       presenti sul classpath (Java Time, Kotlin, etc.).</li>
-     * </ul>
+     * <p>Reader e writer derivati una sola volta dal mapper condiviso
+     * {@link Serializers#jackson()}, già configurato con il supporto a
+     * {@link java.util.Optional} e con i moduli presenti sul classpath.
+     * Entrambi sono immutabili e thread-safe.</p>
      */
-    private static final ObjectMapper MAPPER = new ObjectMapper()
-        .registerModule(new Jdk8Module())
-        .findAndRegisterModules();
+    private static final ObjectReader READER = Serializers.jackson().readerFor(AppConfig.class);
+    private static final ObjectWriter WRITER = Serializers.jackson().writerWithDefaultPrettyPrinter();
 
     /** Impedisce l’instanziazione accidentale. */
     private ConfigManager() { }
 
     /**
      * Carica il file di configurazione nel contesto statico.
-     * <p>Viene usato un nuovo <code>ObjectMapper</code> “fresco” per evitare
-     * side‑effect di configurazioni custom sull’istanza statica
-     * {@link #MAPPER} destinata al salvataggio.</p>
+     * <p>Il {@link ObjectReader} usato è immutabile, quindi non risente di
+     * configurazioni applicate altrove al mapper condiviso.</p>
      *
      * @param filePath percorso del file JSON/YAML da leggere.
      * @throws RuntimeException se il file non è leggibile o il parsing fallisce.
@@ -59,9 +56,8 @@ public final class ConfigManager {
         justification = "Intentionally signalling fatal error to be handled at a higher level"
     )
     public static void loadConfig(final String filePath) {
-        final ObjectMapper localMapper = new ObjectMapper().findAndRegisterModules();
         try {
-            config = localMapper.readValue(new File(filePath), AppConfig.class);
+            config = READER.readValue(new File(filePath));
             LOG.fine("Configuration loaded successfully.");
         } catch (final IOException e) { // NOPMD suppressed as it is a false positive
             throw new RuntimeException("ERROR! File cannot be loaded.", e); // NOPMD
@@ -95,7 +91,7 @@ public final class ConfigManager {
     )
     public static void saveConfig(final String filePath) {
         try {
-            MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(filePath), config);
+            WRITER.writeValue(new File(filePath), config);
             LOG.fine("Configuration saved successfully.");
         } catch (final IOException e) { // NOPMD suppressed as it is a false positive
             throw new RuntimeException("ERROR! Save unsuccessful", e); // NOPMD
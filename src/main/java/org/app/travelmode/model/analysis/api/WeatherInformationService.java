@@ -4,6 +4,8 @@ import org.app.travelmode.model.checkpoint.api.Checkpoint;
 import org.app.travelmode.model.checkpoint.api.CheckpointWithMeteo;
 import org.app.travelmode.model.exception.WeatherDataException;
 
+import java.util.List;
+
 /**
  * Service interface for enriching a travel checkpoint with weather information.
  * Provides functionality to add weather data to a route checkpoint for travel planning
@@ -26,4 +28,13 @@ public interface WeatherInformationService {
      * @throws WeatherDataException if an error occurs while receiving weather information.
      */
     CheckpointWithMeteo enrichWithWeather(Checkpoint checkpoint) throws WeatherDataException;
+
+    /**
+     * Enriches all the given checkpoints with weather data, retrieving it with as few requests as possible.
+     *
+     * @param checkpoints the checkpoints to enrich
+     * @return the enriched checkpoints, in the same order as {@code checkpoints}
+     * @throws WeatherDataException if an error occurs while receiving weather information for any checkpoint.
+     */
+    List<CheckpointWithMeteo> enrichWithWeather(List<Checkpoint> checkpoints) throws WeatherDataException;
 }
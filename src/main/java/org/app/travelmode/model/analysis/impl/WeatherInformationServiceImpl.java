@@ -1,6 +1,8 @@
 package org.app.travelmode.model.analysis.impl;
 
 import org.app.common.api.weather.WeatherDataProvider;
+import org.app.common.api.weather.WeatherFetchException;
+import org.app.common.api.weather.WeatherQuery;
 import org.app.travelmode.model.analysis.api.WeatherInformationService;
 import org.app.travelmode.model.checkpoint.api.Checkpoint;
 import org.app.travelmode.model.checkpoint.api.CheckpointWithMeteo;
@@ -11,10 +13,12 @@ import org.app.travelmode.model.weather.api.WeatherConditionFactory;
 import org.app.travelmode.model.weather.api.WeatherReport;
 import org.app.travelmode.model.weather.impl.WeatherReportImpl;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link WeatherInformationService} that enriches checkpoints with weather information.
@@ -42,30 +46,62 @@ public class WeatherInformationServiceImpl implements WeatherInformationService
      */
     @Override
     public CheckpointWithMeteo enrichWithWeather(final Checkpoint checkpoint) throws WeatherDataException {
+        return enrichWithWeather(List.of(checkpoint)).get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>All the checkpoints are sent to the {@link WeatherDataProvider} in a single batch. If the
+     * weather data of some of them could not be downloaded, the exception lists those checkpoints.
+     */
+    @Override
+    public List<CheckpointWithMeteo> enrichWithWeather(final List<Checkpoint> checkpoints) throws WeatherDataException {
+        final List<WeatherQuery> queries = new ArrayList<>(checkpoints.size());
+        for (final Checkpoint checkpoint : checkpoints) {
+            queries.add(new WeatherQuery(checkpoint.getLatitude(), checkpoint.getLongitude(),
+                    checkpoint.getArrivalDateTime().toLocalDateTime()));
+        }
+        final List<Optional<Map<String, Number>>> weatherInformation;
         try {
-            final Map<String, Number> weatherInformation = getWeatherInfo(checkpoint);
-            final WeatherReport weatherReport = createWeatherReport(weatherInformation);
-            return new CheckpointWithMeteoImpl(checkpoint, weatherReport);
-        } catch (final IllegalArgumentException e) {
-            throw new WeatherDataException(
-                    String.format("Non è stato possibile ottenere tutte le informazioni meteo necessarie "
-                                    + "per il checkpoint %f, %f, o alcune di esse non sono realistiche.",
-                            +checkpoint.getLatitude(), checkpoint.getLongitude()), e);
+            weatherInformation = this.weatherDataProvider.getWeatherInfo(queries);
+        } catch (final WeatherFetchException e) {
+            throw new WeatherDataException("Impossibile scaricare le informazioni meteo per i checkpoint: "
+                    + e.getFailedQueries().stream()
+                            .map(i -> checkpoints.get(i).getLatitude() + "," + checkpoints.get(i).getLongitude())
+                            .collect(Collectors.joining("; ")), e);
+        }
+
+        final List<CheckpointWithMeteo> enriched = new ArrayList<>(checkpoints.size());
+        for (int i = 0; i < checkpoints.size(); i++) {
+            enriched.add(enrich(checkpoints.get(i), weatherInformation.get(i)));
         }
+        return enriched;
     }
 
     /**
-     * Retrieves weather information for a specific checkpoint and time.
+     * Combines a checkpoint with the weather information retrieved for it.
      *
-     * @param checkpoint the checkpoint to get weather information for
-     * @return a map containing various weather measurements
-     * @throws WeatherDataException if it isn't possible to get weather information for the provided {@link Checkpoint}.
+     * @param checkpoint         the checkpoint to enrich
+     * @param weatherInformation the weather information for the checkpoint, if available
+     * @return the enriched checkpoint
+     * @throws WeatherDataException if the weather information is missing, incomplete or unrealistic.
      */
-    private Map<String, Number> getWeatherInfo(final Checkpoint checkpoint) throws WeatherDataException {
-        final LocalDateTime arrivalTime = checkpoint.getArrivalDateTime().toLocalDateTime();
-        return this.weatherDataProvider.getWeatherInfo(checkpoint.getLatitude(), checkpoint.getLongitude(), arrivalTime)
+    private CheckpointWithMeteo enrich(final Checkpoint checkpoint,
+                                       final Optional<Map<String, Number>> weatherInformation)
+            throws WeatherDataException {
+        final Map<String, Number> information = weatherInformation
                 .orElseThrow(() -> new WeatherDataException("Impossibile ottenere le informazioni meteo per il checkpoint: "
                         + checkpoint.getLatitude() + "," + checkpoint.getLongitude()));
+        try {
+            final WeatherReport weatherReport = createWeatherReport(information);
+            return new CheckpointWithMeteoImpl(checkpoint, weatherReport);
+        } catch (final IllegalArgumentException e) {
+            throw new WeatherDataException(
+                    String.format("Non è stato possibile ottenere tutte le informazioni meteo necessarie "
+                                    + "per il checkpoint %f, %f, o alcune di esse non sono realistiche.",
+                            +checkpoint.getLatitude(), checkpoint.getLongitude()), e);
+        }
     }
 
     /**
@@ -0,0 +1,542 @@
+package org.app.travelmode.model.google.dto;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.app.travelmode.model.google.dto.directions.DirectionsLeg;
+import org.app.travelmode.model.google.dto.directions.DirectionsPolyline;
+import org.app.travelmode.model.google.dto.directions.DirectionsResponse;
+import org.app.travelmode.model.google.dto.directions.DirectionsRoute;
+import org.app.travelmode.model.google.dto.directions.DirectionsStep;
+import org.app.travelmode.model.google.dto.directions.LatLng;
+import org.app.travelmode.model.google.dto.directions.TextValueObject;
+import org.app.travelmode.model.google.dto.placeautocomplete.PlaceAutocompletePrediction;
+import org.app.travelmode.model.google.dto.placeautocomplete.PlaceAutocompletePrediction.PlaceAutocompleteStructuredFormat;
+import org.app.travelmode.model.google.dto.placeautocomplete.PlaceAutocompleteResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written Gson {@link TypeAdapter}s for the Google API DTOs.
+ *
+ * <p>The adapters read the JSON with the streaming API and build the DTOs through their
+ * constructors, so no reflection is involved and fields that the application does not use
+ * (e.g. {@code html_instructions}, {@code maneuver}) are skipped without being materialized.
+ * Missing lists are read as empty lists, missing objects and strings as {@code null}.
+ *
+ * <p>The {@link #projected()} variant also skips, at the token level, the Directions fields that
+ * the route analysis never reads: route bounds, leg addresses and traffic duration, step travel
+ * mode and the display texts of distances and durations. They are left {@code null}; legs, steps
+ * with their distance, duration, locations and polyline, the summary and the overview polyline are
+ * bound as usual.
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class GoogleDtoTypeAdapters implements TypeAdapterFactory {
+
+    private final boolean projected;
+
+    private final TypeAdapter<TextValueObject> textValueAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final TextValueObject value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject().name("text").value(value.getText()).name("value").value(value.getValue()).endObject();
+        }
+
+        @Override
+        public TextValueObject read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            String text = null;
+            double value = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "text" -> text = projected ? skip(in) : nextString(in);
+                    case "value" -> value = in.nextDouble();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new TextValueObject(text, value);
+        }
+    };
+
+    private final TypeAdapter<LatLng> latLngAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final LatLng value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject().name("lat").value(value.getLat()).name("lng").value(value.getLng()).endObject();
+        }
+
+        @Override
+        public LatLng read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            double lat = 0;
+            double lng = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "lat" -> lat = in.nextDouble();
+                    case "lng" -> lng = in.nextDouble();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new LatLng(lat, lng);
+        }
+    };
+
+    private final TypeAdapter<DirectionsPolyline> polylineAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final DirectionsPolyline value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject().name("points").value(value.getPoints()).endObject();
+        }
+
+        @Override
+        public DirectionsPolyline read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            String points = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("points".equals(in.nextName())) {
+                    points = nextString(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DirectionsPolyline(points);
+        }
+    };
+
+    private final TypeAdapter<DirectionsStep> stepAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final DirectionsStep value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("duration");
+            textValueAdapter.write(out, value.getDuration());
+            out.name("end_location");
+            latLngAdapter.write(out, value.getEndLocation());
+            out.name("start_location");
+            latLngAdapter.write(out, value.getStartLocation());
+            out.name("distance");
+            textValueAdapter.write(out, value.getDistance());
+            out.name("travel_mode").value(value.getTravelMode());
+            out.name("polyline");
+            polylineAdapter.write(out, value.getPolyline());
+            out.endObject();
+        }
+
+        @Override
+        public DirectionsStep read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            TextValueObject duration = null;
+            LatLng endLocation = null;
+            LatLng startLocation = null;
+            TextValueObject distance = null;
+            String travelMode = null;
+            DirectionsPolyline polyline = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "duration" -> duration = textValueAdapter.read(in);
+                    case "end_location" -> endLocation = latLngAdapter.read(in);
+                    case "start_location" -> startLocation = latLngAdapter.read(in);
+                    case "distance" -> distance = textValueAdapter.read(in);
+                    case "travel_mode" -> travelMode = projected ? skip(in) : nextString(in);
+                    case "polyline" -> polyline = polylineAdapter.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DirectionsStep(duration, endLocation, startLocation, distance, travelMode, polyline);
+        }
+    };
+
+    private final TypeAdapter<DirectionsLeg> legAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final DirectionsLeg value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("end_address").value(value.getEndAddress());
+            out.name("end_location");
+            latLngAdapter.write(out, value.getEndLocation());
+            out.name("start_address").value(value.getStartAddress());
+            out.name("start_location");
+            latLngAdapter.write(out, value.getStartLocation());
+            out.name("steps");
+            writeList(out, value.getSteps(), stepAdapter);
+            out.name("distance");
+            textValueAdapter.write(out, value.getDistance());
+            out.name("duration");
+            textValueAdapter.write(out, value.getDuration());
+            out.name("duration_in_traffic");
+            textValueAdapter.write(out, value.getDurationInTraffic());
+            out.endObject();
+        }
+
+        @Override
+        public DirectionsLeg read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            String endAddress = null;
+            LatLng endLocation = null;
+            String startAddress = null;
+            LatLng startLocation = null;
+            List<DirectionsStep> steps = List.of();
+            TextValueObject distance = null;
+            TextValueObject duration = null;
+            TextValueObject durationInTraffic = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "end_address" -> endAddress = projected ? skip(in) : nextString(in);
+                    case "end_location" -> endLocation = latLngAdapter.read(in);
+                    case "start_address" -> startAddress = projected ? skip(in) : nextString(in);
+                    case "start_location" -> startLocation = latLngAdapter.read(in);
+                    case "steps" -> steps = readList(in, stepAdapter);
+                    case "distance" -> distance = textValueAdapter.read(in);
+                    case "duration" -> duration = textValueAdapter.read(in);
+                    case "duration_in_traffic" -> durationInTraffic = projected ? skip(in) : textValueAdapter.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DirectionsLeg(endAddress, endLocation, startAddress, startLocation, steps,
+                    distance, duration, durationInTraffic);
+        }
+    };
+
+    private final TypeAdapter<DirectionsRoute.Bounds> boundsAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final DirectionsRoute.Bounds value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("northeast");
+            latLngAdapter.write(out, value.getNortheast());
+            out.name("southwest");
+            latLngAdapter.write(out, value.getSouthwest());
+            out.endObject();
+        }
+
+        @Override
+        public DirectionsRoute.Bounds read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            LatLng northeast = null;
+            LatLng southwest = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "northeast" -> northeast = latLngAdapter.read(in);
+                    case "southwest" -> southwest = latLngAdapter.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DirectionsRoute.Bounds(northeast, southwest);
+        }
+    };
+
+    private final TypeAdapter<DirectionsRoute> routeAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final DirectionsRoute value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("bounds");
+            boundsAdapter.write(out, value.getBounds());
+            out.name("legs");
+            writeList(out, value.getLegs(), legAdapter);
+            out.name("overview_polyline");
+            polylineAdapter.write(out, value.getOverviewPolyline());
+            out.name("summary").value(value.getSummary());
+            out.endObject();
+        }
+
+        @Override
+        public DirectionsRoute read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            DirectionsRoute.Bounds bounds = null;
+            List<DirectionsLeg> legs = List.of();
+            DirectionsPolyline overviewPolyline = null;
+            String summary = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "bounds" -> bounds = projected ? skip(in) : boundsAdapter.read(in);
+                    case "legs" -> legs = readList(in, legAdapter);
+                    case "overview_polyline" -> overviewPolyline = polylineAdapter.read(in);
+                    case "summary" -> summary = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DirectionsRoute(bounds, legs, overviewPolyline, summary);
+        }
+    };
+
+    private final TypeAdapter<DirectionsResponse> directionsAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final DirectionsResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("routes");
+            writeList(out, value.getRoutes(), routeAdapter);
+            out.name("status").value(value.getStatus());
+            if (!value.getErrorMessage().isEmpty()) {
+                out.name("error_message").value(value.getErrorMessage());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public DirectionsResponse read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            List<DirectionsRoute> routes = List.of();
+            String status = null;
+            String errorMessage = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "routes" -> routes = readList(in, routeAdapter);
+                    case "status" -> status = nextString(in);
+                    case "error_message" -> errorMessage = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DirectionsResponse(status, routes, errorMessage);
+        }
+    };
+
+    private final TypeAdapter<PlaceAutocompleteStructuredFormat> structuredFormatAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final PlaceAutocompleteStructuredFormat value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject()
+                    .name("main_text").value(value.getMainText())
+                    .name("secondary_text").value(value.getSecondaryText())
+                    .endObject();
+        }
+
+        @Override
+        public PlaceAutocompleteStructuredFormat read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            String mainText = null;
+            String secondaryText = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "main_text" -> mainText = nextString(in);
+                    case "secondary_text" -> secondaryText = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new PlaceAutocompleteStructuredFormat(mainText, secondaryText);
+        }
+    };
+
+    private final TypeAdapter<PlaceAutocompletePrediction> predictionAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final PlaceAutocompletePrediction value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("description").value(value.getDescription());
+            out.name("structured_formatting");
+            structuredFormatAdapter.write(out, value.getStructuredFormatting());
+            out.name("place_id").value(value.getPlaceId());
+            out.endObject();
+        }
+
+        @Override
+        public PlaceAutocompletePrediction read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            String description = null;
+            PlaceAutocompleteStructuredFormat structuredFormatting = null;
+            String placeId = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "description" -> description = nextString(in);
+                    case "structured_formatting" -> structuredFormatting = structuredFormatAdapter.read(in);
+                    case "place_id" -> placeId = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new PlaceAutocompletePrediction(description, structuredFormatting, placeId);
+        }
+    };
+
+    private final TypeAdapter<PlaceAutocompleteResponse> predictionsAdapter = new TypeAdapter<>() {
+        @Override
+        public void write(final JsonWriter out, final PlaceAutocompleteResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("predictions");
+            writeList(out, value.getPredictions(), predictionAdapter);
+            out.name("status").value(value.getStatus());
+            out.endObject();
+        }
+
+        @Override
+        public PlaceAutocompleteResponse read(final JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            List<PlaceAutocompletePrediction> predictions = List.of();
+            String status = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "predictions" -> predictions = readList(in, predictionAdapter);
+                    case "status" -> status = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new PlaceAutocompleteResponse(predictions, status);
+        }
+    };
+
+    private final Map<Class<?>, TypeAdapter<?>> adapters = Map.ofEntries(
+            Map.entry(TextValueObject.class, textValueAdapter),
+            Map.entry(LatLng.class, latLngAdapter),
+            Map.entry(DirectionsPolyline.class, polylineAdapter),
+            Map.entry(DirectionsStep.class, stepAdapter),
+            Map.entry(DirectionsLeg.class, legAdapter),
+            Map.entry(DirectionsRoute.Bounds.class, boundsAdapter),
+            Map.entry(DirectionsRoute.class, routeAdapter),
+            Map.entry(DirectionsResponse.class, directionsAdapter),
+            Map.entry(PlaceAutocompleteStructuredFormat.class, structuredFormatAdapter),
+            Map.entry(PlaceAutocompletePrediction.class, predictionAdapter),
+            Map.entry(PlaceAutocompleteResponse.class, predictionsAdapter));
+
+    /**
+     * Constructs a factory binding every field of the DTOs.
+     */
+    public GoogleDtoTypeAdapters() {
+        this(false);
+    }
+
+    private GoogleDtoTypeAdapters(final boolean projected) {
+        this.projected = projected;
+    }
+
+    /**
+     * Returns a factory that binds only the Directions fields used by the route analysis.
+     *
+     * @return the projected factory
+     */
+    public static GoogleDtoTypeAdapters projected() {
+        return new GoogleDtoTypeAdapters(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+        return (TypeAdapter<T>) this.adapters.get(type.getRawType());
+    }
+
+    private static boolean skipNull(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    private static <T> T skip(final JsonReader in) throws IOException {
+        in.skipValue();
+        return null;
+    }
+
+    private static String nextString(final JsonReader in) throws IOException {
+        return skipNull(in) ? null : in.nextString();
+    }
+
+    private static <E> List<E> readList(final JsonReader in, final TypeAdapter<E> element) throws IOException {
+        if (skipNull(in)) {
+            return List.of();
+        }
+        final List<E> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(element.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    private static <E> void writeList(final JsonWriter out, final List<E> list, final TypeAdapter<E> element)
+            throws IOException {
+        out.beginArray();
+        for (final E value : list) {
+            element.write(out, value);
+        }
+        out.endArray();
+    }
+}
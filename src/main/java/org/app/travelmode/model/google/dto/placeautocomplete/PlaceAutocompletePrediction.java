@@ -1,7 +1,5 @@
 package org.app.travelmode.model.google.dto.placeautocomplete;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-
 /**
  * {@code PlaceAutocompletePrediction} represents a single autocomplete suggestion
  * returned by a place search or geocoding service.
@@ -11,24 +9,28 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  * </p>
  *
  */
-@SuppressFBWarnings(
-        value = "UWF_UNWRITTEN_FIELD",
-        justification = "Field populated via Gson reflection during JSON deserialization"
-)
 @SuppressWarnings("PMD.FieldNamingConventions")
 public class PlaceAutocompletePrediction {
     // CHECKSTYLE: MemberName OFF
-    // Fields used by Gson: names must match exactly the received JSON
-    private String description;
-    private PlaceAutocompleteStructuredFormat structured_formatting;
-    private String place_id;
+    // Field names match the received JSON
+    private final String description;
+    private final PlaceAutocompleteStructuredFormat structured_formatting;
+    private final String place_id;
     // CHECKSTYLE: MemberName OFF
 
     /**
-     * Constructs an empty {@code PlaceAutocompletePrediction}.
+     * Constructs a new {@code PlaceAutocompletePrediction}.
+     *
+     * @param description          the full description of the place
+     * @param structuredFormatting the main and secondary texts of the place
+     * @param placeId              the unique identifier of the place
      */
-    public PlaceAutocompletePrediction() {
-        // This constructor is intentionally empty. Nothing special is needed here.
+    public PlaceAutocompletePrediction(final String description,
+                                       final PlaceAutocompleteStructuredFormat structuredFormatting,
+                                       final String placeId) {
+        this.description = description;
+        this.structured_formatting = structuredFormatting;
+        this.place_id = placeId;
     }
 
     /**
@@ -78,23 +80,23 @@ public class PlaceAutocompletePrediction {
      * (e.g., main: "Milan", secondary: "Italy").
      * </p>
      */
-    @SuppressFBWarnings(
-            value = "UWF_UNWRITTEN_FIELD",
-            justification = "Field populated via Gson reflection during JSON deserialization"
-    )
     @SuppressWarnings("PMD.FieldNamingConventions")
     public static class PlaceAutocompleteStructuredFormat {
         // CHECKSTYLE: MemberName OFF
-        // Fields used by Gson: names must match exactly the received JSON
-        private String main_text;
-        private String secondary_text;
+        // Field names match the received JSON
+        private final String main_text;
+        private final String secondary_text;
         // CHECKSTYLE: MemberName OFF
 
         /**
-         * Constructs an empty {@code PlaceAutocompleteStructuredFormat}.
+         * Constructs a new {@code PlaceAutocompleteStructuredFormat}.
+         *
+         * @param mainText      the main label of the suggestion
+         * @param secondaryText the supporting context of the suggestion
          */
-        public PlaceAutocompleteStructuredFormat() {
-            // This constructor is intentionally empty. Nothing special is needed here.
+        public PlaceAutocompleteStructuredFormat(final String mainText, final String secondaryText) {
+            this.main_text = mainText;
+            this.secondary_text = secondaryText;
         }
 
         /**
@@ -1,8 +1,7 @@
 package org.app.travelmode.model.google.dto.placeautocomplete;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-
 import java.util.List;
+import java.util.Objects;
 
 /**
  * {@code PlaceAutocompleteResponse} represents the response from a place autocomplete API.
@@ -14,20 +13,20 @@ import java.util.List;
  * <p>This class is typically used as a data model when parsing JSON responses
  * from location-based autocomplete services.</p>
  */
-@SuppressFBWarnings(
-        value = "UWF_UNWRITTEN_FIELD",
-        justification = "Field populated via Gson reflection during JSON deserialization"
-)
 public class PlaceAutocompleteResponse {
 
-    private List<PlaceAutocompletePrediction> predictions;
-    private String status;
+    private final List<PlaceAutocompletePrediction> predictions;
+    private final String status;
 
     /**
-     * Constructs an empty {@code PlaceAutocompleteResponse}.
+     * Constructs a new {@code PlaceAutocompleteResponse}.
+     *
+     * @param predictions the autocomplete suggestions; {@code null} is treated as empty
+     * @param status      the status of the response
      */
-    public PlaceAutocompleteResponse() {
-        // This constructor is intentionally empty. Nothing special is needed here.
+    public PlaceAutocompleteResponse(final List<PlaceAutocompletePrediction> predictions, final String status) {
+        this.predictions = List.copyOf(Objects.requireNonNullElse(predictions, List.of()));
+        this.status = status;
     }
 
     /**
@@ -36,7 +35,7 @@ public class PlaceAutocompleteResponse {
      * @return A list of {@link PlaceAutocompletePrediction} objects
      */
     public List<PlaceAutocompletePrediction> getPredictions() {
-        return List.copyOf(this.predictions);
+        return this.predictions;
     }
 
     /**
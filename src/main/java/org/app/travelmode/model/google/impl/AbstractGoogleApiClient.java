@@ -1,20 +1,37 @@
 package org.app.travelmode.model.google.impl;
 
+import org.app.common.api.resilience.RetryPolicy;
+import org.app.common.impl.http.HttpTransportImpl;
+import org.app.common.impl.resilience.ExponentialBackoffRetryPolicy;
 import org.app.travelmode.model.google.api.GoogleApiClient;
-import org.app.weathermode.model.json.AdvancedJsonReader;
-import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.Callable;
 
 /**
  * Abstract base class for Google API clients that provides common functionality
  * for making HTTP requests to Google APIs.
  *
+ * <p>Requests go through the application-wide {@link HttpTransportImpl#shared() transport}, so the
+ * connection to the Google endpoints is kept alive and reused across calls. Network errors and
+ * server-side statuses are retried up to {@value #MAX_ATTEMPTS} times with exponential backoff and
+ * jitter; client errors, such as an invalid API key, fail immediately.
+ *
  * <p>Concrete implementations should extend this class to provide specific
  * API functionality for different Google services.
  */
 public abstract class AbstractGoogleApiClient implements GoogleApiClient {
 
+    /** Maximum number of attempts of a request, including the first one. */
+    private static final int MAX_ATTEMPTS = 3;
+    /** Upper bound of the wait before the first retry. */
+    private static final Duration FIRST_DELAY = Duration.ofMillis(250);
+    /** Upper bound of any wait between two attempts. */
+    private static final Duration MAX_DELAY = Duration.ofSeconds(2);
+    private static final RetryPolicy RETRY = new ExponentialBackoffRetryPolicy(MAX_ATTEMPTS, FIRST_DELAY, MAX_DELAY);
+
     private final String baseUrl;
     private final String apiKey;
 
@@ -34,9 +51,8 @@ public abstract class AbstractGoogleApiClient implements GoogleApiClient {
      *
      * <p>This method handles the communication with external APIs by:
      * <ul>
-     *     <li>Establishing a connection to the provided URL</li>
-     *     <li>Reading the JSON response using an {@link AdvancedJsonReader}</li>
-     *     <li>Processing and returning the raw JSON data</li>
+     *     <li>Sending the request over a pooled connection to the provided URL</li>
+     *     <li>Returning the raw JSON data, which is parsed only once by the caller</li>
      * </ul>
      *
      * @param requestUrl the complete URL to which the request should be made.
@@ -46,9 +62,41 @@ public abstract class AbstractGoogleApiClient implements GoogleApiClient {
      *                     the response
      */
     protected String requestJson(final String requestUrl) throws IOException {
-        final AdvancedJsonReader jsonReader = new AdvancedJsonReaderImpl();
-        jsonReader.requestJSON(requestUrl);
-        return jsonReader.getRawJSON();
+        return withRetry(() -> HttpTransportImpl.shared().getString(requestUrl));
+    }
+
+    /**
+     * Variant of {@link #requestJson(String)} that returns the response body as a stream, so that
+     * large responses can be parsed while they are received instead of being buffered first.
+     *
+     * @param requestUrl the complete URL to which the request should be made
+     * @return the response body; the caller must close it
+     * @throws IOException if there's an error during the HTTP request
+     */
+    protected InputStream openJson(final String requestUrl) throws IOException {
+        return this.openStream(requestUrl);
+    }
+
+    /**
+     * Makes an HTTP request and returns the response body, whatever its content, as a stream.
+     * Only opening the stream is retried: a failure while reading the body is left to the caller.
+     *
+     * @param requestUrl the complete URL to which the request should be made
+     * @return the response body; the caller must close it
+     * @throws IOException if there's an error during the HTTP request
+     */
+    protected InputStream openStream(final String requestUrl) throws IOException {
+        return withRetry(() -> HttpTransportImpl.shared().openStream(requestUrl));
+    }
+
+    private static <T> T withRetry(final Callable<T> request) throws IOException {
+        try {
+            return RETRY.call(request);
+        } catch (final IOException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) { // NOPMD
+            throw new IOException(e);
+        }
     }
 
     /**
@@ -1,6 +1,6 @@
 package org.app.travelmode.model.google.impl;
 
-import com.google.gson.Gson;
+import org.app.common.impl.serialization.Serializers;
 import org.app.travelmode.model.exception.DirectionsApiException;
 import org.app.travelmode.model.google.dto.directions.DirectionsResponse;
 import org.app.travelmode.model.travel.api.TravelRequest;
@@ -8,6 +8,9 @@ import org.app.travelmode.model.google.api.DirectionApiClient;
 import org.app.travelmode.model.google.api.GoogleApiRequestBuilder;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 
 /**
  * A client for interacting with Google Directions API.
@@ -34,7 +37,9 @@ public class DirectionApiClientImpl extends AbstractGoogleApiClient implements D
      * <ul>
      *     <li>Builds a request URL with all necessary parameters</li>
      *     <li>Executes the request to the Google Directions API</li>
-     *     <li>Parses the JSON response into a DirectionsResponse object</li>
+     *     <li>Parses the JSON response into a DirectionsResponse object while it is received,
+     *         binding only the fields used by the route analysis
+     *         (see {@link Serializers#projectedGson()})</li>
      * </ul>
      *
      * @param travelRequest a {@link TravelRequest} object containing origin, destination,
@@ -59,8 +64,10 @@ public class DirectionApiClientImpl extends AbstractGoogleApiClient implements D
                     .addParameter("units", "metric")
                     .build();
 
-            final Gson gson = new Gson();
-            final DirectionsResponse directionsResponse = gson.fromJson(this.requestJson(url), DirectionsResponse.class);
+            final DirectionsResponse directionsResponse;
+            try (Reader body = new InputStreamReader(this.openJson(url), StandardCharsets.UTF_8)) {
+                directionsResponse = Serializers.projectedGson().fromJson(body, DirectionsResponse.class);
+            }
 
             if (directionsResponse == null) {
                 throw new DirectionsApiException("La chiamata all'API Directions ha restituito un risultato nullo.");
@@ -3,7 +3,7 @@ package org.app.travelmode.model.google.impl;
 import org.app.travelmode.model.google.api.GoogleApiRequestBuilder;
 import org.app.travelmode.model.google.api.PlaceDetails;
 import org.app.weathermode.model.json.AdvancedJsonReader;
-import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
+import org.app.weathermode.model.json.TapeJsonReaderImpl;
 
 import java.io.IOException;
 import java.time.ZoneId;
@@ -33,6 +33,7 @@ public class PlaceDetailsApiClient extends AbstractGoogleApiClient implements Pl
      * <p>This implementation:
      * <ul>
      *     <li>Requests only the UTC offset field to optimize response size</li>
+     *     <li>Reads it with a {@link TapeJsonReaderImpl}, without building a JSON tree</li>
      *     <li>Converts the UTC offset to a proper ZoneId</li>
      * </ul>
      *
@@ -46,7 +47,7 @@ public class PlaceDetailsApiClient extends AbstractGoogleApiClient implements Pl
                 .addParameter("place_id", placeId)
                 .build();
 
-        final AdvancedJsonReader jsonReader = new AdvancedJsonReaderImpl(url);
+        final AdvancedJsonReader jsonReader = new TapeJsonReaderImpl(url);
         final int utcOffset = jsonReader.getInt("result.utc_offset");
 
         return ZoneId.ofOffset("UTC", ZoneOffset.ofTotalSeconds(utcOffset * SECONDS_PER_MINUTE));
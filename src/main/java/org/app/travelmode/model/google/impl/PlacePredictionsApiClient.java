@@ -1,6 +1,6 @@
 package org.app.travelmode.model.google.impl;
 
-import com.google.gson.Gson;
+import org.app.common.impl.serialization.Serializers;
 import org.app.travelmode.model.google.api.GoogleApiRequestBuilder;
 import org.app.travelmode.model.google.api.PlaceAutocomplete;
 import org.app.travelmode.model.google.dto.placeautocomplete.PlaceAutocompletePrediction;
@@ -54,9 +54,8 @@ public class PlacePredictionsApiClient extends AbstractGoogleApiClient implement
                 .addParameter("radius", "500000")
                 .build();
 
-        final Gson gson = new Gson();
         final PlaceAutocompleteResponse placeAutocompleteResponse =
-                gson.fromJson(this.requestJson(url), PlaceAutocompleteResponse.class);
+                Serializers.gson().fromJson(this.requestJson(url), PlaceAutocompleteResponse.class);
 
         return placeAutocompleteResponse != null ? List.copyOf(placeAutocompleteResponse.getPredictions()) : List.of();
     }
@@ -1,6 +1,7 @@
 package org.app.travelmode.model.google.impl;
 
 import javafx.scene.image.Image;
+import org.app.common.api.http.HttpStatusException;
 import org.app.travelmode.model.checkpoint.api.CheckpointWithMeteo;
 import org.app.travelmode.model.exception.MapGenerationException;
 import org.app.travelmode.model.google.api.GoogleApiRequestBuilder;
@@ -8,8 +9,6 @@ import org.app.travelmode.model.google.api.StaticMapApiClient;
 import org.app.travelmode.model.weather.impl.conditions.WeatherScoreCategory;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.io.InputStream;
 import java.util.List;
 
@@ -52,16 +51,11 @@ public class StaticMapApiClientImpl extends AbstractGoogleApiClient implements S
                                   final String polyline) throws MapGenerationException {
         try {
             final String url = buildMapUrl(checkpoints, polyline);
-            final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
-            connection.setRequestMethod("GET");
-
-            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
-                throw new MapGenerationException("Errore durante la richiesta della mappa: "
-                        + connection.getResponseMessage());
+            try (InputStream inputStream = this.openStream(url)) {
+                return new Image(inputStream);
             }
-
-            final InputStream inputStream = connection.getInputStream();
-            return new Image(inputStream);
+        } catch (final HttpStatusException e) {
+            throw new MapGenerationException("Errore durante la richiesta della mappa: HTTP " + e.getStatusCode(), e);
         } catch (final IOException e) {
             throw new MapGenerationException("Errore I/O durante la generazione della mappa.", e);
         }
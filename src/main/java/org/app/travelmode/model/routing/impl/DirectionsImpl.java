@@ -179,10 +179,8 @@ public class DirectionsImpl implements Directions {
         final List<Checkpoint> checkpoints = checkpointGenerator
                 .generateCheckpoints(intermediatePoints, this.travelRequest.getDepartureDateTime());
 
-        final List<CheckpointWithMeteo> checkpointsWithMeteo = new ArrayList<>();
-        for (final Checkpoint checkpoint : checkpoints) {
-            checkpointsWithMeteo.add(this.weatherInformationService.enrichWithWeather(checkpoint));
-        }
+        final List<CheckpointWithMeteo> checkpointsWithMeteo =
+                this.weatherInformationService.enrichWithWeather(checkpoints);
 
         return new TravelModeResultImpl(
                 checkpointsWithMeteo,
@@ -1,11 +1,16 @@
 package org.app.weathermode.controller;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 // CHECKSTYLE: AvoidStarImport OFF
 import java.util.*;
 // CHECKSTYLE: AvoidStarImport ON
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 import javafx.animation.Animation;
@@ -22,13 +27,15 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import javafx.util.Duration;
 
 import org.app.weathermode.model.weather.AllWeather;
+import org.app.weathermode.model.weather.ForecastCache;
+import org.app.weathermode.model.weather.OfflineForecastStore;
 import org.app.config.ConfigManager;
+import org.app.common.api.resilience.RetryPolicy;
+import org.app.common.impl.resilience.ExponentialBackoffRetryPolicy;
 import org.app.weathermode.model.locationselector.LocationSelector;
 import org.app.weathermode.model.locationselector.LocationSelectorImpl;
-import org.app.weathermode.model.pair.Pair;
 import org.app.weathermode.model.UnitConversion;
 import org.app.config.UserPreferences;
 import org.app.weathermode.view.AbstractApp;
@@ -50,9 +57,11 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  *   <li>gestire un <em>timer</em> che esegue un refresh automatico alla frequenza indicata da
  *       {@link #REFRESH_TIME}.</li>
  * </ul>
- * Tutte le operazioni che modificano la UI vengono eseguite sul <em>JavaFX
- * Application Thread</em> tramite {@link Platform#runLater(Runnable)} per garantire
- * la thread‑safety.
+ * I refresh scaricano i dati su un thread in background e producono una
+ * {@link WeatherSnapshot} immutabile; solo l’applicazione dell’istantanea ai
+ * widget avviene sul <em>JavaFX Application Thread</em> tramite
+ * {@link Platform#runLater(Runnable)}, così la UI non si blocca durante il
+ * download.
  * </p>
  */
 @SuppressFBWarnings(
@@ -71,11 +80,28 @@ public class AppController implements Controller {
     private static final String API_KEY_ERROR_MESSAGE = "La chiave inserita non è valida.\nRitentare l'inserimento.";
 
     private static final String WEATHER_CODE_KEY = "weather_code";
+    private static final DateTimeFormatter STALE_FORMAT = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+    /** Tentativi massimi di download di un refresh. */
+    private static final int REFRESH_ATTEMPTS = 3;
+    /** Attesa massima dopo il primo tentativo fallito. */
+    private static final Duration REFRESH_FIRST_DELAY = Duration.ofSeconds(1);
+    /** Attesa massima tra due tentativi. */
+    private static final Duration REFRESH_MAX_DELAY = Duration.ofSeconds(8);
+    /** Tentativi di download di un refresh, distanziati con backoff esponenziale e jitter. */
+    private static final RetryPolicy REFRESH_RETRY =
+            new ExponentialBackoffRetryPolicy(REFRESH_ATTEMPTS, REFRESH_FIRST_DELAY, REFRESH_MAX_DELAY);
 
     /**
-     * Wrapper per tutte le previsioni/meteo corrente.
+     * Wrapper per tutte le previsioni/meteo corrente. Dopo {@link #start()}
+     * viene modificato solo dal thread di refresh.
      */
     private AllWeather weatherObj;
+    /**
+     * Ultima istantanea applicata alla GUI, pubblicata per i lettori di
+     * altri thread (vedi {@link #getDailyForecast()}); <code>null</code>
+     * finché non arrivano i primi dati.
+     */
+    private volatile WeatherSnapshot shown;
     /**
      * Informazioni della città corrente (nome, latitudine, longitudine, …).
      */
@@ -98,10 +124,21 @@ public class AppController implements Controller {
      */
     private int cityID;
     private LocationSelector selector;
-    private boolean cityChanged;
 
     private Timeline autoRefresh;
 
+    /**
+     * Refresh su un esecutore a thread singolo: le richieste di rete e le
+     * modifiche a {@link #weatherObj} avvengono sempre lì, in sequenza.
+     */
+    private final RefreshScheduler refresher = new RefreshScheduler(
+            Executors.newSingleThreadExecutor(r -> {
+                final Thread t = new Thread(r, "weather-refresh");
+                t.setDaemon(true);
+                return t;
+            }),
+            this::refreshInBackground);
+
     // CHECKSTYLE: LocalFinalVariableName OFF
     private final AbstractApp mainAPP;
     // CHECKSTYLE: LocalFinalVariableName ON
@@ -137,19 +174,22 @@ public class AppController implements Controller {
      *   <li>Determina il {@link LocationSelector} da utilizzare (quello
      *       precedentemente impostato dall’utente o un nuovo {@link LocationSelectorImpl}).</li>
      *   <li>Carica l’ID città dalle preferenze via {@link #setCity()}.</li>
-     *   <li>Istanzia {@link #weatherObj} con l’oggetto città ottenuto e scarica
-     *       tutti i dati meteo correnti/futuri. Se il download fallisce viene
-     *       sollevata un’eccezione che interrompe l’avvio.</li>
-     *   <li>Esegue un primo {@link #refresh()} per popolare la GUI.</li>
-     *   <li>Avvia un {@link Timeline} che richiama periodicamente
-     *       {@code refresh()} ogni {@value #REFRESH_TIME} minuti.</li>
+     *   <li>Istanzia {@link #weatherObj} con l’oggetto città ottenuto. Se
+     *       {@link OfflineForecastStore} contiene l’ultima previsione della
+     *       città, la GUI viene popolata subito con quella (marcata come non
+     *       aggiornata); altrimenti mostra lo stato di caricamento fino
+     *       all’arrivo dei primi dati.</li>
+     *   <li>Richiede un primo {@link #requestRefresh()} per popolare la GUI
+     *       con dati aggiornati. Il download avviene in background anche al
+     *       primo avvio: un eventuale errore viene mostrato da
+     *       {@link #refreshInBackground(long)} senza bloccare la UI.</li>
+     *   <li>Avvia un {@link Timeline} che richiede periodicamente
+     *       un refresh ogni {@value #REFRESH_TIME} minuti.</li>
      * </ol>
      * Tutte le eccezioni cruciali vengono propagate per fermare l’avvio del
      * programma e notificare l’utente.
      *
-     * @throws IllegalStateException se l’ID della città non è valido o se i
-     *                               dati meteo iniziali non possono essere
-     *                               scaricati.
+     * @throws IllegalStateException se l’ID della città non è valido.
      */
     @Override
     public void start() {
@@ -163,16 +203,16 @@ public class AppController implements Controller {
                 .orElseThrow(() -> new IllegalStateException("ID città non valido"));
 
         this.weatherObj = new AllWeather(this.cityInfo);
-        if (!this.weatherObj.reqestsAllForecast()) {
-            CustomErrorGUI.showError("Non è stato possibile recuperare i dati meteo."
-            + "\nControlla la tua connessione."
-            + "\nSe il problema persiste, l'API potrebbe non essere disponibile.",
-            "Impossibile recuperare i dati meteo");
-            throw new IllegalStateException("Impossibile scaricare i dati meteo iniziali");
+        final Optional<ForecastCache.Entry> saved =
+                OfflineForecastStore.shared().load(this.cityInfo.get("lat"), this.cityInfo.get("lng"));
+        if (saved.isPresent()) {
+            this.applySnapshot(WeatherSnapshot.fromSaved(this.cityInfo, saved.get()));
+        } else {
+            this.showLoading();
         }
 
-        this.refresh();
-        this.autoRefresh = new Timeline(new KeyFrame(Duration.minutes(REFRESH_TIME), e -> refresh()));
+        this.requestRefresh();
+        this.autoRefresh = new Timeline(new KeyFrame(javafx.util.Duration.minutes(REFRESH_TIME), e -> requestRefresh()));
         this.autoRefresh.setCycleCount(Animation.INDEFINITE);
         this.autoRefresh.play();
     }
@@ -217,11 +257,11 @@ public class AppController implements Controller {
     }
 
     /**
-     * @return il wrapper con tutti i dati meteo correnti.
+     * {@inheritDoc}}
      */
     @Override
-    public AllWeather getWeatherObj() {
-        return this.weatherObj;
+    public Optional<Map<String, Map<String, Number>>> getDailyForecast() {
+        return Optional.ofNullable(this.shown).map(WeatherSnapshot::getDaily);
     }
 
     /* ==================== API pubbliche ==================== */
@@ -229,13 +269,14 @@ public class AppController implements Controller {
     /**
      * Forza un <strong>refresh immediato</strong> della GUI e dei dati meteo
      * senza modificare o riavviare il timer automatico.
-     * <p>Viene prima verificato se l’utente ha cambiato città nelle
-     * preferenze; in tal caso {@link #setCity()} aggiorna la destinazione.</p>
+     * <p>Il refresh viene eseguito in background: prima si verifica se
+     * l’utente ha cambiato città nelle preferenze ({@link #setCity()}), poi si
+     * scaricano i dati. Più chiamate ravvicinate vengono accorpate in un unico
+     * refresh.</p>
      */
     @Override
     public void forceRefresh() {
-        this.setCity();
-        this.refresh();
+        this.requestRefresh();
     }
 
     /**
@@ -248,6 +289,7 @@ public class AppController implements Controller {
         if (this.autoRefresh != null) {
             this.autoRefresh.stop();
         }
+        this.refresher.shutdown();
     }
 
     /* ==================== gestione città =================== */
@@ -259,9 +301,9 @@ public class AppController implements Controller {
      * <p>
      * In caso di cambio città viene inoltre aggiornato l’oggetto
      * {@link #weatherObj} (se già inizializzato) affinché punti alla nuova
-     * località. Il flag {@link #cityChanged} viene impostato per far sì che la
-     * successiva chiamata a {@link #refresh()} possa richiedere dati meteo con
-     * eventuali parametri (es. “&amp;timezone=auto”) corretti.
+     * località: il refresh in corso recupera i dati
+     * dalla {@link org.app.weathermode.model.weather.ForecastCache} se la città
+     * è stata consultata di recente, altrimenti li scarica.
      * </p>
      */
     @SuppressFBWarnings(
@@ -275,7 +317,6 @@ public class AppController implements Controller {
         if (city.isPresent()) {
             LOG.fine("City: " + city.get());
             if (this.cityID != city.get()) {
-                this.cityChanged = true;
                 this.cityID = city.get();
                 this.cityInfo = selector.getByID(this.cityID)
                         .orElseThrow(() -> new IllegalStateException("ID città non valido"));
@@ -292,30 +333,39 @@ public class AppController implements Controller {
     /* ================== logica principale refresh ================= */
 
     /**
-     * Raccoglie e compone i dati meteo (corrente, orario, giornaliero)
-     * aggiornando tutti i widget della vista.
+     * Richiede un refresh asincrono dei dati e della GUI, con coalescing e
+     * cancellazione gestiti da {@link RefreshScheduler}.
+     * Può essere invocato da qualunque thread.
+     */
+    private void requestRefresh() {
+        this.refresher.request();
+    }
+
+    /**
+     * Corpo del refresh eseguito sul thread in background.
      * <p>
      * Durante il refresh:
      * <ul>
-     *   <li>viene tentato il download dei dati fino a {@code MAX_ATTEMPTS}
-     *       volte prima di mostrare un messaggio d’errore;</li>
-     *   <li>se la città è stata cambiata si forza un refresh anche lato API
-     *       per ottenere i campi calcolati nella corretta timezone;</li>
-     *   <li>i metodi {@link #updateToday(Map)}, {@link #updateHourly(Map)} e
-     *       {@link #updateDaily(Map)} si occupano di popolare le varie sezioni
-     *       della GUI;</li>
-     *   <li>le operazioni di manipolazione dei nodi JavaFX sono delegate a
-     *       {@link Platform#runLater(Runnable)}.</li>
+     *   <li>si applica l’eventuale cambio città ({@link #setCity()});</li>
+     *   <li>viene tentato il download dei dati secondo {@link #REFRESH_RETRY}
+     *       (attese crescenti e casuali tra i tentativi, interrotte se il
+     *       refresh viene annullato) prima di mostrare un messaggio d’errore;</li>
+     *   <li>una città consultata di recente viene servita dalla cache
+     *       multi‑località di {@link AllWeather}, senza richieste di rete;</li>
+     *   <li>i dati vengono raccolti in una {@link WeatherSnapshot} che
+     *       {@link #applySnapshot(WeatherSnapshot)} applica alla GUI tramite
+     *       {@link Platform#runLater(Runnable)}, a meno che nel frattempo non
+     *       sia stato richiesto un refresh più recente.</li>
      * </ul>
+     *
+     * @param generation generazione della richiesta che ha avviato il refresh.
      */
-    private void refresh() {
-        final int maxAttempts = 3;
-        boolean errFlag = true;
-        for (int i = 0; i < maxAttempts; i++) {
-            if (this.weatherObj.reqestsAllForecast()) {
-                errFlag = false;
-                break;
-            }
+    private void refreshInBackground(final long generation) {
+        this.setCity();
+        final boolean errFlag = !REFRESH_RETRY.run(this.weatherObj::reqestsAllForecast);
+        if (!this.refresher.isCurrent(generation)) {
+            LOG.fine("Refresh superato da una richiesta più recente");
+            return;
         }
         if (errFlag) {
             LOG.fine("ERRORE RICHIESTA DATI METEO!");
@@ -325,45 +375,70 @@ public class AppController implements Controller {
             );
             return;
         }
-        final Optional<Pair<String, Map<String, Number>>> nowOpt =
-                this.weatherObj.getWeatherNow(this.cityChanged);
-        if (this.cityChanged) {
-            this.cityChanged = false;
-        }
-        final Optional<Map<String, Map<String, Number>>> dailyOpt =
-                this.weatherObj.getDailyGeneralForecast();
-        final Optional<Map<String, Map<String, Map<String, Number>>>> hourlyOpt =
-                this.weatherObj.getAllForecast();
 
-        if (nowOpt.isEmpty() || dailyOpt.isEmpty() || hourlyOpt.isEmpty()) {
+        /* le condizioni correnti sono già allineate alla località da reqestsAllForecast() */
+        final Optional<WeatherSnapshot> snapshot = WeatherSnapshot.capture(this.cityInfo, this.weatherObj);
+        if (snapshot.isEmpty()) {
             LOG.fine("Refresh Info EMPTY!");
             return;
         }
 
-        final Map<String, Number> now = nowOpt.get().getY();
-        final Map<String, Map<String, Number>> daily = dailyOpt.get();
-        final Map<String, Map<String, Map<String, Number>>> hourly = hourlyOpt.get();
-
         Platform.runLater(() -> {
-            updateToday(now);
-            updateHourly(hourly);
-            updateDaily(daily);
-            updateOtherDetails();
+            if (this.refresher.isCurrent(generation)) {
+                this.applySnapshot(snapshot.get());
+            }
         });
     }
 
+    /**
+     * Aggiorna tutte le sezioni della GUI con i dati dell’istantanea.
+     * Deve essere invocato sul <em>JavaFX Application Thread</em>.
+     *
+     * @param snapshot dati meteo da visualizzare.
+     */
+    private void applySnapshot(final WeatherSnapshot snapshot) {
+        this.shown = snapshot;
+        updateToday(snapshot);
+        updateHourly(snapshot.getHourly());
+        updateDaily(snapshot.getDaily());
+        updateOtherDetails(snapshot);
+    }
+
+    /**
+     * Mostra lo stato di caricamento finché il primo refresh non porta dei
+     * dati da visualizzare.
+     */
+    private void showLoading() {
+        lblCity.setText(this.cityInfo.get("city") + " (caricamento dati meteo…)");
+        lblCond.setText("");
+        lblTemp.setText("");
+        lblFeels.setText("");
+        lblMin.setText("");
+        lblMax.setText("");
+        windInfo.setText("");
+        otherDetails.setText("");
+    }
+
     /* ====================== updater sezioni ====================== */
 
     /**
      * Aggiorna il riquadro “OGGI” con temperatura, condizione atmosferica,
      * percepita, icona meteo e range min/max del giorno corrente.
      *
-     * @param now mappa dei valori meteorologici correnti restituita da
-     *            {@link AllWeather#getWeatherNow(boolean)}.
+     * @param snapshot istantanea con località, valori correnti (come restituiti
+     *                 da {@link AllWeather#getWeatherNow(boolean)}) e riepilogo giornaliero.
      */
-    private void updateToday(final Map<String, Number> now) {
-        lblCity.setText(cityInfo.get("city"));
-        lblCond.setText(codeToDescription(now.get(WEATHER_CODE_KEY).intValue()));
+    private void updateToday(final WeatherSnapshot snapshot) {
+        final Map<String, Number> now = snapshot.getNow();
+        if (snapshot.isStale()) {
+            final LocalDateTime savedAt = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(snapshot.getStaleSince()), ZoneId.systemDefault());
+            lblCity.setText(snapshot.getCity().get("city")
+                    + " (dati del " + savedAt.format(STALE_FORMAT) + ", in aggiornamento…)");
+        } else {
+            lblCity.setText(snapshot.getCity().get("city"));
+        }
+        lblCond.setText(codeToDescription(weatherCode(now)));
 
         final double tempC = now.get("temperature_C").doubleValue();
         final double tempF = now.get("temperature_F").doubleValue();
@@ -373,19 +448,18 @@ public class AppController implements Controller {
         final double feelF = now.get("apparent_temperature_F").doubleValue();
         lblFeels.setText(String.format("Percepita: %.1f °C | %.1f °F", feelC, feelF));
 
-        todayIcon.setImage(loadIcon(now.get(WEATHER_CODE_KEY).intValue()));
+        todayIcon.setImage(loadIcon(weatherCode(now)));
 
         /* min‑max di oggi */
         final String todayKey = LocalDate.now().toString();
-        weatherObj.getDailyGeneralForecast().ifPresent(map -> {
-            if (map.containsKey(todayKey)) {
-                final Map<String, Number> today = map.get(todayKey);
-                lblMin.setText(String.format("Min: %.0f°C | %.0f°F",
-                    today.get("temperature_min_C").doubleValue(), today.get("temperature_min_F").doubleValue()));
-                lblMax.setText(String.format("Max: %.0f°C | %.0f°F",
-                    today.get("temperature_max_C").doubleValue(), today.get("temperature_max_F").doubleValue()));
-            }
-        });
+        final Map<String, Map<String, Number>> daily = snapshot.getDaily();
+        if (daily.containsKey(todayKey)) {
+            final Map<String, Number> today = daily.get(todayKey);
+            lblMin.setText(String.format("Min: %.0f°C | %.0f°F",
+                today.get("temperature_min_C").doubleValue(), today.get("temperature_min_F").doubleValue()));
+            lblMax.setText(String.format("Max: %.0f°C | %.0f°F",
+                today.get("temperature_max_C").doubleValue(), today.get("temperature_max_F").doubleValue()));
+        }
 
         /* Wind info */
         final double windKmh = now.get("wind_speed_kmh").doubleValue();
@@ -397,15 +471,16 @@ public class AppController implements Controller {
     /**
      * Aggiorna il riquadro “Altri dettagli” con informazioni su alba, tramonto,
      * popolazione, altitudine e massimi UV.
+     *
+     * @param snapshot istantanea da cui leggere i dettagli.
      */
-    private void updateOtherDetails() {
+    private void updateOtherDetails(final WeatherSnapshot snapshot) {
         final int startCapacity = 65;
         final StringBuilder details = new StringBuilder(startCapacity);
-        final Optional<Map<String, Map<String, String>>> dailyInfo =
-                this.weatherObj.getDailyInfo();
-        if (dailyInfo.isPresent()) {
+        final Map<String, Map<String, String>> dailyInfo = snapshot.getSunInfo();
+        if (!dailyInfo.isEmpty()) {
             final Map.Entry<String, Map<String, String>> entry =
-                    dailyInfo.get().entrySet().iterator().next();
+                    dailyInfo.entrySet().iterator().next();
             final Map<String, String> sunInfo = entry.getValue();
             final String sunrise = sunInfo.get("sunrise");
             final String sunset = sunInfo.get("sunset");
@@ -414,7 +489,7 @@ public class AppController implements Controller {
                 .append(" | Tramonto: ").append(sunset);
             }
         }
-        final Optional<Map<String, Number>> cityInfo = this.weatherObj.getCityInfo();
+        final Optional<Map<String, Number>> cityInfo = snapshot.getCityDetails();
         if (cityInfo.isPresent()) {
             details.append('\n');
             final Number population = cityInfo.get().get("inhabitants");
@@ -422,14 +497,15 @@ public class AppController implements Controller {
                 details.append("Popolazione: ").append(population)
                 .append('\n');
             }
-            details.append("Metri sul livello del mare: ")
-            .append(cityInfo.get().get("meters_above_sea"));
+            final Number elevation = cityInfo.get().get("meters_above_sea");
+            if (elevation != null) {
+                details.append("Metri sul livello del mare: ").append(elevation);
+            }
         }
-        final Optional<Map<String, Map<String, Number>>> dailyGeneral =
-                this.weatherObj.getDailyGeneralForecast();
-        if (dailyGeneral.isPresent()) {
+        final Map<String, Map<String, Number>> dailyGeneral = snapshot.getDaily();
+        if (!dailyGeneral.isEmpty()) {
             final Map.Entry<String, Map<String, Number>> entry =
-                    dailyGeneral.get().entrySet().iterator().next();
+                    dailyGeneral.entrySet().iterator().next();
             final Number uvMax = entry.getValue().get("uv_max");
             if (uvMax != null) {
                 details.append("\nUV massimo: ").append(uvMax);
@@ -513,14 +589,14 @@ public class AppController implements Controller {
         final HBox row = new HBox(spacing);
         row.setPadding(new Insets(topRightBottomLeft));
 
-        final ImageView ico = new ImageView(loadIcon(info.get(WEATHER_CODE_KEY).intValue()));
+        final ImageView ico = new ImageView(loadIcon(weatherCode(info)));
         ico.setPreserveRatio(true);
         final int icoWidth = 45;
         ico.setFitWidth(icoWidth);
 
         final Label lblHour = new Label(hour);
         lblHour.getStyleClass().add("subtitle");
-        final Label lblCond = new Label(codeToDescription(info.get(WEATHER_CODE_KEY).intValue()));
+        final Label lblCond = new Label(codeToDescription(weatherCode(info)));
         lblCond.getStyleClass().add("subtitle");
 
         final Region spacer = new Region();
@@ -565,7 +641,7 @@ public class AppController implements Controller {
         final Label lblDay = new Label(txt);
         lblDay.getStyleClass().add("subtitle");
 
-        final ImageView ico = new ImageView(loadIcon(info.get(WEATHER_CODE_KEY).intValue()));
+        final ImageView ico = new ImageView(loadIcon(weatherCode(info)));
         ico.setPreserveRatio(true);
         final int icoWidth = 45;
         ico.setFitWidth(icoWidth);
@@ -583,6 +659,15 @@ public class AppController implements Controller {
 
     /* ===================== utility interne ===================== */
 
+    /**
+     * @param info dati meteo di un’ora o di un giorno.
+     * @return codice WMO, oppure -1 se mancante (icona e descrizione di ripiego).
+     */
+    private static int weatherCode(final Map<String, Number> info) {
+        final Number code = info.get(WEATHER_CODE_KEY);
+        return code == null ? -1 : code.intValue();
+    }
+
     /**
      * Carica l’icona corrispondente al codice WMO; se il file non esiste o non
      * è leggibile, ritorna il logo dell’applicazione come <em>fallback</em>.
@@ -1,6 +1,8 @@
 package org.app.weathermode.controller;
 
-import org.app.weathermode.model.weather.AllWeather;
+import java.util.Map;
+import java.util.Optional;
+
 import org.app.weathermode.view.AbstractApp;
 
 /**
@@ -28,10 +30,14 @@ public interface Controller {
     AbstractApp getApp();
 
     /**
-     * @return wrapper <code>AllWeather</code> con i dati meteo correnti
-     *         mantenuto dal controller.
+     * Può essere invocato da qualunque thread: i dati restituiti sono
+     * immutabili e non cambiano con i refresh successivi.
+     *
+     * @return riepilogo giornaliero, indicizzato per data, dei dati meteo
+     *         mostrati nella finestra principale, oppure
+     *         {@link Optional#empty()} se non ne sono ancora stati mostrati.
      */
-    AllWeather getWeatherObj();
+    Optional<Map<String, Map<String, Number>>> getDailyForecast();
 
     /* ====================== operazioni runtime ============== */
 
@@ -0,0 +1,85 @@
+package org.app.weathermode.controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>Pianifica i refresh in background di {@link AppController} su un
+ * esecutore, in modo che le richieste ravvicinate non si accumulino.</p>
+ * <ul>
+ *   <li><strong>Coalescing</strong>: se un refresh è già in coda e non è
+ *       ancora iniziato, una nuova richiesta viene assorbita da quello, che
+ *       partendo leggerà la generazione più recente.</li>
+ *   <li><strong>Cancellazione</strong>: solo un refresh già iniziato viene
+ *       interrotto; uno in coda non viene mai annullato, per cui il flag di
+ *       coda viene sempre azzerato dal task stesso.</li>
+ * </ul>
+ * <p>Ogni richiesta incrementa un numero di generazione: il corpo del
+ * refresh riceve quella con cui è partito e, tramite {@link #isCurrent(long)},
+ * scarta un risultato superato.</p>
+ */
+public final class RefreshScheduler {
+
+    private final ExecutorService executor;
+    private final LongConsumer task;
+    /** Incrementato a ogni richiesta: un refresh superato non pubblica il risultato. */
+    private final AtomicLong generation = new AtomicLong();
+    /** <code>true</code> se un refresh è già in coda e non ancora iniziato. */
+    private final AtomicBoolean queued = new AtomicBoolean();
+    /** Ultimo refresh inviato all’esecutore. */
+    private Future<?> current;
+
+    /**
+     * @param executor esecutore dei refresh, di norma a thread singolo.
+     * @param task     corpo del refresh; riceve la generazione con cui è partito.
+     */
+    public RefreshScheduler(final ExecutorService executor, final LongConsumer task) {
+        this.executor = executor;
+        this.task = task;
+    }
+
+    /**
+     * Richiede un refresh. Può essere invocato da qualunque thread.
+     */
+    public synchronized void request() {
+        this.generation.incrementAndGet();
+        if (!this.queued.compareAndSet(false, true)) {
+            return;
+        }
+        /* nessun refresh in coda: quello corrente, se c’è, è già iniziato o terminato */
+        if (this.current != null) {
+            this.current.cancel(true);
+        }
+        try {
+            this.current = this.executor.submit(this::run);
+        } catch (final RejectedExecutionException e) {
+            this.queued.set(false);
+        }
+    }
+
+    /**
+     * @param started generazione ricevuta dal corpo del refresh.
+     * @return <code>true</code> se nel frattempo non è stato richiesto un
+     *         refresh più recente.
+     */
+    public boolean isCurrent(final long started) {
+        return started == this.generation.get();
+    }
+
+    /**
+     * Invalida i refresh in corso e arresta l’esecutore.
+     */
+    public synchronized void shutdown() {
+        this.generation.incrementAndGet();
+        this.executor.shutdownNow();
+    }
+
+    private void run() {
+        this.queued.set(false);
+        this.task.accept(this.generation.get());
+    }
+}
@@ -0,0 +1,132 @@
+package org.app.weathermode.controller;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.app.weathermode.model.weather.ForecastCache;
+import org.app.weathermode.model.weather.Weather;
+
+/**
+ * <p>Istantanea <strong>immutabile</strong> dei dati necessari a ridisegnare
+ * la finestra principale.</p>
+ * <p>Viene costruita sul thread di refresh in background a partire da un
+ * {@link Weather} già popolato e poi consegnata al <em>JavaFX Application
+ * Thread</em>: i widget vengono aggiornati leggendo solo da qui, senza
+ * toccare l’oggetto meteo che nel frattempo può essere riscaricato.</p>
+ * <p>All’avvio può anche essere ricostruita dall’ultima previsione salvata su
+ * disco: in quel caso è {@link #isStale() non aggiornata}.</p>
+ */
+final class WeatherSnapshot {
+
+    private final Map<String, String> city;
+    private final Map<String, Number> now;
+    private final Map<String, Map<String, Number>> daily;
+    private final Map<String, Map<String, Map<String, Number>>> hourly;
+    private final Map<String, Map<String, String>> sunInfo;
+    private final Map<String, Number> cityDetails;
+    private final long staleSince;
+
+    private WeatherSnapshot(final Map<String, String> city, final Map<String, Number> now,
+            final Map<String, Map<String, Number>> daily,
+            final Map<String, Map<String, Map<String, Number>>> hourly,
+            final Map<String, Map<String, String>> sunInfo,
+            final Map<String, Number> cityDetails, final long staleSince) {
+        this.city = city;
+        this.now = now;
+        this.daily = daily;
+        this.hourly = hourly;
+        this.sunInfo = sunInfo;
+        this.cityDetails = cityDetails;
+        this.staleSince = staleSince;
+    }
+
+    /**
+     * Raccoglie i dati già scaricati da <code>weather</code>. Le mappe delle
+     * previsioni sono viste non modificabili su dati immutabili, per cui
+     * possono essere lette da qualunque thread.
+     *
+     * @param city    informazioni sulla località (nome, coordinate, …).
+     * @param weather oggetto meteo su cui è già stato eseguito il download.
+     * @return l’istantanea, o {@link Optional#empty()} se manca uno dei dati
+     *         indispensabili (correnti, orari o giornalieri).
+     */
+    static Optional<WeatherSnapshot> capture(final Map<String, String> city, final Weather weather) {
+        final var nowOpt = weather.getWeatherNow(false);
+        final var dailyOpt = weather.getDailyGeneralForecast();
+        final var hourlyOpt = weather.getAllForecast();
+        if (nowOpt.isEmpty() || dailyOpt.isEmpty() || hourlyOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new WeatherSnapshot(
+            Map.copyOf(city),
+            Map.copyOf(nowOpt.get().getY()),
+            dailyOpt.get(),
+            hourlyOpt.get(),
+            weather.getDailyInfo().orElse(Map.of()),
+            weather.getCityInfo().orElse(null),
+            0L
+        ));
+    }
+
+    /**
+     * Costruisce un’istantanea <strong>non aggiornata</strong> da una
+     * previsione salvata in precedenza, senza alcun accesso alla rete.
+     *
+     * @param city  informazioni sulla località (nome, coordinate, …).
+     * @param entry previsione salvata (vedi
+     *              {@link org.app.weathermode.model.weather.OfflineForecastStore}).
+     * @return l’istantanea, marcata come non aggiornata.
+     */
+    static WeatherSnapshot fromSaved(final Map<String, String> city, final ForecastCache.Entry entry) {
+        return new WeatherSnapshot(
+            Map.copyOf(city),
+            entry.getNow(),
+            entry.getForecast().asDailyMap(),
+            entry.getForecast().asHourlyMap(),
+            entry.getForecast().asSunMap(),
+            entry.getCityInfo(),
+            entry.getFetchedAt()
+        );
+    }
+
+    /** @return informazioni sulla località (nome, coordinate, …). */
+    Map<String, String> getCity() {
+        return this.city;
+    }
+
+    /** @return condizioni correnti. */
+    Map<String, Number> getNow() {
+        return this.now;
+    }
+
+    /** @return riepilogo giornaliero indicizzato per data. */
+    Map<String, Map<String, Number>> getDaily() {
+        return this.daily;
+    }
+
+    /** @return previsioni orarie indicizzate per data e ora. */
+    Map<String, Map<String, Map<String, Number>>> getHourly() {
+        return this.hourly;
+    }
+
+    /** @return alba/tramonto per data (vuota se non disponibili). */
+    Map<String, Map<String, String>> getSunInfo() {
+        return this.sunInfo;
+    }
+
+    /** @return popolazione e altitudine della città, se disponibili. */
+    Optional<Map<String, Number>> getCityDetails() {
+        return Optional.ofNullable(this.cityDetails);
+    }
+
+    /** @return <code>true</code> se i dati provengono da una previsione salvata in precedenza. */
+    boolean isStale() {
+        return this.staleSince > 0;
+    }
+
+    /** @return epoch millis del download dei dati, se {@link #isStale() non aggiornati}, altrimenti 0. */
+    long getStaleSince() {
+        return this.staleSince;
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.app.weathermode.model.cityinfo;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <h2>CityInfoService (contratto)</h2>
+ * <p>Fornisce i metadati di una città che cambiano raramente (abitanti,
+ * altitudine) senza passare dal percorso critico del download delle
+ * previsioni. Le città sono identificate dalla riga di
+ * <em>worldcities.csv</em> restituita da
+ * {@link org.app.weathermode.model.locationselector.LocationSelector#getByID(int)}.</p>
+ */
+public interface CityInfoService {
+
+    /**
+     * Restituisce il numero di abitanti senza effettuare richieste di rete
+     * bloccanti. Se il dato non è disponibile l’implementazione può recuperarlo
+     * in background, così da averlo alle richieste successive.
+     *
+     * @param city riga CSV della città (chiavi <code>id</code>,
+     *             <code>city_ascii</code>, <code>population</code>, …).
+     * @return il numero di abitanti, se noto.
+     */
+    Optional<Integer> getInhabitants(Map<String, String> city);
+
+    /**
+     * Restituisce l’altitudine registrata con {@link #recordElevation}, anche
+     * in un avvio precedente, senza richieste di rete.
+     *
+     * @param city riga CSV della città.
+     * @return l’altitudine in metri registrata per la città, se nota.
+     */
+    Optional<Double> getElevation(Map<String, String> city);
+
+    /**
+     * Registra l’altitudine di una città (ad esempio quella restituita
+     * insieme alle previsioni) perché resti disponibile tra un avvio e l’altro.
+     *
+     * @param city   riga CSV della città.
+     * @param meters altitudine in metri; i valori non finiti vengono ignorati.
+     */
+    void recordElevation(Map<String, String> city, double meters);
+
+}
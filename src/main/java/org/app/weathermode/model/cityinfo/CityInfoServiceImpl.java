@@ -0,0 +1,310 @@
+package org.app.weathermode.model.cityinfo;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.reflect.TypeToken;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import org.app.common.api.http.HttpTransport;
+import org.app.common.api.resilience.RetryPolicy;
+import org.app.common.impl.http.HttpTransportImpl;
+import org.app.common.impl.resilience.ExponentialBackoffRetryPolicy;
+import org.app.common.impl.serialization.Serializers;
+import org.jsoup.Jsoup;
+import org.jsoup.select.Elements;
+
+/**
+ * <h2>CityInfoServiceImpl</h2>
+ * <p>Implementazione di {@link CityInfoService} a tre livelli:</p>
+ * <ol>
+ *   <li>colonna <code>population</code> di <em>worldcities.csv</em>, già
+ *       presente nella riga della città;</li>
+ *   <li>cache persistente su disco ({@link #DEFAULT_CACHE_FILE}), caricata al
+ *       primo utilizzo;</li>
+ *   <li>scraping di ilMeteo.it, eseguito solo per le città prive di dato su un
+ *       thread in background, al massimo una richiesta ogni
+ *       {@link #DEFAULT_BACKFILL_INTERVAL} e non più di una volta ogni
+ *       {@link #RETRY_AFTER} per città. Gli errori di rete o del server
+ *       vengono ritentati subito, con backoff esponenziale, fino a
+ *       {@value #SCRAPE_ATTEMPTS} volte.</li>
+ * </ol>
+ * <p>Nessun metodo pubblico effettua richieste di rete: il download delle
+ * previsioni non attende mai lo scraping.</p>
+ */
+public final class CityInfoServiceImpl implements CityInfoService {
+
+    /** File della cache persistente, accanto alla configurazione. */
+    public static final Path DEFAULT_CACHE_FILE = Path.of("app_config", "city_info.json");
+    /** Intervallo minimo tra due richieste di scraping. */
+    public static final Duration DEFAULT_BACKFILL_INTERVAL = Duration.ofSeconds(10);
+    /** Tempo dopo il quale si ritenta lo scraping di una città senza risultato. */
+    public static final Duration RETRY_AFTER = Duration.ofDays(7);
+
+    /** Tentativi massimi di una singola richiesta di scraping. */
+    private static final int SCRAPE_ATTEMPTS = 3;
+    /** Attesa massima dopo il primo tentativo fallito. */
+    private static final Duration SCRAPE_FIRST_DELAY = Duration.ofSeconds(1);
+    /** Attesa massima tra due tentativi. */
+    private static final Duration SCRAPE_MAX_DELAY = Duration.ofSeconds(5);
+    private static final RetryPolicy SCRAPE_RETRY =
+        new ExponentialBackoffRetryPolicy(SCRAPE_ATTEMPTS, SCRAPE_FIRST_DELAY, SCRAPE_MAX_DELAY);
+
+    private static final Logger LOG = Logger.getLogger(CityInfoServiceImpl.class.getName());
+    private static final String URL_CITY_INFO = "https://www.ilmeteo.it/meteo/";
+    private static final Pattern INHABITANTS = Pattern.compile("([\\d.]+)\\s*abitanti");
+    private static final Type RECORDS_TYPE = new TypeToken<Map<String, CityRecord>>() { }.getType();
+
+    private static final CityInfoService SHARED = new CityInfoServiceImpl(
+        DEFAULT_CACHE_FILE, HttpTransportImpl.shared(), DEFAULT_BACKFILL_INTERVAL);
+
+    private final Path cacheFile;
+    private final HttpTransport transport;
+    private final long backfillIntervalMillis;
+    private final ScheduledExecutorService backfill = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = new Thread(r, "city-info-backfill");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /* stato protetto da this */
+    private final Map<String, CityRecord> records = new HashMap<>();
+    private final Set<String> pending = new HashSet<>();
+    private boolean loaded;
+    private long nextScrapeAt;
+
+    /**
+     * @param cacheFile        file JSON della cache persistente.
+     * @param transport        trasporto HTTP per lo scraping in background.
+     * @param backfillInterval intervallo minimo tra due richieste di scraping.
+     */
+    @SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification = "The transport is meant to be shared"
+    )
+    public CityInfoServiceImpl(final Path cacheFile, final HttpTransport transport, final Duration backfillInterval) {
+        this.cacheFile = cacheFile;
+        this.transport = transport;
+        this.backfillIntervalMillis = backfillInterval.toMillis();
+    }
+
+    /**
+     * @return il servizio condiviso dall’applicazione, persistito in {@link #DEFAULT_CACHE_FILE}.
+     */
+    public static CityInfoService shared() {
+        return SHARED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Integer> getInhabitants(final Map<String, String> city) {
+        final Optional<Integer> fromCsv = parsePopulation(city.get("population"));
+        if (fromCsv.isPresent()) {
+            return fromCsv;
+        }
+        synchronized (this) {
+            final CityRecord record = this.record(city, false);
+            if (record != null && record.inhabitants != null) {
+                return Optional.of(record.inhabitants);
+            }
+        }
+        this.scheduleBackfill(city);
+        return Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Optional<Double> getElevation(final Map<String, String> city) {
+        final CityRecord record = this.record(city, false);
+        return record == null ? Optional.empty() : Optional.ofNullable(record.metersAboveSea);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordElevation(final Map<String, String> city, final double meters) {
+        if (!Double.isFinite(meters)) {
+            return;
+        }
+        synchronized (this) {
+            final CityRecord record = this.record(city, true);
+            if (record.metersAboveSea != null && record.metersAboveSea == meters) {
+                return;
+            }
+            record.metersAboveSea = meters;
+        }
+        this.backfill.execute(this::persist);
+    }
+
+    /* ===================== metodi privati ===================== */
+
+    /**
+     * Accoda lo scraping degli abitanti rispettando il limite di frequenza.
+     */
+    private void scheduleBackfill(final Map<String, String> city) {
+        final String name = city.get("city_ascii");
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        final String key = key(city);
+        final long now = System.currentTimeMillis();
+        final long delay;
+        synchronized (this) {
+            final CityRecord record = this.record(city, false);
+            if (this.pending.contains(key)
+                    || record != null && now - record.lastAttempt < RETRY_AFTER.toMillis()) {
+                return;
+            }
+            this.pending.add(key);
+            delay = Math.max(0, this.nextScrapeAt - now);
+            this.nextScrapeAt = now + delay + this.backfillIntervalMillis;
+        }
+        this.backfill.schedule(() -> this.scrape(city, name), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Scarica la pagina ilMeteo.it della città e ne salva il numero di abitanti.
+     */
+    @SuppressFBWarnings(
+        value = "REC_CATCH_EXCEPTION",
+        justification = "Necessary to catch generic Exception to aggregate network and HTML parsing errors"
+    )
+    private void scrape(final Map<String, String> city, final String asciiCityName) {
+        Optional<Integer> inhabitants = Optional.empty();
+        try {
+            final String url = URL_CITY_INFO
+                + URLEncoder.encode(asciiCityName, StandardCharsets.UTF_8).replace("+", "%20");
+            inhabitants = parseInhabitants(SCRAPE_RETRY.call(() -> this.transport.getString(url)), url);
+        } catch (final Exception e) { // NOPMD
+            LOG.fine("Numero abitanti non disponibile per questa città (%s).".formatted(asciiCityName));
+        }
+        synchronized (this) {
+            final CityRecord record = this.record(city, true);
+            record.lastAttempt = System.currentTimeMillis();
+            inhabitants.ifPresent(value -> record.inhabitants = value);
+            this.pending.remove(key(city));
+        }
+        this.persist();
+    }
+
+    /**
+     * Scrive la cache su un file temporaneo e lo sostituisce atomicamente.
+     */
+    private void persist() {
+        final String json;
+        synchronized (this) {
+            json = Serializers.gson().toJson(this.records, RECORDS_TYPE);
+        }
+        try {
+            final Path dir = this.cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            final Path tmp = Files.createTempFile(dir, "city_info", ".tmp");
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                out.write(json);
+            }
+            Files.move(tmp, this.cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOG.fine("Impossibile salvare la cache delle città: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Restituisce la voce della città caricando la cache al primo accesso.
+     * Va invocato tenendo il lock su <code>this</code>.
+     */
+    private CityRecord record(final Map<String, String> city, final boolean create) {
+        if (!this.loaded) {
+            this.loaded = true;
+            if (Files.isReadable(this.cacheFile)) {
+                try (Reader in = Files.newBufferedReader(this.cacheFile, StandardCharsets.UTF_8)) {
+                    final Map<String, CityRecord> stored = Serializers.gson().fromJson(in, RECORDS_TYPE);
+                    if (stored != null) {
+                        this.records.putAll(stored);
+                    }
+                } catch (final IOException | RuntimeException e) {
+                    LOG.fine("Cache delle città illeggibile, verrà ricreata: " + e.getMessage());
+                }
+            }
+        }
+        return create
+            ? this.records.computeIfAbsent(key(city), k -> new CityRecord())
+            : this.records.get(key(city));
+    }
+
+    private static String key(final Map<String, String> city) {
+        final String id = city.get("id");
+        return id != null ? id : city.get("lat") + "," + city.get("lng");
+    }
+
+    private static Optional<Integer> parsePopulation(final String population) {
+        if (population == null || population.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            final double value = Double.parseDouble(population.trim());
+            return value > 0 ? Optional.of((int) Math.round(value)) : Optional.empty();
+        } catch (final NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Estrae il numero di abitanti dalla pagina ilMeteo.it di una città.
+     *
+     * @param html contenuto della pagina.
+     * @param url  URL della pagina, usata per risolvere i link relativi.
+     * @return il numero di abitanti, o <code>Optional.empty()</code> se la
+     *         pagina non è strutturata come previsto.
+     */
+    static Optional<Integer> parseInhabitants(final String html, final String url) {
+        final Elements info = Jsoup.parse(html, url).getElementsByClass("infoloc"); // NOPMD
+        if (!info.isEmpty()) {
+            final Matcher matcher = INHABITANTS.matcher(info.get(0).text());
+            if (matcher.find()) {
+                return Optional.of(Integer.parseInt(matcher.group(1).replaceAll("[^\\d]", "")));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Voce della cache persistente (serializzata con Gson).
+     */
+    private static final class CityRecord {
+        private Integer inhabitants;
+        private Double metersAboveSea;
+        private long lastAttempt;
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s ab., %s m", this.inhabitants, this.metersAboveSea);
+        }
+    }
+
+}
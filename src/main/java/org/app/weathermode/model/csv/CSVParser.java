@@ -3,6 +3,7 @@ package org.app.weathermode.model.csv;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.opencsv.exceptions.CsvException;
 
@@ -11,6 +12,9 @@ import com.opencsv.exceptions.CsvException;
  * <p>Interfaccia <em>SPI</em> (Service Provider Interface) astratta che
  * definisce le operazioni minime per trasformare un file <strong>CSV</strong>
  * in strutture dati native Java.</p>
+ * <p>Oltre alla lettura completa ({@link #readCSVToMap()}) offre API a flusso
+ * che consegnano un record alla volta come {@link CSVRow}: la memoria usata
+ * dipende dai record in lavorazione, non dalla dimensione del file.</p>
  */
 public interface CSVParser {
 
@@ -27,9 +31,54 @@ public interface CSVParser {
      */
     List<Map<String, String>> readCSVToMap() throws IOException, CsvException;
 
+    /**
+     * Legge il CSV un record alla volta, con tutte le colonne.
+     *
+     * @param action invocata per ogni record, nell’ordine del file. La
+     *               {@link CSVRow} è valida solo durante la chiamata: per
+     *               conservarla usare {@link CSVRow#toMap()}.
+     * @throws IOException  problemi di I/O come per {@link #readCSVToMap()}.
+     * @throws CsvException problemi di formattazione del CSV.
+     */
+    default void forEachRow(final Consumer<CSVRow> action) throws IOException, CsvException {
+        forEachRow(getHeader(), action);
+    }
+
+    /**
+     * Legge il CSV un record alla volta, esponendo solo le colonne indicate.
+     *
+     * @param columns colonne da proiettare, nell’ordine desiderato.
+     * @param action  invocata per ogni record, come in {@link #forEachRow(Consumer)}.
+     * @throws IOException  problemi di I/O come per {@link #readCSVToMap()}.
+     * @throws CsvException problemi di formattazione del CSV.
+     * @throws IllegalArgumentException se una colonna non esiste.
+     */
+    void forEachRow(List<String> columns, Consumer<CSVRow> action) throws IOException, CsvException;
+
+    /**
+     * Legge il CSV a blocchi di <code>chunkSize</code> record e li elabora in
+     * parallelo su <code>parallelism</code> thread. La lettura resta
+     * sequenziale; al più <code>2 × parallelism</code> blocchi sono in memoria
+     * contemporaneamente.
+     *
+     * @param columns     colonne da proiettare.
+     * @param chunkSize   record per blocco.
+     * @param parallelism thread di elaborazione.
+     * @param action      invocata per ogni record, anche in modo concorrente:
+     *                    l’ordine è garantito solo all’interno di un blocco.
+     *                    Qui ogni {@link CSVRow} è un oggetto distinto.
+     * @throws IOException  problemi di I/O come per {@link #readCSVToMap()}.
+     * @throws CsvException problemi di formattazione del CSV.
+     * @throws IllegalArgumentException se una colonna non esiste o i parametri
+     *                                  non sono positivi.
+     */
+    void parallelForEach(List<String> columns, int chunkSize, int parallelism, Consumer<CSVRow> action)
+        throws IOException, CsvException;
+
     /**
      * Restituisce l’intestazione (header) del CSV, ovvero la lista dei nomi di
-     * colonna presenti nella prima riga del file.
+     * colonna presenti nella prima riga del file. Legge solo la prima riga e
+     * non impedisce le letture successive.
      *
      * @return lista di stringhe, <em>vuota</em> se il file è privo di righe.
      * @throws IOException  problemi di I/O come per {@link #readCSVToMap()}.
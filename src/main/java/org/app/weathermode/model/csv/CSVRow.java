@@ -0,0 +1,126 @@
+package org.app.weathermode.model.csv;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <h2>CSVRow</h2>
+ * <p>Vista su un record CSV indicizzata per nome di colonna, prodotta dalle API
+ * a flusso di {@link CSVParser}. Non copia i valori: avvolge l’array letto dal
+ * parser e condivide con tutte le altre righe la mappa
+ * <code>colonna → posizione</code>, quindi costa un solo oggetto per record.</p>
+ * <p>Con una <em>proiezione</em> sono visibili solo le colonne richieste, in
+ * quell’ordine. Le celle mancanti in fondo a un record corto valgono
+ * stringa vuota, come in {@link CSVParser#readCSVToMap()}.</p>
+ */
+public final class CSVRow {
+
+    private final List<String> columns;
+    private final int[] positions;
+    private final Map<String, Integer> index;
+    private String[] values;
+
+    private CSVRow(final List<String> columns, final int[] positions, final Map<String, Integer> index) {
+        this.columns = columns;
+        this.positions = positions;
+        this.index = index;
+    }
+
+    /**
+     * Crea la vista, ancora senza valori, per le colonne proiettate.
+     *
+     * @param header    intestazione del file.
+     * @param projected colonne visibili, nell’ordine desiderato.
+     * @return una vista da riempire con {@link #wrap(String[])}.
+     * @throws IllegalArgumentException se una colonna non è nell’intestazione.
+     */
+    static CSVRow projection(final List<String> header, final List<String> projected) {
+        final int[] positions = new int[projected.size()];
+        final Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = header.indexOf(projected.get(i));
+            if (positions[i] < 0) {
+                throw new IllegalArgumentException("Unknown CSV column: " + projected.get(i));
+            }
+            index.put(projected.get(i), i);
+        }
+        return new CSVRow(List.copyOf(projected), positions, Collections.unmodifiableMap(index));
+    }
+
+    /**
+     * Stessa proiezione di questa vista, su un altro record.
+     *
+     * @param record valori letti dal parser, nell’ordine dell’intestazione.
+     * @return una nuova vista che condivide la proiezione.
+     */
+    CSVRow copyWith(final String[] record) {
+        return new CSVRow(columns, positions, index).wrap(record);
+    }
+
+    /**
+     * Sostituisce il record visto; usato per riutilizzare la stessa istanza.
+     *
+     * @param record valori letti dal parser.
+     * @return questa vista.
+     */
+    CSVRow wrap(final String[] record) {
+        this.values = record;
+        return this;
+    }
+
+    /**
+     * @param column nome di una colonna proiettata.
+     * @return il valore della cella.
+     * @throws IllegalArgumentException se la colonna non è proiettata.
+     */
+    public String get(final String column) {
+        final Integer at = index.get(column);
+        if (at == null) {
+            throw new IllegalArgumentException("Unknown CSV column: " + column);
+        }
+        return get(at);
+    }
+
+    /**
+     * @param i posizione nella proiezione.
+     * @return il valore della cella.
+     */
+    public String get(final int i) {
+        final int at = positions[i];
+        return at < values.length && values[at] != null ? values[at] : "";
+    }
+
+    /**
+     * @return numero di colonne visibili.
+     */
+    public int size() {
+        return positions.length;
+    }
+
+    /**
+     * @return nomi delle colonne visibili.
+     */
+    public List<String> columns() {
+        return columns;
+    }
+
+    /**
+     * Copia la riga in una mappa indipendente dalla vista.
+     *
+     * @return mappa <code>colonna → valore</code>.
+     */
+    public Map<String, String> toMap() {
+        final Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < positions.length; i++) {
+            map.put(columns.get(i), get(i));
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
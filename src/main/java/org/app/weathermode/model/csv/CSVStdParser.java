@@ -12,19 +12,27 @@ import java.util.List;
 import java.util.Map;
 import java.util.Arrays;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * <h2>CSVStdParser</h2>
  * <p>Adattatore che estende {@link CSVReader} di <em>OpenCSV</em> e implementa
- * l’interfaccia applicativa {@link CSVParser}. La classe fornisce due comode
+ * l’interfaccia applicativa {@link CSVParser}. La classe fornisce alcune comode
  * utility:</p>
  * <ul>
  *   <li>{@link #readCSVToMap()} – converte un file CSV in una lista di mappe
  *       <code>header&rarr;valore</code>, una per riga.</li>
  *   <li>{@link #getHeader()} – restituisce l’intestazione del file come lista
  *       di stringhe.</li>
+ *   <li>{@link #forEachRow(List, Consumer)} e
+ *       {@link #parallelForEach(List, int, int, Consumer)} – lettura a flusso
+ *       con proiezione delle colonne.</li>
  * </ul>
  * <p>Oltre al costruttore classico che accetta un percorso di file, è stato
  * aggiunto un costruttore che riceve qualunque {@link Reader}. Questo permette
@@ -33,6 +41,9 @@ import java.util.Collections;
  */
 public class CSVStdParser extends CSVReader implements CSVParser {
 
+    /** Intestazione, letta alla prima richiesta. */
+    private List<String> header;
+
     /* ========================= ctor ========================== */
 
     /**
@@ -58,8 +69,9 @@ public class CSVStdParser extends CSVReader implements CSVParser {
     /* ======================= API CSVParser ==================== */
 
     /**
-     * Legge l’intero contenuto del CSV e lo converte in una lista di mappe,
-     * dove ogni mappa rappresenta una riga con chiavi prese dall’intestazione.
+     * Legge i record rimanenti e li converte in una lista di mappe, dove ogni
+     * mappa rappresenta una riga con chiavi prese dall’intestazione. I record
+     * sono letti a flusso: in memoria c’è solo il risultato.
      *
      * @return lista di mappe <code>header → valore</code>, una per riga del CSV
      * @throws IOException  in caso di errori di I/O durante la lettura
@@ -68,29 +80,90 @@ public class CSVStdParser extends CSVReader implements CSVParser {
     @Override
     public List<Map<String, String>> readCSVToMap() throws IOException, CsvException {
         final List<Map<String, String>> resultList = new ArrayList<>();
-        final List<String[]> allRows = this.readAll();
+        forEachRow(row -> resultList.add(row.toMap()));
+        return resultList;
+    }
 
-        if (allRows.isEmpty()) {
-            return resultList;
+    /**
+     * {@inheritDoc}
+     * <p>La stessa istanza di {@link CSVRow} viene riutilizzata per tutti i
+     * record.</p>
+     */
+    @Override
+    public void forEachRow(final List<String> columns, final Consumer<CSVRow> action)
+            throws IOException, CsvException {
+        final CSVRow row = CSVRow.projection(getHeader(), columns);
+        String[] record;
+        while ((record = this.readNext()) != null) { // NOPMD
+            action.accept(row.wrap(record));
         }
+    }
 
-        final String[] header = allRows.get(0);
-
-        for (int i = 1; i < allRows.size(); i++) {
-            final String[] row = allRows.get(i);
-            final Map<String, String> rowMap = new HashMap<>();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void parallelForEach(final List<String> columns, final int chunkSize, final int parallelism,
+                                final Consumer<CSVRow> action) throws IOException, CsvException {
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("chunkSize and parallelism must be positive");
+        }
+        final CSVRow projection = CSVRow.projection(getHeader(), columns);
+        final Semaphore inFlight = new Semaphore(2 * parallelism);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
 
-            for (int j = 0; j < header.length; j++) {
-                rowMap.put(header[j], j < row.length ? row[j] : "");
+        final ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<String[]> chunk = new ArrayList<>(chunkSize);
+            String[] record;
+            while (failure.get() == null && (record = this.readNext()) != null) { // NOPMD
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    submit(pool, inFlight, failure, chunk, projection, action);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(pool, inFlight, failure, chunk, projection, action);
             }
-            resultList.add(rowMap);
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) { // NOPMD
+                // i blocchi in coda vengono comunque completati
+            }
+        } catch (final InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing CSV", e);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
         }
-        return resultList;
+    }
+
+    private static void submit(final ExecutorService pool, final Semaphore inFlight,
+                               final AtomicReference<RuntimeException> failure, final List<String[]> chunk,
+                               final CSVRow projection, final Consumer<CSVRow> action) {
+        inFlight.acquireUninterruptibly();
+        pool.execute(() -> {
+            try {
+                for (final String[] record : chunk) {
+                    action.accept(projection.copyWith(record));
+                }
+            } catch (final RuntimeException e) { // NOPMD
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
     }
 
     /**
      * Restituisce l’intestazione del CSV come lista di stringhe,
-     * corrispondenti ai nomi delle colonne.
+     * corrispondenti ai nomi delle colonne. Alla prima chiamata legge solo la
+     * prima riga del file; le successive restituiscono la stessa lista.
      *
      * @return lista di intestazioni (colonne) del CSV; vuota se il file non ha righe
      * @throws IOException  in caso di errori di I/O durante la lettura
@@ -98,10 +171,13 @@ public class CSVStdParser extends CSVReader implements CSVParser {
      */
     @Override
     public List<String> getHeader() throws IOException, CsvException {
-        final List<String[]> allRows = this.readAll();
-        return allRows.isEmpty()
-            ? Collections.emptyList()
-            : Arrays.asList(allRows.get(0));
+        if (this.header == null) {
+            final String[] first = this.readNext();
+            this.header = first == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(Arrays.asList(first));
+        }
+        return this.header;
     }
 
 }
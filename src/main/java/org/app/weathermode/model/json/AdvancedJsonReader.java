@@ -7,6 +7,7 @@ import com.google.gson.JsonObject;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * <h2>AdvancedJsonReader</h2>
@@ -17,10 +18,14 @@ import java.io.IOException;
  *   <li>scaricare JSON da URL remoti (<em>HTTP GET</em>);</li>
  *   <li>caricare stringhe/oggetti già presenti in memoria;</li>
  *   <li>navigare la struttura con un <em>path</em> a dot-notation
- *       (<code>a.b.c</code>);</li>
+ *       (<code>a.b.c</code>), compilato una sola volta in un {@link JsonPath};</li>
+ *   <li>estrarre più valori con un’unica visita ({@link JsonPathGroup});</li>
  *   <li>estrarre valori tipizzati evitando il casting esplicito;</li>
  *   <li>fare checking rapido dell’esistenza di un nodo.</li>
  * </ul>
+ * <p>Se la radice del documento è un <em>array</em> (ad esempio la risposta
+ * Open‑Meteo per più coordinate) questo viene esposto sotto la chiave
+ * {@link #ROOT_ARRAY_KEY}, così da restare navigabile con gli stessi path.</p>
  * <p>I metodi che accedono al contenuto possono lanciare
  * <code>Exception</code> generiche per raggruppare errori di path e di tipo —
  * l’implementazione è responsabile di specificare le eccezioni concrete.</p>
@@ -32,6 +37,9 @@ import java.io.IOException;
 )
 public interface AdvancedJsonReader {
 
+    /** Chiave sotto cui viene esposto un documento la cui radice è un array. */
+    String ROOT_ARRAY_KEY = "$root";
+
     /* ======================= caricamento ======================= */
 
     /**
@@ -87,6 +95,44 @@ public interface AdvancedJsonReader {
      */
     JsonArray getJsonArray(String path) throws Exception; // NOPMD
 
+    /**
+     * Decodifica in un’unica passata l’array di numeri individuato dal path.
+     *
+     * @param path dot-notation che termina su un array JSON.
+     * @return i valori, con {@link Double#NaN} al posto dei <code>null</code>.
+     * @throws Exception se il path non è valido o un elemento non è numerico.
+     */
+    double[] getDoubleArray(String path) throws Exception; // NOPMD
+
+    /**
+     * Decodifica in un’unica passata l’array di interi individuato dal path.
+     *
+     * @param path dot-notation che termina su un array JSON.
+     * @return i valori convertiti.
+     * @throws Exception se il path non è valido o un elemento è <code>null</code>
+     *                   o non numerico.
+     */
+    int[] getIntArray(String path) throws Exception; // NOPMD
+
+    /**
+     * Variante di {@link #getIntArray(String)} che tollera i <code>null</code>.
+     *
+     * @param path      dot-notation che termina su un array JSON.
+     * @param nullValue valore da usare al posto dei <code>null</code>.
+     * @return i valori convertiti.
+     * @throws Exception se il path non è valido o un elemento non è numerico.
+     */
+    int[] getIntArray(String path, int nullValue) throws Exception; // NOPMD
+
+    /**
+     * Decodifica in un’unica passata l’array di stringhe individuato dal path.
+     *
+     * @param path dot-notation che termina su un array JSON.
+     * @return i valori, con <code>null</code> per gli elementi nulli.
+     * @throws Exception se il path non è valido o un elemento non è una primitiva.
+     */
+    String[] getStringArray(String path) throws Exception; // NOPMD
+
     /**
      * Estrae il valore in <code>path</code> e lo converte nel tipo richiesto.
      * <p>Le implementazioni sono tenute a supportare almeno le classi wrapper
@@ -111,6 +157,35 @@ public interface AdvancedJsonReader {
      */
     JsonElement getFromJson(String path) throws Exception; // NOPMD
 
+    /**
+     * Variante di {@link #getFromJson(String)} che riceve un percorso già
+     * compilato, da preferire nei cicli e nei percorsi costanti.
+     *
+     * @param path percorso compilato verso l’elemento.
+     * @return {@link JsonElement} corrispondente al percorso.
+     * @throws Exception se il path non è valido o l’elemento non esiste.
+     */
+    JsonElement getFromJson(JsonPath path) throws Exception; // NOPMD
+
+    /**
+     * Estrae tutti i percorsi del gruppo con un’unica visita del documento.
+     *
+     * @param paths gruppo di percorsi da risolvere.
+     * @return mappa espressione → elemento, nell’ordine del gruppo; i percorsi
+     *         assenti nel documento non compaiono nella mappa.
+     */
+    Map<String, JsonElement> getAll(JsonPathGroup paths);
+
+    /**
+     * Scorciatoia per {@link #getAll(JsonPathGroup)}.
+     *
+     * @param paths percorsi a dot-notation da risolvere insieme.
+     * @return mappa espressione → elemento dei percorsi presenti.
+     */
+    default Map<String, JsonElement> getAll(final String... paths) {
+        return this.getAll(JsonPathGroup.of(paths));
+    }
+
     /**
      * Verifica la presenza di un nodo senza sollevare eccezioni.
      *
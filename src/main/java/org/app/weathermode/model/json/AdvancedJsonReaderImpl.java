@@ -1,12 +1,7 @@
 package org.app.weathermode.model.json;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 // CHECKSTYLE: AvoidStarImport OFF
 import com.google.gson.*;
@@ -14,13 +9,18 @@ import com.google.gson.*;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import org.app.common.impl.http.HttpTransportImpl;
+
 /**
  * <p>Implementazione concreta di {@link AdvancedJsonReader} in grado di:
  * <ul>
- *   <li>scaricare un documento JSON da una URL remota (HTTP GET);</li>
+ *   <li>scaricare un documento JSON da una URL remota (HTTP GET) tramite il
+ *       trasporto condiviso {@link HttpTransportImpl#shared()};</li>
  *   <li>accettare una stringa o un {@link JsonObject} già disponibile in memoria;</li>
  *   <li>navigare il JSON attraverso un <em>path</em> stile <code>a.b.c</code>
- *       restituendo oggetti, array o primiti tipizzate;</li>
+ *       restituendo oggetti, array o primiti tipizzate; i path sono compilati
+ *       una sola volta ({@link JsonPath}) e più path possono essere estratti
+ *       con un’unica visita ({@link #getAll(JsonPathGroup)});</li>
  *   <li>eseguire conversioni di tipo <em>safe</em> gestendo errori di
  *       formattazione o di accesso a chiavi inesistenti.</li>
  * </ul>
@@ -33,7 +33,6 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 public class AdvancedJsonReaderImpl implements AdvancedJsonReader {
 
     /* ===================== stato interno ===================== */
-    private static final String DEFAULT_SEPARATOR = "\\.";
     /** Rappresentazione testuale (non formattata) del JSON sorgente. */
     private String jsonRawText;
     /** Radice dell'albero JSON in forma di {@link JsonObject}. */
@@ -69,8 +68,9 @@ public class AdvancedJsonReaderImpl implements AdvancedJsonReader {
     /* ==================== caricamento JSON =================== */
 
     /**
-     * Scarica il JSON via HTTP, lo memorizza come stringa e ne effettua il
-     * parsing in {@link #jsonBody}.
+     * Scarica il JSON via HTTP con il trasporto condiviso (connessioni
+     * riutilizzate), lo memorizza come stringa e ne effettua il parsing in
+     * {@link #jsonBody}.
      * <p>Può essere invocato una sola volta per istanza – in caso contrario
      * viene sollevata {@link IllegalStateException}.</p>
      *
@@ -82,24 +82,7 @@ public class AdvancedJsonReaderImpl implements AdvancedJsonReader {
         throws IOException, IllegalStateException { // NOPMD
         assertNotAlreadySet();
 
-        final URL url = new URL(jsonURL);
-        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
-
-        try (InputStream in = connection.getInputStream();
-            BufferedReader reader =
-                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
-
-            final StringBuilder jsonText = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) { // NOPMD
-                jsonText.append(line);
-            }
-            this.jsonRawText = jsonText.toString();
-        } finally {
-            connection.disconnect();
-        }
-
+        this.jsonRawText = HttpTransportImpl.shared().getString(jsonURL);
         parseAndSetJson();
     }
 
@@ -160,21 +143,11 @@ public class AdvancedJsonReaderImpl implements AdvancedJsonReader {
     @Override
     public JsonObject walkthroughBody(final String path) throws Exception {
         this.assertIsSet();
-        final String[] parts = path.split(DEFAULT_SEPARATOR);
-        if (parts.length == 0) {
+        final JsonPath compiled = JsonPath.compile(path);
+        if (compiled.depth() == 0) {
             return null;
         }
-        JsonObject output = this.jsonBody.getAsJsonObject(parts[0]);
-        if (output == null) {
-            throw new IllegalArgumentException("\"" + parts[0] + "\" not found!");
-        }
-        for (int i = 1; i < parts.length; i++) {
-            output = output.getAsJsonObject(parts[i]);
-            if (output == null) {
-                throw new IllegalArgumentException("In path: \"" + parts[i] + "\" no member with this name exists!");
-            }
-        }
-        return output;
+        return this.walk(compiled, compiled.depth());
     }
 
     /**
@@ -187,21 +160,40 @@ public class AdvancedJsonReaderImpl implements AdvancedJsonReader {
     @Override
     public JsonArray getJsonArray(final String path) throws Exception {
         assertIsSet();
-        final String[] parts = path.split(DEFAULT_SEPARATOR);
+        final JsonPath compiled = JsonPath.compile(path);
+        return this.walk(compiled, compiled.depth() - 1).get(compiled.last()).getAsJsonArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getDoubleArray(final String path) throws Exception {
+        return JsonArrays.toDoubleArray(this.getJsonArray(path));
+    }
 
-        final String newPath = getLevelUpPath(parts);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getIntArray(final String path) throws Exception {
+        return JsonArrays.toIntArray(this.getJsonArray(path));
+    }
 
-        // CHECKSTYLE: FinalLocalVariable OFF
-        // False Positive
-        JsonArray jsonArray; // NOPMD suppressed as it is a false positive
-        if (parts.length > 1) {
-            jsonArray = this.walkthroughBody(newPath).get(parts[parts.length - 1]).getAsJsonArray();
-        } else {
-            jsonArray = this.jsonBody.get(parts[0]).getAsJsonArray();
-        }
-        // CHECKSTYLE: FinalLocalVariable ON
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getIntArray(final String path, final int nullValue) throws Exception {
+        return JsonArrays.toIntArray(this.getJsonArray(path), nullValue);
+    }
 
-        return jsonArray;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] getStringArray(final String path) throws Exception {
+        return JsonArrays.toStringArray(this.getJsonArray(path));
     }
 
     /**
@@ -222,55 +214,19 @@ public class AdvancedJsonReaderImpl implements AdvancedJsonReader {
     @Override
     public <T> T getFromJson(final String path, final Class<T> type) throws Exception {
         assertIsSet();
-        final String[] parts = path.split(DEFAULT_SEPARATOR);
-        if (parts.length == 0 || path.trim().isEmpty()) { // NOPMD
+        if (path.trim().isEmpty()) { // NOPMD
             return null;
         }
-        final String elemToGet = parts[parts.length - 1];
-        final String newPath = getLevelUpPath(parts);
-        // CHECKSTYLE: FinalLocalVariable OFF
-        // False Positive
-        JsonElement element; // NOPMD suppressed as it is a false positive
-        if (parts.length > 1) {
-            final JsonObject finalLevel = this.walkthroughBody(newPath);
-            element = finalLevel.get(elemToGet);
-        } else {
-            element = this.jsonBody.get(elemToGet);
+        final JsonPath compiled = JsonPath.compile(path);
+        if (compiled.depth() == 0) {
+            return null;
         }
-        // CHECKSTYLE: FinalLocalVariable ON
-
+        final JsonElement element = this.walk(compiled, compiled.depth() - 1).get(compiled.last());
         if (element == null) {
             throw new IllegalArgumentException("\"" + path + "\": no such element with this name exists!");
         }
 
-        // CHECKSTYLE: FinalLocalVariable OFF
-        T outElem; // NOPMD suppressed as it is a false positive
-        if (type.equals(String.class)) {
-            outElem = type.cast(element.getAsString());
-        } else if (type.equals(Boolean.class) || type.equals(boolean.class)) {
-            outElem = type.cast(element.getAsBoolean());
-        } else if (type.equals(Double.class) || type.equals(double.class)) {
-            outElem = type.cast(element.getAsDouble());
-        } else if (type.equals(Float.class) || type.equals(float.class)) {
-            outElem = type.cast(element.getAsFloat());
-        } else if (type.equals(Integer.class) || type.equals(int.class)) {
-            outElem = type.cast(element.getAsInt());
-        } else if (type.equals(Long.class) || type.equals(long.class)) {
-            outElem = type.cast(element.getAsLong());
-        } else if (type.equals(Short.class) || type.equals(short.class)) {
-            outElem = type.cast(element.getAsShort());
-        } else if (type.equals(JsonArray.class)
-                || type.equals(JsonObject.class)
-                || type.equals(JsonPrimitive.class)) {
-            outElem = type.cast(element);
-        } else if (type.equals(Number.class)) {
-            outElem = type.cast(element.getAsNumber());
-        } else {
-            throw new IllegalArgumentException("Unsupported type: " + type);
-        }
-
-        return outElem;
-        // CHECKSTYLE: FinalLocalVariable ON
+        return convert(element, type);
     }
 
     /**
@@ -279,30 +235,31 @@ public class AdvancedJsonReaderImpl implements AdvancedJsonReader {
      */
     @Override
     public JsonElement getFromJson(final String path) throws Exception {
-        assertIsSet();
-        final String[] parts = path.split(DEFAULT_SEPARATOR);
-        final String elemToGet = parts[parts.length - 1];
-
-        final String newPath = getLevelUpPath(parts);
-
-        // CHECKSTYLE: FinalLocalVariable OFF
-        // False Positive
-        JsonElement element; // NOPMD suppressed as it is a false positive
-        if (parts.length > 1) {
-            final JsonObject finalLevel = this.walkthroughBody(newPath);
-            element = finalLevel.get(elemToGet);
-        } else {
-            element = this.jsonBody.get(elemToGet);
-        }
-        // CHECKSTYLE: FinalLocalVariable ON
+        return this.getFromJson(JsonPath.compile(path));
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonElement getFromJson(final JsonPath path) throws Exception {
+        assertIsSet();
+        final JsonElement element = this.walk(path, path.depth() - 1).get(path.last());
         if (element == null) {
             throw new IllegalArgumentException("\"" + path + "\": no such element with this name exists!"); // NOPMD
         }
-
         return element;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, JsonElement> getAll(final JsonPathGroup paths) {
+        assertIsSet();
+        return paths.extract(this.jsonBody);
+    }
+
     /* ========================== helper ========================= */
 
     /**
@@ -431,6 +388,49 @@ public class AdvancedJsonReaderImpl implements AdvancedJsonReader {
 
     /* ====================== metodi privati ===================== */
 
+    /**
+     * Converte un elemento nel tipo richiesto; condivisa con
+     * {@link TapeJsonReaderImpl} perché le due implementazioni restino
+     * equivalenti.
+     *
+     * @param element elemento da convertire.
+     * @param type    classe di destinazione.
+     * @param <T>     tipo di ritorno.
+     * @return elemento convertito.
+     * @throws IllegalArgumentException se il tipo non è supportato.
+     */
+    static <T> T convert(final JsonElement element, final Class<T> type) {
+        // CHECKSTYLE: FinalLocalVariable OFF
+        T outElem; // NOPMD suppressed as it is a false positive
+        if (type.equals(String.class)) {
+            outElem = type.cast(element.getAsString());
+        } else if (type.equals(Boolean.class) || type.equals(boolean.class)) {
+            outElem = type.cast(element.getAsBoolean());
+        } else if (type.equals(Double.class) || type.equals(double.class)) {
+            outElem = type.cast(element.getAsDouble());
+        } else if (type.equals(Float.class) || type.equals(float.class)) {
+            outElem = type.cast(element.getAsFloat());
+        } else if (type.equals(Integer.class) || type.equals(int.class)) {
+            outElem = type.cast(element.getAsInt());
+        } else if (type.equals(Long.class) || type.equals(long.class)) {
+            outElem = type.cast(element.getAsLong());
+        } else if (type.equals(Short.class) || type.equals(short.class)) {
+            outElem = type.cast(element.getAsShort());
+        } else if (type.equals(JsonArray.class)
+                || type.equals(JsonObject.class)
+                || type.equals(JsonPrimitive.class)) {
+            outElem = type.cast(element);
+        } else if (type.equals(Number.class)) {
+            outElem = type.cast(element.getAsNumber());
+        } else {
+            throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+
+        return outElem;
+        // CHECKSTYLE: FinalLocalVariable ON
+    }
+
+
     /**
      * Garantisce che il JSON non sia già stato impostato; altrimenti lancia
      * {@link IllegalStateException} per evitare stati incoerenti.
@@ -448,29 +448,41 @@ public class AdvancedJsonReaderImpl implements AdvancedJsonReader {
         }
     }
 
-    /** Effettua il parsing della stringa JSON e marca l'istanza come pronta. */
+    /**
+     * Effettua il parsing della stringa JSON e marca l'istanza come pronta.
+     * Una radice di tipo array viene racchiusa sotto {@link #ROOT_ARRAY_KEY}.
+     */
     private void parseAndSetJson() {
-        this.jsonBody = JsonParser.parseString(this.jsonRawText).getAsJsonObject();
+        final JsonElement root = JsonParser.parseString(this.jsonRawText);
+        if (root.isJsonArray()) {
+            this.jsonBody = new JsonObject();
+            this.jsonBody.add(ROOT_ARRAY_KEY, root);
+        } else {
+            this.jsonBody = root.getAsJsonObject();
+        }
         this.isSet = true;
     }
 
     /**
-     * Costruisce il path al livello immediatamente superiore rispetto
-     * all'ultimo componente (utility interna a diversi metodi).
-     * @param parts
-     * array di segmenti di percorso; ogni elemento rappresenta un livello nel percorso completo
-     * 
-     * @return il percorso di livello superiore come stringa.
+     * Scende nell'albero lungo i primi <code>levels</code> segmenti del
+     * percorso, che devono essere tutti oggetti JSON.
+     *
+     * @param path   percorso compilato.
+     * @param levels numero di segmenti da attraversare (0 = radice).
+     * @return l'oggetto raggiunto.
+     * @throws IllegalArgumentException se uno dei segmenti non esiste.
      */
-    private static String getLevelUpPath(final String[] parts) {
-        final StringBuilder newPath = new StringBuilder();
-        for (int i = 0; i < parts.length - 1; i++) {
-            newPath.append(parts[i]);
-            if (i < parts.length - 2) {
-                newPath.append('.');
+    private JsonObject walk(final JsonPath path, final int levels) {
+        JsonObject output = this.jsonBody;
+        for (int i = 0; i < levels; i++) {
+            output = output.getAsJsonObject(path.segment(i));
+            if (output == null) {
+                throw new IllegalArgumentException(i == 0
+                    ? "\"" + path.segment(0) + "\" not found!"
+                    : "In path: \"" + path.segment(i) + "\" no member with this name exists!");
             }
         }
-        return newPath.toString();
+        return output;
     }
 
 }
@@ -0,0 +1,97 @@
+package org.app.weathermode.model.json;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * <h2>JsonArrays</h2>
+ * <p>Decodifica di un {@link JsonArray} in un array di primitive con un’unica
+ * passata: ogni elemento viene letto e convertito una sola volta, così chi
+ * scorre un array già caricato in un {@link AdvancedJsonReader} indicizza
+ * direttamente un <code>double[]</code> o un <code>int[]</code> invece di
+ * ripetere <code>get(i).getAsDouble()</code> (con relativo controllo di tipo)
+ * a ogni accesso.</p>
+ * <p>Le colonne orarie e giornaliere delle previsioni non passano di qui:
+ * sono decodificate in streaming dal lettore Open‑Meteo del package
+ * <code>model.weather</code>, senza costruire alcun albero JSON.</p>
+ * <p>I valori <code>null</code> — frequenti in alcune variabili Open‑Meteo,
+ * es. <code>soil_temperature_0cm</code> — diventano {@link Double#NaN} negli
+ * array di <code>double</code>, un valore scelto dal chiamante negli array di
+ * <code>int</code> e <code>null</code> negli array di stringhe.</p>
+ */
+public final class JsonArrays {
+
+    private JsonArrays() { /* utility class */ }
+
+    /**
+     * @param values array JSON di numeri.
+     * @return i valori, con {@link Double#NaN} al posto dei <code>null</code>.
+     * @throws IllegalArgumentException se un elemento non è un numero.
+     */
+    public static double[] toDoubleArray(final JsonArray values) {
+        final double[] out = new double[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            final JsonElement elem = values.get(i);
+            out[i] = elem.isJsonNull() ? Double.NaN : primitive(elem, i).getAsDouble();
+        }
+        return out;
+    }
+
+    /**
+     * @param values    array JSON di interi.
+     * @param nullValue valore da usare al posto dei <code>null</code>.
+     * @return i valori convertiti.
+     * @throws IllegalArgumentException se un elemento non è un numero.
+     */
+    public static int[] toIntArray(final JsonArray values, final int nullValue) {
+        final int[] out = new int[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            final JsonElement elem = values.get(i);
+            out[i] = elem.isJsonNull() ? nullValue : primitive(elem, i).getAsInt();
+        }
+        return out;
+    }
+
+    /**
+     * @param values array JSON di interi senza <code>null</code>.
+     * @return i valori convertiti.
+     * @throws IllegalArgumentException se un elemento è <code>null</code> o non è un numero.
+     */
+    public static int[] toIntArray(final JsonArray values) {
+        final int[] out = new int[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            final JsonElement elem = values.get(i);
+            if (elem.isJsonNull()) {
+                throw new IllegalArgumentException("Element " + i + " is null!");
+            }
+            out[i] = primitive(elem, i).getAsInt();
+        }
+        return out;
+    }
+
+    /**
+     * @param values array JSON di stringhe (o primitive).
+     * @return i valori testuali, con <code>null</code> per gli elementi nulli.
+     * @throws IllegalArgumentException se un elemento non è una primitiva.
+     */
+    public static String[] toStringArray(final JsonArray values) {
+        final String[] out = new String[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            final JsonElement elem = values.get(i);
+            if (elem.isJsonNull()) {
+                continue;
+            }
+            out[i] = primitive(elem, i).getAsString();
+        }
+        return out;
+    }
+
+    private static JsonPrimitive primitive(final JsonElement elem, final int index) {
+        if (!elem.isJsonPrimitive()) {
+            throw new IllegalArgumentException("Element " + index + " is not a primitive!");
+        }
+        return elem.getAsJsonPrimitive();
+    }
+
+}
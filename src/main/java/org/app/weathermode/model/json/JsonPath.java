@@ -0,0 +1,108 @@
+package org.app.weathermode.model.json;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * <h2>JsonPath</h2>
+ * <p>Percorso a <em>dot-notation</em> (<code>a.b.c</code>) già suddiviso nei
+ * suoi segmenti. La suddivisione avviene una sola volta: {@link #compile(String)}
+ * conserva i percorsi in una cache condivisa, così le letture ripetute dello
+ * stesso path (tipicamente costanti nel codice) non eseguono più alcuno
+ * <code>split</code> con espressione regolare.</p>
+ * <p>La semantica dei segmenti è identica a <code>path.split("\\.")</code>:
+ * eventuali segmenti vuoti finali vengono ignorati.</p>
+ * <p>Le istanze sono immutabili e possono essere condivise tra thread.</p>
+ */
+public final class JsonPath {
+
+    /** Numero massimo di percorsi mantenuti in cache; superato, la cache viene svuotata. */
+    private static final int CACHE_LIMIT = 1024;
+    private static final Map<String, JsonPath> CACHE = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final String[] segments;
+
+    private JsonPath(final String expression) {
+        this.expression = expression;
+        this.segments = expression.split("\\.");
+    }
+
+    /**
+     * Restituisce il percorso compilato per l’espressione, creandolo solo alla
+     * prima richiesta.
+     *
+     * @param expression percorso a dot-notation, es. <code>"current.temperature_2m"</code>.
+     * @return il percorso compilato.
+     */
+    public static JsonPath compile(final String expression) {
+        final JsonPath cached = CACHE.get(expression);
+        if (cached != null) {
+            return cached;
+        }
+        if (CACHE.size() >= CACHE_LIMIT) {
+            CACHE.clear();
+        }
+        return CACHE.computeIfAbsent(expression, JsonPath::new);
+    }
+
+    /** @return l’espressione originale. */
+    public String getExpression() {
+        return this.expression;
+    }
+
+    /** @return numero di segmenti del percorso. */
+    public int depth() {
+        return this.segments.length;
+    }
+
+    /**
+     * @param index posizione del segmento (da 0).
+     * @return il nome del segmento.
+     */
+    public String segment(final int index) {
+        return this.segments[index];
+    }
+
+    /** @return il nome dell’ultimo segmento, cioè del membro individuato. */
+    public String last() {
+        return this.segments[this.segments.length - 1];
+    }
+
+    /**
+     * Risolve il percorso a partire da un oggetto radice.
+     *
+     * @param root oggetto da cui partire.
+     * @return l’elemento individuato, o <code>null</code> se un segmento non
+     *         esiste o un livello intermedio non è un oggetto JSON.
+     */
+    public JsonElement resolve(final JsonObject root) {
+        JsonElement current = root;
+        for (final String segment : this.segments) {
+            if (current == null || !current.isJsonObject()) {
+                return null;
+            }
+            current = current.getAsJsonObject().get(segment);
+        }
+        return current;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof JsonPath other && this.expression.equals(other.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.expression;
+    }
+
+}
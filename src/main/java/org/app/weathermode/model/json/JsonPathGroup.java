@@ -0,0 +1,112 @@
+package org.app.weathermode.model.json;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * <h2>JsonPathGroup</h2>
+ * <p>Insieme di {@link JsonPath} risolti insieme con <strong>un’unica
+ * visita</strong> dell’albero JSON. I percorsi sono organizzati in un albero
+ * dei prefissi: i livelli in comune (es. <code>current</code> in
+ * <code>current.temperature_2m</code> e <code>current.weather_code</code>)
+ * vengono attraversati una sola volta, invece che una per percorso.</p>
+ * <p>Come {@link JsonPath}, i gruppi creati con {@link #of(List)} sono
+ * conservati in cache e sono immutabili.</p>
+ */
+public final class JsonPathGroup {
+
+    /** Numero massimo di gruppi mantenuti in cache; superato, la cache viene svuotata. */
+    private static final int CACHE_LIMIT = 256;
+    private static final Map<List<String>, JsonPathGroup> CACHE = new ConcurrentHashMap<>();
+
+    private final List<String> expressions;
+    private final Node root = new Node();
+
+    private JsonPathGroup(final List<String> expressions) {
+        this.expressions = List.copyOf(expressions);
+        for (final String expression : this.expressions) {
+            final JsonPath path = JsonPath.compile(expression);
+            Node node = this.root;
+            for (int i = 0; i < path.depth(); i++) {
+                node = node.children.computeIfAbsent(path.segment(i), k -> new Node());
+            }
+            node.expression = expression;
+        }
+    }
+
+    /**
+     * @param expressions percorsi a dot-notation da risolvere insieme.
+     * @return il gruppo compilato.
+     */
+    public static JsonPathGroup of(final String... expressions) {
+        return of(List.of(expressions));
+    }
+
+    /**
+     * @param expressions percorsi a dot-notation da risolvere insieme.
+     * @return il gruppo compilato.
+     */
+    public static JsonPathGroup of(final List<String> expressions) {
+        final JsonPathGroup cached = CACHE.get(expressions);
+        if (cached != null) {
+            return cached;
+        }
+        if (CACHE.size() >= CACHE_LIMIT) {
+            CACHE.clear();
+        }
+        return CACHE.computeIfAbsent(List.copyOf(expressions), JsonPathGroup::new);
+    }
+
+    /** @return le espressioni del gruppo, nell’ordine di creazione. */
+    public List<String> getExpressions() {
+        return this.expressions;
+    }
+
+    /**
+     * Risolve tutti i percorsi del gruppo con un’unica visita.
+     *
+     * @param rootObject oggetto da cui partire.
+     * @return mappa non modificabile espressione → elemento, nell’ordine del
+     *         gruppo; i percorsi non presenti nel documento sono assenti.
+     */
+    public Map<String, JsonElement> extract(final JsonObject rootObject) {
+        final Map<String, JsonElement> found = new LinkedHashMap<>();
+        for (final String expression : this.expressions) {
+            found.put(expression, null);
+        }
+        visit(this.root, rootObject, found);
+        found.values().removeIf(v -> v == null);
+        return Collections.unmodifiableMap(found);
+    }
+
+    private static void visit(final Node node, final JsonObject object, final Map<String, JsonElement> found) {
+        for (final Map.Entry<String, Node> child : node.children.entrySet()) {
+            final JsonElement element = object.get(child.getKey());
+            if (element == null) {
+                continue;
+            }
+            final Node next = child.getValue();
+            if (next.expression != null) {
+                found.put(next.expression, element);
+            }
+            if (!next.children.isEmpty() && element.isJsonObject()) {
+                visit(next, element.getAsJsonObject(), found);
+            }
+        }
+    }
+
+    /**
+     * Nodo dell’albero dei prefissi: un segmento di percorso.
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private String expression;
+    }
+
+}
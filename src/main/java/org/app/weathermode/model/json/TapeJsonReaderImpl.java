@@ -0,0 +1,582 @@
+package org.app.weathermode.model.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.app.common.impl.http.HttpTransportImpl;
+
+/**
+ * <h2>TapeJsonReaderImpl</h2>
+ * <p>Implementazione <em>lazy</em> di {@link AdvancedJsonReader}: al posto
+ * dell’albero Gson completo mantenuto da {@link AdvancedJsonReaderImpl}, il
+ * testo viene scandito <strong>una sola volta</strong> in un indice strutturale
+ * compatto (il <em>tape</em>) e i valori vengono materializzati solo quando un
+ * percorso li richiede.</p>
+ * <p>Il tape è formato da tre array di <code>int</code> paralleli, una
+ * posizione per token (chiave o valore, in ordine di documento):</p>
+ * <ul>
+ *   <li><code>starts</code> / <code>ends</code>: intervallo del token nel testo;</li>
+ *   <li><code>next</code>: indice del token che segue l’intero sotto-albero,
+ *       così che oggetti e array non richiesti vengano saltati in O(1).</li>
+ * </ul>
+ * <p>In memoria restano quindi il testo originale e 12 byte per token,
+ * invece del testo più un nodo Gson (con mappe e stringhe proprie) per ogni
+ * valore: conviene per risposte grandi di cui si leggono pochi campi, come le
+ * Directions con polilinee e istruzioni HTML. Gli array di numeri
+ * ({@link #getDoubleArray(String)} ecc.) sono decodificati direttamente dal
+ * testo, senza creare elementi intermedi.</p>
+ * <p>La scansione verifica solo la struttura (parentesi bilanciate, stringhe
+ * chiuse); numeri e letterali sono validati quando vengono letti. La scelta
+ * fra le due implementazioni si fa nel punto di chiamata, costruendo l’una o
+ * l’altra: la semantica dei metodi è la stessa.</p>
+ */
+public class TapeJsonReaderImpl implements AdvancedJsonReader {
+
+    private static final int MIN_TAPE = 16;
+    /** Stima iniziale dei token: circa uno ogni otto caratteri. */
+    private static final int CHARS_PER_TOKEN = 8;
+
+    /* ===================== stato interno ===================== */
+    private String text;
+    private int[] starts;
+    private int[] ends;
+    private int[] next;
+    private int count;
+    private boolean isSet;
+
+    /* ========================= ctor ========================== */
+    /** Costruttore vuoto; il JSON verrà impostato successivamente. */
+    public TapeJsonReaderImpl() { /* empty body */ }
+
+    /**
+     * Scarica e indicizza subito il JSON dalla URL.
+     *
+     * @param jsonURL URL del documento.
+     * @throws IOException problemi di rete o di lettura.
+     */
+    public TapeJsonReaderImpl(final String jsonURL) throws IOException {
+        this.requestJSON(jsonURL);
+    }
+
+    /* ==================== caricamento JSON =================== */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void requestJSON(final String jsonURL) throws IOException {
+        assertNotAlreadySet();
+        this.index(HttpTransportImpl.shared().getString(jsonURL));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TapeJsonReaderImpl setJSON(final String jsonString) { // NOPMD
+        assertNotAlreadySet();
+        this.index(jsonString);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setJSON(final JsonObject jsonObj) {
+        assertNotAlreadySet();
+        this.index(jsonObj.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getRawJSON() {
+        assertIsSet();
+        return this.text;
+    }
+
+    /* ======================= navigazione ====================== */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonObject walkthroughBody(final String path) throws Exception {
+        final int token = this.require(JsonPath.compile(path));
+        if (this.kind(token) != '{') {
+            throw new IllegalArgumentException("\"" + path + "\": is not a JSON object!");
+        }
+        return this.materialize(token).getAsJsonObject();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonArray getJsonArray(final String path) throws Exception {
+        return this.materialize(this.requireArray(path)).getAsJsonArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getDoubleArray(final String path) throws Exception {
+        final int array = this.requireArray(path);
+        final double[] out = new double[this.size(array)];
+        int token = array + 1;
+        for (int i = 0; i < out.length; i++, token = this.next[token]) {
+            out[i] = this.kind(token) == 'n' ? Double.NaN : Double.parseDouble(this.scalar(token, i));
+        }
+        return out;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getIntArray(final String path) throws Exception {
+        final int array = this.requireArray(path);
+        final int[] out = new int[this.size(array)];
+        int token = array + 1;
+        for (int i = 0; i < out.length; i++, token = this.next[token]) {
+            if (this.kind(token) == 'n') {
+                throw new IllegalArgumentException("Element " + i + " is null!");
+            }
+            out[i] = parseInt(this.scalar(token, i));
+        }
+        return out;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getIntArray(final String path, final int nullValue) throws Exception {
+        final int array = this.requireArray(path);
+        final int[] out = new int[this.size(array)];
+        int token = array + 1;
+        for (int i = 0; i < out.length; i++, token = this.next[token]) {
+            out[i] = this.kind(token) == 'n' ? nullValue : parseInt(this.scalar(token, i));
+        }
+        return out;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] getStringArray(final String path) throws Exception {
+        final int array = this.requireArray(path);
+        final String[] out = new String[this.size(array)];
+        int token = array + 1;
+        for (int i = 0; i < out.length; i++, token = this.next[token]) {
+            if (this.kind(token) != 'n') {
+                out[i] = this.scalar(token, i);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T getFromJson(final String path, final Class<T> type) throws Exception {
+        assertIsSet();
+        if (path.trim().isEmpty()) { // NOPMD
+            return null;
+        }
+        final JsonPath compiled = JsonPath.compile(path);
+        if (compiled.depth() == 0) {
+            return null;
+        }
+        return AdvancedJsonReaderImpl.convert(this.materialize(this.require(compiled)), type);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonElement getFromJson(final String path) throws Exception {
+        return this.getFromJson(JsonPath.compile(path));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonElement getFromJson(final JsonPath path) throws Exception {
+        return this.materialize(this.require(path));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Ogni percorso viene cercato sul tape saltando i sotto-alberi non
+     * pertinenti; sono materializzati solo i valori trovati.</p>
+     */
+    @Override
+    public Map<String, JsonElement> getAll(final JsonPathGroup paths) {
+        assertIsSet();
+        final Map<String, JsonElement> found = new LinkedHashMap<>();
+        for (final String expression : paths.getExpressions()) {
+            final int token = this.locate(JsonPath.compile(expression));
+            if (token >= 0) {
+                found.put(expression, this.materialize(token));
+            }
+        }
+        return Collections.unmodifiableMap(found);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean elementExists(final String path) {
+        assertIsSet();
+        return this.locate(JsonPath.compile(path)) >= 0;
+    }
+
+    /* ================== shortcut primitive ================== */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getString(final String path) {
+        try {
+            return this.getFromJson(path, String.class); // NOPMD
+        } catch (final Exception e) { // NOPMD
+            throw new IllegalArgumentException("\"" + path // NOPMD
+            + "\": no such element with this name exists or is not a String!"); // NOPMD
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer getInt(final String path) {
+        try {
+            return this.getFromJson(path, Integer.class); // NOPMD
+        } catch (final Exception e) { // NOPMD
+            throw new IllegalArgumentException("\"" + path // NOPMD
+            + "\": no such element with this name exists or is not a Integer!"); // NOPMD
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long getLong(final String path) {
+        try {
+            return this.getFromJson(path, Long.class); // NOPMD
+        } catch (final Exception e) { // NOPMD
+            throw new IllegalArgumentException("\"" + path // NOPMD
+            + "\": no such element with this name exists or is not a Long!"); // NOPMD
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Double getDouble(final String path) {
+        try {
+            return this.getFromJson(path, Double.class);
+        } catch (final Exception e) { // NOPMD
+            throw new IllegalArgumentException("\"" + path // NOPMD
+            + "\": no such element with this name exists or is not a Double!"); // NOPMD
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Float getFloat(final String path) {
+        try {
+            return this.getFromJson(path, Float.class); // NOPMD
+        } catch (final Exception e) { // NOPMD
+            throw new IllegalArgumentException("\"" + path // NOPMD
+            + "\": no such element with this name exists or is not a Float!"); // NOPMD
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean getBool(final String path) {
+        try { // NOPMD
+            return this.getFromJson(path, Boolean.class);
+        } catch (final Exception e) { // NOPMD
+            throw new IllegalArgumentException("\"" + path // NOPMD
+            + "\": no such element with this name exists or is not a boolean!"); // NOPMD
+        }
+    }
+
+    /* ========================= tape ========================= */
+
+    /**
+     * Scandisce il testo una volta e costruisce il tape.
+     *
+     * @throws IllegalArgumentException se la struttura del documento non è valida.
+     */
+    private void index(final String json) {
+        final int length = json.length();
+        final int capacity = Math.max(MIN_TAPE, length / CHARS_PER_TOKEN);
+        this.text = json;
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.next = new int[capacity];
+        this.count = 0;
+
+        int[] open = new int[MIN_TAPE];
+        int depth = 0;
+        int pos = skipWhitespace(json, 0);
+        if (pos == length || json.charAt(pos) != '{' && json.charAt(pos) != '[') {
+            throw new IllegalArgumentException("The JSON root must be an object or an array!");
+        }
+        while (pos < length) {
+            final char c = json.charAt(pos);
+            if (c == '{' || c == '[') {
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth * 2);
+                }
+                open[depth++] = this.add(pos, pos + 1);
+                pos++;
+            } else if (c == '}' || c == ']') {
+                if (depth == 0 || json.charAt(this.starts[open[depth - 1]]) != (c == '}' ? '{' : '[')) {
+                    throw new IllegalArgumentException("Unbalanced \"" + c + "\" at offset " + pos);
+                }
+                final int container = open[--depth];
+                this.ends[container] = pos + 1;
+                this.next[container] = this.count;
+                pos++;
+                if (depth == 0) {
+                    break;
+                }
+            } else if (c == ',' || c == ':') {
+                pos++;
+            } else if (c == '"') {
+                final int end = skipString(json, pos);
+                this.add(pos, end);
+                pos = end;
+            } else {
+                final int end = skipLiteral(json, pos);
+                if (end == pos) {
+                    throw new IllegalArgumentException("Unexpected \"" + c + "\" at offset " + pos);
+                }
+                this.add(pos, end);
+                pos = end;
+            }
+            pos = skipWhitespace(json, pos);
+        }
+        if (depth > 0 || skipWhitespace(json, pos) < length) {
+            throw new IllegalArgumentException("Malformed JSON: unexpected end or trailing content");
+        }
+        if (this.count < this.starts.length) {
+            this.starts = Arrays.copyOf(this.starts, this.count);
+            this.ends = Arrays.copyOf(this.ends, this.count);
+            this.next = Arrays.copyOf(this.next, this.count);
+        }
+        this.isSet = true;
+    }
+
+    /** Aggiunge un token; per i contenitori <code>end</code> e <code>next</code> sono corretti alla chiusura. */
+    private int add(final int start, final int end) {
+        if (this.count == this.starts.length) {
+            final int capacity = this.count * 2;
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.ends = Arrays.copyOf(this.ends, capacity);
+            this.next = Arrays.copyOf(this.next, capacity);
+        }
+        this.starts[this.count] = start;
+        this.ends[this.count] = end;
+        this.next[this.count] = this.count + 1;
+        return this.count++;
+    }
+
+    /**
+     * Cerca il token individuato dal percorso.
+     *
+     * @return l’indice del token, o <code>-1</code> se il percorso non esiste.
+     */
+    private int locate(final JsonPath path) {
+        int token = 0;
+        int segment = 0;
+        if (this.kind(0) == '[') {
+            if (path.depth() == 0 || !ROOT_ARRAY_KEY.equals(path.segment(0))) {
+                return -1;
+            }
+            segment = 1;
+        }
+        for (; segment < path.depth(); segment++) {
+            if (this.kind(token) != '{') {
+                return -1;
+            }
+            token = this.member(token, path.segment(segment));
+            if (token < 0) {
+                return -1;
+            }
+        }
+        return token;
+    }
+
+    /** @return il token valore del membro <code>name</code> dell’oggetto, o <code>-1</code>. */
+    private int member(final int object, final String name) {
+        for (int key = object + 1; key < this.next[object]; key = this.next[key + 1]) {
+            if (this.keyEquals(key, name)) {
+                return key + 1;
+            }
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(final int key, final String name) {
+        final int from = this.starts[key] + 1;
+        final int to = this.ends[key] - 1;
+        if (this.hasEscape(from, to)) {
+            return name.equals(this.stringValue(key));
+        }
+        return to - from == name.length() && this.text.regionMatches(from, name, 0, name.length());
+    }
+
+    private int require(final JsonPath path) {
+        assertIsSet();
+        final int token = this.locate(path);
+        if (token < 0) {
+            throw new IllegalArgumentException("\"" + path + "\": no such element with this name exists!"); // NOPMD
+        }
+        return token;
+    }
+
+    private int requireArray(final String path) {
+        final int token = this.require(JsonPath.compile(path));
+        if (this.kind(token) != '[') {
+            throw new IllegalArgumentException("\"" + path + "\": is not a JSON array!");
+        }
+        return token;
+    }
+
+    /** @return il primo carattere del token, che ne identifica il tipo. */
+    private char kind(final int token) {
+        return this.text.charAt(this.starts[token]);
+    }
+
+    private int size(final int array) {
+        int size = 0;
+        for (int token = array + 1; token < this.next[array]; token = this.next[token]) {
+            size++;
+        }
+        return size;
+    }
+
+    /** Converte un token in un elemento Gson, analizzando solo il suo intervallo di testo. */
+    private JsonElement materialize(final int token) {
+        return JsonParser.parseString(this.text.substring(this.starts[token], this.ends[token]));
+    }
+
+    /**
+     * @return il valore testuale di un token primitivo (contenuto delle
+     *         stringhe, testo grezzo di numeri e letterali).
+     * @throws IllegalArgumentException se il token è un oggetto o un array.
+     */
+    private String scalar(final int token, final int index) {
+        final char kind = this.kind(token);
+        if (kind == '{' || kind == '[') {
+            throw new IllegalArgumentException("Element " + index + " is not a primitive!");
+        }
+        return kind == '"' ? this.stringValue(token) : this.text.substring(this.starts[token], this.ends[token]);
+    }
+
+    private String stringValue(final int token) {
+        final int from = this.starts[token] + 1;
+        final int to = this.ends[token] - 1;
+        return this.hasEscape(from, to)
+            ? this.materialize(token).getAsString()
+            : this.text.substring(from, to);
+    }
+
+    private boolean hasEscape(final int from, final int to) {
+        for (int pos = from; pos < to; pos++) {
+            if (this.text.charAt(pos) == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Stessa conversione di Gson: intero esatto se possibile, altrimenti troncamento. */
+    private static int parseInt(final String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            return new BigDecimal(value).intValue();
+        }
+    }
+
+    private static int skipWhitespace(final String json, final int from) {
+        int pos = from;
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /** @return la posizione successiva alle virgolette di chiusura. */
+    private static int skipString(final String json, final int quote) {
+        int pos = quote + 1;
+        while (pos < json.length()) {
+            final char c = json.charAt(pos);
+            if (c == '\\') {
+                pos += 2;
+            } else if (c == '"') {
+                return pos + 1;
+            } else {
+                pos++;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string at offset " + quote);
+    }
+
+    /** @return la fine di un numero o letterale (<code>true</code>, <code>false</code>, <code>null</code>). */
+    private static int skipLiteral(final String json, final int from) {
+        int pos = from;
+        while (pos < json.length()) {
+            final char c = json.charAt(pos);
+            if (c == ',' || c == ':' || c == '}' || c == ']' || c == '"' || Character.isWhitespace(c)) {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private void assertNotAlreadySet() {
+        if (this.isSet) {
+            throw new IllegalStateException("This AdvancedJsonReader Object was already set!"); // NOPMD
+        }
+    }
+
+    private void assertIsSet() {
+        if (!this.isSet) {
+            throw new UnsupportedOperationException("No JSON was set!"); // NOPMD
+        }
+    }
+
+}
@@ -0,0 +1,271 @@
+package org.app.weathermode.model.locationselector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import java.util.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * <h2>CityDatabase</h2>
+ * <p>Lettore del database binario delle città prodotto da
+ * {@link CityDatabaseWriter} a partire da <em>worldcities.csv</em>.
+ * Il file viene mappato in memoria ({@link java.nio.MappedByteBuffer}) e le
+ * celle sono decodificate solo quando richieste: l’apertura costa pochi
+ * millisecondi e i dati non occupano heap.</p>
+ *
+ * <p>Formato (big-endian):</p>
+ * <ol>
+ *   <li>intestazione: <code>magic, versione, righe, colonne, stringhe</code>;</li>
+ *   <li>descrittori di colonna: <code>(indice del nome, tipo)</code>;</li>
+ *   <li>tabella delle stringhe: <code>stringhe + 1</code> offset e i byte
+ *       UTF-8, senza duplicati (nazioni e regioni compaiono una volta);</li>
+ *   <li>colonne, una dopo l’altra, a larghezza fissa: indice nella tabella
+ *       per le colonne {@link #STRING}, valore a 8 byte per {@link #LONG} e
+ *       {@link #DOUBLE};</li>
+ *   <li>indice <code>(id, riga)</code> ordinato per id.</li>
+ * </ol>
+ * <p>Le istanze sono immutabili e utilizzabili da più thread: il buffer è
+ * letto solo con accessi assoluti.</p>
+ */
+public final class CityDatabase {
+
+    /** Firma del file: <code>"WCDB"</code>. */
+    static final int MAGIC = 0x5743_4442;
+    /** Versione del formato. */
+    static final int VERSION = 1;
+    /** Colonna di testo, codificata con la tabella delle stringhe. */
+    static final int STRING = 0;
+    /** Colonna di interi; le celle vuote valgono {@link Long#MIN_VALUE}. */
+    static final int LONG = 1;
+    /** Colonna di decimali; le celle vuote valgono {@link Double#NaN}. */
+    static final int DOUBLE = 2;
+    /** Colonna che identifica le righe. */
+    static final String ID_COLUMN = "id";
+
+    private static final int HEADER_INTS = 5;
+    /** Oltre questa soglia i decimali interi non sono più esatti come <code>long</code>. */
+    private static final double MAX_INTEGRAL = 1e15;
+
+    private final ByteBuffer data;
+    private final int rows;
+    private final String[] columns;
+    private final int[] types;
+    private final int[] columnPositions;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final int stringOffsets;
+    private final int stringBytes;
+    private final int idIndex;
+
+    private CityDatabase(final ByteBuffer data) {
+        this.data = data;
+        if (data.limit() < HEADER_INTS * Integer.BYTES || data.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a city database");
+        }
+        if (data.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Unsupported city database version " + data.getInt(Integer.BYTES));
+        }
+        this.rows = data.getInt(2 * Integer.BYTES);
+        final int columnCount = data.getInt(3 * Integer.BYTES);
+        final int strings = data.getInt(4 * Integer.BYTES);
+
+        final int descriptors = HEADER_INTS * Integer.BYTES;
+        this.stringOffsets = descriptors + columnCount * 2 * Integer.BYTES;
+        this.stringBytes = stringOffsets + (strings + 1) * Integer.BYTES;
+
+        this.columns = new String[columnCount];
+        this.types = new int[columnCount];
+        this.columnPositions = new int[columnCount];
+        int position = stringBytes + data.getInt(stringOffsets + strings * Integer.BYTES);
+        for (int c = 0; c < columnCount; c++) {
+            columns[c] = string(data.getInt(descriptors + c * 2 * Integer.BYTES));
+            types[c] = data.getInt(descriptors + c * 2 * Integer.BYTES + Integer.BYTES);
+            columnPositions[c] = position;
+            position += rows * width(types[c]);
+            columnIndex.put(columns[c], c);
+        }
+        this.idIndex = position;
+        if (idIndex + rows * 2 * Integer.BYTES != data.limit()) {
+            throw new IllegalArgumentException("Truncated city database");
+        }
+    }
+
+    /**
+     * Apre un database già presente in un buffer (ad es. appena prodotto da
+     * {@link CityDatabaseWriter}).
+     *
+     * @param buffer contenuto completo del file; non viene modificato.
+     * @return il database.
+     * @throws IllegalArgumentException se il contenuto non è un database valido.
+     */
+    public static CityDatabase wrap(final ByteBuffer buffer) {
+        return new CityDatabase(buffer.duplicate());
+    }
+
+    /**
+     * Apre il database indicato da <code>url</code>. Un file su disco viene
+     * mappato in memoria; una risorsa dentro un jar, che non si può mappare,
+     * viene copiata in un buffer <em>direct</em>, comunque fuori dallo heap.
+     *
+     * @param url posizione del file, tipicamente da {@link Class#getResource}.
+     * @return il database.
+     * @throws IOException se il file non è leggibile.
+     * @throws IllegalArgumentException se il contenuto non è un database valido.
+     */
+    public static CityDatabase open(final URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                return new CityDatabase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } catch (final URISyntaxException e) {
+                throw new IOException("Invalid database location " + url, e);
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            final byte[] bytes = in.readAllBytes();
+            return new CityDatabase(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip());
+        }
+    }
+
+    /**
+     * @return numero di righe (città).
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * @return nomi delle colonne, nell’ordine del CSV originale.
+     */
+    public List<String> columns() {
+        return List.of(columns);
+    }
+
+    /**
+     * @param name nome di colonna.
+     * @return indice della colonna, o <code>-1</code> se assente.
+     */
+    public int column(final String name) {
+        return columnIndex.getOrDefault(name, -1);
+    }
+
+    /**
+     * Legge una cella come testo, esattamente come compariva nel CSV.
+     *
+     * @param row    riga, tra <code>0</code> e {@link #size()} escluso.
+     * @param column indice di colonna, da {@link #column(String)}.
+     * @return il valore della cella (stringa vuota se la cella era vuota).
+     */
+    public String get(final int row, final int column) {
+        final int at = columnPositions[column] + row * width(types[column]);
+        return switch (types[column]) {
+            case LONG -> {
+                final long value = data.getLong(at);
+                yield value == Long.MIN_VALUE ? "" : Long.toString(value);
+            }
+            case DOUBLE -> {
+                final double value = data.getDouble(at);
+                yield Double.isNaN(value) ? "" : formatDouble(value);
+            }
+            default -> string(data.getInt(at));
+        };
+    }
+
+    /**
+     * Legge una cella come numero senza passare dal testo quando la colonna
+     * è numerica.
+     *
+     * @param row    riga.
+     * @param column indice di colonna.
+     * @return il valore, o {@link Double#NaN} se la cella è vuota o non numerica.
+     */
+    public double getDouble(final int row, final int column) {
+        final int at = columnPositions[column] + row * width(types[column]);
+        return switch (types[column]) {
+            case LONG -> {
+                final long value = data.getLong(at);
+                yield value == Long.MIN_VALUE ? Double.NaN : value;
+            }
+            case DOUBLE -> data.getDouble(at);
+            default -> {
+                try {
+                    yield Double.parseDouble(string(data.getInt(at)));
+                } catch (final NumberFormatException e) {
+                    yield Double.NaN;
+                }
+            }
+        };
+    }
+
+    /**
+     * Ricostruisce una riga come mappa <code>colonna → valore</code>, nella
+     * stessa forma prodotta da {@link org.app.weathermode.model.csv.CSVStdParser#readCSVToMap()}.
+     *
+     * @param row riga.
+     * @return una nuova mappa con tutte le colonne.
+     */
+    public Map<String, String> row(final int row) {
+        final Map<String, String> values = new HashMap<>();
+        for (int c = 0; c < columns.length; c++) {
+            values.put(columns[c], get(row, c));
+        }
+        return values;
+    }
+
+    /**
+     * Cerca una riga per id con una ricerca binaria sull’indice.
+     *
+     * @param id valore della colonna {@value #ID_COLUMN}.
+     * @return la riga, o <code>-1</code> se l’id non esiste.
+     */
+    public int rowOf(final int id) {
+        int lo = 0;
+        int hi = rows - 1;
+        while (lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            final int current = data.getInt(idIndex + mid * 2 * Integer.BYTES);
+            if (current < id) {
+                lo = mid + 1;
+            } else if (current > id) {
+                hi = mid - 1;
+            } else {
+                return data.getInt(idIndex + mid * 2 * Integer.BYTES + Integer.BYTES);
+            }
+        }
+        return -1;
+    }
+
+    private String string(final int index) {
+        final int from = data.getInt(stringOffsets + index * Integer.BYTES);
+        final int to = data.getInt(stringOffsets + (index + 1) * Integer.BYTES);
+        final byte[] bytes = new byte[to - from];
+        data.get(stringBytes + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return byte occupati da una cella di una colonna del tipo dato.
+     */
+    static int width(final int type) {
+        return type == STRING ? Integer.BYTES : Long.BYTES;
+    }
+
+    /**
+     * Rappresentazione testuale di un decimale usata sia in scrittura (per
+     * verificare che la colonna si possa ricostruire identica) sia in lettura.
+     */
+    static String formatDouble(final double value) {
+        if (value == Math.rint(value) && Math.abs(value) < MAX_INTEGRAL) {
+            return Long.toString((long) value);
+        }
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+}
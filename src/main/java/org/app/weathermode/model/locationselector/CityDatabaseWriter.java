@@ -0,0 +1,231 @@
+package org.app.weathermode.model.locationselector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import java.util.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+import com.opencsv.exceptions.CsvException;
+import org.app.weathermode.model.csv.CSVRow;
+import org.app.weathermode.model.csv.CSVStdParser;
+
+/**
+ * <h2>CityDatabaseWriter</h2>
+ * <p>Compila <em>worldcities.csv</em> nel formato binario letto da
+ * {@link CityDatabase}. Viene eseguito in fase di build dal task Gradle
+ * <code>cityDatabase</code> e, se il file binario non è disponibile, a runtime
+ * da {@link LocationSelectorImpl} direttamente in memoria.</p>
+ * <p>Il CSV è letto a flusso con {@link CSVStdParser#forEachRow}: in memoria
+ * restano solo i valori distinti e, per ogni cella, il loro indice.
+ * Il tipo di ogni colonna è scelto sui dati: una colonna diventa
+ * {@link CityDatabase#LONG} o {@link CityDatabase#DOUBLE} solo se tutte le
+ * sue celle si ricostruiscono identiche dal numero, altrimenti resta testo
+ * codificato con la tabella delle stringhe.</p>
+ */
+public final class CityDatabaseWriter {
+
+    private static final int INITIAL_ROWS = 1024;
+
+    private CityDatabaseWriter() { }
+
+    /**
+     * Punto di ingresso del task Gradle.
+     *
+     * @param args percorso del CSV e percorso del file binario da scrivere.
+     * @throws IOException  se la lettura o la scrittura falliscono.
+     * @throws CsvException se il CSV è malformato.
+     */
+    public static void main(final String[] args) throws IOException, CsvException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CityDatabaseWriter <worldcities.csv> <worldcities.bin>");
+        }
+        final Path target = Paths.get(args[1]);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        try (Reader csv = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             OutputStream out = Files.newOutputStream(target)) {
+            compile(csv, out);
+        }
+    }
+
+    /**
+     * Legge un CSV con intestazione e ne scrive la versione binaria.
+     *
+     * @param csv sorgente CSV; la prima riga è l’intestazione e deve contenere
+     *            la colonna {@value CityDatabase#ID_COLUMN} con id interi.
+     * @param out destinazione; non viene chiusa.
+     * @throws IOException  se la lettura o la scrittura falliscono.
+     * @throws CsvException se il CSV è malformato.
+     * @throws IllegalArgumentException se manca la colonna id o un id non è intero.
+     */
+    public static void compile(final Reader csv, final OutputStream out) throws IOException, CsvException {
+        final Columns columns;
+        try (CSVStdParser parser = new CSVStdParser(csv)) {
+            columns = new Columns(parser.getHeader());
+            parser.forEachRow(columns::add);
+        }
+        final List<String> header = columns.header;
+        final int idColumn = header.indexOf(CityDatabase.ID_COLUMN);
+        if (idColumn < 0) {
+            throw new IllegalArgumentException("Missing '" + CityDatabase.ID_COLUMN + "' column");
+        }
+        final int rows = columns.rows;
+
+        final int[] types = new int[header.size()];
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        header.forEach(name -> intern(strings, name));
+        for (int c = 0; c < types.length; c++) {
+            types[c] = columns.type(c);
+            if (types[c] == CityDatabase.STRING) {
+                for (int r = 0; r < rows; r++) {
+                    intern(strings, columns.get(c, r));
+                }
+            }
+        }
+
+        final int[][] ids = new int[rows][];
+        for (int r = 0; r < rows; r++) {
+            try {
+                ids[r] = new int[] {Integer.parseInt(columns.get(idColumn, r)), r};
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid id at row " + (r + 1), e);
+            }
+        }
+        Arrays.sort(ids, Comparator.comparingInt(id -> id[0]));
+
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(CityDatabase.MAGIC);
+        data.writeInt(CityDatabase.VERSION);
+        data.writeInt(rows);
+        data.writeInt(types.length);
+        data.writeInt(strings.size());
+        for (int c = 0; c < types.length; c++) {
+            data.writeInt(strings.get(header.get(c)));
+            data.writeInt(types[c]);
+        }
+        final List<byte[]> encoded = new ArrayList<>(strings.size());
+        int offset = 0;
+        data.writeInt(offset);
+        for (final String s : strings.keySet()) {
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            offset += bytes.length;
+            data.writeInt(offset);
+        }
+        for (final byte[] bytes : encoded) {
+            data.write(bytes);
+        }
+        for (int c = 0; c < types.length; c++) {
+            for (int r = 0; r < rows; r++) {
+                writeCell(data, types[c], columns.get(c, r), strings);
+            }
+        }
+        for (final int[] id : ids) {
+            data.writeInt(id[0]);
+            data.writeInt(id[1]);
+        }
+        data.flush();
+    }
+
+    private static void writeCell(final DataOutputStream data, final int type, final String value,
+                                  final Map<String, Integer> strings) throws IOException {
+        switch (type) {
+            case CityDatabase.LONG -> data.writeLong(value.isEmpty() ? Long.MIN_VALUE : Long.parseLong(value));
+            case CityDatabase.DOUBLE -> data.writeDouble(value.isEmpty() ? Double.NaN : Double.parseDouble(value));
+            default -> data.writeInt(strings.get(value));
+        }
+    }
+
+    private static boolean isLong(final String value) {
+        try {
+            final long parsed = Long.parseLong(value);
+            return parsed != Long.MIN_VALUE && Long.toString(parsed).equals(value);
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDouble(final String value) {
+        try {
+            final double parsed = Double.parseDouble(value);
+            return !Double.isNaN(parsed) && CityDatabase.formatDouble(parsed).equals(value);
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void intern(final Map<String, Integer> strings, final String value) {
+        strings.putIfAbsent(value, strings.size());
+    }
+
+    /**
+     * Celle lette a flusso, colonna per colonna. Ogni valore distinto è
+     * conservato una sola volta e le celle ne tengono l’indice; intanto si
+     * verifica se ogni colonna può essere numerica.
+     */
+    private static final class Columns {
+        private final List<String> header;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final int[][] cells;
+        private final boolean[] longs;
+        private final boolean[] doubles;
+        private int capacity = INITIAL_ROWS;
+        private int rows;
+
+        Columns(final List<String> header) {
+            this.header = header;
+            this.cells = new int[header.size()][capacity];
+            this.longs = new boolean[header.size()];
+            this.doubles = new boolean[header.size()];
+            Arrays.fill(longs, true);
+            Arrays.fill(doubles, true);
+        }
+
+        void add(final CSVRow row) {
+            if (rows == capacity) {
+                capacity *= 2;
+                for (int c = 0; c < cells.length; c++) {
+                    cells[c] = Arrays.copyOf(cells[c], capacity);
+                }
+            }
+            for (int c = 0; c < cells.length; c++) {
+                final String value = row.get(c);
+                Integer id = dictionary.get(value);
+                if (id == null) {
+                    id = values.size();
+                    dictionary.put(value, id);
+                    values.add(value);
+                }
+                cells[c][rows] = id;
+                if (!value.isEmpty()) {
+                    longs[c] = longs[c] && isLong(value);
+                    doubles[c] = doubles[c] && isDouble(value);
+                }
+            }
+            rows++;
+        }
+
+        String get(final int column, final int row) {
+            return values.get(cells[column][row]);
+        }
+
+        /** Il tipo più compatto che ricostruisce ogni cella della colonna. */
+        int type(final int column) {
+            if (longs[column]) {
+                return CityDatabase.LONG;
+            }
+            return doubles[column] ? CityDatabase.DOUBLE : CityDatabase.STRING;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.app.weathermode.model.locationselector;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * <h2>CityNameIndex</h2>
+ * <p>Indice invertito a <strong>trigrammi</strong> sui nomi delle città, usato
+ * da {@link LocationSelectorImpl} per le ricerche per sottostringa.</p>
+ * <p>L’indice lavora sui numeri di riga della sorgente (il CSV in memoria o il
+ * {@link CityDatabase}) e conserva solo i nomi normalizzati.
+ * Alla costruzione le righe vengono ordinate per popolazione decrescente e
+ * la posizione in questo ordine diventa l’identificativo interno della riga:
+ * ogni trigramma del nome normalizzato (<code>city</code> e
+ * <code>city_ascii</code> in minuscolo) punta a una lista ordinata di
+ * posizioni. Una ricerca interseca le liste dei trigrammi della query partendo
+ * dalla più corta, verifica i candidati con {@link String#contains} e si ferma
+ * ai primi <code>limit</code> risultati, che sono già i più popolosi.
+ * Il costo dipende quindi dalla lista più corta e dal limite, non dal numero
+ * di righe.</p>
+ * <p>Le query più corte di un trigramma non sono indicizzabili: si scorrono i
+ * nomi in ordine di popolazione, fermandosi anche qui al limite.</p>
+ */
+public final class CityNameIndex {
+
+    private static final int GRAM = 3;
+    private static final int CHAR_BITS = 16;
+    /** Separatore tra nome locale e ASCII: non compare in una query reale. */
+    private static final char SEPARATOR = '\u0000';
+
+    /** Righe della sorgente ordinate per popolazione decrescente. */
+    private final int[] order;
+
+    /** Nomi normalizzati, nello stesso ordine di {@link #order}. */
+    private final String[] names;
+
+    /** Trigramma (tre caratteri impaccati) → posizioni crescenti in {@link #order}. */
+    private final Map<Long, int[]> postings;
+
+    /**
+     * Costruisce l’indice sulle righe del CSV delle città già in memoria.
+     *
+     * @param csvRows righe con almeno le colonne <code>city</code>,
+     *                <code>city_ascii</code> e <code>population</code>
+     *                (quest’ultima può essere vuota).
+     */
+    public CityNameIndex(final List<Map<String, String>> csvRows) {
+        this(csvRows.size(), row -> csvRows.get(row).get("city"), row -> csvRows.get(row).get("city_ascii"),
+            row -> population(csvRows.get(row).get("population")));
+    }
+
+    /**
+     * Costruisce l’indice su una sorgente qualsiasi, letta per numero di riga.
+     *
+     * @param size       numero di righe.
+     * @param city       nome locale della riga.
+     * @param asciiCity  nome ASCII della riga.
+     * @param population popolazione della riga ({@link Double#NaN} se ignota).
+     */
+    public CityNameIndex(final int size, final IntFunction<String> city, final IntFunction<String> asciiCity,
+                         final IntToDoubleFunction population) {
+        final double[] populations = new double[size];
+        final Integer[] sorted = new Integer[size];
+        for (int row = 0; row < size; row++) {
+            final double value = population.applyAsDouble(row);
+            populations[row] = Double.isNaN(value) ? 0 : value;
+            sorted[row] = row;
+        }
+        Arrays.sort(sorted, (a, b) -> Double.compare(populations[b], populations[a]));
+        this.order = new int[size];
+        this.names = new String[size];
+
+        final Map<Long, Posting> building = new HashMap<>();
+        for (int pos = 0; pos < size; pos++) {
+            order[pos] = sorted[pos];
+            final String local = normalize(city.apply(order[pos]));
+            final String ascii = normalize(asciiCity.apply(order[pos]));
+            names[pos] = local.equals(ascii) ? local : local + SEPARATOR + ascii;
+            for (int i = 0; i + GRAM <= names[pos].length(); i++) {
+                building.computeIfAbsent(trigram(names[pos], i), k -> new Posting()).add(pos);
+            }
+        }
+        this.postings = new HashMap<>(building.size() * 4 / 3 + 1);
+        building.forEach((key, posting) -> postings.put(key, posting.toArray()));
+    }
+
+    /**
+     * Restituisce le righe il cui nome (locale o ASCII) contiene
+     * <code>txt</code>, senza distinzione tra maiuscole e minuscole.
+     *
+     * @param txt   testo da cercare.
+     * @param limit numero massimo di risultati.
+     * @return al più <code>limit</code> numeri di riga della sorgente, dalla
+     *         città più popolosa.
+     */
+    public int[] search(final String txt, final int limit) {
+        final String query = normalize(txt);
+        if (limit <= 0) {
+            return new int[0];
+        }
+        if (query.length() < GRAM) {
+            return scan(query, limit);
+        }
+
+        final int[][] lists = new int[query.length() - GRAM + 1][];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(trigram(query, i));
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+        final int[] found = new int[Math.min(limit, lists[0].length)];
+        int count = 0;
+        final int[] cursors = new int[lists.length];
+        for (final int candidate : lists[0]) {
+            boolean inAll = true;
+            for (int l = 1; l < lists.length && inAll; l++) {
+                cursors[l] = advance(lists[l], cursors[l], candidate);
+                if (cursors[l] == lists[l].length) {
+                    return Arrays.copyOf(found, count);
+                }
+                inAll = lists[l][cursors[l]] == candidate;
+            }
+            if (inAll && names[candidate].contains(query)) {
+                found[count++] = order[candidate];
+                if (count == found.length) {
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * @return numero di righe indicizzate.
+     */
+    public int size() {
+        return order.length;
+    }
+
+    private int[] scan(final String query, final int limit) {
+        final int[] found = new int[Math.min(limit, names.length)];
+        int count = 0;
+        for (int pos = 0; pos < names.length && count < found.length; pos++) {
+            if (names[pos].contains(query)) {
+                found[count++] = order[pos];
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Prima posizione ≥ <code>from</code> con valore ≥ <code>target</code>,
+     * con ricerca esponenziale seguita da una binaria.
+     */
+    private static int advance(final int[] list, final int from, final int target) {
+        int bound = 1;
+        while (from + bound < list.length && list[from + bound - 1] < target) {
+            bound <<= 1;
+        }
+        final int lo = from + (bound >> 1);
+        final int hi = Math.min(from + bound, list.length);
+        final int idx = Arrays.binarySearch(list, lo, hi, target);
+        return idx >= 0 ? idx : -idx - 1;
+    }
+
+    private static long trigram(final String s, final int i) {
+        return (long) s.charAt(i) << (2 * CHAR_BITS) | (long) s.charAt(i + 1) << CHAR_BITS | s.charAt(i + 2);
+    }
+
+    private static String normalize(final String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private static double population(final String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (final NumberFormatException | NullPointerException e) { // NOPMD
+            return Double.NaN;
+        }
+    }
+
+    /** Lista di posizioni in costruzione, crescenti e senza duplicati. */
+    private static final class Posting {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(final int pos) {
+            if (size > 0 && ids[size - 1] == pos) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = pos;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
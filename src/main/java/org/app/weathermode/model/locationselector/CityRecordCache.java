@@ -0,0 +1,156 @@
+package org.app.weathermode.model.locationselector;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * <h2>CityRecordCache</h2>
+ * <p>Piccolo indice su disco delle ultime città usate, con la riga completa
+ * del database per ciascuna. All’avvio permette di ottenere il record della
+ * città di default senza attendere l’apertura del database completo, che
+ * prosegue in background (vedi {@link StagedLocationSelector}).</p>
+ * <pre>
+ *  int magic | int versione | int record
+ *  per record: int id | int colonne | (utf colonna | utf valore)*
+ * </pre>
+ * <p>Sono conservati al più {@value #MAX_RECORDS} record, dal meno al più
+ * recente. Come {@code OfflineForecastStore}, il file è sostituito
+ * atomicamente e un file corrotto viene ignorato: la cache è solo
+ * un’ottimizzazione.</p>
+ */
+public final class CityRecordCache {
+
+    /** File predefinito, accanto alla configurazione. */
+    public static final Path DEFAULT_FILE = Path.of("app_config", "city_records.bin");
+
+    /** Numero massimo di città conservate. */
+    public static final int MAX_RECORDS = 8;
+
+    private static final Logger LOG = Logger.getLogger(CityRecordCache.class.getName());
+    private static final int MAGIC = 0x57_43_52_43; // "WCRC"
+    private static final int VERSION = 1;
+
+    private final Path file;
+
+    /* stato protetto da this */
+    private Map<Integer, Map<String, String>> records;
+
+    /**
+     * @param file file in cui conservare i record.
+     */
+    public CityRecordCache(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Restituisce il record salvato di una città.
+     *
+     * @param id identificativo della città.
+     * @return una copia della riga, o {@link Optional#empty()} se assente.
+     */
+    public synchronized Optional<Map<String, String>> get(final int id) {
+        final Map<String, String> row = this.records().get(id);
+        return row == null ? Optional.empty() : Optional.of(new HashMap<>(row));
+    }
+
+    /**
+     * Salva il record di una città, rendendolo il più recente. Il file viene
+     * riscritto se cambiano il contenuto o l’ordine dei record, così dopo un
+     * riavvio vengono scartate le città davvero meno usate; non se la città
+     * era già la più recente con la stessa riga.
+     *
+     * @param id  identificativo della città.
+     * @param row riga completa del database.
+     */
+    public synchronized void put(final int id, final Map<String, String> row) {
+        final Map<Integer, Map<String, String>> current = this.records();
+        if (Integer.valueOf(id).equals(newest(current)) && row.equals(current.get(id))) {
+            return;
+        }
+        current.remove(id);
+        current.put(id, new HashMap<>(row));
+        final Iterator<Integer> oldest = current.keySet().iterator();
+        while (current.size() > MAX_RECORDS) {
+            oldest.next();
+            oldest.remove();
+        }
+        this.save(current);
+    }
+
+    private static Integer newest(final Map<Integer, Map<String, String>> current) {
+        Integer last = null;
+        for (final Integer id : current.keySet()) {
+            last = id;
+        }
+        return last;
+    }
+
+    private Map<Integer, Map<String, String>> records() {
+        if (this.records == null) {
+            this.records = this.load();
+        }
+        return this.records;
+    }
+
+    private Map<Integer, Map<String, String>> load() {
+        final Map<Integer, Map<String, String>> loaded = new LinkedHashMap<>();
+        if (!Files.isReadable(this.file)) {
+            return loaded;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("formato non riconosciuto");
+            }
+            final int count = in.readInt();
+            for (int r = 0; r < count; r++) {
+                final int id = in.readInt();
+                final int columns = in.readInt();
+                final Map<String, String> row = new HashMap<>();
+                for (int c = 0; c < columns; c++) {
+                    row.put(in.readUTF(), in.readUTF());
+                }
+                loaded.put(id, row);
+            }
+            return loaded;
+        } catch (final IOException e) {
+            LOG.fine("Cache delle città illeggibile (%s): %s".formatted(this.file, e.getMessage()));
+            return new LinkedHashMap<>();
+        }
+    }
+
+    private void save(final Map<Integer, Map<String, String>> current) {
+        try {
+            final Path directory = this.file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            final Path tmp = Files.createTempFile(directory, "city_records", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(current.size());
+                for (final Map.Entry<Integer, Map<String, String>> record : current.entrySet()) {
+                    out.writeInt(record.getKey());
+                    out.writeInt(record.getValue().size());
+                    for (final Map.Entry<String, String> cell : record.getValue().entrySet()) {
+                        out.writeUTF(cell.getKey());
+                        out.writeUTF(cell.getValue() == null ? "" : cell.getValue());
+                    }
+                }
+            }
+            Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOG.fine("Impossibile salvare la cache delle città: " + e.getMessage());
+        }
+    }
+}
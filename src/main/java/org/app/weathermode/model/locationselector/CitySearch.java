@@ -0,0 +1,150 @@
+package org.app.weathermode.model.locationselector;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.app.weathermode.model.pair.Pair;
+
+/**
+ * <h2>CitySearch</h2>
+ * <p>Ricerca delle città “mentre si digita”, fuori dal thread della UI.
+ * Ogni {@link #query(String)} attende {@code delayMillis} ms prima di
+ * interrogare il {@link LocationSelector}: una nuova digitazione entro
+ * l’attesa sostituisce la precedente (<em>debounce</em>), per cui parte solo
+ * l’ultima ricerca.</p>
+ * <p>Ogni richiesta riceve un numero di generazione; risultati ed errori
+ * vengono consegnati sull’esecutore della UI solo se nel frattempo non è
+ * arrivata una richiesta più recente. Una ricerca già iniziata non viene
+ * fermata a metà (le interrogazioni del selettore non sono interrompibili):
+ * l’annullamento la interrompe e il risultato, controllato
+ * l’interruzione al termine, viene scartato.</p>
+ * <p>Le eccezioni del selettore (ad esempio la
+ * {@link java.util.concurrent.CompletionException} di un
+ * {@link StagedLocationSelector} il cui caricamento è fallito) non vanno
+ * perse: vengono registrate nel log e consegnate al gestore degli errori.</p>
+ */
+public final class CitySearch implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(CitySearch.class.getName());
+
+    private final LocationSelector selector;
+    private final int limit;
+    private final long delayMillis;
+    private final ScheduledExecutorService executor;
+    private final Executor uiThread;
+    private final Consumer<List<Pair<String, Integer>>> onResults;
+    private final Consumer<RuntimeException> onError;
+    /** Incrementato a ogni richiesta: un risultato superato non viene consegnato. */
+    private final AtomicLong generation = new AtomicLong();
+    /** Ricerca in attesa o in corso. */
+    private Future<?> pending;
+
+    /**
+     * Crea la ricerca con un thread dedicato, da chiudere con {@link #close()}.
+     *
+     * @param selector    selettore da interrogare.
+     * @param limit       numero massimo di risultati.
+     * @param delayMillis attesa dopo l’ultima digitazione.
+     * @param uiThread    esecutore su cui consegnare risultati ed errori.
+     * @param onResults   riceve i risultati dell’ultima ricerca.
+     * @param onError     riceve l’errore dell’ultima ricerca.
+     */
+    public CitySearch(final LocationSelector selector, final int limit, final long delayMillis,
+                      final Executor uiThread, final Consumer<List<Pair<String, Integer>>> onResults,
+                      final Consumer<RuntimeException> onError) {
+        this(selector, limit, delayMillis, Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "city-search");
+            t.setDaemon(true);
+            return t;
+        }), uiThread, onResults, onError);
+    }
+
+    /**
+     * @param selector    selettore da interrogare.
+     * @param limit       numero massimo di risultati.
+     * @param delayMillis attesa dopo l’ultima digitazione.
+     * @param executor    esecutore dell’attesa e della ricerca; chiuso da {@link #close()}.
+     * @param uiThread    esecutore su cui consegnare risultati ed errori.
+     * @param onResults   riceve i risultati dell’ultima ricerca.
+     * @param onError     riceve l’errore dell’ultima ricerca.
+     */
+    public CitySearch(final LocationSelector selector, final int limit, final long delayMillis, // NOPMD
+                      final ScheduledExecutorService executor, final Executor uiThread,
+                      final Consumer<List<Pair<String, Integer>>> onResults,
+                      final Consumer<RuntimeException> onError) {
+        this.selector = selector;
+        this.limit = limit;
+        this.delayMillis = delayMillis;
+        this.executor = executor;
+        this.uiThread = uiThread;
+        this.onResults = onResults;
+        this.onError = onError;
+    }
+
+    /**
+     * Pianifica la ricerca di <code>text</code>, sostituendo quella in attesa
+     * o in corso.
+     *
+     * @param text testo da cercare.
+     */
+    public synchronized void query(final String text) {
+        final long current = this.generation.incrementAndGet();
+        this.cancelPending();
+        if (!this.executor.isShutdown()) {
+            this.pending = this.executor.schedule(() -> this.search(text, current),
+                this.delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Annulla la ricerca in attesa o in corso senza avviarne un’altra.
+     */
+    public synchronized void clear() {
+        this.generation.incrementAndGet();
+        this.cancelPending();
+    }
+
+    /**
+     * Annulla la ricerca e arresta il thread.
+     */
+    @Override
+    public synchronized void close() {
+        this.clear();
+        this.executor.shutdownNow();
+    }
+
+    private void cancelPending() {
+        if (this.pending != null) {
+            this.pending.cancel(true);
+            this.pending = null;
+        }
+    }
+
+    private void search(final String text, final long current) {
+        try {
+            final List<Pair<String, Integer>> found = this.selector.getPossibleLocations(text, this.limit);
+            if (!Thread.interrupted()) {
+                this.publish(current, () -> this.onResults.accept(found));
+            }
+        } catch (final RuntimeException e) {
+            LOG.log(Level.WARNING, "Ricerca delle città non riuscita", e);
+            this.publish(current, () -> this.onError.accept(e));
+        }
+    }
+
+    private void publish(final long current, final Runnable delivery) {
+        this.uiThread.execute(() -> {
+            if (this.generation.get() == current) {
+                delivery.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,286 @@
+package org.app.weathermode.model.locationselector;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import java.util.*;
+import java.util.function.IntToDoubleFunction;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * <h2>CitySpatialIndex</h2>
+ * <p>Indice spaziale sulle coordinate delle città per il <em>reverse
+ * geocoding</em> senza rete: la città più vicina a una posizione IP o a un
+ * checkpoint di viaggio.</p>
+ * <p>Ogni punto è convertito nel vettore unitario <code>(x, y, z)</code> sulla
+ * sfera e inserito in un <strong>k-d tree</strong> a tre dimensioni. La
+ * distanza euclidea tra vettori (la corda) cresce con la distanza sulla
+ * superficie, quindi l’ordinamento è quello corretto anche attraverso
+ * l’antimeridiano e vicino ai poli. L’albero è implicito: i nodi sono
+ * riordinati in array in modo che la mediana di ogni intervallo ne sia la
+ * radice, senza puntatori.</p>
+ * <p>Come {@link CityNameIndex}, lavora sui numeri di riga della sorgente.</p>
+ */
+public final class CitySpatialIndex {
+
+    /** Raggio medio terrestre in km. */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final int DIMENSIONS = 3;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+    /** Tolleranza relativa sul raggio, per i punti esattamente sul bordo. */
+    private static final double RADIUS_TOLERANCE = 1 + 1e-12;
+
+    /** Coordinate dei nodi per asse, in ordine d’albero. */
+    private final double[][] points;
+
+    /** Riga della sorgente per ogni nodo. */
+    private final int[] rows;
+
+    /**
+     * Costruisce l’indice; le righe con coordinate mancanti
+     * ({@link Double#NaN}) vengono ignorate.
+     *
+     * @param size      numero di righe della sorgente.
+     * @param latitude  latitudine in gradi della riga.
+     * @param longitude longitudine in gradi della riga.
+     */
+    public CitySpatialIndex(final int size, final IntToDoubleFunction latitude, final IntToDoubleFunction longitude) {
+        final double[][] coords = new double[DIMENSIONS][size];
+        final int[] valid = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            final double lat = latitude.applyAsDouble(row);
+            final double lng = longitude.applyAsDouble(row);
+            if (!Double.isNaN(lat) && !Double.isNaN(lng)) {
+                toVector(lat, lng, coords, row);
+                valid[count++] = row;
+            }
+        }
+        final int[] order = Arrays.copyOf(valid, count);
+        build(order, coords, 0, count, 0);
+
+        this.rows = order;
+        this.points = new double[DIMENSIONS][count];
+        for (int node = 0; node < count; node++) {
+            for (int axis = 0; axis < DIMENSIONS; axis++) {
+                points[axis][node] = coords[axis][order[node]];
+            }
+        }
+    }
+
+    /**
+     * Restituisce le <code>k</code> righe più vicine al punto dato.
+     *
+     * @param lat latitudine in gradi.
+     * @param lng longitudine in gradi.
+     * @param k   numero massimo di risultati.
+     * @return numeri di riga dal più vicino al più lontano.
+     */
+    public int[] nearest(final double lat, final double lng, final int k) {
+        final int wanted = Math.min(k, rows.length);
+        if (wanted <= 0) {
+            return new int[0];
+        }
+        final Search search = new Search(target(lat, lng), wanted, Double.POSITIVE_INFINITY);
+        search.visit(0, rows.length, 0);
+        return search.result();
+    }
+
+    /**
+     * Restituisce le righe entro <code>radiusKm</code> dal punto dato.
+     *
+     * @param lat      latitudine in gradi.
+     * @param lng      longitudine in gradi.
+     * @param radiusKm raggio in km lungo la superficie terrestre.
+     * @return numeri di riga dal più vicino al più lontano.
+     */
+    public int[] withinRadius(final double lat, final double lng, final double radiusKm) {
+        if (Double.isNaN(radiusKm) || radiusKm < 0 || rows.length == 0) {
+            return new int[0];
+        }
+        final double angle = Math.min(radiusKm / EARTH_RADIUS_KM, Math.PI);
+        final double chord = 2 * Math.sin(angle / 2);
+        final Search search = new Search(target(lat, lng), UNBOUNDED, chord * chord * RADIUS_TOLERANCE);
+        search.visit(0, rows.length, 0);
+        return search.result();
+    }
+
+    /**
+     * @return numero di righe indicizzate.
+     */
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * Distanza sulla superficie terrestre (formula dell’emisenoverso).
+     *
+     * @param lat1 latitudine del primo punto, in gradi.
+     * @param lng1 longitudine del primo punto, in gradi.
+     * @param lat2 latitudine del secondo punto, in gradi.
+     * @param lng2 longitudine del secondo punto, in gradi.
+     * @return distanza in km.
+     */
+    public static double distanceKm(final double lat1, final double lng1, final double lat2, final double lng2) {
+        final double dLat = Math.toRadians(lat2 - lat1);
+        final double dLng = Math.toRadians(lng2 - lng1);
+        final double h = Math.pow(Math.sin(dLat / 2), 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLng / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    private static double[] target(final double lat, final double lng) {
+        final double[][] vector = new double[DIMENSIONS][1];
+        toVector(lat, lng, vector, 0);
+        return new double[] {vector[0][0], vector[1][0], vector[2][0]};
+    }
+
+    private static void toVector(final double lat, final double lng, final double[][] into, final int at) {
+        final double phi = Math.toRadians(lat);
+        final double lambda = Math.toRadians(lng);
+        into[0][at] = Math.cos(phi) * Math.cos(lambda);
+        into[1][at] = Math.cos(phi) * Math.sin(lambda);
+        into[2][at] = Math.sin(phi);
+    }
+
+    /**
+     * Riordina <code>order[from, to)</code> in modo che la mediana sull’asse
+     * del livello sia al centro, poi ripete sulle due metà.
+     */
+    private static void build(final int[] order, final double[][] coords, final int from, final int to,
+                              final int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        final double[] axis = coords[depth % DIMENSIONS];
+        select(order, axis, from, to - 1, mid);
+        build(order, coords, from, mid, depth + 1);
+        build(order, coords, mid + 1, to, depth + 1);
+    }
+
+    /** Quickselect: porta in <code>k</code> l’elemento che vi starebbe a ordinamento completato. */
+    private static void select(final int[] order, final double[] axis, final int left, final int right, final int k) {
+        int lo = left;
+        int hi = right;
+        while (lo < hi) {
+            final double pivot = axis[order[(lo + hi) >>> 1]];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (axis[order[i]] < pivot) {
+                    i++;
+                }
+                while (axis[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stato di una ricerca. Con <code>capacity</code> limitata conserva i
+     * migliori nodi ordinati per distanza (inserimento in un array corto);
+     * senza limite accumula tutti i nodi entro la distanza massima e li ordina
+     * una sola volta alla fine.
+     */
+    private final class Search {
+        private final double[] target;
+        private final int capacity;
+        private final double maxDistance;
+        private int[] found = new int[0];
+        private double[] distances = new double[0];
+        private int count;
+
+        Search(final double[] target, final int capacity, final double maxDistance) {
+            this.target = target;
+            this.capacity = capacity;
+            this.maxDistance = maxDistance;
+        }
+
+        void visit(final int from, final int to, final int depth) {
+            if (from >= to) {
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            offer(mid);
+            final int axis = depth % DIMENSIONS;
+            final double delta = target[axis] - points[axis][mid];
+            final boolean left = delta < 0;
+            if (left) {
+                visit(from, mid, depth + 1);
+            } else {
+                visit(mid + 1, to, depth + 1);
+            }
+            if (delta * delta <= bound()) {
+                if (left) {
+                    visit(mid + 1, to, depth + 1);
+                } else {
+                    visit(from, mid, depth + 1);
+                }
+            }
+        }
+
+        /** Righe trovate, dalla più vicina. */
+        int[] result() {
+            if (capacity != UNBOUNDED) {
+                return Arrays.copyOf(found, count);
+            }
+            final Integer[] byDistance = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                byDistance[i] = i;
+            }
+            Arrays.sort(byDistance, (a, b) -> Double.compare(distances[a], distances[b]));
+            final int[] sorted = new int[count];
+            for (int i = 0; i < count; i++) {
+                sorted[i] = found[byDistance[i]];
+            }
+            return sorted;
+        }
+
+        private double bound() {
+            return count == capacity ? Math.min(distances[count - 1], maxDistance) : maxDistance;
+        }
+
+        private void offer(final int node) {
+            double distance = 0;
+            for (int axis = 0; axis < DIMENSIONS; axis++) {
+                final double d = target[axis] - points[axis][node];
+                distance += d * d;
+            }
+            if (distance > bound() || count == capacity && distance >= distances[count - 1]) {
+                return;
+            }
+            if (count == found.length) {
+                final int grown = Math.min(capacity, Math.max(INITIAL_CAPACITY, count * 2));
+                found = Arrays.copyOf(found, grown);
+                distances = Arrays.copyOf(distances, grown);
+            }
+            if (capacity == UNBOUNDED) {
+                found[count] = rows[node];
+                distances[count++] = distance;
+                return;
+            }
+            int at = count < capacity ? count++ : count - 1;
+            while (at > 0 && distances[at - 1] > distance) {
+                found[at] = found[at - 1];
+                distances[at] = distances[at - 1];
+                at--;
+            }
+            found[at] = rows[node];
+            distances[at] = distance;
+        }
+    }
+}
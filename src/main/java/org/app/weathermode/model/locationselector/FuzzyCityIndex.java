@@ -0,0 +1,357 @@
+package org.app.weathermode.model.locationselector;
+
+import java.text.Normalizer;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import java.util.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * <h2>FuzzyCityIndex</h2>
+ * <p>Ricerca delle città tollerante agli errori di battitura, complementare
+ * alla ricerca esatta di {@link CityNameIndex}: "Milno" trova Milano,
+ * "Forli" trova Forlì.</p>
+ * <p>I nomi vengono normalizzati con {@link #fold(String)} (minuscolo, senza
+ * accenti) e inseriti in un <strong>trie</strong> insieme ai suffissi che
+ * iniziano una parola ("paulo" per "São Paulo"). La ricerca percorre il trie
+ * simulando un automa di Levenshtein: ogni nodo calcola una riga della matrice
+ * delle distanze a partire da quella del padre (con le trasposizioni di
+ * caratteri adiacenti), limitata alla banda diagonale larga due volte la
+ * distanza massima, e i sotto-alberi la cui riga supera la distanza massima
+ * vengono scartati. Un nodo la cui distanza dalla query è entro il
+ * limite è un prefisso corrispondente: ogni nodo conserva le {@value #TOP}
+ * città più popolose del proprio sotto-albero, quindi non serve visitarlo.</p>
+ * <p>Il punteggio combina popolazione e distanza,
+ * <code>log10(popolazione) − {@value #DISTANCE_WEIGHT} × distanza</code>.
+ * La visita rispetta un budget di tempo: allo scadere si restituisce quanto
+ * trovato fino a quel momento.</p>
+ */
+public final class FuzzyCityIndex {
+
+    /** Città conservate per ogni nodo del trie. */
+    public static final int TOP = 16;
+
+    /** Peso di una modifica nel punteggio, in ordini di grandezza di popolazione. */
+    private static final double DISTANCE_WEIGHT = 1.5;
+    /** Popolazione minima considerata nel punteggio, per le città senza dato. */
+    private static final double MIN_POPULATION = 10;
+    /** Lunghezza minima della query per tollerare una o due modifiche. */
+    private static final int ONE_EDIT_LENGTH = 4;
+    private static final int TWO_EDITS_LENGTH = 6;
+    /** Nodi visitati tra due controlli del budget. */
+    private static final int CHECK_EVERY = 64;
+    private static final int INITIAL_NODES = 1024;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_BREAK = Pattern.compile("[\\s\\-'’]+");
+    private static final Map<Character, String> LETTERS = Map.of(
+        'ł', "l", 'ø', "o", 'đ', "d", 'ð', "d", 'ß', "ss", 'æ', "ae", 'œ', "oe", 'ı', "i", 'þ', "th");
+
+    /** Righe della sorgente in ordine di popolazione decrescente. */
+    private final int[] order;
+    /** Peso di popolazione per posizione in {@link #order}. */
+    private final double[] weights;
+
+    /* ---- trie come array paralleli; il nodo 0 è la radice ---- */
+    private char[] labels = new char[INITIAL_NODES];
+    private int[] firstChild = new int[INITIAL_NODES];
+    private int[] nextSibling = new int[INITIAL_NODES];
+    private int[] parent = new int[INITIAL_NODES];
+    /** Posizioni (in {@link #order}) delle città migliori del sotto-albero, crescenti. */
+    private int[][] top = new int[INITIAL_NODES][];
+    private int nodes;
+    private int maxDepth;
+
+    /**
+     * Costruisce l’indice su una sorgente letta per numero di riga.
+     *
+     * @param size       numero di righe.
+     * @param city       nome locale della riga.
+     * @param asciiCity  nome ASCII della riga.
+     * @param population popolazione della riga ({@link Double#NaN} se ignota).
+     */
+    public FuzzyCityIndex(final int size, final IntFunction<String> city, final IntFunction<String> asciiCity,
+                          final IntToDoubleFunction population) {
+        final double[] populations = new double[size];
+        final Integer[] sorted = new Integer[size];
+        for (int row = 0; row < size; row++) {
+            final double value = population.applyAsDouble(row);
+            populations[row] = Double.isNaN(value) ? 0 : value;
+            sorted[row] = row;
+        }
+        Arrays.sort(sorted, (a, b) -> Double.compare(populations[b], populations[a]));
+        this.order = new int[size];
+        this.weights = new double[size];
+
+        final List<String> keys = new ArrayList<>();
+        final List<Integer> keyRanks = new ArrayList<>();
+        for (int rank = 0; rank < size; rank++) {
+            order[rank] = sorted[rank];
+            weights[rank] = Math.log10(Math.max(MIN_POPULATION, populations[order[rank]]));
+            final Set<String> own = new HashSet<>();
+            addKeys(own, fold(city.apply(order[rank])));
+            addKeys(own, fold(asciiCity.apply(order[rank])));
+            for (final String key : own) {
+                keys.add(key);
+                keyRanks.add(rank);
+            }
+        }
+        final Integer[] byKey = new Integer[keys.size()];
+        for (int i = 0; i < byKey.length; i++) {
+            byKey[i] = i;
+        }
+        Arrays.sort(byKey, Comparator.comparing(keys::get));
+
+        newNode('\0', -1);
+        for (final int k : byKey) {
+            insert(keys.get(k), keyRanks.get(k));
+        }
+        for (int node = nodes - 1; node > 0; node--) {
+            top[parent[node]] = merge(top[parent[node]], top[node]);
+        }
+        labels = Arrays.copyOf(labels, nodes);
+        firstChild = Arrays.copyOf(firstChild, nodes);
+        nextSibling = Arrays.copyOf(nextSibling, nodes);
+        top = Arrays.copyOf(top, nodes);
+        parent = null;
+    }
+
+    /**
+     * Normalizza un nome per il confronto: minuscolo, senza segni diacritici
+     * e con le lettere che non si scompongono (ł, ø, ß…) traslitterate.
+     *
+     * @param name nome, anche <code>null</code>.
+     * @return nome normalizzato.
+     */
+    public static String fold(final String name) {
+        if (name == null) {
+            return "";
+        }
+        final String stripped = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        final String lower = stripped.toLowerCase(Locale.ROOT);
+        StringBuilder folded = null;
+        for (int i = 0; i < lower.length(); i++) {
+            final String replacement = LETTERS.get(lower.charAt(i));
+            if (replacement != null && folded == null) {
+                folded = new StringBuilder(lower.length() + 1).append(lower, 0, i);
+            }
+            if (folded != null) {
+                folded.append(replacement != null ? replacement : String.valueOf(lower.charAt(i)));
+            }
+        }
+        return folded == null ? lower : folded.toString();
+    }
+
+    /**
+     * Distanza di modifica tollerata per una query della lunghezza data: le
+     * query brevi non ne tollerano, perché quasi ogni nome corrisponderebbe.
+     *
+     * @param length lunghezza della query normalizzata.
+     * @return 0, 1 o 2.
+     */
+    public static int maxDistance(final int length) {
+        if (length < ONE_EDIT_LENGTH) {
+            return 0;
+        }
+        return length < TWO_EDITS_LENGTH ? 1 : 2;
+    }
+
+    /**
+     * Cerca le città il cui nome, o una parola del nome, inizia con un testo a
+     * distanza di modifica entro {@link #maxDistance(int)} dalla query.
+     *
+     * @param txt         testo digitato.
+     * @param limit       numero massimo di risultati.
+     * @param budgetNanos tempo massimo della visita, in nanosecondi.
+     * @return numeri di riga della sorgente, dal punteggio più alto.
+     */
+    public int[] search(final String txt, final int limit, final long budgetNanos) {
+        final String query = fold(txt);
+        final int distance = maxDistance(query.length());
+        if (distance == 0 || limit <= 0) {
+            return new int[0];
+        }
+        final Walk walk = new Walk(query, distance, System.nanoTime() + budgetNanos);
+        walk.visit(0, 0);
+
+        final List<Map.Entry<Integer, Integer>> found = new ArrayList<>(walk.best.entrySet());
+        found.sort(Comparator.<Map.Entry<Integer, Integer>>comparingDouble(
+                e -> DISTANCE_WEIGHT * e.getValue() - weights[e.getKey()])
+            .thenComparingInt(Map.Entry::getKey));
+        final int[] rows = new int[Math.min(limit, found.size())];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = order[found.get(i).getKey()];
+        }
+        return rows;
+    }
+
+    /**
+     * @return numero di nodi del trie.
+     */
+    public int size() {
+        return nodes;
+    }
+
+    private static void addKeys(final Set<String> keys, final String name) {
+        if (name.isEmpty()) {
+            return;
+        }
+        keys.add(name);
+        final Matcher words = WORD_BREAK.matcher(name);
+        while (words.find()) {
+            if (words.end() < name.length()) {
+                keys.add(name.substring(words.end()));
+            }
+        }
+    }
+
+    /**
+     * Inserisce una chiave; le chiavi arrivano in ordine, quindi il figlio
+     * cercato è l’ultimo aggiunto oppure va creato.
+     */
+    private void insert(final String key, final int rank) {
+        int node = 0;
+        for (int i = 0; i < key.length(); i++) {
+            final char c = key.charAt(i);
+            final int last = lastChildOf(node);
+            if (last >= 0 && labels[last] == c) {
+                node = last;
+            } else {
+                final int child = newNode(c, node);
+                if (last >= 0) {
+                    nextSibling[last] = child;
+                } else {
+                    firstChild[node] = child;
+                }
+                node = child;
+            }
+        }
+        maxDepth = Math.max(maxDepth, key.length());
+        top[node] = merge(top[node], new int[] {rank});
+    }
+
+    private int lastChildOf(final int node) {
+        int child = firstChild[node];
+        if (child < 0) {
+            return -1;
+        }
+        while (nextSibling[child] >= 0) {
+            child = nextSibling[child];
+        }
+        return child;
+    }
+
+    private int newNode(final char label, final int parentNode) {
+        if (nodes == labels.length) {
+            final int grown = nodes * 2;
+            labels = Arrays.copyOf(labels, grown);
+            firstChild = Arrays.copyOf(firstChild, grown);
+            nextSibling = Arrays.copyOf(nextSibling, grown);
+            parent = Arrays.copyOf(parent, grown);
+            top = Arrays.copyOf(top, grown);
+        }
+        labels[nodes] = label;
+        firstChild[nodes] = -1;
+        nextSibling[nodes] = -1;
+        parent[nodes] = parentNode;
+        return nodes++;
+    }
+
+    /**
+     * Unione ordinata e senza duplicati di due liste, limitata a {@value #TOP}.
+     * Se una lista è vuota restituisce l’altra senza copiarla: le catene di
+     * nodi con un solo figlio condividono lo stesso array.
+     */
+    private static int[] merge(final int[] a, final int[] b) {
+        if (a == null || a.length == 0) {
+            return b;
+        }
+        if (b == null || b.length == 0) {
+            return a;
+        }
+        final int[] merged = new int[Math.min(TOP, a.length + b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (n < merged.length && (i < a.length || j < b.length)) {
+            final int next;
+            if (j >= b.length || i < a.length && a[i] <= b[j]) {
+                next = a[i++];
+            } else {
+                next = b[j++];
+            }
+            if (n == 0 || merged[n - 1] != next) {
+                merged[n++] = next;
+            }
+        }
+        return n == merged.length ? merged : Arrays.copyOf(merged, n);
+    }
+
+    /** Stato di una visita: righe della matrice per profondità e risultati. */
+    private final class Walk {
+        private final String query;
+        private final int distance;
+        private final long deadline;
+        private final int[][] rows;
+        private final char[] path;
+        private final Map<Integer, Integer> best = new HashMap<>();
+        private int visited;
+        private boolean expired;
+
+        Walk(final String query, final int distance, final long deadline) {
+            this.query = query;
+            this.distance = distance;
+            this.deadline = deadline;
+            this.rows = new int[maxDepth + 1][query.length() + 1];
+            this.path = new char[maxDepth + 1];
+            for (int j = 0; j <= query.length(); j++) {
+                rows[0][j] = j;
+            }
+        }
+
+        void visit(final int node, final int depth) {
+            for (int child = firstChild[node]; child >= 0 && !expired; child = nextSibling[child]) {
+                if (visited++ % CHECK_EVERY == 0 && System.nanoTime() - deadline >= 0) {
+                    expired = true;
+                    return;
+                }
+                final char c = labels[child];
+                path[depth + 1] = c;
+                final int[] previous = rows[depth];
+                final int[] current = rows[depth + 1];
+                final int i = depth + 1;
+                final int from = Math.max(1, i - distance);
+                final int to = Math.min(query.length(), i + distance);
+                // fuori dalla banda |i − j| ≤ distance il valore supera comunque il limite
+                current[from - 1] = from == 1 ? i : distance + 1;
+                if (to < query.length()) {
+                    current[to + 1] = distance + 1;
+                }
+                int min = current[from - 1];
+                for (int j = from; j <= to; j++) {
+                    final int cost = query.charAt(j - 1) == c ? 0 : 1;
+                    int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                    if (depth > 0 && j > 1 && query.charAt(j - 1) == path[depth] && query.charAt(j - 2) == c) {
+                        value = Math.min(value, rows[depth - 1][j - 2] + 1);
+                    }
+                    current[j] = value;
+                    min = Math.min(min, value);
+                }
+                if (min > distance) {
+                    continue;
+                }
+                final int matched = to == query.length() ? current[to] : distance + 1;
+                if (matched <= distance) {
+                    for (final int rank : top[child]) {
+                        best.merge(rank, matched, Math::min);
+                    }
+                }
+                visit(child, depth + 1);
+            }
+        }
+    }
+}
@@ -16,14 +16,31 @@ import java.util.*;
  */
 public interface LocationSelector {
 
+    /** Numero di risultati restituiti da {@link #getPossibleLocations(String)}. */
+    int DEFAULT_LIMIT = 50;
+
     /**
      * Effettua una ricerca <em>case-insensitive</em> restituendo le località
-     * che contengono la stringa <code>txt</code> nel nome (o sua variante ASCII).
+     * che contengono la stringa <code>txt</code> nel nome (o sua variante ASCII),
+     * dalla più popolosa, limitata a {@link #DEFAULT_LIMIT} risultati.
      *
      * @param txt stringa immessa dall’utente (può essere parziale).
      * @return lista di coppie { "Nome completo città, Regione, Paese", ID }.
      */
-    List<Pair<String, Integer>> getPossibleLocations(String txt);
+    default List<Pair<String, Integer>> getPossibleLocations(String txt) {
+        return getPossibleLocations(txt, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Come {@link #getPossibleLocations(String)}, con un limite esplicito al
+     * numero di risultati.
+     *
+     * @param txt   stringa immessa dall’utente (può essere parziale).
+     * @param limit numero massimo di località restituite.
+     * @return al più <code>limit</code> coppie { "Nome completo città, Regione, Paese", ID },
+     *         dalla città più popolosa.
+     */
+    List<Pair<String, Integer>> getPossibleLocations(String txt, int limit);
 
     /**
      * Recupera i dettagli della località a partire dal suo identificativo.
@@ -43,4 +60,24 @@ public interface LocationSelector {
      */
     Optional<Integer> searchByLookUp(LookUp lookUp);
 
+    /**
+     * Restituisce le città più vicine a una posizione, senza accesso alla rete.
+     *
+     * @param lat latitudine in gradi decimali.
+     * @param lng longitudine in gradi decimali.
+     * @param k   numero massimo di città.
+     * @return ID delle città, dalla più vicina.
+     */
+    List<Integer> nearest(double lat, double lng, int k);
+
+    /**
+     * Restituisce le città entro una distanza da una posizione.
+     *
+     * @param lat      latitudine in gradi decimali.
+     * @param lng      longitudine in gradi decimali.
+     * @param radiusKm raggio in km.
+     * @return ID delle città, dalla più vicina.
+     */
+    List<Integer> withinRadius(double lat, double lng, double radiusKm);
+
 }
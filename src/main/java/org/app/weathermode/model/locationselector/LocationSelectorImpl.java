@@ -1,15 +1,22 @@
 package org.app.weathermode.model.locationselector;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 // CHECKSTYLE: AvoidStarImport OFF
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.app.weathermode.model.csv.CSVStdParser;
 import org.app.weathermode.model.lookup.LookUp;
 import org.app.weathermode.model.pair.Pair;
 
@@ -17,56 +24,143 @@ import org.app.weathermode.model.pair.Pair;
 
 /**
  * <h2>LocationSelectorImpl</h2>
- * <p>Implementazione di {@link LocationSelector} basata sul CSV
- * <em>worldcities.csv</em> reso disponibile come risorsa di class-path.
+ * <p>Implementazione di {@link LocationSelector} basata su
+ * <em>worldcities.csv</em>, letto nella forma binaria compilata in fase di
+ * build ({@link CityDatabase}).
  * La classe offre tre funzionalità principali:</p>
  * <ul>
- *   <li><strong>lookup testuale</strong> tramite {@link #getPossibleLocations(String)};</li>
+ *   <li><strong>lookup testuale</strong> tramite {@link #getPossibleLocations(String, int)};</li>
  *   <li>accesso diretto alla riga del CSV via ID con {@link #getByID(int)};</li>
  *   <li>ricerca automatica della città da dati di {@link LookUp} con
- *       {@link #searchByLookUp(LookUp)}.</li>
+ *       {@link #searchByLookUp(LookUp)}, basata sulle coordinate;</li>
+ *   <li>ricerca delle città vicine a una posizione con {@link #nearest} e
+ *       {@link #withinRadius}.</li>
  * </ul>
- * <p>All’avvio l’intero CSV viene caricato in memoria e indicizzato in una
- * <code>HashMap&lt;ID,Record&gt;</code> per ricerche <em>O(1)</em>. Il parsing è
- * delegato a {@link CSVStdParser}.</p>
+ * <p>All’avvio il database viene mappato in memoria: l’accesso per ID usa
+ * l’indice ordinato del file e le righe vengono ricostruite come mappe solo
+ * quando richieste. Il {@link CityNameIndex} a trigrammi per la ricerca per
+ * nome, il {@link FuzzyCityIndex} per quella tollerante agli errori e il
+ * {@link CitySpatialIndex} sulle coordinate sono costruiti al primo utilizzo. Se la risorsa binaria manca (ad es.
+ * avvio da IDE senza il task <code>cityDatabase</code>) o non è leggibile, il
+ * CSV, incluso anch’esso nel jar, viene compilato in memoria con
+ * {@link CityDatabaseWriter}.</p>
  */
 public class LocationSelectorImpl implements LocationSelector {
 
-    /** Percorso della risorsa CSV nel class-path. */
+    private static final Logger LOG = Logger.getLogger(LocationSelectorImpl.class.getName());
+
+    /** Percorso della risorsa binaria nel class-path. */
+    private static final String DB_RESOURCE = "/files/worldcities.bin";
+
+    /** Percorso della risorsa CSV nel class-path, usata se quella binaria manca o è corrotta. */
     private static final String CSV_RESOURCE = "/files/worldcities.csv";
 
-    /** Copia completa del CSV in memoria. */
-    private final List<Map<String, String>> csv;
+    /** Distanza massima tra la posizione IP e la città associata. */
+    private static final double LOOKUP_RADIUS_KM = 50;
+
+    /** Città vicine alla posizione IP tra cui cercare il nome indicato dal provider. */
+    private static final int LOOKUP_CANDIDATES = 10;
+
+    /** Tempo massimo della ricerca tollerante agli errori, eseguita a ogni tasto. */
+    private static final long FUZZY_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    /** Database delle città, mappato in memoria. */
+    private final CityDatabase database;
 
-    /** Indice <code>ID → riga</code> per accesso <em>O(1)</em>. */
-    private final Map<Integer, Map<String, String>> citiesMap = new HashMap<>();
+    /** Indice a trigrammi sui nomi, costruito alla prima ricerca. */
+    private final Lazy<CityNameIndex> nameIndex = new Lazy<>(this::buildNameIndex);
+
+    /** Indice per la ricerca tollerante agli errori, costruito alla prima ricerca. */
+    private final Lazy<FuzzyCityIndex> fuzzyIndex = new Lazy<>(this::buildFuzzyIndex);
+
+    /** Indice spaziale sulle coordinate, costruito al primo utilizzo. */
+    private final Lazy<CitySpatialIndex> spatialIndex = new Lazy<>(this::buildSpatialIndex);
 
     /**
-     * Carica il CSV da class-path e costruisce l’indice delle città.
-     * Solleva {@link Error} in caso di problemi non recuperabili (risorsa
-     * assente o CSV malformato).
+     * Apre il database delle città dal class-path.
+     * Solleva {@link Error} in caso di problemi non recuperabili (database
+     * binario e CSV entrambi assenti o malformati).
      */
     @SuppressFBWarnings(
         value = "REC_CATCH_EXCEPTION",
         justification = "Necessary to catch generic Exception to aggregate parsing errors from AdvancedJsonReader"
     )
     public LocationSelectorImpl() {
+        try {
+            this.database = openDatabase();
+        } catch (final Exception err) { // NOPMD
+            throw new Error("Unable to load city list", err); // NOPMD
+        }
+    }
+
+    private static CityDatabase openDatabase() throws Exception { // NOPMD
+        final URL binary = LocationSelector.class.getResource(DB_RESOURCE);
+        if (binary == null) {
+            return compileCsv();
+        }
+        try {
+            return CityDatabase.open(binary);
+        } catch (final IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Database delle città illeggibile, ricostruito dal CSV", e);
+            try {
+                return compileCsv();
+            } catch (final Exception csv) { // NOPMD
+                csv.addSuppressed(e);
+                throw csv;
+            }
+        }
+    }
+
+    private static CityDatabase compileCsv() throws Exception { // NOPMD
         try (InputStream is = LocationSelector.class.getResourceAsStream(CSV_RESOURCE)) {
             if (is == null) {
                 throw new FileNotFoundException("Resource " + CSV_RESOURCE + " not found in classpath");
             }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            CityDatabaseWriter.compile(new InputStreamReader(is, StandardCharsets.UTF_8), out);
+            return CityDatabase.wrap(ByteBuffer.wrap(out.toByteArray()));
+        }
+    }
 
-            try (CSVStdParser parser = new CSVStdParser(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                this.csv = parser.readCSVToMap();
-            }
+    /**
+     * Costruisce subito gli indici che altrimenti nascerebbero al primo
+     * utilizzo, così la prima ricerca dell’utente non ne paga il costo.
+     * Pensato per essere invocato su un thread in background.
+     */
+    public void warmUp() {
+        nameIndex.get();
+        fuzzyIndex.get();
+        spatialIndex.get();
+    }
 
-            for (final Map<String, String> row : csv) {
-                final int idx = Integer.parseInt(row.get("id"));
-                this.citiesMap.put(idx, row);
-            }
-        } catch (final Exception err) { // NOPMD
-            throw new Error("Unable to load city list", err); // NOPMD
-        }
+    private CityNameIndex buildNameIndex() {
+        final int city = database.column("city");
+        final int ascii = database.column("city_ascii");
+        return new CityNameIndex(database.size(),
+            row -> database.get(row, city), row -> database.get(row, ascii), this::population);
+    }
+
+    private FuzzyCityIndex buildFuzzyIndex() {
+        final int city = database.column("city");
+        final int ascii = database.column("city_ascii");
+        return new FuzzyCityIndex(database.size(),
+            row -> database.get(row, city), row -> database.get(row, ascii), this::population);
+    }
+
+    private CitySpatialIndex buildSpatialIndex() {
+        final int lat = database.column("lat");
+        final int lng = database.column("lng");
+        return new CitySpatialIndex(database.size(),
+            row -> database.getDouble(row, lat), row -> database.getDouble(row, lng));
+    }
+
+    private double population(final int row) {
+        final int population = database.column("population");
+        return population < 0 ? Double.NaN : database.getDouble(row, population);
+    }
+
+    private int idOf(final int row) {
+        return Integer.parseInt(database.get(row, database.column(CityDatabase.ID_COLUMN)));
     }
 
     /* ====================== API LocationSelector ===================== */
@@ -74,9 +168,13 @@ public class LocationSelectorImpl implements LocationSelector {
     /**
      * Restituisce l’elenco delle possibili corrispondenze per una stringa di
      * ricerca parziale sui nomi di città (case-insensitive), includendo
-     * città ASCII e locale.
+     * città ASCII e locale. La ricerca usa il {@link CityNameIndex} e
+     * restituisce prima le città più popolose; se i risultati esatti non
+     * raggiungono il limite, vengono completati con quelli del
+     * {@link FuzzyCityIndex}, tolleranti a errori di battitura e accenti.
      *
-     * @param txt la stringa di ricerca (o parte di essa)
+     * @param txt   la stringa di ricerca (o parte di essa)
+     * @param limit numero massimo di risultati
      * @return una {@link List} di {@link Pair} in cui:
      *         <ul>
      *           <li>la prima componente è la descrizione completa
@@ -85,19 +183,29 @@ public class LocationSelectorImpl implements LocationSelector {
      *         </ul>
      */
     @Override
-    public List<Pair<String, Integer>> getPossibleLocations(final String txt) {
+    public List<Pair<String, Integer>> getPossibleLocations(final String txt, final int limit) {
         final List<Pair<String, Integer>> possibleLocations = new ArrayList<>();
-        final String query = txt.toLowerCase(Locale.ROOT);
-
-        for (final Map<String, String> entry : this.csv) {
-            final String cityName = entry.get("city").toLowerCase(Locale.ROOT);
-            final String cityNameAscii = entry.get("city_ascii").toLowerCase(Locale.ROOT);
-            if (cityName.contains(query) || cityNameAscii.contains(query)) {
-                final String completeName = String.format("%s, %s, %s",
-                        entry.get("city"), entry.get("admin_name"), entry.get("country"));
-                possibleLocations.add(new Pair<>(completeName, Integer.parseInt(entry.get("id"))));
+        final int city = database.column("city");
+        final int admin = database.column("admin_name");
+        final int country = database.column("country");
+        final int[] exact = nameIndex.get().search(txt, limit);
+        final Set<Integer> rows = new LinkedHashSet<>();
+        for (final int row : exact) {
+            rows.add(row);
+        }
+        if (exact.length < limit) {
+            for (final int row : fuzzyIndex.get().search(txt, limit, FUZZY_BUDGET_NANOS)) {
+                if (rows.size() == limit) {
+                    break;
+                }
+                rows.add(row);
             }
         }
+        for (final int row : rows) {
+            final String completeName = String.format("%s, %s, %s",
+                    database.get(row, city), database.get(row, admin), database.get(row, country));
+            possibleLocations.add(new Pair<>(completeName, idOf(row)));
+        }
         return possibleLocations;
     }
 
@@ -110,15 +218,20 @@ public class LocationSelectorImpl implements LocationSelector {
      */
     @Override
     public Optional<Map<String, String>> getByID(final int id) {
-        return Optional.ofNullable(this.citiesMap.get(id));
+        final int row = database.rowOf(id);
+        return row < 0 ? Optional.empty() : Optional.of(database.row(row));
     }
 
     /**
-     * Cerca automaticamente l’ID di una città basandosi su un oggetto {@link LookUp}
-     * che contiene nome città e codice ISO del paese.
+     * Cerca automaticamente l’ID di una città basandosi su un oggetto {@link LookUp}.
+     * Se sono note le coordinate si considerano le città vicine (entro
+     * {@value #LOOKUP_RADIUS_KM} km): si preferisce quella con il nome indicato
+     * dal provider, altrimenti la più vicina dello stesso paese, così una
+     * grafia diversa del nome non fa fallire la ricerca. Senza coordinate, o
+     * se nessuna città vicina corrisponde, si confrontano nome e codice ISO.
      *
-     * @param lookUp l’oggetto {@link LookUp} con i campi {@code city}
-     *               e {@code countryCode} (ISO2)
+     * @param lookUp l’oggetto {@link LookUp} con i campi {@code city},
+     *               {@code countryCode} (ISO2) e {@code coords}
      * @return un {@link Optional} contenente l’ID numerico se trovato,
      *         altrimenti vuoto
      */
@@ -129,14 +242,92 @@ public class LocationSelectorImpl implements LocationSelector {
         }
         final String city = lookUp.getCity();
         final String countryCode = lookUp.getCountryCode();
-        for (final var entry : this.citiesMap.entrySet()) {
-            final Map<String, String> cityData = entry.getValue();
-            if (cityData.get("city").equalsIgnoreCase(city)
-                && cityData.get("iso2").equalsIgnoreCase(countryCode)) {
-                return Optional.of(entry.getKey());
+        final int cityColumn = database.column("city");
+        final int isoColumn = database.column("iso2");
+
+        final Pair<Double, Double> coords = lookUp.getCoords();
+        if (coords != null && coords.getX() != null && coords.getY() != null) {
+            final int latColumn = database.column("lat");
+            final int lngColumn = database.column("lng");
+            int sameCountry = -1;
+            for (final int row : spatialIndex.get().nearest(coords.getX(), coords.getY(), LOOKUP_CANDIDATES)) {
+                final double distance = CitySpatialIndex.distanceKm(coords.getX(), coords.getY(),
+                    database.getDouble(row, latColumn), database.getDouble(row, lngColumn));
+                if (distance > LOOKUP_RADIUS_KM) {
+                    break;
+                }
+                if (database.get(row, cityColumn).equalsIgnoreCase(city)) {
+                    return Optional.of(idOf(row));
+                }
+                if (sameCountry < 0 && database.get(row, isoColumn).equalsIgnoreCase(countryCode)) {
+                    sameCountry = row;
+                }
+            }
+            if (sameCountry >= 0) {
+                return Optional.of(idOf(sameCountry));
+            }
+        }
+
+        for (int row = 0; row < database.size(); row++) {
+            if (database.get(row, cityColumn).equalsIgnoreCase(city)
+                && database.get(row, isoColumn).equalsIgnoreCase(countryCode)) {
+                return Optional.of(idOf(row));
             }
         }
         return Optional.empty();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> nearest(final double lat, final double lng, final int k) {
+        return ids(spatialIndex.get().nearest(lat, lng, k));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> withinRadius(final double lat, final double lng, final double radiusKm) {
+        return ids(spatialIndex.get().withinRadius(lat, lng, radiusKm));
+    }
+
+    private List<Integer> ids(final int[] rows) {
+        final List<Integer> ids = new ArrayList<>(rows.length);
+        for (final int row : rows) {
+            ids.add(idOf(row));
+        }
+        return ids;
+    }
+
+    /**
+     * Valore costruito al primo utilizzo, una sola volta anche con più thread.
+     *
+     * @param <T> tipo del valore.
+     */
+    private static final class Lazy<T> implements Supplier<T> {
+        private final Supplier<T> factory;
+        private volatile T value;
+
+        Lazy(final Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public T get() {
+            T current = value;
+            if (current == null) {
+                synchronized (this) {
+                    current = value;
+                    if (current == null) {
+                        current = factory.get();
+                        value = current;
+                    }
+                }
+            }
+            return current;
+        }
+    }
+
 }
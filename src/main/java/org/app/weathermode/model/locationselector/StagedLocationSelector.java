@@ -0,0 +1,151 @@
+package org.app.weathermode.model.locationselector;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import org.app.weathermode.model.lookup.LookUp;
+import org.app.weathermode.model.pair.Pair;
+
+/**
+ * <h2>StagedLocationSelector</h2>
+ * <p>{@link LocationSelector} che rende disponibile l’applicazione prima del
+ * database completo delle città. Alla costruzione avvia su un thread in
+ * background il caricamento del selettore completo (per default
+ * {@link LocationSelectorImpl} con gli indici già costruiti tramite
+ * {@link LocationSelectorImpl#warmUp()}); nel frattempo
+ * {@link #getByID(int)} risponde dal {@link CityRecordCache}, che contiene
+ * la città di default dell’ultimo avvio.</p>
+ * <p>Le altre operazioni, e gli ID non presenti nella cache, attendono il
+ * selettore completo. Ogni record ottenuto dal selettore completo viene
+ * salvato nella cache per gli avvii successivi.</p>
+ * <p>Se il caricamento fallisce {@link #ready()} si completa con l’errore,
+ * che l’interfaccia deve mostrare all’utente: i record in cache restano
+ * disponibili, mentre le altre operazioni sollevano
+ * {@link java.util.concurrent.CompletionException}.</p>
+ */
+public final class StagedLocationSelector implements LocationSelector {
+
+    private static final Logger LOG = Logger.getLogger(StagedLocationSelector.class.getName());
+
+    private final CityRecordCache cache;
+    private final CompletableFuture<LocationSelector> full;
+
+    /**
+     * Avvia il caricamento di {@link LocationSelectorImpl}.
+     *
+     * @param cache cache dei record delle città usate di recente.
+     */
+    public StagedLocationSelector(final CityRecordCache cache) {
+        this(cache, () -> {
+            final long start = System.nanoTime();
+            final LocationSelectorImpl selector = new LocationSelectorImpl();
+            LOG.info("Database delle città aperto in " + millisSince(start) + " ms");
+            final long indexes = System.nanoTime();
+            selector.warmUp();
+            LOG.info("Indici di ricerca delle città pronti in " + millisSince(indexes) + " ms");
+            return selector;
+        });
+    }
+
+    /**
+     * Avvia il caricamento del selettore completo con la fabbrica indicata.
+     *
+     * @param cache  cache dei record delle città usate di recente.
+     * @param loader crea il selettore completo; eseguito su un thread dedicato.
+     */
+    public StagedLocationSelector(final CityRecordCache cache, final Supplier<? extends LocationSelector> loader) {
+        this.cache = cache;
+        this.full = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> {
+            try {
+                full.complete(loader.get());
+            } catch (final Throwable t) { // NOPMD
+                LOG.severe("Impossibile caricare le città: " + t);
+                full.completeExceptionally(t);
+            }
+        }, "city-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return future completato quando il selettore completo è pronto.
+     */
+    public CompletableFuture<LocationSelector> ready() {
+        return full.thenApply(selector -> this);
+    }
+
+    /**
+     * @param id identificativo della città.
+     * @return <code>true</code> se {@link #getByID(int)} può rispondere
+     *         senza attendere il selettore completo.
+     */
+    public boolean isAvailable(final int id) {
+        return full.isDone() && !full.isCompletedExceptionally() || cache.get(id).isPresent();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Pair<String, Integer>> getPossibleLocations(final String txt, final int limit) {
+        return full().getPossibleLocations(txt, limit);
+    }
+
+    /**
+     * Risponde dalla cache finché il selettore completo non è pronto, o se
+     * il suo caricamento è fallito.
+     *
+     * @param id l’identificativo numerico della città.
+     * @return la riga della città, se esiste.
+     */
+    @Override
+    public Optional<Map<String, String>> getByID(final int id) {
+        if (!full.isDone() || full.isCompletedExceptionally()) {
+            final Optional<Map<String, String>> cached = cache.get(id);
+            if (cached.isPresent()) {
+                return cached;
+            }
+        }
+        final Optional<Map<String, String>> row = full().getByID(id);
+        row.ifPresent(r -> cache.put(id, r));
+        return row;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Integer> searchByLookUp(final LookUp lookUp) {
+        return full().searchByLookUp(lookUp);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> nearest(final double lat, final double lng, final int k) {
+        return full().nearest(lat, lng, k);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> withinRadius(final double lat, final double lng, final double radiusKm) {
+        return full().withinRadius(lat, lng, radiusKm);
+    }
+
+    private LocationSelector full() {
+        return full.join();
+    }
+
+    private static long millisSince(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,353 @@
+package org.app.weathermode.model.lookup;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.app.common.impl.serialization.Serializers;
+import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
+import org.app.weathermode.model.pair.Pair;
+
+/**
+ * <h2>CachedIPLookUp</h2>
+ * <p>Geolocalizzazione IP che combina più {@link GeoProvider} e ricorda
+ * l’ultimo risultato su disco.</p>
+ * <ol>
+ *   <li>Se il file della cache contiene una posizione più recente del
+ *       <em>TTL</em>, si chiede l’IP pubblico corrente a un servizio leggero
+ *       ({@value #PUBLIC_IP_URL}): se coincide con quello salvato la
+ *       posizione viene riusata senza altre richieste.</li>
+ *   <li>Altrimenti tutti i servizi vengono interrogati in parallelo, ciascuno
+ *       con pochi tentativi, e vince la prima risposta valida (Paese e
+ *       coordinate presenti); le altre vengono interrotte. Il risultato
+ *       sostituisce quello in cache.</li>
+ *   <li>Se nessun servizio risponde entro il tempo massimo, ma la cache è
+ *       ancora valida e l’IP corrente non è noto, si usa la cache.</li>
+ * </ol>
+ * <p>Come in {@code CityInfoServiceImpl}, il file JSON è scritto su un file
+ * temporaneo sostituito atomicamente e un file illeggibile viene ignorato.</p>
+ */
+public class CachedIPLookUp implements LookUp {
+
+    /** File predefinito della cache, accanto alla configurazione. */
+    public static final Path DEFAULT_CACHE_FILE = Path.of("app_config", "ip_location.json");
+    /** Validità predefinita della posizione salvata. */
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+    /** Tempo massimo predefinito per la gara tra i servizi. */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(8);
+
+    private static final Logger LOG = Logger.getLogger(CachedIPLookUp.class.getName());
+    /** Servizio che restituisce solo l’IP pubblico, più rapido di una geolocalizzazione. */
+    private static final String PUBLIC_IP_URL = "https://api.ipify.org?format=json";
+    /** Tentativi di ogni servizio nella gara. */
+    private static final int PROVIDER_ATTEMPTS = 2;
+    private static final double MAX_LATITUDE = 90;
+    private static final double MAX_LONGITUDE = 180;
+
+    private final Path cacheFile;
+    private final Duration ttl;
+    private final Duration timeout;
+    private final List<Supplier<? extends LookUp>> providers;
+    private final Supplier<Optional<String>> publicIp;
+    private final LongSupplier clock;
+
+    private Location location = new Location();
+
+    /**
+     * Usa tutti i {@link GeoProvider}, la cache in {@link #DEFAULT_CACHE_FILE}
+     * e i valori predefiniti di validità e tempo massimo.
+     */
+    public CachedIPLookUp() {
+        this(DEFAULT_CACHE_FILE, DEFAULT_TTL, DEFAULT_TIMEOUT, defaultProviders(),
+            CachedIPLookUp::requestPublicIp, System::currentTimeMillis);
+    }
+
+    /**
+     * @param cacheFile file JSON in cui salvare l’ultima posizione.
+     * @param ttl       validità della posizione salvata.
+     * @param timeout   tempo massimo per la gara tra i servizi.
+     * @param providers fabbriche dei servizi da interrogare; ogni lookup usa
+     *                  istanze nuove.
+     * @param publicIp  restituisce l’IP pubblico corrente, se determinabile.
+     * @param clock     orologio in millisecondi dall’epoca.
+     */
+    public CachedIPLookUp(final Path cacheFile, final Duration ttl, final Duration timeout,
+                          final List<Supplier<? extends LookUp>> providers,
+                          final Supplier<Optional<String>> publicIp, final LongSupplier clock) {
+        this.cacheFile = cacheFile;
+        this.ttl = ttl;
+        this.timeout = timeout;
+        this.providers = List.copyOf(providers);
+        this.publicIp = publicIp;
+        this.clock = clock;
+    }
+
+    /* ===================== API LookUp ========================= */
+
+    /**
+     * Restituisce la posizione salvata se ancora valida per l’IP corrente,
+     * altrimenti interroga in parallelo i servizi.
+     *
+     * @return {@link Optional#of(Boolean.TRUE)} se una posizione è
+     *         disponibile; {@link Optional#empty()} in caso contrario.
+     */
+    @Override
+    public Optional<Boolean> lookup() {
+        this.location = new Location();
+        final Optional<Location> cached = this.load()
+            .filter(saved -> this.clock.getAsLong() - saved.fetchedAt < this.ttl.toMillis());
+        final Optional<String> currentIp = cached.isPresent() ? this.publicIp.get() : Optional.empty();
+        if (cached.isPresent() && currentIp.isPresent() && currentIp.get().equals(cached.get().ip)) {
+            this.location = cached.get();
+            return Optional.of(Boolean.TRUE);
+        }
+
+        final Optional<Location> fresh = this.race();
+        if (fresh.isPresent()) {
+            this.location = fresh.get();
+            this.save(fresh.get());
+            return Optional.of(Boolean.TRUE);
+        }
+        if (cached.isPresent() && currentIp.isEmpty()) {
+            LOG.fine("Nessun servizio di geolocalizzazione raggiungibile, uso la posizione salvata");
+            this.location = cached.get();
+            return Optional.of(Boolean.TRUE);
+        }
+        return Optional.empty();
+    }
+
+    /* ==================== getter semplici ===================== */
+
+    /**
+     * @return l'indirizzo IP pubblico rilevato.
+     */
+    @Override
+    public String getIP() {
+        return this.location.ip;
+    }
+
+    /**
+     * @return il codice ISO del Paese (es. "IT" per Italia).
+     */
+    @Override
+    public String getCountryCode() {
+        return this.location.countryCode;
+    }
+
+    /**
+     * @return il nome esteso del Paese (es. "Italy").
+     */
+    @Override
+    public String getCountry() {
+        return this.location.country;
+    }
+
+    /**
+     * @return il nome della regione o provincia di appartenenza.
+     */
+    @Override
+    public String getRegion() {
+        return this.location.region;
+    }
+
+    /**
+     * @return il nome della città associata all'IP.
+     */
+    @Override
+    public String getCity() {
+        return this.location.city;
+    }
+
+    /**
+     * @return il codice postale (ZIP) se disponibile, altrimenti stringa vuota.
+     */
+    @Override
+    public String getZipCode() {
+        return this.location.zipCode;
+    }
+
+    /**
+     * @return il fuso orario in formato IANA/Olson (es. "Europe/Rome").
+     */
+    @Override
+    public String getTimeZone() {
+        return this.location.timeZone;
+    }
+
+    /**
+     * @return coppia latitudine/longitudine (in gradi decimali) oppure {@code null}
+     *         se non disponibile.
+     */
+    @Override
+    public Pair<Double, Double> getCoords() {
+        return this.location.latitude == null || this.location.longitude == null
+            ? null
+            : new Pair<>(this.location.latitude, this.location.longitude);
+    }
+
+    /* ======================== debug =========================== */
+
+    /**
+     * @return stringa formattata con i valori correnti.
+     */
+    @Override
+    public String toString() {
+        return "CachedIPLookUp{"
+                + "ip='" + getIP() + '\''
+                + ", countryCode='" + getCountryCode() + '\''
+                + ", city='" + getCity() + '\''
+                + ", coords=" + getCoords()
+                + '}';
+    }
+
+    /* ==================== helper privati ===================== */
+
+    private static List<Supplier<? extends LookUp>> defaultProviders() {
+        final List<Supplier<? extends LookUp>> all = new ArrayList<>();
+        for (final GeoProvider provider : GeoProvider.values()) {
+            all.add(() -> new IPLookUp(provider, PROVIDER_ATTEMPTS));
+        }
+        return all;
+    }
+
+    @SuppressFBWarnings(
+        value = "REC_CATCH_EXCEPTION",
+        justification = "Necessary to catch generic Exception to aggregate parsing errors from AdvancedJsonReader"
+    )
+    private static Optional<String> requestPublicIp() {
+        try {
+            return Optional.ofNullable(new AdvancedJsonReaderImpl(PUBLIC_IP_URL).getString("ip"));
+        } catch (final Exception e) { // NOPMD
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Interroga tutti i servizi in parallelo e restituisce la prima risposta
+     * valida; i servizi ancora in corso vengono interrotti.
+     */
+    private Optional<Location> race() {
+        if (this.providers.isEmpty()) {
+            return Optional.empty();
+        }
+        final ExecutorService pool = Executors.newFixedThreadPool(this.providers.size(), r -> {
+            final Thread t = new Thread(r, "ip-lookup");
+            t.setDaemon(true);
+            return t;
+        });
+        final CompletableFuture<Location> winner = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(this.providers.size());
+        for (final Supplier<? extends LookUp> provider : this.providers) {
+            pool.execute(() -> {
+                try {
+                    final LookUp candidate = provider.get();
+                    if (candidate.lookup().isPresent() && isValid(candidate)) {
+                        winner.complete(Location.of(candidate, this.clock.getAsLong()));
+                    }
+                } finally {
+                    if (pending.decrementAndGet() == 0) {
+                        winner.complete(null);
+                    }
+                }
+            });
+        }
+        try {
+            return Optional.ofNullable(winner.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (final ExecutionException | TimeoutException e) {
+            LOG.fine("Geolocalizzazione IP non riuscita: " + e);
+            return Optional.empty();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static boolean isValid(final LookUp candidate) {
+        final Pair<Double, Double> coords = candidate.getCoords();
+        if (candidate.getCountryCode() == null || candidate.getCountryCode().isBlank()
+            || coords == null || coords.getX() == null || coords.getY() == null) {
+            return false;
+        }
+        final double lat = coords.getX();
+        final double lng = coords.getY();
+        return Math.abs(lat) <= MAX_LATITUDE && Math.abs(lng) <= MAX_LONGITUDE && (lat != 0 || lng != 0);
+    }
+
+    private Optional<Location> load() {
+        if (!Files.isReadable(this.cacheFile)) {
+            return Optional.empty();
+        }
+        try (Reader in = Files.newBufferedReader(this.cacheFile, StandardCharsets.UTF_8)) {
+            return Optional.ofNullable(Serializers.gson().fromJson(in, Location.class));
+        } catch (final IOException | RuntimeException e) {
+            LOG.fine("Posizione IP salvata illeggibile, verrà ricreata: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void save(final Location saved) {
+        try {
+            final Path dir = this.cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            final Path tmp = Files.createTempFile(dir, "ip_location", ".tmp");
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                out.write(Serializers.gson().toJson(saved));
+            }
+            Files.move(tmp, this.cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOG.fine("Impossibile salvare la posizione IP: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Posizione rilevata (serializzata con Gson).
+     */
+    private static final class Location {
+        private String ip = "";
+        private String countryCode = "";
+        private String country = "";
+        private String region = "";
+        private String city = "";
+        private String zipCode = "";
+        private String timeZone = "";
+        private Double latitude;
+        private Double longitude;
+        private long fetchedAt;
+
+        static Location of(final LookUp source, final long fetchedAt) {
+            final Location copy = new Location();
+            copy.ip = source.getIP();
+            copy.countryCode = source.getCountryCode();
+            copy.country = source.getCountry();
+            copy.region = source.getRegion();
+            copy.city = source.getCity();
+            copy.zipCode = source.getZipCode();
+            copy.timeZone = source.getTimeZone();
+            copy.latitude = source.getCoords().getX();
+            copy.longitude = source.getCoords().getY();
+            copy.fetchedAt = fetchedAt;
+            return copy;
+        }
+    }
+}
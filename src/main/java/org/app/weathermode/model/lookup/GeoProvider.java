@@ -0,0 +1,115 @@
+package org.app.weathermode.model.lookup;
+
+import org.app.weathermode.model.json.JsonPathGroup;
+
+/**
+ * <h2>GeoProvider</h2>
+ * <p>Servizi pubblici di geolocalizzazione IP, senza autenticazione, usati
+ * da {@link IPLookUp}. Ogni servizio restituisce gli stessi dati con nomi
+ * diversi: per ciascuno sono indicati l’endpoint e il <em>path</em> JSON
+ * (stile <code>a.b</code>, vedi
+ * {@link org.app.weathermode.model.json.AdvancedJsonReader}) di ogni
+ * campo di {@link LookUp}. I path sono compilati una sola volta in un
+ * {@link JsonPathGroup}, così la risposta viene letta con un’unica visita.</p>
+ */
+public enum GeoProvider {
+
+    /** <a href="https://api.codetabs.com/v1/geolocation/json">Codetabs Geolocation API</a>. */
+    CODETABS("https://api.codetabs.com/v1/geolocation/json",
+        "ip", "country_code", "country_name", "region_name", "city", "zip_code", "time_zone",
+        "latitude", "longitude"),
+
+    /** <a href="https://ipapi.co/json/">ipapi.co</a>. */
+    IPAPI("https://ipapi.co/json/",
+        "ip", "country_code", "country_name", "region", "city", "postal", "timezone",
+        "latitude", "longitude"),
+
+    /** <a href="https://ipwho.is/">ipwho.is</a>. */
+    IPWHOIS("https://ipwho.is/",
+        "ip", "country_code", "country", "region", "city", "postal", "timezone.id",
+        "latitude", "longitude");
+
+    private final String url;
+    private final String ip;
+    private final String countryCode;
+    private final String country;
+    private final String region;
+    private final String city;
+    private final String zipCode;
+    private final String timeZone;
+    private final String latitude;
+    private final String longitude;
+    private final JsonPathGroup paths;
+
+    GeoProvider(final String url, final String ip, final String countryCode, final String country, // NOPMD
+                final String region, final String city, final String zipCode, final String timeZone,
+                final String latitude, final String longitude) {
+        this.url = url;
+        this.ip = ip;
+        this.countryCode = countryCode;
+        this.country = country;
+        this.region = region;
+        this.city = city;
+        this.zipCode = zipCode;
+        this.timeZone = timeZone;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.paths = JsonPathGroup.of(ip, countryCode, country, region, city, zipCode, timeZone,
+            latitude, longitude);
+    }
+
+    /** @return endpoint JSON del servizio. */
+    public String url() {
+        return url;
+    }
+
+    /** @return tutti i path della risposta, da estrarre insieme. */
+    public JsonPathGroup paths() {
+        return paths;
+    }
+
+    /** @return path dell’indirizzo IP. */
+    public String ip() {
+        return ip;
+    }
+
+    /** @return path del codice ISO‑2 del Paese. */
+    public String countryCode() {
+        return countryCode;
+    }
+
+    /** @return path del nome del Paese. */
+    public String country() {
+        return country;
+    }
+
+    /** @return path della regione. */
+    public String region() {
+        return region;
+    }
+
+    /** @return path della città. */
+    public String city() {
+        return city;
+    }
+
+    /** @return path del codice postale. */
+    public String zipCode() {
+        return zipCode;
+    }
+
+    /** @return path del fuso orario IANA. */
+    public String timeZone() {
+        return timeZone;
+    }
+
+    /** @return path della latitudine. */
+    public String latitude() {
+        return latitude;
+    }
+
+    /** @return path della longitudine. */
+    public String longitude() {
+        return longitude;
+    }
+}
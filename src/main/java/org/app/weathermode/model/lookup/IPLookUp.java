@@ -1,23 +1,33 @@
 package org.app.weathermode.model.lookup;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 
+import com.google.gson.JsonElement;
+
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.app.weathermode.model.json.AdvancedJsonReader;
+import org.app.common.api.resilience.RetryPolicy;
+import org.app.common.impl.resilience.ExponentialBackoffRetryPolicy;
 import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
 import org.app.weathermode.model.pair.Pair;
 
 /**
  * <h2>IPLookUp</h2>
- * <p>Servizio di <strong>geo‑localizzazione IP</strong> che interroga l’endpoint
- * <a href="https://api.codetabs.com/v1/geolocation/json">Codetabs Geolocation API</a>
+ * <p>Servizio di <strong>geo‑localizzazione IP</strong> che interroga uno dei
+ * {@link GeoProvider} (per default la
+ * <a href="https://api.codetabs.com/v1/geolocation/json">Codetabs Geolocation API</a>)
  * e mappa la risposta JSON in un set di proprietà ad uso dell’applicazione
  * (es. per scegliere automaticamente la città “di partenza” alla prima
- * installazione).</p>
+ * installazione). Per interrogare più servizi in parallelo e conservare il
+ * risultato tra un avvio e l’altro si usa {@link CachedIPLookUp}.</p>
  *
  * <p>Il contratto è definito dall’interfaccia {@link LookUp}. Alla prima
  * invocazione di {@link #lookup()} il metodo tenta fino a
- * {@value #MAX_ATTEMPTS} volte l’HTTP GET, restituendo
+ * {@value #MAX_ATTEMPTS} volte (o il numero indicato al costruttore) l’HTTP
+ * GET, attendendo tra un tentativo e il
+ * successivo secondo una {@link RetryPolicy} con backoff esponenziale e
+ * <em>jitter</em>, e restituisce
  * {@link Optional#empty()} se tutti i tentativi falliscono; in caso di successo
  * le informazioni vengono cache‑ate nell’istanza e rese disponibili tramite
  * i rispettivi <code>get*</code>.</p>
@@ -25,12 +35,17 @@ import org.app.weathermode.model.pair.Pair;
 public class IPLookUp implements LookUp {
 
     /* ======================== costanti ======================== */
-    /** Endpoint JSON pubblico senza autenticazione. */
-    private static final String API_URL = "https://api.codetabs.com/v1/geolocation/json";
-    /** Numero massimo di retry in {@link #lookup()}. */
+    /** Numero massimo di retry in {@link #lookup()} con il costruttore vuoto. */
     private static final int MAX_ATTEMPTS = 10;
+    /** Attesa massima dopo il primo tentativo fallito. */
+    private static final Duration FIRST_DELAY = Duration.ofMillis(50);
+    /** Attesa massima tra due tentativi. */
+    private static final Duration MAX_DELAY = Duration.ofMillis(500);
 
     /* ======================== stato =========================== */
+    private final GeoProvider provider;
+    /** Attese tra i tentativi: casuali, fino a 50 ms dopo il primo e mai oltre 500 ms. */
+    private final RetryPolicy retry;
     private String ip = "";
     private String countryCode = "";
     private String countryName = "";
@@ -41,7 +56,18 @@ public class IPLookUp implements LookUp {
     private Pair<Double, Double> coords; // lat, lng
 
     /** Costruttore vuoto: la lookup vera e propria avviene su {@link #lookup()}. */
-    public IPLookUp() { /* empty body */ }
+    public IPLookUp() {
+        this(GeoProvider.CODETABS, MAX_ATTEMPTS);
+    }
+
+    /**
+     * @param provider    servizio da interrogare.
+     * @param maxAttempts numero massimo di tentativi in {@link #lookup()}.
+     */
+    public IPLookUp(final GeoProvider provider, final int maxAttempts) {
+        this.provider = provider;
+        this.retry = new ExponentialBackoffRetryPolicy(maxAttempts, FIRST_DELAY, MAX_DELAY);
+    }
 
     /* ===================== API LookUp ========================= */
 
@@ -55,12 +81,7 @@ public class IPLookUp implements LookUp {
     @Override
     public Optional<Boolean> lookup() {
         this.clear();
-        for (int attempts = 0; attempts < MAX_ATTEMPTS; attempts++) {
-            if (this.doLookUpReq()) {
-                return Optional.of(Boolean.TRUE);
-            }
-        }
-        return Optional.empty();
+        return retry.run(this::doLookUpReq) ? Optional.of(Boolean.TRUE) : Optional.empty();
     }
 
     /* ==================== getter semplici ===================== */
@@ -167,7 +188,9 @@ public class IPLookUp implements LookUp {
     }
 
     /**
-     * Implementa la singola chiamata HTTP e il mapping JSON→campi.
+     * Implementa la singola chiamata HTTP e il mapping JSON→campi: tutti i
+     * path del provider sono estratti con un’unica visita della risposta
+     * ({@link GeoProvider#paths()}).
      *
      * @return <code>true</code> se il parsing e l’assegnazione vanno a buon fine.
      */
@@ -177,19 +200,34 @@ public class IPLookUp implements LookUp {
     )
     private boolean doLookUpReq() {
         try {
-            final AdvancedJsonReader ipinfo = new AdvancedJsonReaderImpl(API_URL);
-            this.ip = ipinfo.getString("ip");
-            this.countryCode = ipinfo.getString("country_code");
-            this.countryName = ipinfo.getString("country_name");
-            this.regionName = ipinfo.getString("region_name");
-            this.city = ipinfo.getString("city");
-            this.zipCode = ipinfo.getString("zip_code");
-            this.timeZone = ipinfo.getString("time_zone");
-            this.coords = new Pair<>(ipinfo.getDouble("latitude"), ipinfo.getDouble("longitude"));
+            final Map<String, JsonElement> ipinfo = new AdvancedJsonReaderImpl(provider.url()).getAll(provider.paths());
+            this.ip = field(ipinfo, provider.ip()).getAsString();
+            this.countryCode = field(ipinfo, provider.countryCode()).getAsString();
+            this.countryName = field(ipinfo, provider.country()).getAsString();
+            this.regionName = field(ipinfo, provider.region()).getAsString();
+            this.city = field(ipinfo, provider.city()).getAsString();
+            this.zipCode = field(ipinfo, provider.zipCode()).getAsString();
+            this.timeZone = field(ipinfo, provider.timeZone()).getAsString();
+            this.coords = new Pair<>(field(ipinfo, provider.latitude()).getAsDouble(),
+                field(ipinfo, provider.longitude()).getAsDouble());
             return true;
         } catch (final Exception e) { // NOPMD
             return false;
         }
     }
 
+    /**
+     * @param found valori estratti dalla risposta.
+     * @param path  path del campo.
+     * @return il valore primitivo del campo.
+     * @throws IllegalArgumentException se il campo manca o non è un valore primitivo.
+     */
+    private static JsonElement field(final Map<String, JsonElement> found, final String path) {
+        final JsonElement element = found.get(path);
+        if (element == null || !element.isJsonPrimitive()) {
+            throw new IllegalArgumentException("\"" + path + "\": campo mancante nella risposta");
+        }
+        return element;
+    }
+
 }
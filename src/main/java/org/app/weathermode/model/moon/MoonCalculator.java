@@ -0,0 +1,122 @@
+package org.app.weathermode.model.moon;
+
+import java.time.Instant;
+
+/**
+ * <h2>MoonCalculator</h2>
+ * <p>Calcolo astronomico della fase lunare, senza rete, con le formule a
+ * bassa precisione di J. Meeus, <em>Astronomical Algorithms</em>, cap. 48
+ * (eq. 48.4): dalle medie di elongazione <code>D</code>, anomalia solare
+ * <code>M</code> e anomalia lunare <code>M'</code> si ricava l’angolo di
+ * fase con le sei correzioni periodiche principali. L’errore sulla frazione
+ * illuminata è inferiore a qualche millesimo e ogni calcolo costa pochi
+ * seni, cioè frazioni di microsecondo.</p>
+ * <p>L’angolo restituito da {@link #phaseAngle(Instant)} è la differenza di
+ * longitudine tra Luna e Sole: 0° luna nuova, 90° primo quarto, 180° luna
+ * piena, 270° ultimo quarto. Il tempo dinamico (ΔT, circa un minuto) è
+ * trascurato: sposta la fase di meno di un centesimo di grado.</p>
+ */
+public final class MoonCalculator {
+
+    /** Moto medio della Luna rispetto al Sole, in gradi al giorno (360° / mese sinodico). */
+    public static final double SYNODIC_DEGREES_PER_DAY = 12.190_749;
+
+    /** Durata media del mese sinodico, in giorni. */
+    public static final double SYNODIC_MONTH_DAYS = 29.530_589;
+
+    private static final double FULL_CIRCLE = 360;
+    private static final double HALF_CIRCLE = 180;
+    private static final double MILLIS_PER_DAY = 86_400_000;
+    /** Giorno giuliano dell’epoca Unix. */
+    private static final double UNIX_EPOCH_JD = 2_440_587.5;
+    /** Giorno giuliano dell’epoca J2000.0. */
+    private static final double J2000 = 2_451_545.0;
+    private static final double DAYS_PER_CENTURY = 36_525;
+
+    private MoonCalculator() { }
+
+    /**
+     * @param instant istante di calcolo.
+     * @return angolo di fase in gradi, in <code>[0, 360)</code>.
+     */
+    public static double phaseAngle(final Instant instant) {
+        return phaseAngle(julianDay(instant));
+    }
+
+    /**
+     * Meeus, eq. 48.4, espressa come elongazione corretta <code>180° − i</code>.
+     *
+     * @param jd giorno giuliano.
+     * @return angolo di fase in gradi, in <code>[0, 360)</code>.
+     */
+    // CHECKSTYLE: MagicNumber OFF
+    public static double phaseAngle(final double jd) {
+        final double t = (jd - J2000) / DAYS_PER_CENTURY;
+        final double t2 = t * t;
+        final double t3 = t2 * t;
+        final double t4 = t3 * t;
+        final double d = Math.toRadians(normalize(297.850_192_1 + 445_267.111_403_4 * t
+            - 0.001_881_9 * t2 + t3 / 545_868 - t4 / 113_065_000));
+        final double m = Math.toRadians(normalize(357.529_109_2 + 35_999.050_290_9 * t
+            - 0.000_153_6 * t2 + t3 / 24_490_000));
+        final double mp = Math.toRadians(normalize(134.963_396_4 + 477_198.867_505_5 * t
+            + 0.008_741_4 * t2 + t3 / 69_699 - t4 / 14_712_000));
+        return normalize(Math.toDegrees(d)
+            + 6.289 * Math.sin(mp)
+            - 2.100 * Math.sin(m)
+            + 1.274 * Math.sin(2 * d - mp)
+            + 0.658 * Math.sin(2 * d)
+            + 0.214 * Math.sin(2 * mp)
+            + 0.110 * Math.sin(d));
+    }
+    // CHECKSTYLE: MagicNumber ON
+
+    /**
+     * Frazione illuminata del disco, <code>(1 − cos θ) / 2</code>.
+     *
+     * @param phaseAngle angolo di fase in gradi.
+     * @return frazione in <code>[0, 1]</code>.
+     */
+    public static double illumination(final double phaseAngle) {
+        return (1 - Math.cos(Math.toRadians(phaseAngle))) / 2;
+    }
+
+    /**
+     * @param phaseAngle angolo di fase in gradi.
+     * @return <code>true</code> tra luna nuova e luna piena.
+     */
+    public static boolean isWaxing(final double phaseAngle) {
+        return normalize(phaseAngle) < HALF_CIRCLE;
+    }
+
+    /**
+     * Età approssimata della Luna, dal moto sinodico medio.
+     *
+     * @param phaseAngle angolo di fase in gradi.
+     * @return giorni dall’ultima luna nuova.
+     */
+    public static double age(final double phaseAngle) {
+        return normalize(phaseAngle) / FULL_CIRCLE * SYNODIC_MONTH_DAYS;
+    }
+
+    /**
+     * @param instant istante.
+     * @return giorno giuliano corrispondente.
+     */
+    public static double julianDay(final Instant instant) {
+        return instant.toEpochMilli() / MILLIS_PER_DAY + UNIX_EPOCH_JD;
+    }
+
+    /**
+     * @param degrees angolo in gradi.
+     * @return lo stesso angolo in <code>[0, 360)</code>.
+     */
+    public static double normalize(final double degrees) {
+        final double r = degrees % FULL_CIRCLE;
+        if (r >= 0) {
+            return r;
+        }
+        final double wrapped = r + FULL_CIRCLE;
+        return wrapped < FULL_CIRCLE ? wrapped : 0;
+    }
+}
@@ -0,0 +1,79 @@
+package org.app.weathermode.model.moon;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * <h2>MoonImage</h2>
+ * <p>Disegna localmente il disco lunare per un angolo di fase, al posto
+ * dell’immagine scaricata in passato da MoonGiant.</p>
+ * <p>Per ogni riga del disco, di semi‑larghezza <code>w</code>, il
+ * terminatore è la semi‑ellisse di ascissa <code>w·cos θ</code>: la parte
+ * illuminata va dal terminatore al lembo destro in fase crescente e al lembo
+ * sinistro in fase calante (vista dall’emisfero nord), e la sua area è
+ * esattamente la frazione illuminata di {@link MoonCalculator#illumination}.
+ * I bordi sono sfumati campionando ogni pixel
+ * {@value #SAMPLES}×{@value #SAMPLES} volte.</p>
+ */
+public final class MoonImage {
+
+    private static final int SAMPLES = 4;
+    private static final int LIT = 0xF2_EE_D8;
+    private static final int DARK = 0x33_33_3D;
+    private static final int ALPHA_SHIFT = 24;
+    private static final int CHANNEL = 0xFF;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+
+    private MoonImage() { }
+
+    /**
+     * @param phaseAngle angolo di fase in gradi (0° luna nuova, 180° piena).
+     * @param size       lato dell’immagine in pixel.
+     * @return immagine ARGB con sfondo trasparente.
+     * @throws IllegalArgumentException se <code>size</code> non è positivo.
+     */
+    public static BufferedImage render(final double phaseAngle, final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid image size: " + size);
+        }
+        final BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        final double radius = size / 2.0;
+        final double cos = Math.cos(Math.toRadians(phaseAngle));
+        final boolean waxing = MoonCalculator.isWaxing(phaseAngle);
+        final int total = SAMPLES * SAMPLES;
+        for (int py = 0; py < size; py++) {
+            for (int px = 0; px < size; px++) {
+                int inside = 0;
+                int lit = 0;
+                for (int s = 0; s < total; s++) {
+                    final double x = (px + (s % SAMPLES + 0.5) / SAMPLES - radius) / radius;
+                    final double y = (py + (s / SAMPLES + 0.5) / SAMPLES - radius) / radius;
+                    final double halfWidth2 = 1 - y * y;
+                    if (x * x > halfWidth2) {
+                        continue;
+                    }
+                    inside++;
+                    final double terminator = Math.sqrt(halfWidth2) * cos;
+                    if (waxing ? x > terminator : x < -terminator) {
+                        lit++;
+                    }
+                }
+                if (inside > 0) {
+                    image.setRGB(px, py, blend(lit, inside, total));
+                }
+            }
+        }
+        return image;
+    }
+
+    /** Colore medio dei campioni interni al disco, con trasparenza proporzionale alla copertura. */
+    private static int blend(final int lit, final int inside, final int total) {
+        final int alpha = inside * CHANNEL / total;
+        int rgb = 0;
+        for (final int shift : new int[] {RED_SHIFT, GREEN_SHIFT, 0}) {
+            final int channel = ((LIT >> shift & CHANNEL) * lit + (DARK >> shift & CHANNEL) * (inside - lit)) / inside;
+            rgb |= channel << shift;
+        }
+        return alpha << ALPHA_SHIFT | rgb;
+    }
+}
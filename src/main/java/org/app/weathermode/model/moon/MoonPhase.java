@@ -0,0 +1,96 @@
+package org.app.weathermode.model.moon;
+
+/**
+ * <h2>MoonPhase</h2>
+ * <p>Le otto fasi lunari tradizionali, ricavate dall’angolo di fase
+ * calcolato da {@link MoonCalculator} (0° luna nuova, 90° primo quarto,
+ * 180° luna piena, 270° ultimo quarto).</p>
+ * <p>Le quattro fasi principali sono istanti precisi. Un giorno è assegnato
+ * a una di esse se l’angolo la attraversa tra l’inizio del giorno e l’inizio
+ * del successivo ({@link #ofDay}), così nel calendario ciascuna occupa
+ * esattamente un giorno; per un singolo istante ({@link #of}) si usa una
+ * finestra di mezza giornata di moto medio ({@value #PRINCIPAL_HALF_WIDTH}°).
+ * Gli intervalli tra l’una e l’altra sono le fasi intermedie.</p>
+ */
+public enum MoonPhase {
+
+    /** Luna nuova. */
+    NEW("Luna nuova", "new_moon.png"),
+    /** Falce crescente. */
+    WAXING_CRESCENT("Luna crescente", "waxing_crescent.png"),
+    /** Primo quarto. */
+    FIRST_QUARTER("Primo quarto", "first_quarter.png"),
+    /** Gibbosa crescente. */
+    WAXING_GIBBOUS("Gibbosa crescente", "waxing_gibbous.png"),
+    /** Luna piena. */
+    FULL("Luna piena", "full_moon.png"),
+    /** Gibbosa calante. */
+    WANING_GIBBOUS("Gibbosa calante", "waning_gibbous.png"),
+    /** Ultimo quarto. */
+    LAST_QUARTER("Ultimo quarto", "last_quarter.png"),
+    /** Falce calante. */
+    WANING_CRESCENT("Luna calante", "waning_crescent.png");
+
+    /** Metà della finestra delle fasi principali: mezza giornata di moto sinodico medio, in gradi. */
+    public static final double PRINCIPAL_HALF_WIDTH = MoonCalculator.SYNODIC_DEGREES_PER_DAY / 2;
+
+    private static final double QUARTER = 90;
+
+    private final String label;
+    private final String imageName;
+
+    MoonPhase(final String label, final String imageName) {
+        this.label = label;
+        this.imageName = imageName;
+    }
+
+    /**
+     * @return nome italiano della fase.
+     */
+    public String label() {
+        return label;
+    }
+
+    /**
+     * @return nome del file con cui l’immagine della fase può essere salvata.
+     */
+    public String imageName() {
+        return imageName;
+    }
+
+    /**
+     * Fase corrispondente a un angolo di fase.
+     *
+     * @param angle angolo di fase in gradi, anche fuori da <code>[0, 360)</code>.
+     * @return la fase.
+     */
+    public static MoonPhase of(final double angle) {
+        final double normalized = MoonCalculator.normalize(angle);
+        final int quarter = (int) Math.round(normalized / QUARTER) % 4;
+        if (Math.abs(normalized - quarter * QUARTER) < PRINCIPAL_HALF_WIDTH
+            || quarter == 0 && normalized > 4 * QUARTER - PRINCIPAL_HALF_WIDTH) {
+            return values()[quarter * 2];
+        }
+        return values()[(int) (normalized / QUARTER) * 2 + 1];
+    }
+
+    /**
+     * Fase di un giorno, dagli angoli di fase all’inizio del giorno e
+     * all’inizio del successivo.
+     *
+     * @param start angolo di fase all’inizio del giorno, in gradi.
+     * @param end   angolo di fase all’inizio del giorno successivo, in gradi.
+     * @return la fase principale attraversata nel giorno, altrimenti la fase
+     *         intermedia in cui il giorno si trova.
+     */
+    public static MoonPhase ofDay(final double start, final double end) {
+        final double span = MoonCalculator.normalize(end - start);
+        for (int quarter = 0; quarter < 4; quarter++) {
+            if (MoonCalculator.normalize(quarter * QUARTER - start) < span) {
+                return values()[quarter * 2];
+            }
+        }
+        final double middle = MoonCalculator.normalize(start + span / 2);
+        return values()[(int) (middle / QUARTER) * 2 + 1];
+    }
+}
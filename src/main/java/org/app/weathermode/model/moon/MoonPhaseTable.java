@@ -0,0 +1,139 @@
+package org.app.weathermode.model.moon;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h2>MoonPhaseTable</h2>
+ * <p>Tabella precalcolata delle fasi lunari giorno per giorno, per
+ * interrogazioni in blocco su un intervallo di date (calendari mensili e
+ * annuali). Gli angoli di fase sono calcolati una sola volta alla
+ * costruzione con {@link MoonCalculator}, alla mezzanotte locale che apre
+ * ogni giorno (più quella che chiude l’ultimo), e conservati in un array: le
+ * letture successive non ripetono alcun calcolo astronomico né allocano
+ * oggetti.</p>
+ * <p>Dai due estremi di ogni giorno si ricavano la fase del giorno con
+ * {@link MoonPhase#ofDay}, così ogni fase principale cade nel giorno locale
+ * che contiene l’istante esatto, e l’angolo a metà giornata per
+ * l’illuminazione.</p>
+ */
+public final class MoonPhaseTable {
+
+    private final LocalDate first;
+    /** Angoli di fase all’inizio di ogni giorno, più uno alla fine dell’ultimo. */
+    private final double[] bounds;
+
+    private MoonPhaseTable(final LocalDate first, final double[] bounds) {
+        this.first = first;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Calcola la tabella per le date da <code>from</code> a <code>to</code>
+     * comprese.
+     *
+     * @param from prima data.
+     * @param to   ultima data.
+     * @param zone fuso orario del calendario.
+     * @return la tabella.
+     * @throws IllegalArgumentException se <code>to</code> precede <code>from</code>.
+     */
+    public static MoonPhaseTable of(final LocalDate from, final LocalDate to, final ZoneId zone) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " > " + to);
+        }
+        final double[] bounds = new double[Math.toIntExact(ChronoUnit.DAYS.between(from, to)) + 2];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = MoonCalculator.phaseAngle(from.plusDays(i).atStartOfDay(zone).toInstant());
+        }
+        return new MoonPhaseTable(from, bounds);
+    }
+
+    /**
+     * @param month mese del calendario.
+     * @param zone  fuso orario del calendario.
+     * @return la tabella dei giorni del mese.
+     */
+    public static MoonPhaseTable forMonth(final YearMonth month, final ZoneId zone) {
+        return of(month.atDay(1), month.atEndOfMonth(), zone);
+    }
+
+    /**
+     * @param year anno del calendario.
+     * @param zone fuso orario del calendario.
+     * @return la tabella dei giorni dell’anno.
+     */
+    public static MoonPhaseTable forYear(final Year year, final ZoneId zone) {
+        return of(year.atDay(1), year.atMonth(Month.DECEMBER).atEndOfMonth(), zone);
+    }
+
+    /**
+     * @return numero di giorni in tabella.
+     */
+    public int size() {
+        return bounds.length - 1;
+    }
+
+    /**
+     * @param i posizione nella tabella.
+     * @return la data della riga.
+     */
+    public LocalDate date(final int i) {
+        return first.plusDays(i);
+    }
+
+    /**
+     * @param date data cercata.
+     * @return la posizione della data, o <code>-1</code> se fuori intervallo.
+     */
+    public int indexOf(final LocalDate date) {
+        final long i = ChronoUnit.DAYS.between(first, date);
+        return i >= 0 && i < size() ? (int) i : -1;
+    }
+
+    /**
+     * @param i posizione nella tabella.
+     * @return angolo di fase a metà giornata, in gradi, in <code>[0, 360)</code>.
+     */
+    public double angle(final int i) {
+        return MoonCalculator.normalize(bounds[i] + MoonCalculator.normalize(bounds[i + 1] - bounds[i]) / 2);
+    }
+
+    /**
+     * @param i posizione nella tabella.
+     * @return frazione illuminata in <code>[0, 1]</code>.
+     */
+    public double illumination(final int i) {
+        return MoonCalculator.illumination(angle(i));
+    }
+
+    /**
+     * @param i posizione nella tabella.
+     * @return la fase del giorno.
+     */
+    public MoonPhase phase(final int i) {
+        return MoonPhase.ofDay(bounds[i], bounds[i + 1]);
+    }
+
+    /**
+     * Le date in cui cade una fase, ad es. tutte le lune piene dell’anno.
+     *
+     * @param phase fase cercata.
+     * @return le date, in ordine.
+     */
+    public List<LocalDate> datesOf(final MoonPhase phase) {
+        final List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < size(); i++) {
+            if (phase(i) == phase) {
+                dates.add(date(i));
+            }
+        }
+        return dates;
+    }
+}
@@ -1,5 +1,6 @@
 package org.app.weathermode.model.moon;
 
+import java.awt.image.BufferedImage;
 import java.util.Optional;
 import java.util.Map;
 
@@ -41,12 +42,28 @@ public interface MoonPhases {
     String getDate();
 
     /**
-     * Utility di convenienza per ottenere l’URL completo dell’immagine
-     * rappresentativa della fase lunare.
+     * Immagine rappresentativa della fase lunare alla data corrente.
      *
-     * @param imageName nome file dell’immagine.
-     * @return URL assoluto.
+     * @param size lato dell’immagine in pixel.
+     * @return l’immagine della fase.
      */
-    String getImageURL(String imageName);
+    BufferedImage getImage(int size);
+
+    /**
+     * Calendario lunare di un mese.
+     *
+     * @param year  anno (4 cifre).
+     * @param month mese (1‑12).
+     * @return la tabella dei giorni del mese.
+     */
+    MoonPhaseTable getMonth(int year, int month);
+
+    /**
+     * Calendario lunare di un anno.
+     *
+     * @param year anno (4 cifre).
+     * @return la tabella dei giorni dell’anno.
+     */
+    MoonPhaseTable getYear(int year);
 
 }
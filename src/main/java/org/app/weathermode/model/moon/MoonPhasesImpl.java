@@ -1,52 +1,51 @@
 package org.app.weathermode.model.moon;
 
-// CHECKSTYLE: AvoidStarImport OFF
-import org.jsoup.*;
-import org.jsoup.nodes.*;
-
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-
-import java.util.*;
-// CHECKSTYLE: AvoidStarImport ON
-
+import java.awt.image.BufferedImage;
 import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * <h2>MoonPhasesImpl</h2>
- * <p>Implementazione di {@link MoonPhases} che effettua <strong>scraping</strong>
- * del sito <a href="https://www.moongiant.com">MoonGiant</a> (versione in
- * italiano) per estrarre fase lunare, percentuale di illuminazione e immagine
- * rappresentativa per una determinata data.</p>
+ * <p>Implementazione di {@link MoonPhases} interamente locale: fase,
+ * percentuale di illuminazione e immagine sono calcolate con
+ * {@link MoonCalculator} (algoritmo di Meeus) e disegnate con
+ * {@link MoonImage}, senza alcuna richiesta di rete. In passato i dati
+ * erano estratti dalla pagina di MoonGiant e l’immagine scaricata dal sito.</p>
  *
  * <p>La classe offre:</p>
  * <ul>
- *   <li>Impostazione della data tramite {@link #setDate(int, int, int)} (con
- *       formattazione <code>dd/MM/yyyy</code> richiesta dal sito).</li>
- *   <li>Recupero delle informazioni in {@link #getMoonInfo()} con caching in
- *       memoria per evitare richieste ripetute alla stessa data.</li>
- *   <li>Utility per ottenere l’URL completo dell’immagine fase lunare via
- *       {@link #getImageURL(String)}.</li>
+ *   <li>Impostazione della data tramite {@link #setDate(int, int, int)}
+ *       (formato <code>dd/MM/yyyy</code>); fase e illuminazione sono quelle
+ *       del giorno locale, calcolate come nei calendari di
+ *       {@link MoonPhaseTable}.</li>
+ *   <li>Le informazioni della data in {@link #getMoonInfo()}: il calcolo
+ *       costa meno di un microsecondo e non richiede cache.</li>
+ *   <li>L’immagine della fase con {@link #getImage(int)} e i calendari
+ *       mensili e annuali con {@link #getMonth(int, int)} e
+ *       {@link #getYear(int)}.</li>
  * </ul>
- * <p><strong>Nota:</strong> lo scraping HTML è fragile per definizione; un
- * cambio di layout sul sito sorgente potrebbe invalidare i <em>selector</em>.
- * Per questo motivo il metodo privato {@link #retrieveMoonPhaseInfo()} è
- * incapsulato in un blocco <code>try/catch</code> e restituisce <code>false</code>
- * in caso di errore, lasciando al chiamante la decisione su come gestirlo.</p>
  */
 public class MoonPhasesImpl implements MoonPhases {
 
-    private static final String SITE_URL = "https://www.moongiant.com/it/fase-lunare/";
-    private static final String BASE_IMG_URL = "https://www.moongiant.com/images/today_phase/";
+    private static final double PERCENT = 100;
 
-    /** Mappa con le info relative all’ultima data richiesta. */
-    private final Map<String, String> moonInfo = new HashMap<>();
-    /** Cache per evitare ripetuti scraping della stessa data. */
-    private final Map<String, Map<String, String>> cache = new HashMap<>();
+    /** Fuso orario in cui sono interpretate le date. */
+    private final ZoneId zone;
+    /** Data corrente, <code>null</code> finché non viene impostata. */
+    private LocalDate day;
     /** Data corrente in formato <code>dd/MM/yyyy</code>. */
     private String date = "";
 
     /** Costruttore di default: la data verrà impostata a <em>oggi</em> alla prima richiesta. */
-    public MoonPhasesImpl() { /* empty constructor */ }
+    public MoonPhasesImpl() {
+        this(ZoneId.systemDefault());
+    }
 
     /**
      * Costruttore con data iniziale.
@@ -55,47 +54,54 @@ public class MoonPhasesImpl implements MoonPhases {
      * @param day   giorno del mese (1–31).
      */
     public MoonPhasesImpl(final int year, final int month, final int day) {
+        this();
         this.setDate(year, month, day);
     }
 
+    /**
+     * @param zone fuso orario in cui interpretare le date.
+     */
+    public MoonPhasesImpl(final ZoneId zone) {
+        this.zone = zone;
+    }
+
     /* ===================== API MoonPhases ================= */
 
     /**
-     * Imposta la data target formattandola come richiesto da MoonGiant
-     * (<code>dd/MM/yyyy</code>) e aggiorna <code>MOON_INFO</code> di base.
+     * Imposta la data target, memorizzandola anche nel formato
+     * <code>dd/MM/yyyy</code>.
      */
     @Override
     public final void setDate(final int year, final int month, final int day) {
-        final String formatted = String.format("%02d/%02d/%d", day, month, year);
-        this.date = formatted;
-        this.moonInfo.put("date", formatted);
+        this.day = LocalDate.of(year, month, day);
+        this.date = String.format("%02d/%02d/%d", day, month, year);
     }
 
     /**
-     * Restituisce (eventualmente da cache) un <code>Map</code> contenente:
+     * Restituisce un <code>Map</code> contenente:
      * <ul>
      *   <li><code>date</code> – data richiesta</li>
      *   <li><code>state</code> – fase lunare es. "Gibbosa calante"</li>
      *   <li><code>illumination</code> – percentuale illuminazione es. "64%"</li>
      *   <li><code>image_name</code> – nome file PNG dell’immagine</li>
+     *   <li><code>phase_angle</code> – angolo di fase in gradi</li>
+     *   <li><code>age</code> – giorni dall’ultima luna nuova</li>
      * </ul>
-     * @return {@link Optional#empty()} se il parsing fallisce.
+     * @return le informazioni della data; mai vuoto.
      */
     @Override
     public Optional<Map<String, String>> getMoonInfo() {
-        if (this.date.isEmpty()) {
-            final LocalDate now = LocalDate.now();
-            this.setDate(now.getYear(), now.getMonthValue(), now.getDayOfMonth());
-        }
-        if (this.cache.containsKey(this.date)) {
-            return Optional.of(this.cache.get(this.date));
-        }
-        if (!this.retrieveMoonPhaseInfo()) {
-            return Optional.empty();
-        }
-        // Salva una copia immutabile per evitare side-effect futuri
-        this.cache.put(this.date, new HashMap<>(moonInfo));
-        return Optional.of(this.moonInfo);
+        final MoonPhaseTable today = this.today();
+        final double angle = today.angle(0);
+        final MoonPhase phase = today.phase(0);
+        final Map<String, String> moonInfo = new HashMap<>();
+        moonInfo.put("date", this.date);
+        moonInfo.put("state", phase.label());
+        moonInfo.put("illumination", Math.round(today.illumination(0) * PERCENT) + "%");
+        moonInfo.put("image_name", phase.imageName());
+        moonInfo.put("phase_angle", String.format(Locale.ROOT, "%.1f", angle));
+        moonInfo.put("age", String.format(Locale.ROOT, "%.1f", MoonCalculator.age(angle)));
+        return Optional.of(moonInfo);
     }
 
     /** @return la data attualmente impostata (formato <code>dd/MM/yyyy</code>). */
@@ -105,48 +111,38 @@ public class MoonPhasesImpl implements MoonPhases {
     }
 
     /**
-     * Componi URL completo dell’immagine fase lunare.
-     * @param imageName nome file PNG (es. "waxing_gibbous.png").
+     * {@inheritDoc}
      */
     @Override
-    public String getImageURL(final String imageName) {
-        return BASE_IMG_URL + imageName;
+    public BufferedImage getImage(final int size) {
+        return MoonImage.render(this.today().angle(0), size);
     }
 
-    /* ===================== metodi privati ================= */
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MoonPhaseTable getMonth(final int year, final int month) {
+        return MoonPhaseTable.forMonth(YearMonth.of(year, month), this.zone);
+    }
 
     /**
-     * Effettua lo scraping della pagina HTML e popola {@link #moonInfo}.
-     * @return <code>true</code> se tutti i campi richiesti sono stati estratti.
+     * {@inheritDoc}
      */
-    @SuppressFBWarnings(
-        value = "REC_CATCH_EXCEPTION",
-        justification = "Necessary to catch generic Exception to aggregate parsing errors from AdvancedJsonReader"
-    )
-    private boolean retrieveMoonPhaseInfo() {
-        try {
-            final Document doc = Jsoup.connect(SITE_URL + this.date).get();
-            final Element allInfo = doc.getElementById("today_");
-            if (allInfo == null) {
-                return false;
-            }
-
-            // Fase lunare (penultima riga di testo dentro il div)
-            final String[] lines = allInfo.html().trim().split("<br>");
-            this.moonInfo.put("state", lines[lines.length - 2].trim());
-
-            // Percentuale di illuminazione (primo <span>)
-            final String percIllumination = allInfo.getElementsByTag("span").first().text().trim();
-            this.moonInfo.put("illumination", percIllumination);
-
-            // Nome immagine (src dell'<img>)
-            final Element img = allInfo.getElementsByTag("img").first();
-            final String[] imgNameSplitted = img.attr("src").split("/");
-            this.moonInfo.put("image_name", imgNameSplitted[imgNameSplitted.length - 1]);
-            return true;
-        } catch (final Exception e) { // NOPMD
-            return false;
+    @Override
+    public MoonPhaseTable getYear(final int year) {
+        return MoonPhaseTable.forYear(Year.of(year), this.zone);
+    }
+
+    /* ===================== metodi privati ================= */
+
+    /** Tabella di un solo giorno per la data corrente (oggi se non impostata). */
+    private MoonPhaseTable today() {
+        if (this.day == null) {
+            final LocalDate now = LocalDate.now(this.zone);
+            this.setDate(now.getYear(), now.getMonthValue(), now.getDayOfMonth());
         }
+        return MoonPhaseTable.of(this.day, this.day, this.zone);
     }
 
 }
@@ -1,24 +1,19 @@
 package org.app.weathermode.model.weather;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 // CHECKSTYLE: AvoidStarImport OFF
 import java.util.*;
-import java.util.logging.Logger;
-
-import com.google.gson.*;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import org.app.weathermode.model.UnitConversion;
-import org.app.weathermode.model.json.AdvancedJsonReader;
-import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
+import org.app.weathermode.model.cityinfo.CityInfoService;
+import org.app.weathermode.model.cityinfo.CityInfoServiceImpl;
 import org.app.weathermode.model.pair.AbstractPair;
 import org.app.weathermode.model.pair.Pair;
-import org.jsoup.*;
-import org.jsoup.select.*;
-import org.jsoup.nodes.*;
 // CHECKSTYLE: AvoidStarImport ON
 
 /**
@@ -26,17 +21,24 @@ import org.jsoup.nodes.*;
  * <p>Wrapper ad alto livello che interroga l'API <a href="https://open-meteo.com/" target="_blank">Open‑Meteo</a>
  * e aggrega i dati necessari al resto dell'applicazione:</p>
  * <ul>
- *     <li>Previsioni orarie ed estese fino a 8 giorni ({@link #FORECAST_HOURS}).</li>
- *     <li>Riepilogo giornaliero (icona, min/max, UV, ecc.) ({@link #DAILY_GENERAL_FORECAST}).</li>
- *     <li>Informazioni su alba e tramonto per ciascun giorno ({@link #SUN_DAILY_INFO}).</li>
- *     <li>Condizioni correnti con caching smart ({@link #NOW}).</li>
- *     <li>Dati demografici via <em>web‑scraping</em> da ilMeteo.it ({@link #getCityInhabitants(String)}).</li>
+ *     <li>Previsioni orarie ed estese fino a 8 giorni, riepilogo giornaliero
+ *         (icona, min/max, UV, ecc.) e alba/tramonto, memorizzati in forma
+ *         colonnare in un {@link ForecastStore}.</li>
+ *     <li>Condizioni correnti con caching smart ({@link #REFRESH_TIME} minuti).</li>
+ *     <li>Cache multi‑località ({@link ForecastCache}) condivisa tra le istanze:
+ *         tornando su una città vista di recente non si effettua alcuna richiesta.</li>
+ *     <li>Copia su disco dell’ultima previsione scaricata ({@link OfflineForecastStore}),
+ *         usata all’avvio prima che il download sia completato.</li>
+ *     <li>Abitanti e altitudine da {@link CityInfoService}, senza richieste di rete
+ *         durante l’aggiornamento; l’altitudine restituita da Open‑Meteo viene
+ *         registrata nel servizio, che la conserva anche quando una risposta ne è priva.</li>
  * </ul>
  * <p>La classe implementa l’interfaccia {@link Weather} e si occupa di:</p>
  * <ol>
  *     <li>Costruire le URL partendo dalle coordinate geografiche.</li>
- *     <li>Effettuare la richiesta HTTP tramite {@link AdvancedJsonReaderImpl}.</li>
- *     <li>Normalizzare le unità (°C→°F, mm→inch, km/h→mph).</li>
+ *     <li>Effettuare la richiesta HTTP e decodificare la risposta in streaming
+ *         tramite {@link OpenMeteoStreamReader}, direttamente in colonne <code>double[]</code>.</li>
+ *     <li>Esporre le unità derivate (°C→°F, mm→inch, km/h→mph), calcolate al momento dell’accesso.</li>
  *     <li>Esporre comode API <code>Optional&lt;…&gt;</code> per evitare <code>null</code>.</li>
  * </ol>
  * Tutti i metodi pubblici sono <em>thread‑safe</em> a esclusione di una
@@ -65,33 +67,34 @@ public class AllWeather implements Weather {
         + "precipitation,weather_code,cloud_cover,wind_speed_10m,wind_direction_10m"
         + "&timezone=auto&forecast_days=1";
 
-    private static final String DETAILS_API_URL =
+    /* ===== dettagli 15‑minuti (accetta anche liste di coordinate separate da virgola) ===== */
+    static final String DETAILS_API_URL =
         "https://api.open-meteo.com/v1/forecast?latitude=%LAT&longitude=%LNG"
         + "&minutely_15=precipitation,snowfall,freezing_level_height,weather_code,wind_gusts_10m,visibility"
         + "&start_date=%DATE&end_date=%DATE";
 
-    private static final String URL_CITY_INFO = "https://www.ilmeteo.it/meteo/";
-
     private static final String WEATHER_CODE_KEY = "weather_code";
 
     /* ======================= data cache ========================= */
-    /** Previsioni orarie per data→ora→metriche. */
-    private static final Map<String, Map<String, Map<String, Number>>> FORECAST_HOURS =
-            new LinkedHashMap<>();
-    /** Riepilogo giornaliero (icona, min/max, etc.). */
-    private static final Map<String, Map<String, Number>> DAILY_GENERAL_FORECAST =
-            new LinkedHashMap<>();
-    /** Sunrise/Sunset per giorno. */
-    private static final Map<String, Map<String, String>> SUN_DAILY_INFO =
-            new LinkedHashMap<>();
-    /** Info città (altitudine, abitanti). */
-    private static final Map<String, Number> CITY_INFO = new HashMap<>();
-    /** Condizioni correnti. */
-    private static final Map<String, Number> NOW = new HashMap<>();
+    /**
+     * Cache predefinita, condivisa da tutte le istanze create senza cache
+     * esplicita e da {@link AsyncWeatherImpl}.
+     */
+    static final ForecastCache SHARED_CACHE = new ForecastCache();
 
     private static final int REFRESH_TIME = 20;
 
+    private final ForecastCache cache;
+    private final CityInfoService cityInfoService;
+    private final OfflineForecastStore offlineStore;
+
     /* ==================== variabili di stato ==================== */
+    /** Previsioni orarie e giornaliere in formato colonnare. */
+    private ForecastStore forecast;
+    /** Info città (altitudine, abitanti). */
+    private Map<String, Number> cityInfo = Map.of();
+    /** Condizioni correnti. */
+    private Map<String, Number> now = Map.of();
     private int forecastDays;
     private String lastDataUpdate = "";  // ISO‑8601 date‑time dell'ultimo now
     private long lastUpdate;  // timestamp epoch seconds
@@ -109,13 +112,49 @@ public class AllWeather implements Weather {
      *                     <code>lng</code>, ecc.
      */
     public AllWeather(final Map<String, String> locationInfo) {
+        this(locationInfo, SHARED_CACHE, CityInfoServiceImpl.shared(), OfflineForecastStore.shared());
+    }
+
+    /**
+     * Come {@link #AllWeather(Map)}, ma utilizzando una cache dedicata
+     * (TTL e capienza personalizzati) al posto di quella condivisa.
+     *
+     * @param locationInfo mappa con chiavi <code>city</code>, <code>lat</code>,
+     *                     <code>lng</code>, ecc.
+     * @param cache        cache multi‑località da consultare prima della rete.
+     */
+    public AllWeather(final Map<String, String> locationInfo, final ForecastCache cache) {
+        this(locationInfo, cache, CityInfoServiceImpl.shared(), OfflineForecastStore.shared());
+    }
+
+    /**
+     * Come {@link #AllWeather(Map, ForecastCache)}, specificando anche la
+     * fonte di popolazione e altitudine delle città e l’archivio su disco in
+     * cui salvare ogni previsione scaricata.
+     *
+     * @param locationInfo    mappa con chiavi <code>city</code>, <code>lat</code>,
+     *                        <code>lng</code>, ecc.
+     * @param cache           cache multi‑località da consultare prima della rete.
+     * @param cityInfoService servizio informazioni città.
+     * @param offlineStore    archivio delle previsioni per l’avvio offline.
+     */
+    @SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification = "The cache, the city info service and the offline store are meant to be shared"
+    )
+    public AllWeather(final Map<String, String> locationInfo, final ForecastCache cache,
+                      final CityInfoService cityInfoService, final OfflineForecastStore offlineStore) {
+        this.cache = cache;
+        this.cityInfoService = cityInfoService;
+        this.offlineStore = offlineStore;
         this.setLocation(locationInfo);
     }
 
     /* ====================== configurazione ======================= */
 
     /**
-     * Aggiorna la località (e resetta la cache interna).
+     * Aggiorna la località e resetta lo stato interno; i dati di una località
+     * già visitata restano disponibili nella {@link ForecastCache}.
      *
      * @param locationInfo info della città correntemente selezionata.
      */
@@ -128,6 +167,10 @@ public class AllWeather implements Weather {
         this.locationInfo = locationInfo;
         this.coords = new Pair<>(locationInfo.get("lat"), locationInfo.get("lng"));
         this.requested = false;
+        this.forecast = null;
+        this.cityInfo = Map.of();
+        this.now = Map.of();
+        this.forecastDays = 0;
         this.lastUpdate = 0;
         this.lastDataUpdate = "";
     }
@@ -137,6 +180,9 @@ public class AllWeather implements Weather {
     /**
      * <p>Scarica <strong>un’unica volta</strong> tutte le previsioni orarie e
      * giornaliere per i prossimi 8 giorni.</p>
+     * <p>Se la {@link ForecastCache} contiene una voce non scaduta per le
+     * coordinate correnti, lo stato viene ripristinato da essa senza alcuna
+     * richiesta di rete.</p>
      * <p>Il metodo effettua diverse trasformazioni (unità di misura) e popola
      * le strutture dati interne. In caso di qualunque eccezione restituisce
      * <code>false</code> per consentire al chiamante di gestire il fallimento
@@ -147,91 +193,36 @@ public class AllWeather implements Weather {
     @Override
     public boolean reqestsAllForecast() {
         try {
-            /* ================= download & parse ================= */
-            final var reader = new AdvancedJsonReaderImpl(FORECAST_API_URL
-                    .replace("%LAT", this.coords.getX())
-                    .replace("%LNG", this.coords.getY()));
+            /* ================= cache multi‑località ============== */
+            final Optional<ForecastCache.Entry> cached = this.cache.get(this.coords.getX(), this.coords.getY());
+            if (cached.isPresent()) {
+                this.restore(cached.get());
+                return true;
+            }
+
+            /* ============ download & parse in streaming ========= */
+            final var location = OpenMeteoStreamReader.fetchOne(
+                    forecastUrl(this.coords.getX(), this.coords.getY()));
 
             /* ========== informazioni statiche sulla città ======= */
-            CITY_INFO.put("meters_above_sea", reader.getFloat("elevation"));
-            final var inhab = this.getCityInhabitants(this.locationInfo.get("city_ascii"));
-            CITY_INFO.put("inhabitants", inhab.orElse(null));
-
-            /* ========== previsioni orarie per 8 giorni =========== */
-            final var datesHours = reader.getJsonArray("hourly.time");
-            final var temperature2m = reader.getJsonArray("hourly.temperature_2m");
-            final var humidity2m = reader.getJsonArray("hourly.relative_humidity_2m");
-            final var apparentTemperature = reader.getJsonArray("hourly.apparent_temperature");
-            final var precipitationProbability = reader.getJsonArray("hourly.precipitation_probability");
-            final var precipitation = reader.getJsonArray("hourly.precipitation");
-            final var weatherCode = reader.getJsonArray("hourly.weather_code");
-            final var windSpeed10m = reader.getJsonArray("hourly.wind_speed_10m");
-            final var windDirection10m = reader.getJsonArray("hourly.wind_direction_10m");
-            final var soilTemperature0cm = reader.getJsonArray("hourly.soil_temperature_0cm");
-            final var pressureMsl = reader.getJsonArray("hourly.pressure_msl");
-
-            for (int i = 0; i < datesHours.size(); i++) {
-                final String[] dateTime = datesHours.get(i).getAsString().split("T");
-                final String dateKey = dateTime[0];
-                final String hourKey = dateTime[1].split(":")[0];
-
-                FORECAST_HOURS.computeIfAbsent(dateKey, k -> new HashMap<>());
-
-                final Map<String, Number> info = new HashMap<>();
-                info.put("temperature_C", temperature2m.get(i).getAsNumber());
-                info.put("temperature_F", UnitConversion.celsiusToFahrenheit(temperature2m.get(i).getAsDouble()));
-                info.put("humidity", humidity2m.get(i).getAsNumber());
-                info.put("apparent_temperature", apparentTemperature.get(i).getAsNumber());
-                info.put("precipitation_probability", precipitationProbability.get(i).getAsNumber());
-                info.put("precipitation_mm", precipitation.get(i).getAsNumber());
-                info.put("precipitation_inch", UnitConversion.mmToInches(precipitation.get(i).getAsDouble()));
-                info.put(WEATHER_CODE_KEY, weatherCode.get(i).getAsNumber());
-                info.put("wind_speed_kmh", windSpeed10m.get(i).getAsNumber());
-                info.put("wind_speed_mph", UnitConversion.kmhToMph(windSpeed10m.get(i).getAsDouble()));
-                info.put("wind_direction", windDirection10m.get(i).getAsNumber());
-                info.put("pressure", pressureMsl.get(i).getAsNumber());
-                info.put("soil_temperature", soilTemperature0cm.get(i).isJsonNull()
-                    ? null : soilTemperature0cm.get(i).getAsNumber());
-
-                FORECAST_HOURS.get(dateKey).put(hourKey, info);
-            }
-            this.forecastDays = FORECAST_HOURS.size();
-
-            /* ========== previsioni giornaliere riassuntive ======= */
-            final var days = reader.getJsonArray("daily.time");
-            final var dayWeatherCode = reader.getJsonArray("daily.weather_code");
-            final var temperature2mMax = reader.getJsonArray("daily.temperature_2m_max");
-            final var temperature2mMin = reader.getJsonArray("daily.temperature_2m_min");
-            final var daylightDuration = reader.getJsonArray("daily.daylight_duration");
-            final var sunshineDuration = reader.getJsonArray("daily.sunshine_duration");
-            final var uvIndexMax = reader.getJsonArray("daily.uv_index_max");
-            final var daysSunrise = reader.getJsonArray("daily.sunrise");
-            final var daysSunset = reader.getJsonArray("daily.sunset");
-            for (int i = 0; i < days.size(); i++) {
-                final String keyDay = days.get(i).getAsString();
-                final Map<String, Number> forecastInfo = new HashMap<>();
-                forecastInfo.put(WEATHER_CODE_KEY, dayWeatherCode.get(i).getAsNumber());
-                forecastInfo.put("temperature_max_C", temperature2mMax.get(i).getAsNumber());
-                forecastInfo.put("temperature_max_F", UnitConversion.celsiusToFahrenheit(temperature2mMax.get(i).getAsDouble()));
-                forecastInfo.put("temperature_min_C", temperature2mMin.get(i).getAsNumber());
-                forecastInfo.put("temperature_min_F", UnitConversion.celsiusToFahrenheit(temperature2mMin.get(i).getAsDouble()));
-                forecastInfo.put("daylight_duration", daylightDuration.get(i).getAsNumber());
-                forecastInfo.put("sunshine_duration", sunshineDuration.get(i).getAsNumber());
-                forecastInfo.put("uv_max", uvIndexMax.get(i).getAsNumber());
-                DAILY_GENERAL_FORECAST.put(keyDay, forecastInfo);
-
-                final Map<String, String> otherInfo = new HashMap<>();
-                otherInfo.put("sunrise", daysSunrise.get(i).getAsString().split("T")[1]);
-                otherInfo.put("sunset", daysSunset.get(i).getAsString().split("T")[1]);
-                SUN_DAILY_INFO.put(keyDay, otherInfo);
-            }
+            this.cityInfoService.recordElevation(this.locationInfo, location.getElevation());
+            final Map<String, Number> info = new HashMap<>();
+            info.put("meters_above_sea", this.cityInfoService.getElevation(this.locationInfo).orElse(null));
+            info.put("inhabitants", this.cityInfoService.getInhabitants(this.locationInfo).orElse(null));
+
+            /* ===== previsioni orarie e giornaliere (colonnari) ===== */
+            final ForecastStore store = ForecastStore.fromLocation(location);
 
             /* ========== condizioni correnti ====================== */
-            if (!this.setCurrentWeather(reader)) {
+            if (!this.setCurrentWeather(location)) {
                 return false;
             }
 
-            this.requested = true;
+            final var entry = new ForecastCache.Entry(store, info, this.now, this.lastDataUpdate,
+                this.lastUpdate * 1000L);
+            this.cache.put(this.coords.getX(), this.coords.getY(), entry);
+            this.offlineStore.save(this.coords.getX(), this.coords.getY(), entry);
+            this.restore(entry);
             return true;
         } catch (final Exception err) { // NOPMD
             return false;
@@ -240,44 +231,48 @@ public class AllWeather implements Weather {
 
     /**
      * Restituisce un <code>Map</code> con i parametri meteo del momento
-     * indicato (precisione 15‑minuti) effettuando una richiesta puntuale.
+     * indicato (precisione 15‑minuti).
+     * <p>L’intera giornata viene scaricata una sola volta per cella di
+     * coordinate e conservata in {@link MinutelyDayCache}; l’indice del quarto
+     * d’ora è calcolato direttamente dall’orario.</p>
      *
      * @param day   giorno (1‑31).
      * @param month mese (1‑12).
      * @param year  anno a quattro cifre.
-     * @param hour  orario <code>HH:mm</code> da arrotondare al quarto d’ora più vicino.
+     * @param hour  orario <code>HH:mm</code> da arrotondare al quarto d’ora più vicino
+     *              con {@link MinutelyDay#nearestSlot}: dopo le 23:52 si passa
+     *              al primo slot del giorno successivo.
      * @return dati meteo o {@link Optional#empty()} in caso di errore.
      */
     @Override
     @SuppressFBWarnings(
         value = "REC_CATCH_EXCEPTION", // NOPMD
-        justification = "Necessary to catch generic Exception to aggregate parsing errors from AdvancedJsonReader" // NOPMD
+        justification = "Necessary to catch generic Exception to aggregate network and parsing errors from OpenMeteoStreamReader" // NOPMD
     )
     public Optional<Map<String, Number>> getWeatherOn(final int day, final int month, final int year, final String hour) {
         try {
-            final String nearHour = this.roundToNearestQuarter(hour);
-            final String date = String.format("%04d-%02d-%02d", year, month, day);
-            final String dateHour = date + "T" + nearHour;
-
-            final var reader = new AdvancedJsonReaderImpl(DETAILS_API_URL
-                .replace("%LAT", this.coords.getX())
-                .replace("%LNG", this.coords.getY())
-                .replace("%DATE", date));
-
-            final JsonArray minues = reader.getJsonArray("minutely_15.time");
-            final int idx = jsonArrayIndexOf(minues, dateHour);
-            if (idx < 0) {
-                return Optional.empty();
+            final String[] parts = hour.split(":");
+            final LocalDateTime slot = MinutelyDay.nearestSlot(LocalDate.of(year, month, day)
+                .atTime(LocalTime.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]))));
+            final LocalDate date = slot.toLocalDate();
+            final double lat = Double.parseDouble(this.coords.getX());
+            final double lng = Double.parseDouble(this.coords.getY());
+
+            final Optional<MinutelyDay> cached = MinutelyDayCache.SHARED.get(lat, lng, date);
+            final MinutelyDay minutely;
+            if (cached.isPresent()) {
+                minutely = cached.get();
+            } else {
+                final var location = OpenMeteoStreamReader.fetchOne(DETAILS_API_URL
+                    .replace("%LAT", MinutelyDayCache.format(lat))
+                    .replace("%LNG", MinutelyDayCache.format(lng))
+                    .replace("%DATE", date.toString()));
+                minutely = MinutelyDay.fromBlock(location.block(OpenMeteoStreamReader.MINUTELY_15),
+                    System.currentTimeMillis());
+                MinutelyDayCache.SHARED.put(lat, lng, date, minutely);
             }
 
-            final Map<String, Number> out = new HashMap<>();
-            out.put("precipitation", reader.getJsonArray("minutely_15.precipitation").get(idx).getAsNumber());
-            out.put("snowfall", reader.getJsonArray("minutely_15.snowfall").get(idx).getAsNumber());
-            out.put("freezing_level_height", reader.getJsonArray("minutely_15.freezing_level_height").get(idx).getAsNumber());
-            out.put(WEATHER_CODE_KEY, reader.getJsonArray("minutely_15.weather_code").get(idx).getAsNumber());
-            out.put("wind_gusts", reader.getJsonArray("minutely_15.wind_gusts_10m").get(idx).getAsNumber());
-            out.put("visibility", reader.getJsonArray("minutely_15.visibility").get(idx).getAsNumber());
-            return Optional.of(out);
+            return minutely.asMap(minutely.slotOf(slot));
         } catch (final Exception e) { // NOPMD
             return Optional.empty();
         }
@@ -308,9 +303,7 @@ public class AllWeather implements Weather {
      */
     @Override
     public Optional<Map<String, Map<String, Map<String, Number>>>> getAllForecast() {
-        return this.requested
-            ? Optional.of(FORECAST_HOURS)
-            : Optional.empty();
+        return this.getForecastStore().map(ForecastStore::asHourlyMap);
     }
 
     /**
@@ -326,9 +319,7 @@ public class AllWeather implements Weather {
      */
     @Override
     public Optional<Map<String, Map<String, Number>>> getDailyGeneralForecast() {
-        return this.requested
-            ? Optional.of(DAILY_GENERAL_FORECAST)
-            : Optional.empty();
+        return this.getForecastStore().map(ForecastStore::asDailyMap);
     }
 
     /**
@@ -344,39 +335,64 @@ public class AllWeather implements Weather {
      */
     @Override
     public Optional<Map<String, Map<String, String>>> getDailyInfo() {
+        return this.getForecastStore().map(ForecastStore::asSunMap);
+    }
+
+    /**
+     * Restituisce le previsioni in forma colonnare, con accesso tipizzato per
+     * indice orario/giornaliero e conversioni di unità calcolate al volo.
+     * Le mappe di {@link #getAllForecast()}, {@link #getDailyGeneralForecast()}
+     * e {@link #getDailyInfo()} sono viste di compatibilità su questo store.
+     *
+     * @return lo store, o {@code Optional.empty()} se {@link #reqestsAllForecast()} non è andato a buon fine.
+     */
+    @Override
+    public Optional<ForecastStore> getForecastStore() {
         return this.requested
-            ? Optional.of(SUN_DAILY_INFO)
+            ? Optional.ofNullable(this.forecast)
             : Optional.empty();
     }
 
+    /**
+     * @return la cache multi‑località consultata da questa istanza, utile per
+     *         leggerne i contatori di hit/miss.
+     */
+    @SuppressFBWarnings(
+        value = "EI_EXPOSE_REP",
+        justification = "The cache is meant to be shared between instances"
+    )
+    public ForecastCache getForecastCache() {
+        return this.cache;
+    }
+
     /**
      * Dati meteo correnti (con caching 20 minuti).
      *
      * @param avoidCheck se <code>true</code> ignora il cache‑timeout.
-     * @return una {@code Pair} contenente l'ISO‑datetime dell'ultimo aggiornamento e la mappa {@link #NOW} con i dati correnti.
+     * @return una {@code Pair} contenente l'ISO‑datetime dell'ultimo aggiornamento e la mappa con i dati correnti.
      */
     @Override
     @SuppressFBWarnings(
         value = "REC_CATCH_EXCEPTION",
-        justification = "Necessary to catch generic Exception to aggregate parsing errors from AdvancedJsonReader"
+        justification = "Necessary to catch generic Exception to aggregate network and parsing errors from OpenMeteoStreamReader"
     )
     public Optional<Pair<String, Map<String, Number>>> getWeatherNow(final boolean avoidCheck) {
         if (this.lastUpdate == 0 || avoidCheck
             || this.checkMinutesPassed(this.lastUpdate, REFRESH_TIME)) {
             try {
-                final var reader = new AdvancedJsonReaderImpl(NOW_API_URL
-                    .replace("%LAT", this.coords.getX())
-                    .replace("%LNG", this.coords.getY()));
-                if (!this.setCurrentWeather(reader)) {
+                final var location = OpenMeteoStreamReader.fetchOne(
+                    nowUrl(this.coords.getX(), this.coords.getY()));
+                if (!this.setCurrentWeather(location)) {
                     this.lastUpdate = 0; // NOPMD false positive
                     return Optional.empty();
                 }
+                this.cache.updateNow(this.coords.getX(), this.coords.getY(), this.now, this.lastDataUpdate);
             } catch (final Exception err) { // NOPMD
                 this.lastUpdate = 0;
                 return Optional.empty();
             }
         }
-        return Optional.of(new Pair<>(this.lastDataUpdate, NOW));
+        return Optional.of(new Pair<>(this.lastDataUpdate, this.now));
     }
 
     /**
@@ -387,7 +403,7 @@ public class AllWeather implements Weather {
     @Override
     public Optional<Map<String, Number>> getCityInfo() {
         return this.lastUpdate == 0
-        ? Optional.empty() : Optional.of(CITY_INFO);
+        ? Optional.empty() : Optional.of(this.cityInfo);
     }
 
     /**
@@ -422,125 +438,103 @@ public class AllWeather implements Weather {
     /* ===================== metodi privati ===================== */
 
     /**
-     * Riempie la mappa {@link #NOW} con i campi restituiti dal reader.
+     * Ripristina lo stato dell’istanza a partire da una voce della cache.
+     *
+     * @param entry istantanea dei dati di una località.
+     */
+    private void restore(final ForecastCache.Entry entry) {
+        this.forecast = entry.getForecast();
+        this.forecastDays = this.forecast.forecastDays();
+        this.cityInfo = entry.getCityInfo();
+        this.now = entry.getNow();
+        this.lastDataUpdate = entry.getNowTime();
+        this.lastUpdate = entry.getFetchedAt() / 1000L;
+        this.requested = true;
+    }
+
+    /**
+     * Ricostruisce la mappa delle condizioni correnti con i campi della risposta.
      * Aggiorna anche <strong>timestamp cache</strong> e stringa ISO di update.
      *
-     * @param reader reader JSON avanzato che fornisce i dati correnti.
+     * @param location risposta decodificata che fornisce i dati correnti.
      * @return <code>true</code> se tutti i campi essenziali sono presenti.
      */
     @SuppressFBWarnings(
         value = "REC_CATCH_EXCEPTION",
-        justification = "Necessary to catch generic Exception to aggregate parsing errors from AdvancedJsonReader"
+        justification = "Necessary to catch generic Exception to aggregate errors on missing fields"
     )
-    private boolean setCurrentWeather(final AdvancedJsonReader reader) { // NOPMD
+    private boolean setCurrentWeather(final OpenMeteoStreamReader.Location location) { // NOPMD
         try {
+            final String time = location.getCurrentTime();
+            this.now = currentValues(location);
+            this.lastDataUpdate = time;
             this.lastUpdate = System.currentTimeMillis() / 1000L;
-            this.lastDataUpdate = reader.getString("current.time");
-            NOW.put(WEATHER_CODE_KEY, reader.getFromJson("current.weather_code", Number.class));
-            NOW.put("temperature_C", reader.getFromJson("current.temperature_2m", Number.class));
-            NOW.put("temperature_F", UnitConversion.celsiusToFahrenheit(reader.getDouble("current.temperature_2m")));
-            NOW.put("apparent_temperature_C", reader.getFromJson("current.apparent_temperature", Number.class));
-            NOW.put("apparent_temperature_F",
-                UnitConversion.celsiusToFahrenheit(reader.getDouble("current.apparent_temperature")));
-            NOW.put("humidity", reader.getFromJson("current.relative_humidity_2m", Number.class));
-            NOW.put("wind_speed_kmh", reader.getFromJson("current.wind_speed_10m", Number.class));
-            NOW.put("wind_speed_mph", UnitConversion.kmhToMph(reader.getDouble("current.wind_speed_10m")));
-            NOW.put("wind_direction", reader.getFromJson("current.wind_direction_10m", Number.class));
-            NOW.put("precipitation_mm", reader.getFromJson("current.precipitation", Number.class));
-            NOW.put("precipitation_inch", UnitConversion.mmToInches(reader.getDouble("current.precipitation")));
-            NOW.put("cloud_cover", reader.getFromJson("current.cloud_cover", Number.class));
             return true;
         } catch (final Exception err) { // NOPMD
             return false;
         }
     }
 
+    /* ============ helper condivisi con AsyncWeatherImpl ============ */
+
     /**
-     * Verifica se sono trascorsi almeno <code>min</code> minuti dal timestamp.
-     *
-     * @param timestamp epoch seconds di riferimento.
-     * @param min       minuti da verificare.
-     * @return <code>true</code> se sono trascorsi almeno <code>min</code> minuti, altrimenti <code>false</code>.
+     * @param lat latitudine testuale.
+     * @param lng longitudine testuale.
+     * @return URL delle previsioni complete (8 giorni) per le coordinate.
      */
-    // CHECKSTYLE: MagicNumber OFF
-    private boolean checkMinutesPassed(final long timestamp, final int min) {
-        final long currentTimeInSeconds = System.currentTimeMillis() / 1000L;
-        return (currentTimeInSeconds - timestamp) >= min * 60L;
+    static String forecastUrl(final String lat, final String lng) {
+        return FORECAST_API_URL.replace("%LAT", lat).replace("%LNG", lng);
     }
-    // CHECKSTYLE: MagicNumber ON
 
     /**
-     * Scraping su ilMeteo.it per recuperare il numero di abitanti della città.
-     *
-     * @param asciiCityName nome ASCII della città.
-     * @return <code>Optional.empty()</code> se la pagina non è strutturata come previsto.
+     * @param lat latitudine testuale.
+     * @param lng longitudine testuale.
+     * @return URL delle sole condizioni correnti per le coordinate.
      */
-    @SuppressFBWarnings(
-        value = "REC_CATCH_EXCEPTION",
-        justification = "Necessary to catch generic Exception to aggregate parsing errors from AdvancedJsonReader"
-    )
-    private Optional<Integer> getCityInhabitants(final String asciiCityName) {
-        try {
-            final Document doc = Jsoup.connect(URL_CITY_INFO + asciiCityName).get();
-            final Elements info = doc.getElementsByClass("infoloc"); // NOPMD
-            if (!info.isEmpty()) {
-                final Matcher matcher = Pattern.compile("([\\d.]+)\\s*abitanti").matcher(info.get(0).text());
-                if (matcher.find()) {
-                    return Optional.of(strToInt(matcher.group(1)));
-                }
-            }
-        } catch (final Exception ignored) { // NOPMD
-            Logger.getLogger(AllWeather.class.getName())
-                .fine("Numero abitanti non disponibile per questa città (%s).".formatted(asciiCityName));
-        }
-        return Optional.empty();
+    static String nowUrl(final String lat, final String lng) {
+        return NOW_API_URL.replace("%LAT", lat).replace("%LNG", lng);
     }
 
     /**
-     * Rimuove separatori (punto/spazio) e converte in <code>int</code>.
+     * Costruisce la mappa delle condizioni correnti (con unità derivate) dal
+     * blocco <code>current</code> della risposta.
      *
-     * @param str stringa numerica da convertire.
-     * @return il valore intero corrispondente.
+     * @param location risposta decodificata di una località.
+     * @return mappa non modificabile metrica → valore.
+     * @throws IllegalArgumentException se manca uno dei campi essenziali.
      */
-    private int strToInt(final String str) {
-        return Integer.parseInt(str.replaceAll("[^\\d]", ""));
+    static Map<String, Number> currentValues(final OpenMeteoStreamReader.Location location) {
+        final Map<String, Number> values = new HashMap<>();
+        values.put(WEATHER_CODE_KEY, location.current("weather_code"));
+        values.put("temperature_C", location.current("temperature_2m"));
+        values.put("temperature_F",
+            UnitConversion.celsiusToFahrenheit(location.current("temperature_2m").doubleValue()));
+        values.put("apparent_temperature_C", location.current("apparent_temperature"));
+        values.put("apparent_temperature_F",
+            UnitConversion.celsiusToFahrenheit(location.current("apparent_temperature").doubleValue()));
+        values.put("humidity", location.current("relative_humidity_2m"));
+        values.put("wind_speed_kmh", location.current("wind_speed_10m"));
+        values.put("wind_speed_mph", UnitConversion.kmhToMph(location.current("wind_speed_10m").doubleValue()));
+        values.put("wind_direction", location.current("wind_direction_10m"));
+        values.put("precipitation_mm", location.current("precipitation"));
+        values.put("precipitation_inch",
+            UnitConversion.mmToInches(location.current("precipitation").doubleValue()));
+        values.put("cloud_cover", location.current("cloud_cover"));
+        return Collections.unmodifiableMap(values);
     }
 
     /**
-     * Arrotonda l'orario al quarto d'ora più vicino (HH:mm).
+     * Verifica se sono trascorsi almeno <code>min</code> minuti dal timestamp.
      *
-     * @param orario orario di partenza nel formato HH:mm.
-     * @return la stringa oraria arrotondata al quarto d'ora più vicino.
+     * @param timestamp epoch seconds di riferimento.
+     * @param min       minuti da verificare.
+     * @return <code>true</code> se sono trascorsi almeno <code>min</code> minuti, altrimenti <code>false</code>.
      */
     // CHECKSTYLE: MagicNumber OFF
-    private String roundToNearestQuarter(final String orario) {
-        final String[] parti = orario.split(":");
-        int ore = Integer.parseInt(parti[0]);
-        int minuti = Integer.parseInt(parti[1]);
-        final int resto = minuti % 15;
-        minuti = resto < 8 ? minuti - resto : minuti + 15 - resto;
-        if (minuti == 60) {
-            minuti = 0;
-            ore = (ore + 1) % 24;
-        }
-        return String.format("%02d:%02d", ore, minuti);
+    private boolean checkMinutesPassed(final long timestamp, final int min) {
+        final long currentTimeInSeconds = System.currentTimeMillis() / 1000L;
+        return (currentTimeInSeconds - timestamp) >= min * 60L;
     }
     // CHECKSTYLE: MagicNumber ON
 
-    /**
-     * Restituisce l'indice di un valore String all'interno di un {@link JsonArray}.
-     *
-     * @param array  l'array JSON da scansionare.
-     * @param target il valore da cercare.
-     * @return torna un intero, l'indice corrispondente al primo elmento uguale o -1 se il target non viene trovato.
-     */
-    private static int jsonArrayIndexOf(final JsonArray array, final String target) {
-        for (int i = 0; i < array.size(); i++) {
-            if (target.equals(array.get(i).getAsString())) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
 }
@@ -0,0 +1,50 @@
+package org.app.weathermode.model.weather;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.app.weathermode.model.pair.Pair;
+
+/**
+ * <h2>AsyncWeather (contratto)</h2>
+ * <p>Variante asincrona delle operazioni di {@link Weather}. A differenza di
+ * quest’ultima non ha stato: ogni chiamata riceve la località, così che la
+ * stessa istanza possa servire molte località in parallelo.</p>
+ * <p>I metodi non bloccano il chiamante e non occupano un thread per la durata
+ * della richiesta di rete. In caso di errore il future viene completato
+ * eccezionalmente con una {@link WeatherRequestException} (eventualmente
+ * avvolta in una {@link java.util.concurrent.CompletionException}); i timeout
+ * si applicano con {@link CompletableFuture#orTimeout}.</p>
+ */
+public interface AsyncWeather {
+
+    /**
+     * Equivalente asincrono di {@link Weather#reqestsAllForecast()}.
+     *
+     * @param locationInfo mappa con chiavi standard (<code>lat</code>,
+     *                     <code>lng</code>, <code>city_ascii</code>, …).
+     * @return future con previsioni, informazioni sulla città e condizioni correnti.
+     */
+    CompletableFuture<ForecastCache.Entry> requestAllForecast(Map<String, String> locationInfo);
+
+    /**
+     * Equivalente asincrono di {@link Weather#getWeatherNow(boolean)}: le
+     * condizioni correnti vengono sempre richieste al server.
+     *
+     * @param locationInfo mappa con chiavi standard (<code>lat</code>, <code>lng</code>, …).
+     * @return future con la coppia { timestampISO, mapMetriche }.
+     */
+    CompletableFuture<Pair<String, Map<String, Number>>> getWeatherNow(Map<String, String> locationInfo);
+
+    /**
+     * Equivalente asincrono di {@link Weather#getWeatherOn(int, int, int, String)}.
+     *
+     * @param locationInfo mappa con chiavi standard (<code>lat</code>, <code>lng</code>, …).
+     * @param dateTime     istante richiesto, arrotondato al quarto d’ora più vicino.
+     * @return future con la mappa metrica → valore; se l’istante non è coperto
+     *         il motivo dell’errore è {@link WeatherRequestException.Reason#NO_DATA}.
+     */
+    CompletableFuture<Map<String, Number>> getWeatherOn(Map<String, String> locationInfo, LocalDateTime dateTime);
+
+}
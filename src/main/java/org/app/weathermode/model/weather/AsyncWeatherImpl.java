@@ -0,0 +1,233 @@
+package org.app.weathermode.model.weather;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.http.HttpTimeoutException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import org.app.common.api.http.HttpStatusException;
+import org.app.common.api.http.HttpTransport;
+import org.app.common.impl.http.HttpTransportImpl;
+import org.app.weathermode.model.cityinfo.CityInfoService;
+import org.app.weathermode.model.cityinfo.CityInfoServiceImpl;
+import org.app.weathermode.model.pair.Pair;
+
+/**
+ * <h2>AsyncWeatherImpl</h2>
+ * <p>Implementazione di {@link AsyncWeather} basata sulle API asincrone di
+ * {@link HttpTransport}: le richieste, corpo della risposta compreso
+ * ({@link HttpTransport#getStringAsync(String)}), restano in volo senza
+ * occupare alcun thread. Solo a corpo ricevuto la decodifica
+ * ({@link OpenMeteoStreamReader}) e gli accessi a {@link CityInfoService} (che
+ * possono toccare il disco) avvengono su un esecutore dedicato, mai sul
+ * thread del client HTTP: una risposta lenta non trattiene quindi un thread
+ * dell’esecutore. Molte località possono così essere interrogate in
+ * parallelo, ad esempio con {@link CompletableFuture#allOf(CompletableFuture[])}.</p>
+ * <p>Usa le stesse cache di {@link AllWeather}: {@link ForecastCache} per le
+ * previsioni complete e {@link MinutelyDayCache} per i dati a 15 minuti.</p>
+ */
+public class AsyncWeatherImpl implements AsyncWeather {
+
+    /** Esecutore di default della decodifica: un thread per core, daemon, condiviso tra le istanze. */
+    private static final Executor DECODER = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(), r -> {
+            final Thread t = new Thread(r, "weather-decode");
+            t.setDaemon(true);
+            return t;
+        });
+
+    private final HttpTransport transport;
+    private final ForecastCache cache;
+    private final CityInfoService cityInfo;
+    private final Executor executor;
+
+    /**
+     * Costruisce l’istanza sul trasporto HTTP, sulla cache e sul servizio
+     * informazioni città condivisi dall’applicazione.
+     */
+    public AsyncWeatherImpl() {
+        this(HttpTransportImpl.shared(), AllWeather.SHARED_CACHE, CityInfoServiceImpl.shared());
+    }
+
+    /**
+     * @param transport trasporto HTTP da utilizzare.
+     * @param cache     cache multi‑località da consultare prima della rete.
+     * @param cityInfo  fonte di popolazione e altitudine delle città.
+     */
+    @SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification = "Transport, cache and city info are meant to be shared between instances"
+    )
+    public AsyncWeatherImpl(final HttpTransport transport, final ForecastCache cache,
+                            final CityInfoService cityInfo) {
+        this(transport, cache, cityInfo, DECODER);
+    }
+
+    /**
+     * @param transport trasporto HTTP da utilizzare.
+     * @param cache     cache multi‑località da consultare prima della rete.
+     * @param cityInfo  fonte di popolazione e altitudine delle città.
+     * @param executor  esecutore su cui decodificare le risposte ricevute e
+     *                  aggiornare cache e informazioni città.
+     */
+    @SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification = "Transport, cache and city info are meant to be shared between instances"
+    )
+    public AsyncWeatherImpl(final HttpTransport transport, final ForecastCache cache,
+                            final CityInfoService cityInfo, final Executor executor) {
+        this.transport = transport;
+        this.cache = cache;
+        this.cityInfo = cityInfo;
+        this.executor = executor;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Abitanti e altitudine provengono da {@link CityInfoService} senza
+     * richieste di rete aggiuntive; l’altitudine della risposta viene prima
+     * registrata nel servizio. Un dato non disponibile vale
+     * <code>null</code>, come in {@link AllWeather#getCityInfo()}.</p>
+     */
+    @Override
+    public CompletableFuture<ForecastCache.Entry> requestAllForecast(final Map<String, String> locationInfo) {
+        final String lat = locationInfo.get("lat");
+        final String lng = locationInfo.get("lng");
+        final Optional<ForecastCache.Entry> cached = this.cache.get(lat, lng);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        return this.fetch(AllWeather.forecastUrl(lat, lng), location -> {
+            this.cityInfo.recordElevation(locationInfo, location.getElevation());
+            final Map<String, Number> info = new HashMap<>();
+            info.put("meters_above_sea", this.cityInfo.getElevation(locationInfo).orElse(null));
+            info.put("inhabitants", this.cityInfo.getInhabitants(locationInfo).orElse(null));
+            return new ForecastCache.Entry(ForecastStore.fromLocation(location), info,
+                AllWeather.currentValues(location), location.getCurrentTime(), System.currentTimeMillis());
+        }).thenApplyAsync(entry -> {
+            this.cache.put(lat, lng, entry);
+            return entry;
+        }, this.executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Pair<String, Map<String, Number>>> getWeatherNow(final Map<String, String> locationInfo) {
+        final String lat = locationInfo.get("lat");
+        final String lng = locationInfo.get("lng");
+        return this.fetch(AllWeather.nowUrl(lat, lng),
+            location -> new Pair<>(location.getCurrentTime(), AllWeather.currentValues(location))
+        ).thenApplyAsync(now -> {
+            this.cache.updateNow(lat, lng, now.getY(), now.getX());
+            return now;
+        }, this.executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NumberFormatException se le coordinate della località non sono numeriche.
+     */
+    @Override
+    public CompletableFuture<Map<String, Number>> getWeatherOn(final Map<String, String> locationInfo,
+                                                               final LocalDateTime dateTime) {
+        final double lat = Double.parseDouble(locationInfo.get("lat"));
+        final double lng = Double.parseDouble(locationInfo.get("lng"));
+        final LocalDateTime slot = MinutelyDay.nearestSlot(dateTime);
+        final LocalDate date = slot.toLocalDate();
+
+        final Optional<MinutelyDay> cached = MinutelyDayCache.SHARED.get(lat, lng, date);
+        final CompletableFuture<MinutelyDay> day;
+        if (cached.isPresent()) {
+            day = CompletableFuture.completedFuture(cached.get());
+        } else {
+            day = this.fetch(AllWeather.DETAILS_API_URL
+                    .replace("%LAT", MinutelyDayCache.format(lat))
+                    .replace("%LNG", MinutelyDayCache.format(lng))
+                    .replace("%DATE", date.toString()),
+                location -> MinutelyDay.fromBlock(location.block(OpenMeteoStreamReader.MINUTELY_15),
+                    System.currentTimeMillis())
+            ).thenApplyAsync(fetched -> {
+                MinutelyDayCache.SHARED.put(lat, lng, date, fetched);
+                return fetched;
+            }, this.executor);
+        }
+        return day.thenApply(minutely -> minutely.asMap(minutely.slotOf(slot))
+            .orElseThrow(() -> new CompletionException(new WeatherRequestException(
+                WeatherRequestException.Reason.NO_DATA, "Nessun dato meteo per " + slot))));
+    }
+
+    /* ===================== metodi privati ===================== */
+
+    /**
+     * Scarica una risposta Open‑Meteo di una singola località senza occupare
+     * thread e, una volta ricevuta, la decodifica sull’esecutore dell’istanza.
+     * Gli errori durante la ricezione, corpo compreso, vengono classificati da
+     * {@link #transportFailure(Throwable)}; solo un JSON malformato o inatteso
+     * e la risposta d’errore dell’API diventano
+     * {@link WeatherRequestException.Reason#INVALID_RESPONSE}.
+     *
+     * @param url    URL completa della richiesta.
+     * @param parser conversione della risposta decodificata nel risultato.
+     * @param <T>    tipo del risultato.
+     * @return future completato con il risultato o con una {@link WeatherRequestException}.
+     */
+    private <T> CompletableFuture<T> fetch(final String url,
+                                           final Function<OpenMeteoStreamReader.Location, T> parser) {
+        return this.transport.getStringAsync(url).handleAsync((body, error) -> {
+            if (error != null) {
+                throw new CompletionException(transportFailure(unwrap(error)));
+            }
+            final OpenMeteoStreamReader.Location location;
+            final T result;
+            try (Reader in = new StringReader(body)) {
+                location = OpenMeteoStreamReader.single(OpenMeteoStreamReader.read(in));
+                result = parser.apply(location);
+            } catch (final IOException | IllegalStateException | IllegalArgumentException | DateTimeException e) {
+                throw new CompletionException(new WeatherRequestException(
+                    WeatherRequestException.Reason.INVALID_RESPONSE, "Risposta Open-Meteo non valida", e));
+            }
+            return result;
+        }, this.executor);
+    }
+
+    private static WeatherRequestException transportFailure(final Throwable error) {
+        if (error instanceof HttpStatusException status) {
+            return new WeatherRequestException(WeatherRequestException.Reason.HTTP_STATUS,
+                "Open-Meteo ha risposto con lo stato HTTP " + status.getStatusCode(), status);
+        }
+        if (error instanceof HttpTimeoutException) {
+            return new WeatherRequestException(WeatherRequestException.Reason.TIMEOUT,
+                "Timeout della richiesta a Open-Meteo", error);
+        }
+        return new WeatherRequestException(WeatherRequestException.Reason.NETWORK,
+            "Richiesta a Open-Meteo non riuscita", error);
+    }
+
+    private static Throwable unwrap(final Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.app.weathermode.model.weather;
+
+/**
+ * <h2>DailyMetric</h2>
+ * <p>Metriche giornaliere richieste all’API Open‑Meteo (blocco
+ * <code>daily</code>). Come per {@link HourlyMetric}, ogni costante
+ * corrisponde a una colonna primitiva di {@link ForecastStore}.</p>
+ * <p>Alba e tramonto arrivano come stringhe ISO‑8601: vengono memorizzati
+ * come <em>minuto del giorno</em> per restare in una colonna numerica.</p>
+ */
+public enum DailyMetric {
+
+    /** Codice meteo WMO riassuntivo della giornata. */
+    WEATHER_CODE("weather_code"),
+    /** Temperatura massima (°C). */
+    TEMPERATURE_MAX("temperature_2m_max"),
+    /** Temperatura minima (°C). */
+    TEMPERATURE_MIN("temperature_2m_min"),
+    /** Durata del giorno (secondi). */
+    DAYLIGHT_DURATION("daylight_duration"),
+    /** Durata del soleggiamento (secondi). */
+    SUNSHINE_DURATION("sunshine_duration"),
+    /** Indice UV massimo. */
+    UV_INDEX_MAX("uv_index_max"),
+    /** Alba (minuto del giorno, ora locale). */
+    SUNRISE("sunrise"),
+    /** Tramonto (minuto del giorno, ora locale). */
+    SUNSET("sunset");
+
+    private final String apiName;
+
+    DailyMetric(final String apiName) {
+        this.apiName = apiName;
+    }
+
+    /**
+     * @return nome del campo JSON all’interno del blocco <code>daily</code>.
+     */
+    public String getApiName() {
+        return this.apiName;
+    }
+
+}
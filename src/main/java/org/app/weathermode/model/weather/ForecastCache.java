@@ -0,0 +1,196 @@
+package org.app.weathermode.model.weather;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <h2>ForecastCache</h2>
+ * <p>Cache delle previsioni scaricate, indicizzata per coordinate geografiche
+ * e condivisa tra più istanze di {@link AllWeather}. Tornando su una città
+ * consultata di recente i dati vengono restituiti senza alcuna richiesta di
+ * rete.</p>
+ * <ul>
+ *     <li><strong>TTL</strong>: una voce più vecchia della durata indicata è
+ *         considerata scaduta e conteggiata come <em>miss</em>.</li>
+ *     <li><strong>LRU</strong>: superata la capienza massima viene rimossa la
+ *         voce usata meno di recente.</li>
+ *     <li><strong>Statistiche</strong>: contatori di <em>hit</em>/<em>miss</em>
+ *         consultabili via {@link #getHits()} e {@link #getMisses()}.</li>
+ * </ul>
+ * <p>La cache può essere usata in sicurezza da più thread (vedi
+ * {@link TimedLruCache}).</p>
+ */
+public final class ForecastCache {
+
+    /** TTL predefinito, inferiore all’intervallo di auto‑refresh della GUI. */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(15);
+    /** Numero predefinito di località mantenute in memoria. */
+    public static final int DEFAULT_MAX_ENTRIES = 8;
+
+    private final TimedLruCache<String, Entry> entries;
+
+    /**
+     * Crea una cache con {@link #DEFAULT_TTL} e {@link #DEFAULT_MAX_ENTRIES}.
+     */
+    public ForecastCache() {
+        this(DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Crea una cache con TTL e capienza personalizzati.
+     *
+     * @param ttl        durata di validità di ogni voce.
+     * @param maxEntries numero massimo di località mantenute (almeno 1).
+     * @throws IllegalArgumentException se il TTL è negativo o la capienza non è positiva.
+     */
+    public ForecastCache(final Duration ttl, final int maxEntries) {
+        this.entries = new TimedLruCache<>(ttl, maxEntries, Entry::getFetchedAt);
+    }
+
+    /**
+     * Restituisce la voce associata alle coordinate se presente e non scaduta;
+     * le voci scadute vengono rimosse.
+     *
+     * @param lat latitudine (stringa decimale).
+     * @param lng longitudine (stringa decimale).
+     * @return la voce in cache o {@link Optional#empty()} in caso di miss.
+     */
+    public Optional<Entry> get(final String lat, final String lng) {
+        return this.entries.get(key(lat, lng));
+    }
+
+    /**
+     * Inserisce (o sostituisce) la voce associata alle coordinate, marcandola
+     * come la più recente.
+     *
+     * @param lat   latitudine (stringa decimale).
+     * @param lng   longitudine (stringa decimale).
+     * @param entry dati da memorizzare.
+     */
+    public void put(final String lat, final String lng, final Entry entry) {
+        this.entries.put(key(lat, lng), entry);
+    }
+
+    /**
+     * Aggiorna le sole condizioni correnti della voce associata alle
+     * coordinate, se presente; la scadenza della voce resta invariata e i
+     * contatori non vengono modificati.
+     *
+     * @param lat     latitudine (stringa decimale).
+     * @param lng     longitudine (stringa decimale).
+     * @param now     condizioni correnti aggiornate.
+     * @param nowTime ISO date‑time delle nuove condizioni.
+     */
+    public void updateNow(final String lat, final String lng,
+            final Map<String, Number> now, final String nowTime) {
+        this.entries.update(key(lat, lng), e -> e.withNow(now, nowTime));
+    }
+
+    /** Svuota la cache mantenendo i contatori. */
+    public void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * @return numero di voci attualmente memorizzate (incluse quelle scadute
+     *         non ancora richieste).
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return numero di richieste soddisfatte dalla cache.
+     */
+    public long getHits() {
+        return this.entries.getHits();
+    }
+
+    /**
+     * @return numero di richieste non soddisfatte (assenti o scadute).
+     */
+    public long getMisses() {
+        return this.entries.getMisses();
+    }
+
+    /**
+     * Normalizza le coordinate (4 decimali, ~11 m) così che rappresentazioni
+     * diverse dello stesso punto condividano la voce.
+     */
+    private static String key(final String lat, final String lng) {
+        return String.format(Locale.ROOT, "%.4f,%.4f", Double.parseDouble(lat), Double.parseDouble(lng));
+    }
+
+    /**
+     * <h3>Entry</h3>
+     * <p>Istantanea immutabile dei dati scaricati per una località: previsioni,
+     * informazioni sulla città e condizioni correnti.</p>
+     */
+    public static final class Entry {
+
+        private final ForecastStore forecast;
+        private final Map<String, Number> cityInfo;
+        private final Map<String, Number> now;
+        private final String nowTime;
+        private final long fetchedAt;
+
+        /**
+         * @param forecast  previsioni orarie e giornaliere.
+         * @param cityInfo  informazioni statiche sulla città (valori eventualmente <code>null</code>).
+         * @param now       condizioni correnti.
+         * @param nowTime   ISO date‑time delle condizioni correnti.
+         * @param fetchedAt epoch millis del download delle previsioni.
+         */
+        public Entry(final ForecastStore forecast, final Map<String, Number> cityInfo,
+                final Map<String, Number> now, final String nowTime, final long fetchedAt) {
+            this.forecast = forecast;
+            this.cityInfo = Collections.unmodifiableMap(new HashMap<>(cityInfo));
+            this.now = Collections.unmodifiableMap(new HashMap<>(now));
+            this.nowTime = nowTime;
+            this.fetchedAt = fetchedAt;
+        }
+
+        /**
+         * Copia la voce sostituendo le sole condizioni correnti; il TTL
+         * continua a decorrere dal download delle previsioni.
+         *
+         * @param newNow     condizioni correnti aggiornate.
+         * @param newNowTime ISO date‑time delle nuove condizioni.
+         * @return la nuova voce.
+         */
+        public Entry withNow(final Map<String, Number> newNow, final String newNowTime) {
+            return new Entry(this.forecast, this.cityInfo, newNow, newNowTime, this.fetchedAt);
+        }
+
+        /** @return previsioni orarie e giornaliere. */
+        public ForecastStore getForecast() {
+            return this.forecast;
+        }
+
+        /** @return vista non modificabile delle informazioni sulla città. */
+        public Map<String, Number> getCityInfo() {
+            return this.cityInfo;
+        }
+
+        /** @return vista non modificabile delle condizioni correnti. */
+        public Map<String, Number> getNow() {
+            return this.now;
+        }
+
+        /** @return ISO date‑time delle condizioni correnti. */
+        public String getNowTime() {
+            return this.nowTime;
+        }
+
+        /** @return epoch millis del download delle previsioni. */
+        public long getFetchedAt() {
+            return this.fetchedAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,615 @@
+package org.app.weathermode.model.weather;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import org.app.weathermode.model.UnitConversion;
+
+/**
+ * <h2>ForecastStore</h2>
+ * <p>Contenitore <strong>colonnare</strong> delle previsioni Open‑Meteo di una
+ * singola località. Ogni metrica è un <code>double[]</code> indicizzato per
+ * offset orario (o giornaliero) rispetto all’inizio della previsione:</p>
+ * <pre>
+ *  hourly[{@link HourlyMetric}.ordinal()][ora]  →  valore
+ *  daily[{@link DailyMetric}.ordinal()][giorno] →  valore
+ * </pre>
+ * <p>I valori assenti (es. <code>soil_temperature_0cm</code>) sono
+ * memorizzati come {@link Double#NaN}. Le conversioni di unità (°F, inch,
+ * mph) non vengono salvate ma calcolate a ogni accesso.</p>
+ * <p>Per compatibilità con il codice esistente sono disponibili viste
+ * <em>read‑only</em> nel vecchio formato a mappe annidate
+ * ({@link #asHourlyMap()}, {@link #asDailyMap()}, {@link #asSunMap()}):
+ * le mappe interne non copiano né pre‑convertono nulla, leggono direttamente
+ * dalle colonne.</p>
+ * <p>L’istanza è immutabile e può essere condivisa tra thread.</p>
+ */
+public final class ForecastStore {
+
+    /* ============= chiavi della vista di compatibilità ============= */
+    private static final String WEATHER_CODE_KEY = "weather_code";
+    private static final String[] HOURLY_KEYS = {
+        "temperature_C", "temperature_F", "humidity", "apparent_temperature",
+        "precipitation_probability", "precipitation_mm", "precipitation_inch",
+        WEATHER_CODE_KEY, "wind_speed_kmh", "wind_speed_mph", "wind_direction",
+        "pressure", "soil_temperature"
+    };
+    private static final String[] DAILY_KEYS = {
+        WEATHER_CODE_KEY, "temperature_max_C", "temperature_max_F",
+        "temperature_min_C", "temperature_min_F", "daylight_duration",
+        "sunshine_duration", "uv_max"
+    };
+
+    private final LocalDateTime hourlyStart;
+    private final double[][] hourly;
+    private final LocalDate dailyStart;
+    private final double[][] daily;
+
+    /* viste di compatibilità costruite alla prima richiesta (costruzione idempotente) */
+    private volatile Map<String, Map<String, Map<String, Number>>> hourlyView;
+    private volatile Map<String, Map<String, Number>> dailyView;
+    private volatile Map<String, Map<String, String>> sunView;
+
+    /**
+     * Costruisce lo store a partire da colonne già decodificate.
+     *
+     * @param hourlyStart primo istante della serie oraria (ora locale).
+     * @param hourly      colonne orarie indicizzate per {@link HourlyMetric#ordinal()};
+     *                    tutte della stessa lunghezza.
+     * @param dailyStart  primo giorno della serie giornaliera.
+     * @param daily       colonne giornaliere indicizzate per {@link DailyMetric#ordinal()};
+     *                    tutte della stessa lunghezza.
+     * @throws IllegalArgumentException se il numero o la lunghezza delle colonne non è coerente.
+     */
+    @SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification = "Columns are handed over by the parser and never modified afterwards"
+    )
+    ForecastStore(final LocalDateTime hourlyStart, final double[][] hourly,
+                  final LocalDate dailyStart, final double[][] daily) {
+        checkColumns(hourly, HourlyMetric.values().length);
+        checkColumns(daily, DailyMetric.values().length);
+        this.hourlyStart = hourlyStart;
+        this.hourly = hourly;
+        this.dailyStart = dailyStart;
+        this.daily = daily;
+    }
+
+    /**
+     * Decodifica i blocchi <code>hourly</code> e <code>daily</code> leggendo
+     * la risposta in <em>streaming</em>, senza costruire un albero JSON.
+     *
+     * @param in sorgente della risposta di una singola località; non viene chiusa.
+     * @return lo store popolato.
+     * @throws IOException se il JSON è malformato o contiene più località.
+     * @throws IllegalArgumentException se mancano blocchi o variabili.
+     */
+    public static ForecastStore fromStream(final Reader in) throws IOException {
+        return fromLocation(OpenMeteoStreamReader.single(OpenMeteoStreamReader.read(in)));
+    }
+
+    /**
+     * Costruisce lo store dalle colonne già decodificate dal parser streaming,
+     * senza copiarle.
+     *
+     * @param location risposta decodificata di una località.
+     * @return lo store popolato.
+     * @throws IllegalArgumentException se mancano blocchi o variabili.
+     */
+    static ForecastStore fromLocation(final OpenMeteoStreamReader.Location location) {
+        final OpenMeteoStreamReader.Block hours = location.block(OpenMeteoStreamReader.HOURLY);
+        final double[][] hourly = new double[HourlyMetric.values().length][];
+        for (final HourlyMetric metric : HourlyMetric.values()) {
+            hourly[metric.ordinal()] = hours.column(metric.getApiName());
+        }
+
+        final OpenMeteoStreamReader.Block days = location.block(OpenMeteoStreamReader.DAILY);
+        final double[][] daily = new double[DailyMetric.values().length][];
+        for (final DailyMetric metric : DailyMetric.values()) {
+            daily[metric.ordinal()] = days.column(metric.getApiName());
+        }
+
+        return new ForecastStore(hours.getStart(), hourly, days.getStart().toLocalDate(), daily);
+    }
+
+    /* ======================== serie oraria ======================== */
+
+    /** @return numero di ore disponibili. */
+    public int hours() {
+        return this.hourly[0].length;
+    }
+
+    /** @return primo istante della serie oraria (ora locale della città). */
+    public LocalDateTime hourlyStart() {
+        return this.hourlyStart;
+    }
+
+    /**
+     * @param hourIdx offset orario dall’inizio della previsione.
+     * @return istante corrispondente all’indice.
+     */
+    public LocalDateTime timeAt(final int hourIdx) {
+        return this.hourlyStart.plusHours(hourIdx);
+    }
+
+    /**
+     * Calcola l’indice orario dell’istante indicato, troncato all’ora.
+     *
+     * @param dateTime istante in ora locale della città.
+     * @return indice orario, oppure <code>-1</code> se fuori dalla previsione.
+     */
+    public int hourIndexOf(final LocalDateTime dateTime) {
+        final long idx = ChronoUnit.HOURS.between(this.hourlyStart, dateTime.truncatedTo(ChronoUnit.HOURS));
+        return idx >= 0 && idx < hours() ? (int) idx : -1;
+    }
+
+    /**
+     * Accesso generico a una metrica oraria.
+     *
+     * @param metric  metrica richiesta.
+     * @param hourIdx offset orario.
+     * @return valore nell’unità nativa dell’API (NaN se assente).
+     */
+    public double hourly(final HourlyMetric metric, final int hourIdx) {
+        return this.hourly[metric.ordinal()][hourIdx];
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return temperatura in °C.
+     */
+    public double temperatureC(final int hourIdx) {
+        return hourly(HourlyMetric.TEMPERATURE, hourIdx);
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return temperatura in °F.
+     */
+    public double temperatureF(final int hourIdx) {
+        return UnitConversion.celsiusToFahrenheit(temperatureC(hourIdx));
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return temperatura percepita in °C.
+     */
+    public double apparentTemperatureC(final int hourIdx) {
+        return hourly(HourlyMetric.APPARENT_TEMPERATURE, hourIdx);
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return temperatura percepita in °F.
+     */
+    public double apparentTemperatureF(final int hourIdx) {
+        return UnitConversion.celsiusToFahrenheit(apparentTemperatureC(hourIdx));
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return umidità relativa (%), <code>null</code> se non disponibile.
+     */
+    public Integer humidity(final int hourIdx) {
+        return toInteger(hourly(HourlyMetric.HUMIDITY, hourIdx));
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return probabilità di precipitazione (%), <code>null</code> se non disponibile.
+     */
+    public Integer precipitationProbability(final int hourIdx) {
+        return toInteger(hourly(HourlyMetric.PRECIPITATION_PROBABILITY, hourIdx));
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return precipitazione in mm.
+     */
+    public double precipitationMm(final int hourIdx) {
+        return hourly(HourlyMetric.PRECIPITATION, hourIdx);
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return precipitazione in pollici.
+     */
+    public double precipitationInch(final int hourIdx) {
+        return UnitConversion.mmToInches(precipitationMm(hourIdx));
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return codice meteo WMO, <code>null</code> se non disponibile.
+     */
+    public Integer weatherCode(final int hourIdx) {
+        return toInteger(hourly(HourlyMetric.WEATHER_CODE, hourIdx));
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return velocità del vento in km/h.
+     */
+    public double windSpeedKmh(final int hourIdx) {
+        return hourly(HourlyMetric.WIND_SPEED, hourIdx);
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return velocità del vento in mph.
+     */
+    public double windSpeedMph(final int hourIdx) {
+        return UnitConversion.kmhToMph(windSpeedKmh(hourIdx));
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return direzione del vento in gradi, <code>null</code> se non disponibile.
+     */
+    public Integer windDirection(final int hourIdx) {
+        return toInteger(hourly(HourlyMetric.WIND_DIRECTION, hourIdx));
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return pressione al livello del mare (hPa).
+     */
+    public double pressure(final int hourIdx) {
+        return hourly(HourlyMetric.PRESSURE, hourIdx);
+    }
+
+    /**
+     * @param hourIdx offset orario.
+     * @return temperatura del suolo in °C, NaN se non disponibile.
+     */
+    public double soilTemperature(final int hourIdx) {
+        return hourly(HourlyMetric.SOIL_TEMPERATURE, hourIdx);
+    }
+
+    /* ====================== serie giornaliera ====================== */
+
+    /** @return numero di giorni del riepilogo giornaliero. */
+    public int days() {
+        return this.daily[0].length;
+    }
+
+    /** @return numero di date distinte coperte dalla serie oraria. */
+    public int forecastDays() {
+        return hours() == 0 ? 0
+            : (int) ChronoUnit.DAYS.between(this.hourlyStart.toLocalDate(), timeAt(hours() - 1).toLocalDate()) + 1;
+    }
+
+    /**
+     * @param dayIdx offset giornaliero.
+     * @return data corrispondente all’indice.
+     */
+    public LocalDate dayAt(final int dayIdx) {
+        return this.dailyStart.plusDays(dayIdx);
+    }
+
+    /**
+     * @param date data richiesta.
+     * @return indice giornaliero, oppure <code>-1</code> se fuori dalla previsione.
+     */
+    public int dayIndexOf(final LocalDate date) {
+        final long idx = ChronoUnit.DAYS.between(this.dailyStart, date);
+        return idx >= 0 && idx < days() ? (int) idx : -1;
+    }
+
+    /**
+     * Accesso generico a una metrica giornaliera.
+     *
+     * @param metric metrica richiesta.
+     * @param dayIdx offset giornaliero.
+     * @return valore nell’unità nativa dell’API (NaN se assente).
+     */
+    public double daily(final DailyMetric metric, final int dayIdx) {
+        return this.daily[metric.ordinal()][dayIdx];
+    }
+
+    /**
+     * @param dayIdx offset giornaliero.
+     * @return codice meteo WMO del giorno, <code>null</code> se non disponibile.
+     */
+    public Integer dailyWeatherCode(final int dayIdx) {
+        return toInteger(daily(DailyMetric.WEATHER_CODE, dayIdx));
+    }
+
+    /**
+     * @param dayIdx offset giornaliero.
+     * @return temperatura massima in °C.
+     */
+    public double temperatureMaxC(final int dayIdx) {
+        return daily(DailyMetric.TEMPERATURE_MAX, dayIdx);
+    }
+
+    /**
+     * @param dayIdx offset giornaliero.
+     * @return temperatura massima in °F.
+     */
+    public double temperatureMaxF(final int dayIdx) {
+        return UnitConversion.celsiusToFahrenheit(temperatureMaxC(dayIdx));
+    }
+
+    /**
+     * @param dayIdx offset giornaliero.
+     * @return temperatura minima in °C.
+     */
+    public double temperatureMinC(final int dayIdx) {
+        return daily(DailyMetric.TEMPERATURE_MIN, dayIdx);
+    }
+
+    /**
+     * @param dayIdx offset giornaliero.
+     * @return temperatura minima in °F.
+     */
+    public double temperatureMinF(final int dayIdx) {
+        return UnitConversion.celsiusToFahrenheit(temperatureMinC(dayIdx));
+    }
+
+    /**
+     * @param dayIdx offset giornaliero.
+     * @return indice UV massimo.
+     */
+    public double uvIndexMax(final int dayIdx) {
+        return daily(DailyMetric.UV_INDEX_MAX, dayIdx);
+    }
+
+    /**
+     * @param dayIdx offset giornaliero.
+     * @return orario dell’alba, o <code>null</code> se il sole non sorge.
+     */
+    public LocalTime sunrise(final int dayIdx) {
+        return minuteOfDayToTime(daily(DailyMetric.SUNRISE, dayIdx));
+    }
+
+    /**
+     * @param dayIdx offset giornaliero.
+     * @return orario del tramonto, o <code>null</code> se il sole non tramonta.
+     */
+    public LocalTime sunset(final int dayIdx) {
+        return minuteOfDayToTime(daily(DailyMetric.SUNSET, dayIdx));
+    }
+
+    /* =================== viste di compatibilità ==================== */
+
+    /**
+     * Vista nel formato storico <code>data (YYYY-MM-DD) → ora (HH) → metrica → valore</code>.
+     * Le mappe delle metriche sono calcolate al volo a partire dalle colonne.
+     *
+     * @return mappa non modificabile.
+     */
+    public Map<String, Map<String, Map<String, Number>>> asHourlyMap() {
+        if (this.hourlyView == null) {
+            final Map<String, Map<String, Map<String, Number>>> view = new LinkedHashMap<>();
+            for (int i = 0; i < hours(); i++) {
+                final LocalDateTime time = timeAt(i);
+                view.computeIfAbsent(time.toLocalDate().toString(), k -> new LinkedHashMap<>())
+                    .put(String.format("%02d", time.getHour()), new HourRow(i));
+            }
+            view.replaceAll((k, v) -> Collections.unmodifiableMap(v));
+            this.hourlyView = Collections.unmodifiableMap(view);
+        }
+        return this.hourlyView;
+    }
+
+    /**
+     * Vista nel formato storico <code>data (YYYY-MM-DD) → metrica → valore</code>.
+     *
+     * @return mappa non modificabile.
+     */
+    public Map<String, Map<String, Number>> asDailyMap() {
+        if (this.dailyView == null) {
+            final Map<String, Map<String, Number>> view = new LinkedHashMap<>();
+            for (int d = 0; d < days(); d++) {
+                view.put(dayAt(d).toString(), new DayRow(d));
+            }
+            this.dailyView = Collections.unmodifiableMap(view);
+        }
+        return this.dailyView;
+    }
+
+    /**
+     * Vista nel formato storico <code>data (YYYY-MM-DD) → {"sunrise", "sunset"} → HH:mm</code>.
+     *
+     * @return mappa non modificabile.
+     */
+    public Map<String, Map<String, String>> asSunMap() {
+        if (this.sunView == null) {
+            final Map<String, Map<String, String>> view = new LinkedHashMap<>();
+            for (int d = 0; d < days(); d++) {
+                final Map<String, String> sun = new LinkedHashMap<>();
+                sun.put("sunrise", Objects.toString(sunrise(d), null));
+                sun.put("sunset", Objects.toString(sunset(d), null));
+                view.put(dayAt(d).toString(), Collections.unmodifiableMap(sun));
+            }
+            this.sunView = Collections.unmodifiableMap(view);
+        }
+        return this.sunView;
+    }
+
+    /* ======================= metodi privati ======================== */
+
+    /**
+     * Valore di una metrica oraria nel formato della vista di compatibilità.
+     *
+     * @param key chiave storica (es. "temperature_F").
+     * @param i   offset orario.
+     * @return valore (boxed al momento dell’accesso) o <code>null</code>.
+     */
+    private Number hourlyValue(final String key, final int i) {
+        return switch (key) {
+            case "temperature_C" -> temperatureC(i);
+            case "temperature_F" -> temperatureF(i);
+            case "humidity" -> humidity(i);
+            case "apparent_temperature" -> apparentTemperatureC(i);
+            case "precipitation_probability" -> precipitationProbability(i);
+            case "precipitation_mm" -> precipitationMm(i);
+            case "precipitation_inch" -> precipitationInch(i);
+            case WEATHER_CODE_KEY -> weatherCode(i);
+            case "wind_speed_kmh" -> windSpeedKmh(i);
+            case "wind_speed_mph" -> windSpeedMph(i);
+            case "wind_direction" -> windDirection(i);
+            case "pressure" -> pressure(i);
+            case "soil_temperature" -> Double.isNaN(soilTemperature(i)) ? null : soilTemperature(i);
+            default -> null;
+        };
+    }
+
+    /**
+     * Valore di una metrica giornaliera nel formato della vista di compatibilità.
+     *
+     * @param key chiave storica (es. "uv_max").
+     * @param d   offset giornaliero.
+     * @return valore (boxed al momento dell’accesso) o <code>null</code>.
+     */
+    private Number dailyValue(final String key, final int d) {
+        return switch (key) {
+            case WEATHER_CODE_KEY -> dailyWeatherCode(d);
+            case "temperature_max_C" -> temperatureMaxC(d);
+            case "temperature_max_F" -> temperatureMaxF(d);
+            case "temperature_min_C" -> temperatureMinC(d);
+            case "temperature_min_F" -> temperatureMinF(d);
+            case "daylight_duration" -> daily(DailyMetric.DAYLIGHT_DURATION, d);
+            case "sunshine_duration" -> daily(DailyMetric.SUNSHINE_DURATION, d);
+            case "uv_max" -> uvIndexMax(d);
+            default -> null;
+        };
+    }
+
+    /**
+     * Converte un valore intero della previsione senza trasformare un dato
+     * mancante (NaN) in 0, che passerebbe per un valore reale.
+     *
+     * @param value valore letto dalla colonna.
+     * @return il valore troncato, o <code>null</code> se NaN.
+     */
+    private static Integer toInteger(final double value) {
+        return Double.isNaN(value) ? null : (int) value;
+    }
+
+    private static void checkColumns(final double[][] columns, final int expected) {
+        if (columns.length != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " columns, got " + columns.length);
+        }
+        for (final double[] column : columns) {
+            if (column.length != columns[0].length) {
+                throw new IllegalArgumentException("Columns must have the same length");
+            }
+        }
+    }
+
+    private static LocalTime minuteOfDayToTime(final double minuteOfDay) {
+        return Double.isNaN(minuteOfDay) ? null : LocalTime.of(0, 0).plusMinutes((long) minuteOfDay);
+    }
+
+    /**
+     * Riga di una tabella colonnare esposta come {@link Map} senza copiare i
+     * dati: ogni valore viene letto dalla colonna al momento dell’accesso.
+     */
+    private abstract static class ColumnRow extends AbstractMap<String, Number> {
+
+        private final String[] keys;
+
+        ColumnRow(final String[] keys) {
+            super();
+            this.keys = keys;
+        }
+
+        protected abstract Number valueOf(String key);
+
+        @Override
+        public Number get(final Object key) {
+            return key instanceof String ? valueOf((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            for (final String k : this.keys) {
+                if (k.equals(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Set<Entry<String, Number>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Number>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.next < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, Number> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final String key = keys[this.next++];
+                            return new SimpleImmutableEntry<>(key, valueOf(key));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+    }
+
+    /** Riga oraria della vista di compatibilità. */
+    private final class HourRow extends ColumnRow {
+
+        private final int hourIdx;
+
+        HourRow(final int hourIdx) {
+            super(HOURLY_KEYS);
+            this.hourIdx = hourIdx;
+        }
+
+        @Override
+        protected Number valueOf(final String key) {
+            return hourlyValue(key, this.hourIdx);
+        }
+    }
+
+    /** Riga giornaliera della vista di compatibilità. */
+    private final class DayRow extends ColumnRow {
+
+        private final int dayIdx;
+
+        DayRow(final int dayIdx) {
+            super(DAILY_KEYS);
+            this.dayIdx = dayIdx;
+        }
+
+        @Override
+        protected Number valueOf(final String key) {
+            return dailyValue(key, this.dayIdx);
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package org.app.weathermode.model.weather;
+
+/**
+ * <h2>HourlyMetric</h2>
+ * <p>Metriche orarie richieste all’API Open‑Meteo. Ogni costante conosce il
+ * nome del campo JSON (blocco <code>hourly</code>) e corrisponde a una
+ * colonna primitiva di {@link ForecastStore}, indicizzata tramite
+ * {@link #ordinal()}.</p>
+ */
+public enum HourlyMetric {
+
+    /** Temperatura a 2 metri (°C). */
+    TEMPERATURE("temperature_2m"),
+    /** Umidità relativa a 2 metri (%). */
+    HUMIDITY("relative_humidity_2m"),
+    /** Temperatura percepita (°C). */
+    APPARENT_TEMPERATURE("apparent_temperature"),
+    /** Probabilità di precipitazione (%). */
+    PRECIPITATION_PROBABILITY("precipitation_probability"),
+    /** Precipitazione (mm). */
+    PRECIPITATION("precipitation"),
+    /** Codice meteo WMO. */
+    WEATHER_CODE("weather_code"),
+    /** Velocità del vento a 10 metri (km/h). */
+    WIND_SPEED("wind_speed_10m"),
+    /** Direzione del vento a 10 metri (gradi). */
+    WIND_DIRECTION("wind_direction_10m"),
+    /** Pressione al livello del mare (hPa). */
+    PRESSURE("pressure_msl"),
+    /** Temperatura del suolo in superficie (°C); può mancare (NaN). */
+    SOIL_TEMPERATURE("soil_temperature_0cm");
+
+    private final String apiName;
+
+    HourlyMetric(final String apiName) {
+        this.apiName = apiName;
+    }
+
+    /**
+     * @return nome del campo JSON all’interno del blocco <code>hourly</code>.
+     */
+    public String getApiName() {
+        return this.apiName;
+    }
+
+}
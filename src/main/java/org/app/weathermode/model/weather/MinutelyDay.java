@@ -0,0 +1,128 @@
+package org.app.weathermode.model.weather;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <h2>MinutelyDay</h2>
+ * <p>Una giornata di dati <code>minutely_15</code> per una località, in forma
+ * colonnare: una colonna <code>double[]</code> per ogni {@link MinutelyMetric},
+ * indicizzata per quarto d’ora a partire dal primo istante della serie. I
+ * valori mancanti sono {@link Double#NaN}.</p>
+ * <p>L’indice di un istante si ricava aritmeticamente
+ * ({@link #slotOf(LocalDateTime)}), senza cercare la stringa dell’orario
+ * nell’array <code>time</code>. Le istanze sono immutabili e vengono
+ * condivise tramite {@link MinutelyDayCache}.</p>
+ */
+final class MinutelyDay {
+
+    /** Minuti coperti da uno slot. */
+    static final int SLOT_MINUTES = 15;
+
+    private final LocalDateTime start;
+    private final double[][] columns;
+    private final long fetchedAt;
+
+    private MinutelyDay(final LocalDateTime start, final double[][] columns, final long fetchedAt) {
+        this.start = start;
+        this.columns = columns;
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * Costruisce la giornata dal blocco <code>minutely_15</code> già
+     * decodificato dal parser streaming, senza copiare le colonne.
+     *
+     * @param block     blocco <code>minutely_15</code> di una località.
+     * @param fetchedAt epoch millis del download.
+     * @return la giornata in forma colonnare.
+     * @throws IllegalArgumentException se manca una delle variabili attese.
+     */
+    static MinutelyDay fromBlock(final OpenMeteoStreamReader.Block block, final long fetchedAt) {
+        final double[][] columns = new double[MinutelyMetric.values().length][];
+        for (final MinutelyMetric metric : MinutelyMetric.values()) {
+            columns[metric.ordinal()] = block.column(metric.getApiName());
+        }
+        return new MinutelyDay(block.getStart(), columns, fetchedAt);
+    }
+
+    /**
+     * Arrotonda un istante al quarto d’ora più vicino, passando eventualmente
+     * al giorno successivo.
+     *
+     * @param dateTime istante da arrotondare.
+     * @return inizio dello slot più vicino.
+     */
+    static LocalDateTime nearestSlot(final LocalDateTime dateTime) {
+        final LocalDateTime minutes = dateTime.truncatedTo(ChronoUnit.MINUTES);
+        final int rest = minutes.getMinute() % SLOT_MINUTES;
+        return rest < (SLOT_MINUTES + 1) / 2
+            ? minutes.minusMinutes(rest)
+            : minutes.plusMinutes(SLOT_MINUTES - rest);
+    }
+
+    /**
+     * Calcola l’indice dello slot che inizia esattamente all’istante indicato.
+     *
+     * @param dateTime istante allineato al quarto d’ora.
+     * @return indice dello slot, oppure -1 se fuori serie o non allineato.
+     */
+    int slotOf(final LocalDateTime dateTime) {
+        final long minutes = ChronoUnit.MINUTES.between(this.start, dateTime);
+        if (minutes < 0 || minutes % SLOT_MINUTES != 0 || !dateTime.equals(dateTime.truncatedTo(ChronoUnit.MINUTES))) {
+            return -1;
+        }
+        final long slot = minutes / SLOT_MINUTES;
+        return slot < this.slots() ? (int) slot : -1;
+    }
+
+    /** @return numero di slot disponibili. */
+    int slots() {
+        return this.columns[0].length;
+    }
+
+    /**
+     * @param metric metrica richiesta.
+     * @param slot   indice dello slot.
+     * @return valore nell’unità nativa dell’API (NaN se assente).
+     */
+    double value(final MinutelyMetric metric, final int slot) {
+        return this.columns[metric.ordinal()][slot];
+    }
+
+    /**
+     * Costruisce la mappa storica di {@link AllWeather#getWeatherOn} per uno slot.
+     *
+     * @param slot indice dello slot (eventualmente -1).
+     * @return mappa chiave → valore, o {@link Optional#empty()} se lo slot non
+     *         esiste o uno dei valori manca.
+     */
+    Optional<Map<String, Number>> asMap(final int slot) {
+        if (slot < 0 || slot >= this.slots()) {
+            return Optional.empty();
+        }
+        final Map<String, Number> out = new HashMap<>();
+        for (final MinutelyMetric metric : MinutelyMetric.values()) {
+            final double value = this.value(metric, slot);
+            if (Double.isNaN(value)) {
+                return Optional.empty();
+            }
+            if (metric == MinutelyMetric.WEATHER_CODE) {
+                out.put(metric.getKey(), (int) value);
+            } else {
+                out.put(metric.getKey(), value);
+            }
+        }
+        return Optional.of(Collections.unmodifiableMap(out));
+    }
+
+    /** @return epoch millis del download. */
+    long getFetchedAt() {
+        return this.fetchedAt;
+    }
+
+}
@@ -0,0 +1,91 @@
+package org.app.weathermode.model.weather;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * <h2>MinutelyDayCache</h2>
+ * <p>Cache delle giornate <code>minutely_15</code> già scaricate, indicizzata
+ * per <em>cella</em> di coordinate e data. Le coordinate vengono arrotondate
+ * a una griglia di {@link #CELL_DEGREES} gradi (circa 1 km, sotto la
+ * risoluzione dei modelli Open‑Meteo): punti vicini, come checkpoint
+ * adiacenti o percorsi alternativi, condividono la stessa richiesta.</p>
+ * <p>Le richieste vanno effettuate sulle coordinate già arrotondate
+ * ({@link #snap(double)}), così che il contenuto della cella non dipenda dal
+ * primo punto che l’ha popolata.</p>
+ */
+final class MinutelyDayCache {
+
+    /** Istanza condivisa da {@link AllWeather} e {@link WeatherDataProviderImpl}. */
+    static final MinutelyDayCache SHARED = new MinutelyDayCache(Duration.ofMinutes(30), 256);
+
+    /** Lato della cella in gradi. */
+    static final double CELL_DEGREES = 0.01;
+
+    private final TimedLruCache<String, MinutelyDay> days;
+
+    /**
+     * @param ttl        durata di validità di una giornata scaricata.
+     * @param maxEntries numero massimo di coppie cella/data mantenute.
+     */
+    MinutelyDayCache(final Duration ttl, final int maxEntries) {
+        this.days = new TimedLruCache<>(ttl, maxEntries, MinutelyDay::getFetchedAt);
+    }
+
+    /**
+     * Arrotonda una coordinata al centro della cella che la contiene.
+     *
+     * @param degrees coordinata in gradi decimali.
+     * @return coordinata arrotondata alla griglia.
+     */
+    static double snap(final double degrees) {
+        return Math.round(degrees / CELL_DEGREES) * CELL_DEGREES;
+    }
+
+    /**
+     * Formatta una coordinata arrotondata per l’URL e per la chiave di cache.
+     *
+     * @param degrees coordinata in gradi decimali.
+     * @return la coordinata arrotondata, in notazione decimale.
+     */
+    static String format(final double degrees) {
+        return String.format(Locale.ROOT, "%.2f", snap(degrees));
+    }
+
+    /**
+     * @param lat  latitudine (non necessariamente arrotondata).
+     * @param lng  longitudine (non necessariamente arrotondata).
+     * @param date giorno richiesto.
+     * @return la giornata in cache, se presente e non scaduta.
+     */
+    Optional<MinutelyDay> get(final double lat, final double lng, final LocalDate date) {
+        return this.days.get(key(lat, lng, date));
+    }
+
+    /**
+     * @param lat  latitudine (non necessariamente arrotondata).
+     * @param lng  longitudine (non necessariamente arrotondata).
+     * @param date giorno a cui si riferisce la giornata.
+     * @param day  dati scaricati per la cella.
+     */
+    void put(final double lat, final double lng, final LocalDate date, final MinutelyDay day) {
+        this.days.put(key(lat, lng, date), day);
+    }
+
+    /** @return numero di richieste soddisfatte dalla cache. */
+    long getHits() {
+        return this.days.getHits();
+    }
+
+    /** @return numero di richieste non soddisfatte. */
+    long getMisses() {
+        return this.days.getMisses();
+    }
+
+    private static String key(final double lat, final double lng, final LocalDate date) {
+        return format(lat) + ',' + format(lng) + '@' + date;
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.app.weathermode.model.weather;
+
+/**
+ * <h2>MinutelyMetric</h2>
+ * <p>Metriche a risoluzione 15‑minuti (blocco <code>minutely_15</code>)
+ * usate per l’analisi dei percorsi. Ogni costante conosce il nome del campo
+ * JSON e la chiave storica esposta da {@link AllWeather#getWeatherOn}, e
+ * corrisponde a una colonna primitiva di {@link MinutelyDay}.</p>
+ */
+enum MinutelyMetric {
+
+    /** Precipitazione (mm). */
+    PRECIPITATION("precipitation", "precipitation"),
+    /** Neve (cm). */
+    SNOWFALL("snowfall", "snowfall"),
+    /** Quota dello zero termico (m). */
+    FREEZING_LEVEL_HEIGHT("freezing_level_height", "freezing_level_height"),
+    /** Codice meteo WMO. */
+    WEATHER_CODE("weather_code", "weather_code"),
+    /** Raffiche di vento a 10 metri (km/h). */
+    WIND_GUSTS("wind_gusts_10m", "wind_gusts"),
+    /** Visibilità (m). */
+    VISIBILITY("visibility", "visibility");
+
+    private final String apiName;
+    private final String key;
+
+    MinutelyMetric(final String apiName, final String key) {
+        this.apiName = apiName;
+        this.key = key;
+    }
+
+    /**
+     * @return nome del campo JSON all’interno del blocco <code>minutely_15</code>.
+     */
+    String getApiName() {
+        return this.apiName;
+    }
+
+    /**
+     * @return chiave usata nelle mappe restituite da {@link AllWeather#getWeatherOn}.
+     */
+    String getKey() {
+        return this.key;
+    }
+
+}
@@ -0,0 +1,256 @@
+package org.app.weathermode.model.weather;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * <h2>OfflineForecastStore</h2>
+ * <p>Archivio su disco dell’ultima previsione scaricata con successo per
+ * ogni località, usato per mostrare subito dei dati all’avvio (marcati come
+ * non aggiornati) mentre il download vero e proprio avviene in background.</p>
+ * <p>Ogni località occupa un file binario compatto (pochi KB) con le colonne
+ * di {@link ForecastStore} in formato <code>double</code> big‑endian; la
+ * lettura avviene tramite {@link MappedByteBuffer}, senza parsing JSON.</p>
+ * <pre>
+ *  int magic | int versione | long fetchedAt | str nowTime
+ *  mappa now | mappa cityInfo
+ *  long inizioOrario (epoch s) | int ore | int metriche | double[metriche × ore]
+ *  long primoGiorno (epoch day) | int giorni | int metriche | double[metriche × giorni]
+ * </pre>
+ * <p>La scrittura avviene su un file temporaneo sostituito atomicamente, così
+ * un’interruzione non lascia mai un file parziale. File corrotti o di una
+ * versione diversa vengono ignorati.</p>
+ */
+public final class OfflineForecastStore {
+
+    /** Cartella predefinita dei file, accanto alla configurazione. */
+    public static final Path DEFAULT_DIRECTORY = Path.of("app_config", "forecast_snapshots");
+
+    private static final Logger LOG = Logger.getLogger(OfflineForecastStore.class.getName());
+    private static final int MAGIC = 0x4F_4D_46_53; // "OMFS"
+    private static final int VERSION = 1;
+    private static final OfflineForecastStore SHARED = new OfflineForecastStore(DEFAULT_DIRECTORY);
+
+    /* tipi dei valori delle mappe */
+    private static final byte NULL_VALUE = 0;
+    private static final byte INT_VALUE = 1;
+    private static final byte LONG_VALUE = 2;
+    private static final byte DOUBLE_VALUE = 3;
+
+    private final Path directory;
+
+    /**
+     * @param directory cartella in cui salvare un file per località.
+     */
+    public OfflineForecastStore(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return l’archivio condiviso dall’applicazione, in {@link #DEFAULT_DIRECTORY}.
+     */
+    public static OfflineForecastStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * Salva (sostituendo l’eventuale precedente) la previsione di una località.
+     * Gli errori di I/O vengono solo registrati: l’archivio è un’ottimizzazione.
+     *
+     * @param lat   latitudine (stringa decimale).
+     * @param lng   longitudine (stringa decimale).
+     * @param entry dati da salvare.
+     * @return <code>true</code> se il file è stato scritto.
+     */
+    public boolean save(final String lat, final String lng, final ForecastCache.Entry entry) {
+        try {
+            Files.createDirectories(this.directory);
+            final Path tmp = Files.createTempFile(this.directory, "forecast", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                write(out, entry);
+            }
+            Files.move(tmp, this.fileOf(lat, lng), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (final IOException e) {
+            LOG.fine("Impossibile salvare le previsioni offline: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Legge l’ultima previsione salvata per una località.
+     *
+     * @param lat latitudine (stringa decimale).
+     * @param lng longitudine (stringa decimale).
+     * @return la voce salvata, con il suo {@link ForecastCache.Entry#getFetchedAt()}
+     *         originale, o {@link Optional#empty()} se assente o illeggibile.
+     */
+    public Optional<ForecastCache.Entry> load(final String lat, final String lng) {
+        final Path file = this.fileOf(lat, lng);
+        if (!Files.isReadable(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(read(buffer));
+        } catch (final IOException | RuntimeException e) {
+            LOG.fine("Previsioni offline illeggibili (%s): %s".formatted(file, e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    /* ===================== metodi privati ===================== */
+
+    private Path fileOf(final String lat, final String lng) {
+        return this.directory.resolve(String.format(Locale.ROOT, "%.4f_%.4f.bin",
+            Double.parseDouble(lat), Double.parseDouble(lng)));
+    }
+
+    private static void write(final DataOutputStream out, final ForecastCache.Entry entry) throws IOException {
+        final ForecastStore store = entry.getForecast();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(entry.getFetchedAt());
+        writeString(out, entry.getNowTime());
+        writeMap(out, entry.getNow());
+        writeMap(out, entry.getCityInfo());
+
+        out.writeLong(store.hourlyStart().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(store.hours());
+        out.writeInt(HourlyMetric.values().length);
+        for (final HourlyMetric metric : HourlyMetric.values()) {
+            for (int i = 0; i < store.hours(); i++) {
+                out.writeDouble(store.hourly(metric, i));
+            }
+        }
+
+        out.writeLong(store.dayAt(0).toEpochDay());
+        out.writeInt(store.days());
+        out.writeInt(DailyMetric.values().length);
+        for (final DailyMetric metric : DailyMetric.values()) {
+            for (int i = 0; i < store.days(); i++) {
+                out.writeDouble(store.daily(metric, i));
+            }
+        }
+    }
+
+    private static ForecastCache.Entry read(final ByteBuffer in) throws IOException {
+        if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IOException("formato non riconosciuto");
+        }
+        final long fetchedAt = in.getLong();
+        final String nowTime = readString(in);
+        final Map<String, Number> now = readMap(in);
+        final Map<String, Number> cityInfo = readMap(in);
+
+        final LocalDateTime hourlyStart = LocalDateTime.ofEpochSecond(in.getLong(), 0, ZoneOffset.UTC);
+        final double[][] hourly = readColumns(in, HourlyMetric.values().length);
+        final LocalDate dailyStart = LocalDate.ofEpochDay(in.getLong());
+        final double[][] daily = readColumns(in, DailyMetric.values().length);
+
+        return new ForecastCache.Entry(new ForecastStore(hourlyStart, hourly, dailyStart, daily),
+            cityInfo, now, nowTime, fetchedAt);
+    }
+
+    private static double[][] readColumns(final ByteBuffer in, final int expectedMetrics) throws IOException {
+        final int length = in.getInt();
+        final int metrics = in.getInt();
+        if (metrics != expectedMetrics) {
+            throw new IOException("numero di metriche non coerente");
+        }
+        checkedLength(in, length, (long) metrics * Double.BYTES);
+        final double[][] columns = new double[metrics][length];
+        for (final double[] column : columns) {
+            in.asDoubleBuffer().get(column);
+            in.position(in.position() + length * Double.BYTES);
+        }
+        return columns;
+    }
+
+    private static void writeMap(final DataOutputStream out, final Map<String, Number> map) throws IOException {
+        out.writeInt(map.size());
+        for (final Map.Entry<String, Number> e : map.entrySet()) {
+            writeString(out, e.getKey());
+            final Number value = e.getValue();
+            if (value == null) {
+                out.writeByte(NULL_VALUE);
+            } else if (value instanceof Integer) {
+                out.writeByte(INT_VALUE);
+                out.writeInt(value.intValue());
+            } else if (value instanceof Long) {
+                out.writeByte(LONG_VALUE);
+                out.writeLong(value.longValue());
+            } else {
+                out.writeByte(DOUBLE_VALUE);
+                out.writeDouble(value.doubleValue());
+            }
+        }
+    }
+
+    private static Map<String, Number> readMap(final ByteBuffer in) throws IOException {
+        final int size = in.getInt();
+        final Map<String, Number> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            final String key = readString(in);
+            final byte type = in.get();
+            switch (type) {
+                case NULL_VALUE -> map.put(key, null);
+                case INT_VALUE -> map.put(key, in.getInt());
+                case LONG_VALUE -> map.put(key, in.getLong());
+                case DOUBLE_VALUE -> map.put(key, in.getDouble());
+                default -> throw new IOException("tipo di valore sconosciuto: " + type);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer in) throws IOException {
+        final byte[] bytes = new byte[checkedLength(in, in.getInt(), 1)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Verifica una lunghezza letta dal file prima di allocare: un file
+     * troncato o corrotto non deve poter richiedere più memoria dei byte che
+     * restano da leggere.
+     *
+     * @param in           buffer da cui è stata letta la lunghezza.
+     * @param length       numero di elementi dichiarato.
+     * @param bytesPerItem byte occupati da ciascun elemento.
+     * @return <code>length</code>, se coerente.
+     * @throws IOException se la lunghezza è negativa o supera i byte rimasti.
+     */
+    private static int checkedLength(final ByteBuffer in, final int length, final long bytesPerItem)
+            throws IOException {
+        if (length < 0 || length * bytesPerItem > in.remaining()) {
+            throw new IOException("lunghezza non coerente con il file: " + length);
+        }
+        return length;
+    }
+
+}
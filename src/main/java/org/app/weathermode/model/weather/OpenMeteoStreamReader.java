@@ -0,0 +1,361 @@
+package org.app.weathermode.model.weather;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import org.app.common.impl.http.HttpTransportImpl;
+
+/**
+ * <h2>OpenMeteoStreamReader</h2>
+ * <p>Parser <em>streaming</em> delle risposte Open‑Meteo basato su
+ * {@link JsonReader} di Gson. I blocchi <code>hourly</code>,
+ * <code>daily</code> e <code>minutely_15</code> vengono decodificati
+ * direttamente dal flusso HTTP in colonne <code>double[]</code>, senza
+ * passare da una stringa con il corpo completo né da un albero
+ * {@link com.google.gson.JsonElement}.</p>
+ * <p>Open‑Meteo invia l’array <code>time</code> prima dei valori: la sua
+ * lunghezza viene usata per preallocare le colonne successive della stessa
+ * dimensione esatta. Dell’array <code>time</code> si conserva solo il primo
+ * istante, gli altri si ricavano dall’indice.</p>
+ * <p>Convenzioni di decodifica:</p>
+ * <ul>
+ *   <li><code>null</code> → {@link Double#NaN};</li>
+ *   <li>stringhe ISO‑8601 (es. <code>sunrise</code>/<code>sunset</code>) →
+ *       minuto del giorno;</li>
+ *   <li>i campi non riconosciuti (unità, fuso orario, …) vengono saltati.</li>
+ * </ul>
+ */
+final class OpenMeteoStreamReader {
+
+    /** Blocco delle previsioni orarie. */
+    static final String HOURLY = "hourly";
+    /** Blocco delle previsioni giornaliere. */
+    static final String DAILY = "daily";
+    /** Blocco dei dettagli a 15 minuti. */
+    static final String MINUTELY_15 = "minutely_15";
+
+    private static final String CURRENT = "current";
+    private static final String TIME_KEY = "time";
+    /** Capienza iniziale di una colonna letta prima del relativo <code>time</code>. */
+    private static final int DEFAULT_CAPACITY = 192;
+    private static final int MINUTES_PER_HOUR = 60;
+
+    private OpenMeteoStreamReader() { }
+
+    /**
+     * Esegue una richiesta HTTP GET tramite il trasporto condiviso e decodifica
+     * la risposta man mano che arriva.
+     *
+     * @param url URL completa della richiesta Open‑Meteo.
+     * @return una località per ogni coppia di coordinate richiesta, in ordine.
+     * @throws IOException problemi di rete, risposta d’errore o formato inatteso.
+     */
+    static List<Location> fetch(final String url) throws IOException {
+        try (Reader in = new InputStreamReader(HttpTransportImpl.shared().openStream(url), StandardCharsets.UTF_8)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Come {@link #fetch(String)}, per richieste con una sola località.
+     *
+     * @param url URL completa della richiesta Open‑Meteo.
+     * @return la località restituita.
+     * @throws IOException problemi di rete o risposta con più località.
+     */
+    static Location fetchOne(final String url) throws IOException {
+        return single(fetch(url));
+    }
+
+    /**
+     * Decodifica una risposta Open‑Meteo: un oggetto per una singola località
+     * oppure un array di oggetti per le richieste multi‑località.
+     *
+     * @param in sorgente del JSON; non viene chiusa.
+     * @return le località decodificate, in ordine.
+     * @throws IOException JSON malformato o risposta d’errore dell’API.
+     */
+    static List<Location> read(final Reader in) throws IOException {
+        final JsonReader json = new JsonReader(in);
+        final List<Location> out = new ArrayList<>();
+        if (json.peek() == JsonToken.BEGIN_ARRAY) {
+            json.beginArray();
+            while (json.hasNext()) {
+                out.add(readLocation(json));
+            }
+            json.endArray();
+        } else {
+            out.add(readLocation(json));
+        }
+        return out;
+    }
+
+    /**
+     * @param locations località decodificate.
+     * @return l’unica località presente.
+     * @throws IOException se le località non sono esattamente una.
+     */
+    static Location single(final List<Location> locations) throws IOException {
+        if (locations.size() != 1) {
+            throw new IOException("Attesa una sola località, ricevute " + locations.size());
+        }
+        return locations.get(0);
+    }
+
+    private static Location readLocation(final JsonReader json) throws IOException {
+        double elevation = Double.NaN;
+        String currentTime = null;
+        final Map<String, Number> current = new HashMap<>();
+        final Map<String, Block> blocks = new HashMap<>();
+        boolean error = false;
+        String reason = "";
+
+        json.beginObject();
+        while (json.hasNext()) {
+            final String name = json.nextName();
+            if (json.peek() == JsonToken.NULL) {
+                json.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "elevation" -> elevation = json.nextDouble();
+                case CURRENT -> currentTime = readCurrent(json, current);
+                case HOURLY, DAILY, MINUTELY_15 -> blocks.put(name, readBlock(json));
+                case "error" -> error = json.nextBoolean();
+                case "reason" -> reason = json.nextString();
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (error) {
+            throw new IOException("Errore Open-Meteo: " + reason);
+        }
+        return new Location(elevation, currentTime, current, blocks);
+    }
+
+    /**
+     * Legge il blocco <code>current</code> conservando i numeri nella forma
+     * in cui sono scritti (interi come {@link Integer}/{@link Long}).
+     */
+    private static String readCurrent(final JsonReader json, final Map<String, Number> current) throws IOException {
+        String time = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            final String name = json.nextName();
+            if (json.peek() == JsonToken.NULL) {
+                json.nextNull();
+            } else if (TIME_KEY.equals(name)) {
+                time = json.nextString();
+            } else if (json.peek() == JsonToken.NUMBER) {
+                current.put(name, parseNumber(json.nextString()));
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        return time;
+    }
+
+    private static Block readBlock(final JsonReader json) throws IOException {
+        String firstTime = null;
+        int length = -1;
+        final Map<String, double[]> columns = new HashMap<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            final String name = json.nextName();
+            if (TIME_KEY.equals(name)) {
+                int count = 0;
+                json.beginArray();
+                while (json.hasNext()) {
+                    final String time = json.nextString();
+                    if (count == 0) {
+                        firstTime = time;
+                    }
+                    count++;
+                }
+                json.endArray();
+                length = count;
+            } else {
+                columns.put(name, readColumn(json, length));
+            }
+        }
+        json.endObject();
+
+        if (firstTime == null) {
+            throw new IOException("Blocco senza \"" + TIME_KEY + "\"");
+        }
+        for (final Map.Entry<String, double[]> column : columns.entrySet()) {
+            if (column.getValue().length != length) {
+                throw new IOException("Lunghezza inattesa per \"" + column.getKey() + "\"");
+            }
+        }
+        return new Block(LocalDateTime.parse(firstTime.length() == 10 ? firstTime + "T00:00" : firstTime),
+            length, columns);
+    }
+
+    private static double[] readColumn(final JsonReader json, final int expected) throws IOException {
+        double[] column = new double[expected >= 0 ? expected : DEFAULT_CAPACITY];
+        int size = 0;
+        json.beginArray();
+        while (json.hasNext()) {
+            if (size == column.length) {
+                column = Arrays.copyOf(column, Math.max(1, column.length * 2));
+            }
+            column[size++] = readValue(json);
+        }
+        json.endArray();
+        return size == column.length ? column : Arrays.copyOf(column, size);
+    }
+
+    private static double readValue(final JsonReader json) throws IOException {
+        return switch (json.peek()) {
+            case NULL -> {
+                json.nextNull();
+                yield Double.NaN;
+            }
+            case STRING -> {
+                final LocalTime time = LocalDateTime.parse(json.nextString()).toLocalTime();
+                yield time.getHour() * MINUTES_PER_HOUR + time.getMinute();
+            }
+            default -> json.nextDouble();
+        };
+    }
+
+    private static Number parseNumber(final String literal) {
+        if (literal.indexOf('.') >= 0 || literal.indexOf('e') >= 0 || literal.indexOf('E') >= 0) {
+            return Double.valueOf(literal);
+        }
+        final long value = Long.parseLong(literal);
+        if (value == (int) value) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    /**
+     * Risposta decodificata di una singola località.
+     */
+    static final class Location {
+
+        private final double elevation;
+        private final String currentTime;
+        private final Map<String, Number> current;
+        private final Map<String, Block> blocks;
+
+        private Location(final double elevation, final String currentTime,
+                         final Map<String, Number> current, final Map<String, Block> blocks) {
+            this.elevation = elevation;
+            this.currentTime = currentTime;
+            this.current = Collections.unmodifiableMap(current);
+            this.blocks = Collections.unmodifiableMap(blocks);
+        }
+
+        /** @return altitudine in metri (NaN se assente). */
+        double getElevation() {
+            return this.elevation;
+        }
+
+        /**
+         * @return istante ISO‑8601 delle condizioni correnti.
+         * @throws IllegalArgumentException se la risposta non contiene il blocco <code>current</code>.
+         */
+        String getCurrentTime() {
+            if (this.currentTime == null) {
+                throw new IllegalArgumentException("\"" + CURRENT + "\" not found!");
+            }
+            return this.currentTime;
+        }
+
+        /**
+         * @param name nome API della variabile corrente (es. <code>temperature_2m</code>).
+         * @return il valore, nella forma numerica in cui è stato ricevuto.
+         * @throws IllegalArgumentException se la variabile manca o è <code>null</code>.
+         */
+        Number current(final String name) {
+            final Number value = this.current.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("\"" + CURRENT + "." + name + "\" not found!");
+            }
+            return value;
+        }
+
+        /**
+         * @param name {@link #HOURLY}, {@link #DAILY} o {@link #MINUTELY_15}.
+         * @return il blocco richiesto.
+         * @throws IllegalArgumentException se la risposta non lo contiene.
+         */
+        Block block(final String name) {
+            final Block block = this.blocks.get(name);
+            if (block == null) {
+                throw new IllegalArgumentException("\"" + name + "\" not found!");
+            }
+            return block;
+        }
+    }
+
+    /**
+     * Blocco colonnare (<code>hourly</code>, <code>daily</code>, …): primo
+     * istante della serie e una colonna per variabile, tutte lunghe
+     * {@link #length()}.
+     */
+    static final class Block {
+
+        private final LocalDateTime start;
+        private final int length;
+        private final Map<String, double[]> columns;
+
+        private Block(final LocalDateTime start, final int length, final Map<String, double[]> columns) {
+            this.start = start;
+            this.length = length;
+            this.columns = columns;
+        }
+
+        /** @return primo istante della serie (mezzanotte per le serie giornaliere). */
+        LocalDateTime getStart() {
+            return this.start;
+        }
+
+        /** @return numero di elementi di ogni colonna. */
+        int length() {
+            return this.length;
+        }
+
+        /**
+         * Restituisce la colonna senza copiarla: il chiamante ne diventa
+         * proprietario e non deve modificarla.
+         *
+         * @param name nome API della variabile.
+         * @return i valori della variabile.
+         * @throws IllegalArgumentException se la variabile non è presente.
+         */
+        @SuppressFBWarnings(
+            value = "EI_EXPOSE_REP",
+            justification = "Columns are handed over to immutable stores, copying them would defeat streaming"
+        )
+        double[] column(final String name) {
+            final double[] column = this.columns.get(name);
+            if (column == null) {
+                throw new IllegalArgumentException("\"" + name + "\" not found!");
+            }
+            return column;
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.app.weathermode.model.weather;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * <h2>TimedLruCache</h2>
+ * <p>Mappa con scadenza (TTL) ed eviction LRU alla base delle cache meteo del
+ * pacchetto ({@link ForecastCache} e cache dei dettagli 15‑minuti). La data di
+ * creazione di ogni valore è letta dal valore stesso, così che un valore
+ * aggiornato parzialmente possa mantenere la scadenza originale.</p>
+ * <p>Tutti i metodi sono sincronizzati.</p>
+ *
+ * @param <K> tipo della chiave.
+ * @param <V> tipo del valore.
+ */
+final class TimedLruCache<K, V> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final long ttlMillis;
+    private final ToLongFunction<V> createdAt;
+    private final Map<K, V> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param ttl        durata di validità di ogni valore.
+     * @param maxEntries numero massimo di valori mantenuti (almeno 1).
+     * @param createdAt  funzione che restituisce l’epoch millis di creazione di un valore.
+     * @throws IllegalArgumentException se il TTL è negativo o la capienza non è positiva.
+     */
+    TimedLruCache(final Duration ttl, final int maxEntries, final ToLongFunction<V> createdAt) {
+        if (ttl.isNegative() || maxEntries < 1) {
+            throw new IllegalArgumentException("TTL negativo o capienza non valida: " + ttl + ", " + maxEntries);
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.createdAt = createdAt;
+        this.entries = new LinkedHashMap<>(maxEntries + 1, LOAD_FACTOR, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param key chiave da cercare.
+     * @return il valore se presente e non scaduto; i valori scaduti vengono rimossi.
+     */
+    synchronized Optional<V> get(final K key) {
+        final V value = this.entries.get(key);
+        if (value == null || System.currentTimeMillis() - this.createdAt.applyAsLong(value) >= this.ttlMillis) {
+            if (value != null) {
+                this.entries.remove(key);
+            }
+            this.misses++;
+            return Optional.empty();
+        }
+        this.hits++;
+        return Optional.of(value);
+    }
+
+    /**
+     * @param key   chiave.
+     * @param value valore da memorizzare come il più recente.
+     */
+    synchronized void put(final K key, final V value) {
+        this.entries.put(key, value);
+    }
+
+    /**
+     * Sostituisce il valore associato alla chiave, se presente, senza
+     * modificare i contatori.
+     *
+     * @param key    chiave.
+     * @param update funzione che calcola il nuovo valore.
+     */
+    synchronized void update(final K key, final UnaryOperator<V> update) {
+        this.entries.computeIfPresent(key, (k, v) -> update.apply(v));
+    }
+
+    /** Rimuove tutti i valori mantenendo i contatori. */
+    synchronized void clear() {
+        this.entries.clear();
+    }
+
+    /** @return numero di valori memorizzati (inclusi quelli scaduti non ancora richiesti). */
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    /** @return numero di richieste soddisfatte. */
+    synchronized long getHits() {
+        return this.hits;
+    }
+
+    /** @return numero di richieste non soddisfatte (assenti o scadute). */
+    synchronized long getMisses() {
+        return this.misses;
+    }
+
+}
@@ -48,6 +48,13 @@ public interface Weather {
      */
     Optional<Map<String, Map<String, String>>> getDailyInfo();
 
+    /**
+     * @return previsioni orarie e giornaliere in forma colonnare, con accesso
+     *         tipizzato per indice; le mappe restituite dagli altri getter
+     *         sono viste di compatibilità su questo stesso store.
+     */
+    Optional<ForecastStore> getForecastStore();
+
     /**
      * Previsione puntuale (precisione implementazione-specifica) per una data
      * e ora indicata.
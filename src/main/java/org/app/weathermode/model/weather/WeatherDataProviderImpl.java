@@ -1,16 +1,47 @@
 package org.app.weathermode.model.weather;
 
+import org.app.common.api.resilience.RetryPolicy;
 import org.app.common.api.weather.WeatherDataProvider;
+import org.app.common.api.weather.WeatherFetchException;
+import org.app.common.api.weather.WeatherQuery;
+import org.app.common.impl.resilience.ExponentialBackoffRetryPolicy;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.logging.Logger;
 
 /**
  * Adapter for the AllWeather component to expose it via the shared WeatherDataProvider interface.
+ *
+ * <p>Batch lookups are grouped by date: all the coordinate cells requested for the same day and not
+ * yet cached are sent to Open-Meteo as comma-separated latitude/longitude lists, so a whole route
+ * usually costs one or two HTTP requests instead of one per point.
+ *
+ * <p>A request that fails with a network error or a server-side status is retried with exponential
+ * backoff and jitter. If it still fails, the queries it covered are reported through a
+ * {@link WeatherFetchException}, after every other request of the batch has been attempted.
  */
 public class WeatherDataProviderImpl implements WeatherDataProvider {
 
+    /** Upper bound of locations per request, keeps the URL well below common length limits. */
+    private static final int MAX_LOCATIONS_PER_REQUEST = 50;
+    /** Maximum number of attempts of a request, including the first one. */
+    private static final int MAX_ATTEMPTS = 3;
+    /** Upper bound of the wait before the first retry. */
+    private static final Duration FIRST_DELAY = Duration.ofMillis(500);
+    /** Upper bound of any wait between two attempts. */
+    private static final Duration MAX_DELAY = Duration.ofSeconds(4);
+    private static final RetryPolicy RETRY = new ExponentialBackoffRetryPolicy(MAX_ATTEMPTS, FIRST_DELAY, MAX_DELAY);
+    private static final Logger LOG = Logger.getLogger(WeatherDataProviderImpl.class.getName());
+
     /**
      * Constructs a new Weather data provider implementation.
      */
@@ -21,17 +52,143 @@ public class WeatherDataProviderImpl implements WeatherDataProvider {
      * {@inheritDoc}
      */
     @Override
-    public Optional<Map<String, Number>> getWeatherInfo(final double lat, final double lng, final LocalDateTime dateTime) {
-        final Map<String, String> coordinates = Map.of(
-                "lat", String.valueOf(lat),
-                "lng", String.valueOf(lng)
-        );
-        final Weather allWeather = new AllWeather(coordinates);
-        final String time = String.format("%02d:%02d", dateTime.getHour(), dateTime.getMinute());
-        return allWeather.getWeatherOn(
-                dateTime.getDayOfMonth(),
-                dateTime.getMonthValue(),
-                dateTime.getYear(),
-                time);
+    public Optional<Map<String, Number>> getWeatherInfo(final double lat, final double lng, final LocalDateTime dateTime)
+            throws WeatherFetchException {
+        return this.getWeatherInfo(List.of(new WeatherQuery(lat, lng, dateTime))).get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each time is rounded to the nearest quarter of an hour with {@link MinutelyDay#nearestSlot}, as in
+     * {@link AllWeather#getWeatherOn}: after 23:52 the query moves to the first slot of the next day.
+     * Days already downloaded for the same coordinate cell are served by {@link MinutelyDayCache}.
+     */
+    @Override
+    public List<Optional<Map<String, Number>>> getWeatherInfo(final List<WeatherQuery> queries)
+            throws WeatherFetchException {
+        final List<Optional<Map<String, Number>>> results =
+                new ArrayList<>(Collections.nCopies(queries.size(), Optional.empty()));
+
+        final List<Integer> failed = new ArrayList<>();
+        Exception failure = null;
+
+        final Map<LocalDate, List<Integer>> byDate = new LinkedHashMap<>();
+        final List<LocalDateTime> slots = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            final LocalDateTime slot = MinutelyDay.nearestSlot(queries.get(i).getDateTime());
+            slots.add(slot);
+            byDate.computeIfAbsent(slot.toLocalDate(), d -> new ArrayList<>()).add(i);
+        }
+
+        for (final Map.Entry<LocalDate, List<Integer>> group : byDate.entrySet()) {
+            final LocalDate date = group.getKey();
+            final Map<String, List<Integer>> byCell = new LinkedHashMap<>();
+            for (final int i : group.getValue()) {
+                byCell.computeIfAbsent(cellKey(queries.get(i)), k -> new ArrayList<>()).add(i);
+            }
+            final List<List<Integer>> missing = new ArrayList<>();
+            for (final List<Integer> cell : byCell.values()) {
+                final WeatherQuery first = queries.get(cell.get(0));
+                final Optional<MinutelyDay> cached =
+                        MinutelyDayCache.SHARED.get(first.getLatitude(), first.getLongitude(), date);
+                if (cached.isPresent()) {
+                    fill(cached.get(), cell, slots, results);
+                } else {
+                    missing.add(cell);
+                }
+            }
+            for (int from = 0; from < missing.size(); from += MAX_LOCATIONS_PER_REQUEST) {
+                final List<List<Integer>> chunk =
+                        missing.subList(from, Math.min(from + MAX_LOCATIONS_PER_REQUEST, missing.size()));
+                try {
+                    this.fetchChunk(date, chunk, queries, slots, results);
+                } catch (final Exception e) { // NOPMD
+                    LOG.fine("Richiesta meteo multi-località fallita per il " + date + ": " + e.getMessage());
+                    chunk.forEach(failed::addAll);
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            Collections.sort(failed);
+            throw new WeatherFetchException("Weather data could not be downloaded for " + failed.size()
+                    + " of " + queries.size() + " queries", failed, failure);
+        }
+        return results;
+    }
+
+    /**
+     * Performs a single multi-location request, retried according to {@link #RETRY}, caches the
+     * downloaded days and fills the results of every query they cover.
+     *
+     * @param date    the day shared by every query of the chunk
+     * @param chunk   one list of query indexes per coordinate cell
+     * @param queries the original queries
+     * @param slots   the rounded time of each query
+     * @param results the output list, indexed like {@code queries}
+     * @throws Exception the error of the last attempt, or an {@link IOException} if the response does
+     *                   not hold one location per cell
+     */
+    private void fetchChunk(final LocalDate date, final List<List<Integer>> chunk, final List<WeatherQuery> queries,
+                            final List<LocalDateTime> slots, final List<Optional<Map<String, Number>>> results)
+            throws Exception { // NOPMD
+        final StringBuilder lats = new StringBuilder();
+        final StringBuilder lngs = new StringBuilder();
+        for (final List<Integer> cell : chunk) {
+            final WeatherQuery first = queries.get(cell.get(0));
+            if (lats.length() > 0) {
+                lats.append(',');
+                lngs.append(',');
+            }
+            lats.append(MinutelyDayCache.format(first.getLatitude()));
+            lngs.append(MinutelyDayCache.format(first.getLongitude()));
+        }
+        final String url = AllWeather.DETAILS_API_URL
+                .replace("%LAT", lats)
+                .replace("%LNG", lngs)
+                .replace("%DATE", date.toString());
+        final List<OpenMeteoStreamReader.Location> perLocation = RETRY.call(() -> OpenMeteoStreamReader.fetch(url));
+        if (perLocation.size() != chunk.size()) {
+            throw new IOException("Unexpected multi-location response: " + perLocation.size()
+                    + " locations for " + chunk.size() + " cells");
+        }
+        final long fetchedAt = System.currentTimeMillis();
+        for (int loc = 0; loc < chunk.size(); loc++) {
+            final MinutelyDay day = MinutelyDay.fromBlock(
+                    perLocation.get(loc).block(OpenMeteoStreamReader.MINUTELY_15), fetchedAt);
+            final WeatherQuery first = queries.get(chunk.get(loc).get(0));
+            MinutelyDayCache.SHARED.put(first.getLatitude(), first.getLongitude(), date, day);
+            fill(day, chunk.get(loc), slots, results);
+        }
+    }
+
+    /**
+     * Reads the slot of every query of a cell from its day.
+     *
+     * @param day     the downloaded day of the cell
+     * @param cell    the indexes of the queries falling in the cell
+     * @param slots   the rounded time of each query
+     * @param results the output list, indexed like the queries
+     */
+    private static void fill(final MinutelyDay day, final List<Integer> cell, final List<LocalDateTime> slots,
+                             final List<Optional<Map<String, Number>>> results) {
+        for (final int i : cell) {
+            results.set(i, day.asMap(day.slotOf(slots.get(i))));
+        }
+    }
+
+    /**
+     * Builds the grouping key of a query location.
+     *
+     * @param query the query
+     * @return the coordinate cell as text
+     */
+    private static String cellKey(final WeatherQuery query) {
+        return MinutelyDayCache.format(query.getLatitude()) + "," + MinutelyDayCache.format(query.getLongitude());
     }
 }
@@ -0,0 +1,60 @@
+package org.app.weathermode.model.weather;
+
+import java.io.Serial;
+
+/**
+ * <h2>WeatherRequestException</h2>
+ * <p>Errore tipizzato con cui vengono completati eccezionalmente i
+ * {@link java.util.concurrent.CompletableFuture} di {@link AsyncWeather}.
+ * Il {@link Reason motivo} permette al chiamante di distinguere, ad esempio,
+ * un problema di rete temporaneo (da ritentare) da una risposta non valida.</p>
+ */
+public class WeatherRequestException extends Exception {
+
+    @Serial
+    private static final long serialVersionUID = 2716093548853671402L;
+
+    /** Categoria dell’errore. */
+    private final Reason reason;
+
+    /**
+     * Categorie di errore di una richiesta meteo.
+     */
+    public enum Reason {
+        /** Connessione non riuscita o interrotta. */
+        NETWORK,
+        /** Il server non ha risposto entro il timeout. */
+        TIMEOUT,
+        /** Il server ha risposto con uno stato HTTP di errore. */
+        HTTP_STATUS,
+        /** La risposta non è un JSON Open‑Meteo valido o mancano campi essenziali. */
+        INVALID_RESPONSE,
+        /** La risposta è valida ma non contiene dati per l’istante richiesto. */
+        NO_DATA
+    }
+
+    /**
+     * @param reason  categoria dell’errore.
+     * @param message descrizione dell’errore.
+     */
+    public WeatherRequestException(final Reason reason, final String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    /**
+     * @param reason  categoria dell’errore.
+     * @param message descrizione dell’errore.
+     * @param cause   eccezione originale.
+     */
+    public WeatherRequestException(final Reason reason, final String message, final Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+
+    /** @return categoria dell’errore. */
+    public Reason getReason() {
+        return this.reason;
+    }
+
+}
@@ -10,14 +10,17 @@ import javax.swing.border.EmptyBorder;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.net.URL;
+import java.util.concurrent.Callable;
 import javax.imageio.ImageIO;
 
 /**
  * <h2>ImageFromURLSwing</h2>
  * <p>Utility finale che scarica e visualizza un'immagine da un URL in una
  * finestra Swing ridimensionata automaticamente.</p>
- * <p>Fornisce due soli metodi pubblici {@link #viewIMG(String)} e
- * {@link #viewIMG(String, String, String)}. Tutta la logica di caricamento
+ * <p>Fornisce i metodi pubblici {@link #viewIMG(String)} e
+ * {@link #viewIMG(String, String, String)}, più
+ * {@link #viewIMG(Image, String, String)} per immagini già in memoria (ad es.
+ * disegnate localmente). Tutta la logica di caricamento e ridimensionamento
  * avviene su uno {@link SwingWorker} per non bloccare l'EDT.</p>
  */
 public final class ImageFromURLSwing {
@@ -62,11 +65,27 @@ public final class ImageFromURLSwing {
      * @param title       testo mostrato sopra l'immagine (può essere {@code null}).
      * @param winTitle titolo della finestra (se {@code null} diventa "Image Viewer").
      */
+    public static void viewIMG(final String imageUrl, final String title, final String winTitle) {
+        show(() -> ImageIO.read(new URL(imageUrl)), title, winTitle);
+    }
+
+    /**
+     * Visualizza un'immagine già in memoria, con le stesse regole di
+     * ridimensionamento e gli stessi titoli di {@link #viewIMG(String, String, String)}.
+     *
+     * @param image       immagine da visualizzare.
+     * @param title       testo mostrato sopra l'immagine (può essere {@code null}).
+     * @param winTitle titolo della finestra (se {@code null} diventa "Image Viewer").
+     */
+    public static void viewIMG(final Image image, final String title, final String winTitle) {
+        show(() -> image, title, winTitle);
+    }
+
     @SuppressFBWarnings(
         value = "REC_CATCH_EXCEPTION",
         justification = "Necessary to catch generic Exception to aggregate parsing errors from AdvancedJsonReader"
     )
-    public static void viewIMG(final String imageUrl, final String title, final String winTitle) {
+    private static void show(final Callable<Image> source, final String title, final String winTitle) {
         String windowTitle = winTitle;
         if (windowTitle == null) {
             windowTitle = "Image Viewer";
@@ -91,7 +110,7 @@ public final class ImageFromURLSwing {
             new SwingWorker<ImageIcon, Void>() {
                 @Override
                 protected ImageIcon doInBackground() throws Exception {
-                    final Image original = ImageIO.read(new URL(imageUrl));
+                    final Image original = source.call();
                     final int w = original.getWidth(null);
                     final int h = original.getHeight(null);
                     final double scale = calcScale(w, h);
@@ -1,18 +1,20 @@
 package org.app.weathermode.view;
 
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 import org.app.weathermode.controller.Controller;
 import org.app.config.AppConfig;
 import org.app.config.ConfigManager;
-import org.app.weathermode.model.lookup.IPLookUp;
+import org.app.weathermode.model.lookup.CachedIPLookUp;
+import org.app.weathermode.model.locationselector.CityRecordCache;
 import org.app.weathermode.model.locationselector.LocationSelector;
-import org.app.weathermode.model.locationselector.LocationSelectorImpl;
+import org.app.weathermode.model.locationselector.StagedLocationSelector;
 import org.app.weathermode.model.lookup.LookUp;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -38,6 +40,15 @@ import javafx.stage.Stage;
  *   <li>Lanciare l’<strong>AppController</strong> e aprire la finestra
  *       principale solo dopo che tutte le dipendenze sono pronte.</li>
  * </ol>
+ * <p>L’avvio è a stadi: il database delle città viene caricato in background
+ * da uno {@link StagedLocationSelector}. Se la città di default è già nel
+ * {@link CityRecordCache} la finestra principale parte subito e il download
+ * delle previsioni inizia senza attendere il database; altrimenti (primo
+ * avvio, nessuna città scelta) si attende il caricamento completo. La durata
+ * di ogni fase viene registrata nel log.</p>
+ * <p>Se il caricamento del database fallisce l’utente viene sempre avvisato:
+ * senza città in cache l’applicazione si chiude; con la città in cache le
+ * previsioni restano disponibili, ma la ricerca e il cambio città no.</p>
  * <p>La classe è <em>stand‑alone</em> rispetto a JavaFX <code>Application</code>:
  * viene istanziata e richiamata dal metodo <code>main</code> dell’applicazione.</p>
  */
@@ -45,6 +56,9 @@ public class LoadingScreen {
 
     /** Percorso del file di configurazione utente. */
     private static final String CONFIG_PATH = "app_config/configuration.json";
+    private static final String LOAD_ERROR_TITLE = "Errore nel caricamento delle città";
+
+    private static final Logger LOG = Logger.getLogger(LoadingScreen.class.getName());
 
     private final Stage splashStage;
 
@@ -107,33 +121,52 @@ public class LoadingScreen {
     /* ========================= avvio ========================== */
 
     /**
-     * Avvia il task di caricamento e gestisce il flusso di selezione città.
+     * Avvia il caricamento delle città e gestisce il flusso di selezione città.
      * @param primaryStage stage principale passato dall’<code>Application</code>.
      * @param appController controller MVC da inizializzare una volta pronta la vista.
      */
     public void start(final Stage primaryStage, final Controller appController) {
+        final long startedAt = System.nanoTime();
         splashStage.show();
 
-        /* ---- Task di background per caricare il CSV delle città ---- */
-        final Task<LocationSelectorImpl> loadTask = new Task<>() {
-            @Override protected LocationSelectorImpl call() {
-                return new LocationSelectorImpl();
-            }
-        };
+        /* ---- Caricamento in background del database delle città ---- */
+        final StagedLocationSelector ls =
+            new StagedLocationSelector(new CityRecordCache(CityRecordCache.DEFAULT_FILE));
 
-        /* ---- Successo ---------------------------------------------------- */
-        loadTask.setOnSucceeded(evt -> {
-            final LocationSelector ls = loadTask.getValue();
+        /* ---- Città di default già in cache: si parte subito ---- */
+        final Optional<Integer> defaultCity = ConfigManager.getConfig().getUserPreferences().getDefaultCity();
+        if (defaultCity.isPresent() && ls.isAvailable(defaultCity.get())) {
+            logPhase("città di default dalla cache", startedAt);
             splashStage.close();
-            Platform.runLater(() -> handlePostLoad(primaryStage, appController, ls));
-        });
+            Platform.runLater(() -> handlePostLoad(primaryStage, appController, ls, startedAt));
+            ls.ready().exceptionally(err -> {
+                CustomErrorGUI.showErrorJFX("Impossibile caricare l'elenco delle città."
+                    + "\nLe previsioni della città salvata restano disponibili,"
+                    + "\nma la ricerca e il cambio città non funzioneranno fino al prossimo avvio.",
+                    LOAD_ERROR_TITLE);
+                return null;
+            });
+            return;
+        }
 
-        /* ---- Fallimento ---- */
-        loadTask.setOnFailed(evt -> {
-            Platform.exit();
-        });
+        /* ---- Altrimenti si attende il database completo ---- */
+        ls.ready().whenComplete((ready, err) -> Platform.runLater(() -> {
+            if (err != null) {
+                splashStage.close();
+                CustomErrorGUI.showError("Impossibile caricare l'elenco delle città."
+                    + "\nL'applicazione verrà chiusa.", LOAD_ERROR_TITLE);
+                Platform.exit();
+                return;
+            }
+            logPhase("database delle città caricato", startedAt);
+            splashStage.close();
+            handlePostLoad(primaryStage, appController, ls, startedAt);
+        }));
+    }
 
-        new Thread(loadTask, "loader-thread").start();
+    private static void logPhase(final String phase, final long startedAt) {
+        LOG.info("Avvio: " + phase + " dopo "
+            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) + " ms");
     }
 
     /* ===================== flusso post-load ==================== */
@@ -141,13 +174,14 @@ public class LoadingScreen {
         value = "REC_CATCH_EXCEPTION",
         justification = "Necessary to catch generic Exception to aggregate parsing errors from AdvancedJsonReader"
     )
-    private void handlePostLoad(final Stage primaryStage, final Controller appController, final LocationSelector ls) {
+    private void handlePostLoad(final Stage primaryStage, final Controller appController, final LocationSelector ls,
+                                final long startedAt) {
         try {
             final AppConfig appConfig = ConfigManager.getConfig();
             if (appConfig.getUserPreferences().getDefaultCity().isEmpty()) {
                 boolean useIP = false;
                 if (showConfirmIP("Vuoi usare la tua posizione (IP)?", "Usa posizione IP")) {
-                    final LookUp lookUp = new IPLookUp();
+                    final LookUp lookUp = new CachedIPLookUp();
                     if (lookUp.lookup().isPresent()) {
                         final Optional<Integer> cityID = ls.searchByLookUp(lookUp);
                         if (cityID.isPresent()) {
@@ -181,7 +215,9 @@ public class LoadingScreen {
             }
             appController.getApp().setLocationSelector(ls);
             appController.start();
+            logPhase("controller avviato", startedAt);
             primaryStage.show();
+            logPhase("finestra principale mostrata", startedAt);
         } catch (final Exception e) { // NOPMD
             Platform.exit();
         }
@@ -1,5 +1,6 @@
 package org.app.weathermode.view;
 
+import javafx.application.Platform;
 import javafx.scene.Scene;
 
 // CHECKSTYLE: AvoidStarImport OFF
@@ -10,20 +11,32 @@ import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.geometry.Insets;
+import javafx.scene.input.KeyCode;
 
+import org.app.weathermode.model.locationselector.CitySearch;
 import org.app.weathermode.model.locationselector.LocationSelector;
 import org.app.weathermode.model.pair.Pair;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
  * Classe che mostra un’interfaccia grafica modale per permettere all’utente
  * di cercare e selezionare una località tra quelle disponibili tramite
  * {@link LocationSelector}.
+ * <p>La ricerca non gira sul thread JavaFX: con {@link CitySearch} ogni
+ * modifica del testo riavvia un’attesa di {@value #DEBOUNCE_MILLIS} ms,
+ * trascorsa la quale la query viene eseguita su un thread dedicato alla
+ * finestra. Una nuova digitazione sostituisce la ricerca in attesa e i
+ * risultati di una ricerca superata vengono scartati; se la ricerca fallisce
+ * (ad esempio perché il database delle città non è stato caricato) l’elenco
+ * mostra un messaggio d’errore. I risultati, al più {@link LocationSelector#DEFAULT_LIMIT},
+ * sono mostrati in una {@link ListView}, che crea solo le celle visibili e
+ * le riusa durante lo scorrimento.</p>
  */
 public class LocationSelectorGUI {
 
+    private static final long DEBOUNCE_MILLIS = 100;
+
     private Integer selectedId;
 
     /**
@@ -44,12 +57,14 @@ public class LocationSelectorGUI {
         final double rootPadding = 15.0;
         final String stageTitle = "Scegli la Località";
         final String labelText = "Cerca una città (in inglese):";
-        final double resultsSpacing = 5.0;
-        final double scrollPrefHeight = 300.0;
-        final String scrollStyle = "-fx-background: white;";
+        final double listPrefHeight = 300.0;
+        final double cellHeight = 30.0;
+        final String listStyle = "-fx-background: white;";
         final String exitBtnText = "Esci";
         final int minSearchLength = 2;
+        final int maxResults = LocationSelector.DEFAULT_LIMIT;
         final String noResultsText = "Nessuna città trovata.";
+        final String searchErrorText = "Ricerca non disponibile: elenco delle città non caricato.";
         final String noResultsStyle = "-fx-font-style: italic; -fx-text-fill: gray;";
         final double sceneWidth = 600.0;
         final double sceneHeight = 450.0;
@@ -67,48 +82,68 @@ public class LocationSelectorGUI {
         // Componenti UI
         final Label label = new Label(labelText);
         final TextField searchField = new TextField();
-        final VBox resultsBox = new VBox(resultsSpacing);
+        final Label noResults = new Label();
+        noResults.setStyle(noResultsStyle);
+
+        final ListView<Pair<String, Integer>> resultsList = new ListView<>();
+        resultsList.setPrefHeight(listPrefHeight);
+        resultsList.setFixedCellSize(cellHeight);
+        resultsList.setStyle(listStyle);
+        resultsList.setPlaceholder(noResults);
+        final String cellStyle = String.format(
+            "-fx-background-color: %s; -fx-text-fill: %s;", btnBgColor, btnTextColor
+        );
+        resultsList.setCellFactory(list -> new ListCell<>() {
+            {
+                setOnMouseClicked(ev -> {
+                    if (!isEmpty()) {
+                        choose(stage, getItem());
+                    }
+                });
+            }
 
-        final ScrollPane scrollPane = new ScrollPane(resultsBox);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefHeight(scrollPrefHeight);
-        scrollPane.setStyle(scrollStyle);
+            @Override
+            protected void updateItem(final Pair<String, Integer> location, final boolean empty) {
+                super.updateItem(location, empty);
+                setText(empty || location == null ? null : location.getX());
+                setStyle(empty || location == null ? "" : cellStyle);
+            }
+        });
+        resultsList.setOnKeyPressed(ev -> {
+            final Pair<String, Integer> location = resultsList.getSelectionModel().getSelectedItem();
+            if (ev.getCode() == KeyCode.ENTER && location != null) {
+                choose(stage, location);
+            }
+        });
 
         final Button exitButton = new Button(exitBtnText);
         exitButton.setOnAction(e -> stage.close());
 
-        // Logica ricerca
-        searchField.setOnKeyReleased(event -> {
-            final String text = searchField.getText().trim();
-            resultsBox.getChildren().clear();
-
+        // Logica ricerca: un solo thread per finestra, chiuso con la finestra
+        final CitySearch search = new CitySearch(citySelector, maxResults, DEBOUNCE_MILLIS, Platform::runLater,
+            locations -> {
+                noResults.setText(noResultsText);
+                resultsList.getItems().setAll(locations);
+                resultsList.scrollTo(0);
+            },
+            error -> {
+                noResults.setText(searchErrorText);
+                resultsList.getItems().clear();
+            });
+        stage.setOnHidden(e -> search.close());
+
+        searchField.textProperty().addListener((obs, oldText, newText) -> {
+            final String text = newText.trim();
             if (text.length() < minSearchLength) {
+                search.clear();
+                noResults.setText("");
+                resultsList.getItems().clear();
                 return;
             }
-
-            final List<Pair<String, Integer>> locations = citySelector.getPossibleLocations(text);
-            if (locations.isEmpty()) {
-                final Label noResults = new Label(noResultsText);
-                noResults.setStyle(noResultsStyle);
-                resultsBox.getChildren().add(noResults);
-                return;
-            }
-
-            for (final Pair<String, Integer> location : locations) {
-                final Button cityButton = new Button(location.getX());
-                cityButton.setMaxWidth(Double.MAX_VALUE);
-                cityButton.setStyle(String.format(
-                    "-fx-background-color: %s; -fx-text-fill: %s;", btnBgColor, btnTextColor
-                ));
-                cityButton.setOnAction(ev -> {
-                    selectedId = location.getY();
-                    stage.close();
-                });
-                resultsBox.getChildren().add(cityButton);
-            }
+            search.query(text);
         });
 
-        root.getChildren().addAll(label, searchField, scrollPane, exitButton);
+        root.getChildren().addAll(label, searchField, resultsList, exitButton);
 
         final Scene scene = new Scene(root, sceneWidth, sceneHeight);
         stage.setScene(scene);
@@ -120,4 +155,9 @@ public class LocationSelectorGUI {
         return Optional.ofNullable(selectedId);
     }
 
+    private void choose(final Stage stage, final Pair<String, Integer> location) {
+        selectedId = location.getY();
+        stage.close();
+    }
+
 }
@@ -110,7 +110,7 @@ public class SettingsWindow extends Stage {
     @SuppressWarnings({"unchecked", "varargs"})
     private void openChart() {
         final Optional<Map<String, Map<String, Number>>> hourlyOpt =
-            controller.getWeatherObj().getDailyGeneralForecast();
+            controller.getDailyForecast();
         final String errorTitle = "Dati mancanti";
         final String errorMessage = "Nessun dato di temperatura disponibile.";
         if (hourlyOpt.isEmpty()) {
@@ -160,12 +160,13 @@ public class SettingsWindow extends Stage {
         chartStage.show();
     }
 
-    /** Lancia il frame Swing che mostra le fasi lunari di oggi. */
+    /** Lancia il frame Swing che mostra la fase lunare di oggi, calcolata e disegnata localmente. */
     private void openMoon() {
         // Costanti locali
         final String errorLog = "Errore nel recupero delle informazioni lunari.";
         final String errorTitle = "Errore!";
         final String errorMessage = "Errore nel recupero delle informazioni lunari.";
+        final int imageSize = 400;
 
         final Thread t = new Thread(() -> {
             final MoonPhases moon = new MoonPhasesImpl();
@@ -176,8 +177,8 @@ public class SettingsWindow extends Stage {
                 return;
             }
             ImageFromURLSwing.viewIMG(
-                moon.getImageURL(moonInfo.get().get("image_name")),
-                moonInfo.get().get("state"),
+                moon.getImage(imageSize),
+                moonInfo.get().get("state") + " (" + moonInfo.get().get("illumination") + ")",
                 "Today MOON Info"
             );
         }, "MoonInfoSwing");
@@ -0,0 +1,176 @@
+package org.app.common.impl.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.app.common.api.http.CircuitOpenException;
+import org.app.common.api.http.HttpStatusException;
+import org.app.common.api.http.HttpTransport;
+import org.app.common.api.resilience.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link HttpTransportImpl} class, run against a local HTTP server.
+ *
+ * <p>Tests include:</p>
+ * <ul>
+ *   <li>Successful responses being returned by the synchronous and asynchronous API</li>
+ *   <li>Non-successful statuses being reported as {@link HttpStatusException}</li>
+ *   <li>The circuit of a failing host opening, so that further requests are not sent</li>
+ *   <li>A body that stalls halfway failing once the request timeout expires</li>
+ * </ul>
+ */
+class HttpTransportImplTest {
+
+    private static final String BODY = "{\"città\":\"Cesena\"}";
+
+    private HttpServer server;
+    private HttpTransport transport;
+    private String baseUrl;
+    private final AtomicInteger brokenHits = new AtomicInteger();
+    private final CountDownLatch unstall = new CountDownLatch(1);
+    /** Lets a stalled handler run without holding up the other requests. */
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/ok", exchange -> {
+            final byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        this.server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        this.server.createContext("/broken", exchange -> {
+            this.brokenHits.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        this.server.createContext("/stalled", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            final OutputStream out = exchange.getResponseBody();
+            out.write(BODY.getBytes(StandardCharsets.UTF_8), 0, 4);
+            out.flush();
+            try {
+                this.unstall.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        this.server.setExecutor(this.handlers);
+        this.server.start();
+        this.baseUrl = "http://127.0.0.1:" + this.server.getAddress().getPort();
+        this.transport = new HttpTransportImpl(Duration.ofSeconds(2), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.unstall.countDown();
+        this.server.stop(0);
+        this.handlers.shutdownNow();
+    }
+
+    /**
+     * Verifies that a successful response is returned as text and as a stream, also asynchronously.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testSuccessfulResponses() throws Exception {
+        assertEquals(BODY, this.transport.getString(this.baseUrl + "/ok"));
+        assertEquals(BODY, this.transport.getStringAsync(this.baseUrl + "/ok").get());
+        try (InputStream in = this.transport.openStream(this.baseUrl + "/ok")) {
+            assertEquals(BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Verifies that a non-successful status is reported with its code.
+     */
+    @Test
+    void testErrorStatusIsReported() {
+        final HttpStatusException sync = assertThrows(HttpStatusException.class,
+                () -> this.transport.openStream(this.baseUrl + "/missing"));
+        assertEquals(404, sync.getStatusCode());
+
+        final ExecutionException async = assertThrows(ExecutionException.class,
+                () -> this.transport.getStringAsync(this.baseUrl + "/missing").get());
+        assertInstanceOf(HttpStatusException.class, async.getCause());
+    }
+
+    /**
+     * Verifies that client errors leave the circuit closed while repeated server errors open it,
+     * after which requests fail without reaching the server.
+     */
+    @Test
+    void testCircuitOpensAfterRepeatedServerErrors() {
+        final HttpTransportImpl breaking = new HttpTransportImpl(Duration.ofSeconds(2), Duration.ofSeconds(5),
+                2, Duration.ofMinutes(1), false);
+        assertThrows(HttpStatusException.class, () -> breaking.getString(this.baseUrl + "/missing"));
+        assertThrows(HttpStatusException.class, () -> breaking.getString(this.baseUrl + "/missing"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaking.getCircuitState("127.0.0.1"));
+
+        assertThrows(HttpStatusException.class, () -> breaking.getString(this.baseUrl + "/broken"));
+        assertThrows(HttpStatusException.class, () -> breaking.getString(this.baseUrl + "/broken"));
+        assertEquals(CircuitBreaker.State.OPEN, breaking.getCircuitState("127.0.0.1"));
+
+        assertThrows(CircuitOpenException.class, () -> breaking.getString(this.baseUrl + "/ok"));
+        final ExecutionException async = assertThrows(ExecutionException.class,
+                () -> breaking.getStringAsync(this.baseUrl + "/broken").get());
+        assertInstanceOf(CircuitOpenException.class, async.getCause());
+        assertEquals(2, this.brokenHits.get());
+    }
+
+    /**
+     * Verifies that reading a body the server stops sending halfway fails with a timeout instead
+     * of blocking, without leaving the reading thread interrupted.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testStalledBodyTimesOut() throws Exception {
+        final HttpTransport impatient = new HttpTransportImpl(Duration.ofSeconds(2), Duration.ofMillis(300));
+        try (InputStream in = impatient.openStream(this.baseUrl + "/stalled")) {
+            final long start = System.nanoTime();
+            assertThrows(HttpTimeoutException.class, in::readAllBytes);
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertFalse(Thread.currentThread().isInterrupted());
+            assertThrows(HttpTimeoutException.class, in::read);
+        }
+        try (InputStream in = impatient.openStreamAsync(this.baseUrl + "/stalled").get()) {
+            assertThrows(HttpTimeoutException.class, in::readAllBytes);
+        }
+        assertThrows(HttpTimeoutException.class, () -> impatient.getString(this.baseUrl + "/stalled"));
+        final ExecutionException async = assertThrows(ExecutionException.class,
+                () -> impatient.getStringAsync(this.baseUrl + "/stalled").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(HttpTimeoutException.class, async.getCause());
+    }
+}
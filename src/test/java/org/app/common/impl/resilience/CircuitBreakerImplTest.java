@@ -0,0 +1,69 @@
+package org.app.common.impl.resilience;
+
+import org.app.common.api.resilience.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link CircuitBreakerImpl} class, run with a manual clock.
+ *
+ * <p>Tests include:</p>
+ * <ul>
+ *   <li>The circuit opening after consecutive failures only</li>
+ *   <li>A single probe being let through after the cool-down, closing or reopening the circuit</li>
+ * </ul>
+ */
+class CircuitBreakerImplTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreakerImpl(3, Duration.ofSeconds(10), this.now::get);
+
+    /**
+     * Verifies that a success resets the failure count and that enough consecutive failures open the circuit.
+     */
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        this.fail(2);
+        this.breaker.onSuccess();
+        this.fail(2);
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+        this.fail(1);
+        assertEquals(CircuitBreaker.State.OPEN, this.breaker.getState());
+        assertFalse(this.breaker.tryAcquire());
+    }
+
+    /**
+     * Verifies the half-open probe: one call only, closing the circuit on success and reopening it on failure.
+     */
+    @Test
+    void testHalfOpenLetsOneProbeThrough() {
+        this.fail(3);
+        this.now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(this.breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, this.breaker.getState());
+        assertFalse(this.breaker.tryAcquire());
+        this.breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, this.breaker.getState());
+
+        this.now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(this.breaker.tryAcquire());
+        this.breaker.onCancelled();
+        assertTrue(this.breaker.tryAcquire());
+        this.breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, this.breaker.getState());
+        assertTrue(this.breaker.tryAcquire());
+    }
+
+    private void fail(final int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(this.breaker.tryAcquire());
+            this.breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.app.common.impl.resilience;
+
+import org.app.common.api.http.CircuitOpenException;
+import org.app.common.api.http.HttpStatusException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link ExponentialBackoffRetryPolicy} class, run with a recording sleeper so
+ * that no real time passes.
+ *
+ * <p>Tests include:</p>
+ * <ul>
+ *   <li>Waits doubling up to the maximum delay, scaled by the jitter</li>
+ *   <li>Attempts stopping at the first success or after the maximum number of attempts</li>
+ *   <li>Errors that are not worth retrying being rethrown immediately</li>
+ * </ul>
+ */
+class ExponentialBackoffRetryPolicyTest {
+
+    private final List<Long> waits = new ArrayList<>();
+
+    private ExponentialBackoffRetryPolicy policy(final int attempts, final double jitter) {
+        return new ExponentialBackoffRetryPolicy(attempts, Duration.ofMillis(100), Duration.ofMillis(1000),
+                () -> jitter, this.waits::add);
+    }
+
+    /**
+     * Verifies that the upper bound of the wait doubles at every retry and is capped.
+     */
+    @Test
+    void testDelaysGrowExponentiallyUpToTheCap() {
+        final ExponentialBackoffRetryPolicy full = this.policy(10, 0.999_999);
+        assertEquals(99, full.delayBefore(1).toMillis());
+        assertEquals(199, full.delayBefore(2).toMillis());
+        assertEquals(399, full.delayBefore(3).toMillis());
+        assertEquals(999, full.delayBefore(5).toMillis());
+        assertEquals(999, full.delayBefore(64).toMillis());
+        assertEquals(50, this.policy(10, 0.5).delayBefore(1).toMillis());
+    }
+
+    /**
+     * Verifies that attempts stop at the first success and wait only between attempts.
+     */
+    @Test
+    void testRunStopsAtFirstSuccess() {
+        final AtomicInteger calls = new AtomicInteger();
+        assertTrue(this.policy(5, 0.5).run(() -> calls.incrementAndGet() == 3));
+        assertEquals(3, calls.get());
+        assertEquals(List.of(50L, 100L), this.waits);
+
+        calls.set(0);
+        assertFalse(this.policy(4, 0.5).run(() -> calls.incrementAndGet() < 0));
+        assertEquals(4, calls.get());
+    }
+
+    /**
+     * Verifies that only retryable errors are retried and that the last error is rethrown.
+     */
+    @Test
+    void testCallRetriesOnlyRetryableErrors() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        assertEquals("ok", this.policy(3, 0.5).call(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new HttpStatusException(503);
+            }
+            return "ok";
+        }));
+
+        calls.set(0);
+        assertThrows(HttpStatusException.class, () -> this.policy(3, 0.5).call(() -> {
+            calls.incrementAndGet();
+            throw new HttpStatusException(404);
+        }));
+        assertEquals(1, calls.get());
+
+        calls.set(0);
+        assertThrows(CircuitOpenException.class, () -> this.policy(3, 0.5).call(() -> {
+            calls.incrementAndGet();
+            throw new CircuitOpenException("example.org");
+        }));
+        assertEquals(1, calls.get());
+
+        calls.set(0);
+        assertThrows(IOException.class, () -> this.policy(3, 0.5).call(() -> {
+            calls.incrementAndGet();
+            throw new IOException("reset");
+        }));
+        assertEquals(3, calls.get());
+    }
+}
@@ -0,0 +1,104 @@
+package org.app.common.impl.serialization;
+
+import com.google.gson.Gson;
+import org.app.travelmode.model.google.dto.directions.DirectionsLeg;
+import org.app.travelmode.model.google.dto.directions.DirectionsResponse;
+import org.app.travelmode.model.google.dto.directions.DirectionsRoute;
+import org.app.travelmode.model.google.dto.directions.DirectionsStep;
+import org.app.travelmode.model.google.dto.placeautocomplete.PlaceAutocompletePrediction;
+import org.app.travelmode.model.google.dto.placeautocomplete.PlaceAutocompleteResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link Serializers} and the Google DTO type adapters it registers.
+ */
+class SerializersTest {
+
+    private static final String PREDICTIONS = """
+            {"predictions": [{"description": "Cesena, FC, Italia", "place_id": "abc",
+              "structured_formatting": {"main_text": "Cesena", "secondary_text": "FC, Italia"},
+              "types": ["locality"]}],
+             "status": "OK"}
+            """;
+
+    @Test
+    void testInstancesAreShared() {
+        assertSame(Serializers.gson(), Serializers.gson());
+        assertSame(Serializers.jackson(), Serializers.jackson());
+    }
+
+    @Test
+    void testDirectionsMatchReflectiveBinding() throws IOException {
+        for (final String file : new String[] {"directions_valid_response.json", "directions_one_step_response.json"}) {
+            final String json = Files.readString(Paths.get("src/test/resources/" + file));
+            final DirectionsResponse expected = new Gson().fromJson(json, DirectionsResponse.class);
+            final DirectionsResponse actual = Serializers.gson().fromJson(json, DirectionsResponse.class);
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expected.getErrorMessage(), actual.getErrorMessage());
+        }
+    }
+
+    @Test
+    void testPredictions() {
+        final PlaceAutocompleteResponse response = Serializers.gson().fromJson(PREDICTIONS, PlaceAutocompleteResponse.class);
+        assertEquals("OK", response.getStatus());
+        final PlaceAutocompletePrediction prediction = response.getPredictions().get(0);
+        assertEquals("abc", prediction.getPlaceId());
+        assertEquals("Cesena", prediction.getStructuredFormatting().getMainText());
+        assertEquals("FC, Italia", prediction.getStructuredFormatting().getSecondaryText());
+
+        final PlaceAutocompleteResponse empty = Serializers.gson().fromJson("{\"status\": \"ZERO_RESULTS\"}",
+                PlaceAutocompleteResponse.class);
+        assertTrue(empty.getPredictions().isEmpty());
+    }
+
+    @Test
+    void testProjectedDirectionsKeepOnlyAnalysisFields() throws IOException {
+        final String json = Files.readString(Paths.get("src/test/resources/directions_valid_response.json"));
+        final DirectionsResponse full = Serializers.gson().fromJson(json, DirectionsResponse.class);
+        final DirectionsResponse projected = Serializers.projectedGson().fromJson(json, DirectionsResponse.class);
+
+        assertEquals(full.getStatus(), projected.getStatus());
+        assertEquals(full.getRoutes().size(), projected.getRoutes().size());
+        for (int r = 0; r < full.getRoutes().size(); r++) {
+            final DirectionsRoute expected = full.getRoutes().get(r);
+            final DirectionsRoute actual = projected.getRoutes().get(r);
+            assertEquals(expected.getSummary(), actual.getSummary());
+            assertEquals(expected.getOverviewPolyline().getPoints(), actual.getOverviewPolyline().getPoints());
+            assertNull(actual.getBounds());
+            for (int l = 0; l < expected.getLegs().size(); l++) {
+                final DirectionsLeg leg = actual.getLegs().get(l);
+                assertNull(leg.getEndAddress());
+                assertEquals(expected.getLegs().get(l).getDuration().getValue(), leg.getDuration().getValue());
+                final List<DirectionsStep> steps = expected.getLegs().get(l).getSteps();
+                assertEquals(steps.size(), leg.getSteps().size());
+                for (int s = 0; s < steps.size(); s++) {
+                    final DirectionsStep step = leg.getSteps().get(s);
+                    assertEquals(steps.get(s).getPolyline().getPoints(), step.getPolyline().getPoints());
+                    assertEquals(steps.get(s).getStartLocation(), step.getStartLocation());
+                    assertEquals(steps.get(s).getEndLocation(), step.getEndLocation());
+                    assertEquals(steps.get(s).getDistance().getValue(), step.getDistance().getValue());
+                    assertEquals(steps.get(s).getDuration().getValue(), step.getDuration().getValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        final String json = Files.readString(Paths.get("src/test/resources/directions_one_step_response.json"));
+        final DirectionsResponse response = Serializers.gson().fromJson(json, DirectionsResponse.class);
+        final String written = Serializers.gson().toJson(response);
+        assertEquals(response.toString(), Serializers.gson().fromJson(written, DirectionsResponse.class).toString());
+    }
+}
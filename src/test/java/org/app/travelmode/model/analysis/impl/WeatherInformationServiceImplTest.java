@@ -0,0 +1,160 @@
+package org.app.travelmode.model.analysis.impl;
+
+import org.app.common.api.weather.WeatherDataProvider;
+import org.app.common.api.weather.WeatherFetchException;
+import org.app.common.api.weather.WeatherQuery;
+import org.app.travelmode.model.checkpoint.api.Checkpoint;
+import org.app.travelmode.model.checkpoint.api.CheckpointWithMeteo;
+import org.app.travelmode.model.checkpoint.impl.CheckpointImpl;
+import org.app.travelmode.model.exception.WeatherDataException;
+import org.app.travelmode.model.weather.impl.WeatherConditionFactoryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link WeatherInformationServiceImpl} class.
+ *
+ * <p>Tests include:</p>
+ * <ul>
+ *   <li>All the checkpoints of a route being resolved with a single batch lookup</li>
+ *   <li>Missing weather data for one checkpoint being reported as a {@link WeatherDataException}</li>
+ *   <li>A failed download being reported with the checkpoints it affected</li>
+ * </ul>
+ */
+class WeatherInformationServiceImplTest {
+
+    private static final ZonedDateTime DEPARTURE = ZonedDateTime.of(2025, 6, 27, 10, 0, 0, 0, ZoneId.of("Europe/Rome"));
+    private static final Map<String, Number> CLEAR_WEATHER = Map.of(
+            "precipitation", 0.0,
+            "snowfall", 0.0,
+            "freezing_level_height", 3500.0,
+            "weather_code", 0,
+            "wind_gusts", 10.0,
+            "visibility", 20_000.0
+    );
+
+    /**
+     * Verifies that enriching a list of checkpoints makes a single batch call and preserves the order.
+     *
+     * @throws WeatherDataException if weather information cannot be retrieved
+     */
+    @Test
+    void testEnrichWithWeatherUsesSingleBatch() throws WeatherDataException {
+        final FakeWeatherDataProvider provider = new FakeWeatherDataProvider(false);
+        final WeatherInformationServiceImpl service =
+                new WeatherInformationServiceImpl(new WeatherConditionFactoryImpl(), provider);
+        final List<Checkpoint> checkpoints = List.of(
+                new CheckpointImpl(44.49, 11.34, DEPARTURE),
+                new CheckpointImpl(44.06, 12.56, DEPARTURE.plusMinutes(50)),
+                new CheckpointImpl(43.61, 13.51, DEPARTURE.plusMinutes(95))
+        );
+
+        final List<CheckpointWithMeteo> result = service.enrichWithWeather(checkpoints);
+
+        assertEquals(1, provider.batchCalls);
+        assertEquals(checkpoints.size(), provider.lastQueries.size());
+        assertEquals(checkpoints.size(), result.size());
+        for (int i = 0; i < checkpoints.size(); i++) {
+            assertEquals(checkpoints.get(i).getLatitude(), result.get(i).getLatitude());
+            assertEquals(checkpoints.get(i).getArrivalDateTime().toLocalDateTime(),
+                    provider.lastQueries.get(i).getDateTime());
+        }
+    }
+
+    /**
+     * Verifies that a checkpoint without weather data makes the whole enrichment fail.
+     */
+    @Test
+    void testMissingWeatherDataThrows() {
+        final WeatherInformationServiceImpl service =
+                new WeatherInformationServiceImpl(new WeatherConditionFactoryImpl(), new FakeWeatherDataProvider(true));
+        final List<Checkpoint> checkpoints = List.of(
+                new CheckpointImpl(44.49, 11.34, DEPARTURE),
+                new CheckpointImpl(44.06, 12.56, DEPARTURE.plusMinutes(50))
+        );
+
+        assertThrows(WeatherDataException.class, () -> service.enrichWithWeather(checkpoints));
+    }
+
+    /**
+     * Verifies that checkpoints whose weather data could not be downloaded are named in the exception.
+     */
+    @Test
+    void testFailedDownloadNamesCheckpoints() {
+        final WeatherInformationServiceImpl service =
+                new WeatherInformationServiceImpl(new WeatherConditionFactoryImpl(), new FailingWeatherDataProvider());
+        final List<Checkpoint> checkpoints = List.of(
+                new CheckpointImpl(44.49, 11.34, DEPARTURE),
+                new CheckpointImpl(44.06, 12.56, DEPARTURE.plusMinutes(50))
+        );
+
+        final WeatherDataException e =
+                assertThrows(WeatherDataException.class, () -> service.enrichWithWeather(checkpoints));
+        assertInstanceOf(WeatherFetchException.class, e.getCause());
+        assertTrue(e.getMessage().contains("44.06,12.56"));
+        assertFalse(e.getMessage().contains("44.49,11.34"));
+    }
+
+    /**
+     * Fake provider that records batch calls and answers with clear weather.
+     */
+    private static final class FakeWeatherDataProvider implements WeatherDataProvider {
+
+        private final boolean missingLast;
+        private int batchCalls;
+        private List<WeatherQuery> lastQueries = List.of();
+
+        FakeWeatherDataProvider(final boolean missingLast) {
+            this.missingLast = missingLast;
+        }
+
+        @Override
+        public Optional<Map<String, Number>> getWeatherInfo(final double lat, final double lng,
+                                                            final LocalDateTime dateTime) {
+            return Optional.of(CLEAR_WEATHER);
+        }
+
+        @Override
+        public List<Optional<Map<String, Number>>> getWeatherInfo(final List<WeatherQuery> queries) {
+            this.batchCalls++;
+            this.lastQueries = queries;
+            final List<Optional<Map<String, Number>>> out = new ArrayList<>();
+            for (int i = 0; i < queries.size(); i++) {
+                out.add(this.missingLast && i == queries.size() - 1 ? Optional.empty() : Optional.of(CLEAR_WEATHER));
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Fake provider whose download of the second query fails.
+     */
+    private static final class FailingWeatherDataProvider implements WeatherDataProvider {
+
+        @Override
+        public Optional<Map<String, Number>> getWeatherInfo(final double lat, final double lng,
+                                                            final LocalDateTime dateTime) {
+            return Optional.of(CLEAR_WEATHER);
+        }
+
+        @Override
+        public List<Optional<Map<String, Number>>> getWeatherInfo(final List<WeatherQuery> queries)
+                throws WeatherFetchException {
+            throw new WeatherFetchException("down", List.of(1), new ConnectException("refused"));
+        }
+    }
+}
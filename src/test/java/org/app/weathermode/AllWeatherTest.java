@@ -75,22 +75,6 @@ class AllWeatherTest {
     /*  Metodi privati (reflection)                               */
     /* ---------------------------------------------------------- */
 
-    @Test
-    void roundToNearestQuarterShouldRoundCorrectly() {
-        assertDoesNotThrow(() -> {
-            final Method round = AllWeather.class
-                    .getDeclaredMethod("roundToNearestQuarter", String.class);
-            round.setAccessible(true); // NOPMD
-
-            assertAll("arrotondamento 15′",
-                () -> assertEquals("13:30", round.invoke(underTest, "13:34")),
-                () -> assertEquals("13:30", round.invoke(underTest, "13:37")),
-                () -> assertEquals("14:00", round.invoke(underTest, "13:53")),
-                () -> assertEquals("00:00", round.invoke(underTest, "23:59"))
-            );
-        });
-    }
-
     @Test
     void checkMinutesPassedShouldRespectThreshold() {
         assertDoesNotThrow(() -> {
@@ -0,0 +1,242 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.app.common.api.http.HttpStatusException;
+import org.app.common.api.http.HttpTransport;
+import org.app.weathermode.model.cityinfo.CityInfoService;
+import org.app.weathermode.model.cityinfo.CityInfoServiceImpl;
+import org.app.weathermode.model.weather.AsyncWeather;
+import org.app.weathermode.model.weather.AsyncWeatherImpl;
+import org.app.weathermode.model.weather.ForecastCache;
+import org.app.weathermode.model.weather.WeatherRequestException;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link AsyncWeatherImpl} con un trasporto HTTP fittizio: decodifica
+ * delle risposte, uso della cache e mappatura degli errori sui motivi di
+ * {@link WeatherRequestException}.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class AsyncWeatherTest {
+
+    private static final String FORECAST = """
+        {
+          "elevation": 25.0,
+          "current": {"time": "2025-06-27T10:00", "interval": 900, "temperature_2m": 24.5,
+            "relative_humidity_2m": 55, "apparent_temperature": 25.1, "is_day": 1, "precipitation": 0.0,
+            "weather_code": 1, "cloud_cover": 20, "wind_speed_10m": 8.0, "wind_direction_10m": 200},
+          "hourly": {
+            "time": ["2025-06-27T10:00", "2025-06-27T11:00"],
+            "temperature_2m": [24.5, 25.5], "relative_humidity_2m": [55, 50],
+            "apparent_temperature": [25.1, 26.0], "precipitation_probability": [0, 5],
+            "precipitation": [0.0, 0.0], "weather_code": [1, 2], "wind_speed_10m": [8.0, 9.0],
+            "wind_direction_10m": [200, 210], "pressure_msl": [1015.0, 1014.6], "soil_temperature_0cm": [30.0, 31.2]
+          },
+          "daily": {
+            "time": ["2025-06-27"], "weather_code": [2], "temperature_2m_max": [31.0],
+            "temperature_2m_min": [19.0], "sunrise": ["2025-06-27T05:36"], "sunset": ["2025-06-27T21:01"],
+            "daylight_duration": [55000.0], "sunshine_duration": [48000.0], "uv_index_max": [8.0]
+          }
+        }
+        """;
+
+    private static final String DETAILS = """
+        {"minutely_15": {"time": ["2025-06-27T00:00", "2025-06-27T00:15"],
+          "precipitation": [0.0, 0.4], "snowfall": [0.0, 0.0], "freezing_level_height": [4000.0, 3990.0],
+          "weather_code": [0, 61], "wind_gusts_10m": [12.0, 15.0], "visibility": [24000.0, 9000.0]}}
+        """;
+
+    private static final Map<String, String> CESENA =
+        Map.of("lat", "44.1391", "lng", "12.2431", "city_ascii", "Cesena", "population", "97000");
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void forecastShouldBeDecodedAndCached() throws Exception {
+        final FakeTransport transport = new FakeTransport();
+        final AsyncWeather weather = new AsyncWeatherImpl(transport, new ForecastCache(Duration.ofMinutes(5), 2),
+            this.cityInfo(transport));
+
+        final ForecastCache.Entry entry = weather.requestAllForecast(CESENA).get();
+        assertEquals(2, entry.getForecast().hours());
+        assertEquals(1, entry.getNow().get("weather_code").intValue());
+        assertEquals(25.0, entry.getCityInfo().get("meters_above_sea").doubleValue());
+        assertEquals(97_000, entry.getCityInfo().get("inhabitants").intValue());
+        assertEquals(0, transport.scrapes.get());
+
+        final int requests = transport.requests.get();
+        assertSame(entry, weather.requestAllForecast(CESENA).get());
+        assertEquals(requests, transport.requests.get());
+    }
+
+    @Test
+    void bodiesShouldBeReceivedAsynchronouslyAndDecodedOnTheGivenExecutor() throws Exception {
+        final FakeTransport transport = new FakeTransport();
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        final ExecutorService pool = Executors.newSingleThreadExecutor(r -> new Thread(r, "decode-test"));
+        try {
+            final AsyncWeather weather = new AsyncWeatherImpl(transport, new ForecastCache(Duration.ofMinutes(5), 2),
+                this.cityInfo(transport), task -> pool.execute(() -> {
+                    threads.add(Thread.currentThread().getName());
+                    task.run();
+                }));
+
+            assertEquals(2, weather.requestAllForecast(CESENA).get().getForecast().hours());
+            /* nessuna lettura bloccante di uno stream sui thread dell’esecutore */
+            assertEquals(0, transport.streams.get());
+            assertEquals(1, transport.requests.get());
+            /* decodifica e aggiornamento di cache e informazioni città */
+            assertEquals(List.of("decode-test", "decode-test"), threads);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void elevationShouldBeServedByTheCityInfoService() throws Exception {
+        final FakeTransport transport = new FakeTransport();
+        final CityInfoService cityInfo = this.cityInfo(transport);
+        cityInfo.recordElevation(CESENA, 44.0);
+        transport.forecast = FORECAST.replace("\"elevation\": 25.0,", "");
+
+        final AsyncWeather weather = new AsyncWeatherImpl(transport, new ForecastCache(Duration.ofMinutes(5), 2),
+            cityInfo);
+        assertEquals(44.0, weather.requestAllForecast(CESENA).get().getCityInfo().get("meters_above_sea"));
+
+        transport.forecast = FORECAST;
+        final AsyncWeather refreshed = new AsyncWeatherImpl(transport, new ForecastCache(Duration.ofMinutes(5), 2),
+            cityInfo);
+        assertEquals(25.0, refreshed.requestAllForecast(CESENA).get().getCityInfo().get("meters_above_sea"));
+        assertEquals(Optional.of(25.0), cityInfo.getElevation(CESENA));
+    }
+
+    @Test
+    void failuresShouldBeTyped() {
+        final FakeTransport transport = new FakeTransport();
+        final AsyncWeather weather = new AsyncWeatherImpl(transport, new ForecastCache(Duration.ofMinutes(5), 2),
+            this.cityInfo(transport));
+
+        transport.status = 503;
+        assertEquals(WeatherRequestException.Reason.HTTP_STATUS, reasonOf(weather.getWeatherNow(CESENA)));
+
+        transport.status = 200;
+        transport.forecast = "{\"current\": {\"time\": \"2025-06-27T10:00\"}}";
+        assertEquals(WeatherRequestException.Reason.INVALID_RESPONSE, reasonOf(weather.getWeatherNow(CESENA)));
+
+        transport.forecast = "{\"current\": {";
+        assertEquals(WeatherRequestException.Reason.INVALID_RESPONSE, reasonOf(weather.getWeatherNow(CESENA)));
+    }
+
+    @Test
+    void bodyFailuresShouldKeepTheirType() {
+        final FakeTransport transport = new FakeTransport();
+        final AsyncWeather weather = new AsyncWeatherImpl(transport, new ForecastCache(Duration.ofMinutes(5), 2),
+            this.cityInfo(transport));
+
+        transport.failure = new HttpTimeoutException("Response body not received within 30000 ms");
+        assertEquals(WeatherRequestException.Reason.TIMEOUT, reasonOf(weather.getWeatherNow(CESENA)));
+
+        transport.failure = new EOFException("connection closed in the middle of the body");
+        assertEquals(WeatherRequestException.Reason.NETWORK, reasonOf(weather.requestAllForecast(CESENA)));
+    }
+
+    @Test
+    void weatherOnShouldReadQuarterSlots() throws Exception {
+        final FakeTransport transport = new FakeTransport();
+        final AsyncWeather weather = new AsyncWeatherImpl(transport, new ForecastCache(), this.cityInfo(transport));
+        final Map<String, String> place = Map.of("lat", "-12.3456", "lng", "-45.6789");
+
+        final Map<String, Number> rain = weather.getWeatherOn(place, LocalDateTime.of(2025, 6, 27, 0, 11)).get();
+        assertEquals(61, rain.get("weather_code").intValue());
+
+        assertEquals(WeatherRequestException.Reason.NO_DATA,
+            reasonOf(weather.getWeatherOn(place, LocalDateTime.of(2025, 6, 27, 1, 0))));
+    }
+
+    private CityInfoService cityInfo(final HttpTransport transport) {
+        return new CityInfoServiceImpl(this.dir.resolve("city_info.json"), transport, Duration.ZERO);
+    }
+
+    private static WeatherRequestException.Reason reasonOf(final CompletableFuture<?> future) {
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        return assertInstanceOf(WeatherRequestException.class, e.getCause()).getReason();
+    }
+
+    /**
+     * Trasporto che risponde con contenuti fissi in base all’URL.
+     */
+    private static final class FakeTransport implements HttpTransport {
+
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger scrapes = new AtomicInteger();
+        private final AtomicInteger streams = new AtomicInteger();
+        private volatile int status = 200;
+        private volatile String forecast = FORECAST;
+        /** Errore con cui fallisce la ricezione del corpo, se presente. */
+        private volatile IOException failure;
+
+        @Override
+        public InputStream openStream(final String url) {
+            return new ByteArrayInputStream(this.body(url).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String getString(final String url) {
+            return this.body(url);
+        }
+
+        @Override
+        public CompletableFuture<InputStream> openStreamAsync(final String url) {
+            this.streams.incrementAndGet();
+            return this.getStringAsync(url)
+                .thenApply(body -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public CompletableFuture<String> getStringAsync(final String url) {
+            this.requests.incrementAndGet();
+            if (this.status != 200) {
+                return CompletableFuture.failedFuture(new HttpStatusException(this.status));
+            }
+            if (this.failure != null) {
+                return CompletableFuture.failedFuture(this.failure);
+            }
+            return CompletableFuture.supplyAsync(() -> this.body(url));
+        }
+
+        private String body(final String url) {
+            if (url.contains("ilmeteo")) {
+                this.scrapes.incrementAndGet();
+                return "<html><body><div class=\"infoloc\">Cesena conta 97.000 abitanti</div></body></html>";
+            }
+            return url.contains("minutely_15") ? DETAILS : this.forecast;
+        }
+    }
+
+}
+// CHECKSTYLE: MagicNumber ON
@@ -0,0 +1,91 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.app.weathermode.model.csv.CSVRow;
+import org.app.weathermode.model.csv.CSVStdParser;
+
+/**
+ * Test per le API a flusso di {@link CSVStdParser}.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class CSVStdParserTest {
+
+    private static final String CSV = """
+        "city","country","population","id"
+        "Roma","Italy","2872800","1"
+        "Forlì","Italy","117000","2"
+        "Short"
+        """;
+
+    @Test
+    void testHeaderDoesNotConsumeRows() throws Exception { // NOPMD
+        try (CSVStdParser parser = new CSVStdParser(new StringReader(CSV))) {
+            assertEquals(List.of("city", "country", "population", "id"), parser.getHeader());
+            assertSame(parser.getHeader(), parser.getHeader());
+            final List<Map<String, String>> rows = parser.readCSVToMap();
+            assertEquals(3, rows.size());
+            assertEquals(Map.of("city", "Roma", "country", "Italy", "population", "2872800", "id", "1"), rows.get(0));
+            assertEquals("", rows.get(2).get("id"));
+        }
+    }
+
+    @Test
+    void testProjectedStreaming() throws Exception { // NOPMD
+        final List<String> seen = new ArrayList<>();
+        try (CSVStdParser parser = new CSVStdParser(new StringReader(CSV))) {
+            parser.forEachRow(List.of("id", "city"), row -> {
+                assertEquals(List.of("id", "city"), row.columns());
+                assertEquals(2, row.size());
+                assertEquals(row.get("city"), row.get(1));
+                assertThrows(IllegalArgumentException.class, () -> row.get("country"));
+                seen.add(row.get("id") + ":" + row.get("city"));
+            });
+        }
+        assertEquals(List.of("1:Roma", "2:Forlì", ":Short"), seen);
+
+        try (CSVStdParser parser = new CSVStdParser(new StringReader(CSV))) {
+            assertThrows(IllegalArgumentException.class, () -> parser.forEachRow(List.of("lat"), row -> { }));
+        }
+    }
+
+    @Test
+    void testParallelChunks() throws Exception { // NOPMD
+        final StringBuilder csv = new StringBuilder("\"id\",\"name\"\n");
+        for (int i = 0; i < 10_000; i++) {
+            csv.append(i).append(",\"n").append(i).append("\"\n");
+        }
+        final Map<String, String> seen = new ConcurrentHashMap<>();
+        try (CSVStdParser parser = new CSVStdParser(new StringReader(csv.toString()))) {
+            parser.parallelForEach(List.of("name", "id"), 128, 4, row -> seen.put(row.get("id"), row.get("name")));
+        }
+        assertEquals(10_000, seen.size());
+        assertEquals("n9999", seen.get("9999"));
+
+        final List<CSVRow> kept = Collections.synchronizedList(new ArrayList<>());
+        try (CSVStdParser parser = new CSVStdParser(new StringReader(csv.toString()))) {
+            parser.parallelForEach(List.of("id"), 1000, 2, kept::add);
+        }
+        assertEquals(10_000, kept.stream().map(row -> row.get(0)).distinct().count());
+
+        try (CSVStdParser parser = new CSVStdParser(new StringReader(csv.toString()))) {
+            assertThrows(IllegalStateException.class, () -> parser.parallelForEach(List.of("id"), 100, 3, row -> {
+                if ("5000".equals(row.get("id"))) {
+                    throw new IllegalStateException("boom");
+                }
+            }));
+            assertThrows(IllegalArgumentException.class, () -> parser.parallelForEach(List.of("id"), 0, 1, r -> { }));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.app.weathermode.model.lookup.CachedIPLookUp;
+import org.app.weathermode.model.lookup.LookUp;
+import org.app.weathermode.model.pair.Pair;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link CachedIPLookUp}: nessuna richiesta di rete, i servizi sono
+ * sostituiti da {@link LookUp} fittizi con latenza e risposta prefissate.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class CachedIPLookUpTest {
+
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @TempDir
+    private Path dir;
+
+    private final AtomicLong now = new AtomicLong(1_751_054_400_000L);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void fastestValidProviderShouldWin() {
+        final CachedIPLookUp lookUp = this.lookUp(Optional.of("1.1.1.1"),
+            this.provider(new Answer("1.1.1.1", "IT", "Milan", 45.46, 9.19), 2_000),
+            this.provider(new Answer("1.1.1.1", "IT", "Rome", 41.89, 12.48), 0));
+
+        final long start = System.nanoTime();
+        assertEquals(Optional.of(Boolean.TRUE), lookUp.lookup());
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(1_500).toNanos());
+        assertEquals("Rome", lookUp.getCity());
+        assertEquals(new Pair<>(41.89, 12.48), lookUp.getCoords());
+    }
+
+    @Test
+    void invalidAnswersShouldBeIgnored() {
+        final CachedIPLookUp lookUp = this.lookUp(Optional.of("1.1.1.1"),
+            this.provider(new Answer("1.1.1.1", "", "Nowhere", 0.0, 0.0), 0),
+            this.provider(new Answer("1.1.1.1", "IT", "Rome", 41.89, 12.48), 200));
+
+        assertEquals(Optional.of(Boolean.TRUE), lookUp.lookup());
+        assertEquals("Rome", lookUp.getCity());
+    }
+
+    @Test
+    void cachedLocationShouldBeReusedForSameIp() {
+        final Supplier<LookUp> rome = this.provider(new Answer("1.1.1.1", "IT", "Rome", 41.89, 12.48), 0);
+        assertTrue(this.lookUp(Optional.of("1.1.1.1"), rome).lookup().isPresent());
+        assertEquals(1, this.calls.get());
+
+        this.now.addAndGet(Duration.ofHours(1).toMillis());
+        final CachedIPLookUp second = this.lookUp(Optional.of("1.1.1.1"), rome);
+        assertTrue(second.lookup().isPresent());
+        assertEquals(1, this.calls.get());
+        assertEquals("Rome", second.getCity());
+        assertEquals("IT", second.getCountryCode());
+    }
+
+    @Test
+    void changedIpOrExpiredCacheShouldQueryProviders() {
+        final Supplier<LookUp> rome = this.provider(new Answer("1.1.1.1", "IT", "Rome", 41.89, 12.48), 0);
+        assertTrue(this.lookUp(Optional.of("1.1.1.1"), rome).lookup().isPresent());
+
+        final Supplier<LookUp> milan = this.provider(new Answer("2.2.2.2", "IT", "Milan", 45.46, 9.19), 0);
+        final CachedIPLookUp moved = this.lookUp(Optional.of("2.2.2.2"), milan);
+        assertTrue(moved.lookup().isPresent());
+        assertEquals("Milan", moved.getCity());
+        assertEquals(2, this.calls.get());
+
+        this.now.addAndGet(TTL.toMillis());
+        assertTrue(this.lookUp(Optional.of("2.2.2.2"), milan).lookup().isPresent());
+        assertEquals(3, this.calls.get());
+    }
+
+    @Test
+    void failureShouldFallBackToFreshCacheOnlyWhenIpIsUnknown() {
+        final Supplier<LookUp> rome = this.provider(new Answer("1.1.1.1", "IT", "Rome", 41.89, 12.48), 0);
+        assertTrue(this.lookUp(Optional.of("1.1.1.1"), rome).lookup().isPresent());
+
+        final Supplier<LookUp> failing = this.provider(null, 0);
+        final CachedIPLookUp offline = this.lookUp(Optional.empty(), failing);
+        assertTrue(offline.lookup().isPresent());
+        assertEquals("Rome", offline.getCity());
+
+        final CachedIPLookUp moved = this.lookUp(Optional.of("2.2.2.2"), failing);
+        assertTrue(moved.lookup().isEmpty());
+        assertEquals("", moved.getCity());
+        assertNull(moved.getCoords());
+    }
+
+    @Test
+    void corruptedCacheShouldBeIgnored() throws IOException {
+        Files.writeString(this.dir.resolve("ip.json"), "{not json");
+        final CachedIPLookUp lookUp = this.lookUp(Optional.of("1.1.1.1"),
+            this.provider(new Answer("1.1.1.1", "IT", "Rome", 41.89, 12.48), 0));
+        assertTrue(lookUp.lookup().isPresent());
+        assertEquals("Rome", lookUp.getCity());
+    }
+
+    @SafeVarargs
+    private CachedIPLookUp lookUp(final Optional<String> publicIp, final Supplier<LookUp>... providers) {
+        return new CachedIPLookUp(this.dir.resolve("ip.json"), TTL, TIMEOUT, List.of(providers),
+            () -> publicIp, this.now::get);
+    }
+
+    private Supplier<LookUp> provider(final Answer answer, final long delayMillis) {
+        return () -> new FakeLookUp(answer, delayMillis, this.calls);
+    }
+
+    /** Risposta di un servizio fittizio. */
+    private record Answer(String ip, String countryCode, String city, double lat, double lng) { }
+
+    /** Servizio fittizio: attende, poi risponde o fallisce se la risposta è <code>null</code>. */
+    private static final class FakeLookUp implements LookUp {
+        private final Answer answer;
+        private final long delayMillis;
+        private final AtomicInteger calls;
+
+        FakeLookUp(final Answer answer, final long delayMillis, final AtomicInteger calls) {
+            this.answer = answer;
+            this.delayMillis = delayMillis;
+            this.calls = calls;
+        }
+
+        @Override
+        public Optional<Boolean> lookup() {
+            this.calls.incrementAndGet();
+            try {
+                Thread.sleep(this.delayMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+            return this.answer == null ? Optional.empty() : Optional.of(Boolean.TRUE);
+        }
+
+        @Override
+        public String getIP() {
+            return this.answer.ip();
+        }
+
+        @Override
+        public String getCountryCode() {
+            return this.answer.countryCode();
+        }
+
+        @Override
+        public String getCountry() {
+            return "Italy";
+        }
+
+        @Override
+        public String getRegion() {
+            return "";
+        }
+
+        @Override
+        public String getCity() {
+            return this.answer.city();
+        }
+
+        @Override
+        public String getZipCode() {
+            return "";
+        }
+
+        @Override
+        public String getTimeZone() {
+            return "Europe/Rome";
+        }
+
+        @Override
+        public Pair<Double, Double> getCoords() {
+            return new Pair<>(this.answer.lat(), this.answer.lng());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.app.weathermode.model.csv.CSVStdParser;
+import org.app.weathermode.model.locationselector.CityDatabase;
+import org.app.weathermode.model.locationselector.CityDatabaseWriter;
+
+/**
+ * Test per {@link CityDatabaseWriter} e {@link CityDatabase}: ogni riga letta
+ * dal file binario deve coincidere con quella letta dal CSV.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class CityDatabaseTest {
+
+    private static final String CSV = """
+        "city","city_ascii","lat","lng","country","iso2","admin_name","capital","population","id"
+        "Roma","Roma","41.8933","12.4828","Italy","IT","Lazio","primary","2872800","1380382862"
+        "Forlì","Forli","44.2225","12.0408","Italy","IT","Emilia-Romagna","minor","117000","1380526016"
+        "Cesena","Cesena","44.1333","12.2333","Italy","IT","Emilia-Romagna","","","1380296919"
+        "Quito","Quito","-0.22","-78.5125","Ecuador","EC","Pichincha","primary","2011388","1218441993"
+        "Null Island","Null Island","0","12","Nowhere, Sea","XX","","","0.5","7"
+        """;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void testRowsMatchCsv() throws Exception { // NOPMD
+        final CityDatabase db = compile(CSV);
+        final List<Map<String, String>> expected;
+        try (CSVStdParser parser = new CSVStdParser(new StringReader(CSV))) {
+            expected = parser.readCSVToMap();
+        }
+        assertEquals(expected.size(), db.size());
+        assertEquals(List.of("city", "city_ascii", "lat", "lng", "country", "iso2", "admin_name", "capital",
+            "population", "id"), db.columns());
+        for (int row = 0; row < db.size(); row++) {
+            assertEquals(expected.get(row), db.row(row));
+            assertEquals(row, db.rowOf(Integer.parseInt(expected.get(row).get("id"))));
+        }
+        assertEquals(-1, db.rowOf(0));
+        assertEquals(-1, db.column("missing"));
+    }
+
+    @Test
+    void testNumericColumns() throws Exception { // NOPMD
+        final CityDatabase db = compile(CSV);
+        final int population = db.column("population");
+        assertEquals(2_872_800, db.getDouble(0, population), 0);
+        assertTrue(Double.isNaN(db.getDouble(2, population)));
+        assertEquals(0.5, db.getDouble(4, population), 0);
+        assertEquals(-78.5125, db.getDouble(3, db.column("lng")), 0);
+        assertEquals("-0.22", db.get(3, db.column("lat")));
+    }
+
+    @Test
+    void testOpenMappedFile() throws Exception { // NOPMD
+        final Path csv = dir.resolve("worldcities.csv");
+        final Path bin = dir.resolve("files/worldcities.bin");
+        Files.writeString(csv, CSV);
+        CityDatabaseWriter.main(new String[] {csv.toString(), bin.toString()});
+
+        final CityDatabase db = CityDatabase.open(bin.toUri().toURL());
+        assertEquals("Forlì", db.row(db.rowOf(1_380_526_016)).get("city"));
+        assertEquals("Nowhere, Sea", db.get(4, db.column("country")));
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> CityDatabase.wrap(ByteBuffer.wrap(new byte[32])));
+        assertThrows(IllegalArgumentException.class, () -> compile("\"city\",\"population\"\n\"Roma\",\"1\"\n"));
+        assertThrows(IllegalArgumentException.class, () -> compile("\"city\",\"id\"\n\"Roma\",\"x1\"\n"));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertDoesNotThrow(() -> CityDatabaseWriter.compile(new StringReader(CSV), out));
+        final byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 4);
+        assertThrows(IllegalArgumentException.class, () -> CityDatabase.wrap(ByteBuffer.wrap(truncated)));
+    }
+
+    private static CityDatabase compile(final String csv) throws Exception { // NOPMD
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CityDatabaseWriter.compile(new StringReader(csv), out);
+        return CityDatabase.wrap(ByteBuffer.wrap(out.toByteArray()));
+    }
+}
@@ -0,0 +1,128 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.app.common.api.http.HttpTransport;
+import org.app.weathermode.model.cityinfo.CityInfoService;
+import org.app.weathermode.model.cityinfo.CityInfoServiceImpl;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link CityInfoServiceImpl}: popolazione letta dalla riga del CSV,
+ * recupero in background per le città senza dato e persistenza su disco.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class CityInfoServiceTest {
+
+    private static final Map<String, String> CESENA = Map.of(
+        "id", "1380000001", "city_ascii", "Cesena", "lat", "44.1391", "lng", "12.2431", "population", "97000");
+    private static final Map<String, String> BERTINORO = Map.of(
+        "id", "1380000002", "city_ascii", "Bertinoro", "lat", "44.1489", "lng", "12.1347", "population", "");
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void populationShouldComeFromCsvWithoutRequests() {
+        final CountingTransport transport = new CountingTransport();
+        final CityInfoService service = this.service(transport);
+
+        assertEquals(Optional.of(97_000), service.getInhabitants(CESENA));
+        assertEquals(0, transport.requests.get());
+    }
+
+    @Test
+    void missingPopulationShouldBeBackfilledAndPersisted() throws InterruptedException {
+        final CountingTransport transport = new CountingTransport();
+        final CityInfoService service = this.service(transport);
+
+        assertEquals(Optional.empty(), service.getInhabitants(BERTINORO));
+        service.recordElevation(BERTINORO, 254.0);
+        assertEquals(Optional.of(254.0), service.getElevation(BERTINORO));
+
+        assertEquals(Optional.of(10_900), await(() -> service.getInhabitants(BERTINORO)));
+        assertEquals(1, transport.requests.get());
+
+        final Path file = this.dir.resolve("city_info.json");
+        await(() -> Optional.of(file).filter(f -> Files.exists(f) && read(f).contains("10900")));
+        final CountingTransport offline = new CountingTransport();
+        final CityInfoService reloaded = this.service(offline);
+        assertEquals(Optional.of(10_900), reloaded.getInhabitants(BERTINORO));
+        assertEquals(Optional.of(254.0), reloaded.getElevation(BERTINORO));
+        assertEquals(0, offline.requests.get());
+    }
+
+    private CityInfoService service(final HttpTransport transport) {
+        return new CityInfoServiceImpl(this.dir.resolve("city_info.json"), transport, Duration.ZERO);
+    }
+
+    private static String read(final Path file) {
+        try {
+            return Files.readString(file);
+        } catch (final IOException e) {
+            return "";
+        }
+    }
+
+    private static <T> Optional<T> await(final Supplier<Optional<T>> probe) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            final Optional<T> value = probe.get();
+            if (value.isPresent()) {
+                return value;
+            }
+            Thread.sleep(25);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Trasporto che risponde con una pagina ilMeteo.it fissa e conta le richieste.
+     */
+    private static final class CountingTransport implements HttpTransport {
+
+        private static final String PAGE =
+            "<html><body><div class=\"infoloc\">Bertinoro conta 10.900 abitanti</div></body></html>";
+
+        private final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        public InputStream openStream(final String url) {
+            return new ByteArrayInputStream(this.getString(url).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String getString(final String url) {
+            this.requests.incrementAndGet();
+            return PAGE;
+        }
+
+        @Override
+        public CompletableFuture<InputStream> openStreamAsync(final String url) {
+            return CompletableFuture.completedFuture(this.openStream(url));
+        }
+
+        @Override
+        public CompletableFuture<String> getStringAsync(final String url) {
+            return CompletableFuture.completedFuture(this.getString(url));
+        }
+    }
+
+}
+// CHECKSTYLE: MagicNumber ON
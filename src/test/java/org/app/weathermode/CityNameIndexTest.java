@@ -0,0 +1,96 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.app.weathermode.model.locationselector.CityNameIndex;
+
+/**
+ * Test per {@link CityNameIndex}: i risultati devono coincidere con una
+ * scansione lineare del CSV, ordinati per popolazione e limitati.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class CityNameIndexTest {
+
+    private static final List<Map<String, String>> ROWS = List.of(
+        row("1", "Forlì", "Forli", "117000"),
+        row("2", "Cesena", "Cesena", "97000"),
+        row("3", "Cesenatico", "Cesenatico", "25000"),
+        row("4", "Roma", "Roma", "2872800"),
+        row("5", "Romagnano Sesia", "Romagnano Sesia", ""),
+        row("6", "Forlimpopoli", "Forlimpopoli", "13000"),
+        row("7", "São Paulo", "Sao Paulo", "12325232")
+    );
+
+    private final CityNameIndex index = new CityNameIndex(ROWS);
+
+    @Test
+    void testRanksByPopulation() {
+        assertEquals(List.of("4", "5"), ids(index.search("Rom", 10)));
+        assertEquals(List.of("2", "3"), ids(index.search("CESEN", 10)));
+        assertEquals(List.of("3"), ids(index.search("natic", 10)));
+    }
+
+    @Test
+    void testMatchesLocalAndAsciiNames() {
+        assertEquals(List.of("1", "6"), ids(index.search("forl", 10)));
+        assertEquals(List.of("1"), ids(index.search("forlì", 10)));
+        assertEquals(List.of("7"), ids(index.search("são", 10)));
+        assertEquals(List.of("7"), ids(index.search("sao pa", 10)));
+        assertEquals(0, index.search("sãopaulo", 10).length);
+        assertEquals(0, index.search("xyz", 10).length);
+    }
+
+    @Test
+    void testLimitAndShortQueries() {
+        assertEquals(List.of("7", "4", "1"), ids(index.search("o", 3)));
+        assertEquals(List.of("2"), ids(index.search("ces", 1)));
+        assertEquals(7, index.search("", 10).length);
+        assertEquals(0, index.search("ce", 0).length);
+    }
+
+    @Test
+    void testAgreesWithLinearScan() {
+        final List<Map<String, String>> many = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final String name = Integer.toString(i * 7919 % 10_007, 36) + "ab" + Integer.toString(i, 36);
+            many.add(row(Integer.toString(i), name, name, Integer.toString(i * 31 % 997)));
+        }
+        final CityNameIndex big = new CityNameIndex(many);
+        assertEquals(2000, big.size());
+        for (final String query : List.of("ab1", "bab", "ab", "1ab2", "zz", "3ab", "a")) {
+            final List<Map<String, String>> expected = new ArrayList<>();
+            many.stream()
+                .filter(r -> r.get("city").contains(query))
+                .sorted((a, b) -> Integer.parseInt(b.get("population")) - Integer.parseInt(a.get("population")))
+                .limit(25)
+                .forEach(expected::add);
+            assertEquals(ids(expected), ids(many, big.search(query, 25)), query);
+        }
+    }
+
+    private static List<String> ids(final int[] rows) {
+        return ids(ROWS, rows);
+    }
+
+    private static List<String> ids(final List<Map<String, String>> source, final int[] rows) {
+        return Arrays.stream(rows).mapToObj(row -> source.get(row).get("id")).toList();
+    }
+
+    private static List<String> ids(final List<Map<String, String>> rows) {
+        return rows.stream().map(r -> r.get("id")).toList();
+    }
+
+    private static Map<String, String> row(final String id, final String city, final String ascii,
+                                           final String population) {
+        return Map.of("id", id, "city", city, "city_ascii", ascii, "population", population);
+    }
+}
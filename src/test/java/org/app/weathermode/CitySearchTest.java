@@ -0,0 +1,159 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.app.weathermode.model.locationselector.CitySearch;
+import org.app.weathermode.model.locationselector.LocationSelector;
+import org.app.weathermode.model.lookup.LookUp;
+import org.app.weathermode.model.pair.Pair;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link CitySearch}: debounce delle digitazioni ravvicinate, scarto
+ * dei risultati superati e consegna degli errori del selettore. La UI è
+ * sostituita da un esecutore che consegna direttamente sul thread di ricerca.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class CitySearchTest {
+
+    private static final long DELAY = 50;
+    private static final long WAIT = 5;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private final List<List<Pair<String, Integer>>> results = new CopyOnWriteArrayList<>();
+    private final List<RuntimeException> errors = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private CitySearch search(final Function<String, List<Pair<String, Integer>>> answer) {
+        return new CitySearch(new FakeSelector(txt -> {
+            queries.add(txt);
+            return answer.apply(txt);
+        }), 10, DELAY, executor, Runnable::run, results::add, errors::add);
+    }
+
+    private static List<Pair<String, Integer>> city(final String txt) {
+        return List.of(new Pair<>(txt, txt.length()));
+    }
+
+    /** Attende che l’esecutore abbia smaltito ricerche e attese già pianificate. */
+    private void drain() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.schedule(done::countDown, DELAY * 2, TimeUnit.MILLISECONDS);
+        assertTrue(done.await(WAIT, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rapidTypingRunsOnlyTheLastQuery() throws InterruptedException {
+        final CitySearch search = search(CitySearchTest::city);
+        search.query("Bo");
+        search.query("Bol");
+        search.query("Bolo");
+        drain();
+        assertEquals(List.of("Bolo"), queries);
+        assertEquals(List.of(city("Bolo")), results);
+    }
+
+    @Test
+    void supersededResultIsDiscarded() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CitySearch search = search(txt -> {
+            if ("Rom".equals(txt)) {
+                started.countDown();
+                /* un selettore reale non risponde alle interruzioni */
+                while (release.getCount() > 0) {
+                    Thread.onSpinWait();
+                }
+            }
+            return city(txt);
+        });
+        search.query("Rom");
+        assertTrue(started.await(WAIT, TimeUnit.SECONDS));
+        search.query("Roma");
+        release.countDown();
+        drain();
+        assertEquals(List.of("Rom", "Roma"), queries);
+        assertEquals(List.of(city("Roma")), results);
+    }
+
+    @Test
+    void selectorFailureReachesErrorHandler() throws InterruptedException {
+        final CompletionException failure = new CompletionException(new IllegalStateException("db"));
+        final CitySearch search = search(txt -> {
+            throw failure;
+        });
+        search.query("Milano");
+        drain();
+        assertEquals(List.of(failure), errors);
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void clearAndCloseStopPendingQueries() throws InterruptedException {
+        final CitySearch search = search(CitySearchTest::city);
+        search.query("Torino");
+        search.clear();
+        drain();
+        assertTrue(queries.isEmpty());
+
+        search.close();
+        assertDoesNotThrow(() -> search.query("Torino"));
+        assertTrue(executor.isShutdown());
+        assertTrue(results.isEmpty());
+    }
+
+    /** Selettore che risponde solo alla ricerca per nome. */
+    private static final class FakeSelector implements LocationSelector {
+
+        private final Function<String, List<Pair<String, Integer>>> answer;
+
+        FakeSelector(final Function<String, List<Pair<String, Integer>>> answer) {
+            this.answer = answer;
+        }
+
+        @Override
+        public List<Pair<String, Integer>> getPossibleLocations(final String txt, final int limit) {
+            return answer.apply(txt);
+        }
+
+        @Override
+        public Optional<Map<String, String>> getByID(final int id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Integer> searchByLookUp(final LookUp lookUp) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Integer> nearest(final double lat, final double lng, final int k) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Integer> withinRadius(final double lat, final double lng, final double radiusKm) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.app.weathermode.model.locationselector.CitySpatialIndex;
+
+/**
+ * Test per {@link CitySpatialIndex}: i risultati devono coincidere con un
+ * confronto esaustivo basato su {@link CitySpatialIndex#distanceKm}.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class CitySpatialIndexTest {
+
+    /** Roma, Milano, Cesena, Suva (Fiji), Apia (Samoa), McMurdo, coordinate mancanti. */
+    private static final double[] LAT = {41.8933, 45.4669, 44.1333, -18.1416, -13.8333, -77.846, Double.NaN};
+    private static final double[] LNG = {12.4828, 9.19, 12.2333, 178.4419, -171.7667, 166.676, 10};
+
+    private final CitySpatialIndex index = new CitySpatialIndex(LAT.length, row -> LAT[row], row -> LNG[row]);
+
+    @Test
+    void testDistance() {
+        assertEquals(477, CitySpatialIndex.distanceKm(LAT[0], LNG[0], LAT[1], LNG[1]), 5);
+        assertEquals(0, CitySpatialIndex.distanceKm(LAT[2], LNG[2], LAT[2], LNG[2]), 1e-9);
+    }
+
+    @Test
+    void testNearestAndRadius() {
+        assertEquals(6, index.size());
+        assertArrayEquals(new int[] {2, 0, 1}, index.nearest(44.2, 12.1, 3));
+        assertArrayEquals(new int[] {2}, index.nearest(44.2, 12.1, 1));
+        assertArrayEquals(new int[] {2}, index.withinRadius(44.2, 12.1, 100));
+        assertArrayEquals(new int[] {2, 0, 1}, index.withinRadius(44.2, 12.1, 300));
+        assertArrayEquals(new int[0], index.withinRadius(0, 0, 100));
+        assertArrayEquals(new int[0], index.nearest(0, 0, 0));
+        assertEquals(6, index.withinRadius(0, 0, 30_000).length);
+    }
+
+    @Test
+    void testAcrossAntimeridianAndPoles() {
+        // Appena a est dell’antimeridiano Suva è più vicina di Apia
+        assertArrayEquals(new int[] {3, 4}, index.nearest(-18, -179.9, 2));
+        assertArrayEquals(new int[] {5}, index.nearest(-89.9, -10, 1));
+    }
+
+    @Test
+    void testAgreesWithExhaustiveSearch() {
+        final Random random = new Random(42);
+        final int size = 3000;
+        final double[] lat = new double[size];
+        final double[] lng = new double[size];
+        for (int i = 0; i < size; i++) {
+            lat[i] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            lng[i] = random.nextDouble() * 360 - 180;
+        }
+        final CitySpatialIndex big = new CitySpatialIndex(size, row -> lat[row], row -> lng[row]);
+        for (int q = 0; q < 200; q++) {
+            final double qLat = random.nextDouble() * 180 - 90;
+            final double qLng = random.nextDouble() * 360 - 180;
+            final int[] byDistance = IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparingDouble(row -> CitySpatialIndex.distanceKm(qLat, qLng, lat[row], lng[row])))
+                .mapToInt(Integer::intValue).toArray();
+
+            assertArrayEquals(Arrays.copyOf(byDistance, 7), big.nearest(qLat, qLng, 7));
+            final int[] expected = Arrays.stream(byDistance)
+                .filter(row -> CitySpatialIndex.distanceKm(qLat, qLng, lat[row], lng[row]) <= 500)
+                .toArray();
+            assertArrayEquals(expected, big.withinRadius(qLat, qLng, 500));
+        }
+    }
+}
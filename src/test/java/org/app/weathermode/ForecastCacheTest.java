@@ -0,0 +1,86 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.app.weathermode.model.weather.ForecastCache;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link ForecastCache}: scadenza per TTL, eviction LRU e contatori
+ * di hit/miss. Le voci non contengono previsioni reali poiché la cache non
+ * ne ispeziona il contenuto.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class ForecastCacheTest {
+
+    private static ForecastCache.Entry entry(final String time) {
+        return new ForecastCache.Entry(null, Map.of("meters_above_sea", 21),
+            Map.of("temperature_C", 18.5), time, System.currentTimeMillis());
+    }
+
+    @Test
+    void shouldCountHitsAndMisses() {
+        final ForecastCache cache = new ForecastCache(Duration.ofMinutes(10), 4);
+        assertTrue(cache.get("41.894741", "12.481100").isEmpty());
+
+        cache.put("41.894741", "12.481100", entry("2025-06-27T10:00"));
+        assertEquals("2025-06-27T10:00", cache.get("41.894741", "12.4811").orElseThrow().getNowTime());
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void expiredEntriesShouldBeMissesAndRemoved() {
+        final ForecastCache cache = new ForecastCache(Duration.ZERO, 4);
+        cache.put("45.464203", "9.189982", entry("2025-06-27T10:00"));
+
+        assertTrue(cache.get("45.464203", "9.189982").isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryShouldBeEvicted() {
+        final ForecastCache cache = new ForecastCache(Duration.ofMinutes(10), 2);
+        cache.put("41.89", "12.48", entry("roma"));
+        cache.put("45.46", "9.19", entry("milano"));
+        assertTrue(cache.get("41.89", "12.48").isPresent());
+
+        cache.put("40.85", "14.27", entry("napoli"));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get("45.46", "9.19").isEmpty());
+        assertTrue(cache.get("41.89", "12.48").isPresent());
+        assertTrue(cache.get("40.85", "14.27").isPresent());
+    }
+
+    @Test
+    void updateNowShouldKeepExpiryAndCounters() {
+        final ForecastCache cache = new ForecastCache(Duration.ofMinutes(10), 4);
+        final ForecastCache.Entry original = entry("2025-06-27T10:00");
+        cache.put("41.89", "12.48", original);
+
+        cache.updateNow("41.89", "12.48", Map.of("temperature_C", 20.0), "2025-06-27T10:30");
+        cache.updateNow("0", "0", Map.of(), "ignored");
+
+        final ForecastCache.Entry updated = cache.get("41.89", "12.48").orElseThrow();
+        assertAll("aggiornamento condizioni correnti",
+            () -> assertEquals("2025-06-27T10:30", updated.getNowTime()),
+            () -> assertEquals(20.0, updated.getNow().get("temperature_C")),
+            () -> assertEquals(21, updated.getCityInfo().get("meters_above_sea")),
+            () -> assertEquals(original.getFetchedAt(), updated.getFetchedAt()),
+            () -> assertEquals(1, cache.size()),
+            () -> assertEquals(1, cache.getHits()),
+            () -> assertEquals(0, cache.getMisses())
+        );
+    }
+
+}
+// CHECKSTYLE: MagicNumber ON
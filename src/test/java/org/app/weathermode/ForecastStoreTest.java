@@ -0,0 +1,180 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+
+import org.app.weathermode.model.UnitConversion;
+import org.app.weathermode.model.weather.ForecastStore;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link ForecastStore}: decodifica in streaming di una risposta
+ * Open‑Meteo ridotta (tre ore a cavallo della mezzanotte, due giorni), come
+ * avviene in produzione, e verifica di accessor tipizzati e viste di
+ * compatibilità.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class ForecastStoreTest {
+
+    private static final String JSON = """
+        {
+          "hourly": {
+            "time": ["2025-06-27T22:00", "2025-06-27T23:00", "2025-06-28T00:00"],
+            "temperature_2m": [21.5, 20.0, 19.1],
+            "relative_humidity_2m": [60, 65, 70],
+            "apparent_temperature": [22.0, 20.5, 19.0],
+            "precipitation_probability": [0, 10, 35],
+            "precipitation": [0.0, 0.2, 2.54],
+            "weather_code": [0, 2, 61],
+            "wind_speed_10m": [10.0, 12.5, 20.0],
+            "wind_direction_10m": [90, 180, 270],
+            "pressure_msl": [1013.2, 1012.8, 1011.0],
+            "soil_temperature_0cm": [24.1, null, 22.0]
+          },
+          "daily": {
+            "time": ["2025-06-27", "2025-06-28"],
+            "weather_code": [2, 61],
+            "temperature_2m_max": [31.0, 27.5],
+            "temperature_2m_min": [18.0, 17.2],
+            "sunrise": ["2025-06-27T05:34", "2025-06-28T05:35"],
+            "sunset": ["2025-06-27T20:49", "2025-06-28T20:48"],
+            "daylight_duration": [54900.0, 54780.0],
+            "sunshine_duration": [50000.0, 12000.0],
+            "uv_index_max": [8.1, 4.3]
+          }
+        }
+        """;
+
+    private ForecastStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = ForecastStore.fromStream(new StringReader(JSON));
+    }
+
+    @Test
+    void typedAccessorsShouldReadColumns() {
+        assertAll("colonne orarie",
+            () -> assertEquals(3, store.hours()),
+            () -> assertEquals(2, store.forecastDays()),
+            () -> assertEquals(21.5, store.temperatureC(0)),
+            () -> assertEquals(Integer.valueOf(65), store.humidity(1)),
+            () -> assertEquals(Integer.valueOf(61), store.weatherCode(2)),
+            () -> assertEquals(Integer.valueOf(270), store.windDirection(2)),
+            () -> assertEquals(UnitConversion.mmToInches(2.54), store.precipitationInch(2)),
+            () -> assertEquals(UnitConversion.kmhToMph(20.0), store.windSpeedMph(2)),
+            () -> assertTrue(Double.isNaN(store.soilTemperature(1)))
+        );
+    }
+
+    @Test
+    void missingIntegerValuesShouldBeNull() throws IOException {
+        final ForecastStore gaps = ForecastStore.fromStream(new StringReader(JSON
+            .replace("[60, 65, 70]", "[null, 65, 70]")
+            .replace("[0, 10, 35]", "[null, 10, 35]")
+            .replace("[0, 2, 61]", "[null, 2, 61]")
+            .replace("[90, 180, 270]", "[null, 180, 270]")
+            .replace("[2, 61]", "[null, 61]")));
+        final Map<String, Number> hour = gaps.asHourlyMap().get("2025-06-27").get("22");
+        assertAll("valori mancanti",
+            () -> assertNull(gaps.humidity(0)),
+            () -> assertNull(gaps.precipitationProbability(0)),
+            () -> assertNull(gaps.weatherCode(0)),
+            () -> assertNull(gaps.windDirection(0)),
+            () -> assertNull(gaps.dailyWeatherCode(0)),
+            () -> assertNull(hour.get("humidity")),
+            () -> assertNull(hour.get("precipitation_probability")),
+            () -> assertNull(hour.get("weather_code")),
+            () -> assertNull(hour.get("wind_direction")),
+            () -> assertNull(gaps.asDailyMap().get("2025-06-27").get("weather_code"))
+        );
+    }
+
+    @Test
+    void recordedResponseShouldBeReadable() throws IOException {
+        final ForecastStore recorded = ForecastStore.fromStream(new StringReader(
+            Files.readString(Paths.get("src/test/resources/openmeteo_forecast_response.json"))));
+        assertAll("risposta registrata",
+            () -> assertEquals(8 * 24, recorded.hours()),
+            () -> assertEquals(8, recorded.forecastDays()),
+            () -> assertEquals(8, recorded.days()),
+            () -> assertEquals(LocalDateTime.of(2025, 7, 4, 23, 0), recorded.timeAt(recorded.hours() - 1)),
+            () -> assertTrue(Double.isNaN(recorded.soilTemperature(recorded.hours() - 1)))
+        );
+    }
+
+    @Test
+    void indexesShouldBeComputedFromTime() {
+        assertAll("indici",
+            () -> assertEquals(LocalDateTime.of(2025, 6, 28, 0, 0), store.timeAt(2)),
+            () -> assertEquals(1, store.hourIndexOf(LocalDateTime.of(2025, 6, 27, 23, 45))),
+            () -> assertEquals(-1, store.hourIndexOf(LocalDateTime.of(2025, 6, 27, 21, 0))),
+            () -> assertEquals(-1, store.hourIndexOf(LocalDateTime.of(2025, 6, 28, 1, 0))),
+            () -> assertEquals(1, store.dayIndexOf(LocalDate.of(2025, 6, 28))),
+            () -> assertEquals(LocalTime.of(20, 48), store.sunset(1))
+        );
+    }
+
+    @Test
+    void compatibilityViewsShouldKeepLegacyLayout() {
+        final Map<String, Map<String, Map<String, Number>>> hourly = store.asHourlyMap();
+        assertEquals(2, hourly.size());
+        assertEquals(2, hourly.get("2025-06-27").size());
+
+        final Map<String, Number> lastHour = hourly.get("2025-06-28").get("00");
+        assertEquals(19.1, lastHour.get("temperature_C").doubleValue());
+        assertEquals(61, lastHour.get("weather_code").intValue());
+        assertNull(hourly.get("2025-06-27").get("23").get("soil_temperature"));
+        assertTrue(hourly.get("2025-06-27").get("23").containsKey("soil_temperature"));
+
+        final Map<String, Number> today = store.asDailyMap().get("2025-06-27");
+        assertEquals(31.0, today.get("temperature_max_C").doubleValue());
+        assertEquals(8.1, today.get("uv_max").doubleValue());
+
+        assertEquals("05:34", store.asSunMap().get("2025-06-27").get("sunrise"));
+        assertThrows(UnsupportedOperationException.class, () -> hourly.remove("2025-06-27"));
+    }
+
+    @Test
+    void streamingParserShouldSkipUnrelatedFields() throws IOException {
+        /* campi estranei ai blocchi colonnari vengono saltati */
+        final String response = "{\"elevation\": 54.0, \"hourly_units\": {\"time\": \"iso8601\"},"
+            + JSON.substring(JSON.indexOf('{') + 1);
+        final ForecastStore streamed = ForecastStore.fromStream(new StringReader(response));
+
+        assertEquals(store.hours(), streamed.hours());
+        assertEquals(store.forecastDays(), streamed.forecastDays());
+        for (int h = 0; h < store.hours(); h++) {
+            assertEquals(store.timeAt(h), streamed.timeAt(h));
+            assertEquals(store.temperatureC(h), streamed.temperatureC(h));
+            assertEquals(store.weatherCode(h), streamed.weatherCode(h));
+            assertEquals(store.soilTemperature(h), streamed.soilTemperature(h));
+        }
+        for (int d = 0; d < store.forecastDays(); d++) {
+            assertEquals(store.sunrise(d), streamed.sunrise(d));
+            assertEquals(store.sunset(d), streamed.sunset(d));
+            assertEquals(store.uvIndexMax(d), streamed.uvIndexMax(d));
+        }
+        assertEquals(store.asDailyMap(), streamed.asDailyMap());
+    }
+
+    @Test
+    void streamingParserShouldRejectApiErrors() {
+        assertThrows(IOException.class, () -> ForecastStore.fromStream(
+            new StringReader("{\"error\": true, \"reason\": \"Latitude must be in range\"}")));
+    }
+
+}
+// CHECKSTYLE: MagicNumber ON
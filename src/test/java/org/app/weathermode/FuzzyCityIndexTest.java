@@ -0,0 +1,69 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.app.weathermode.model.locationselector.FuzzyCityIndex;
+
+/**
+ * Test per {@link FuzzyCityIndex}: tolleranza agli errori, normalizzazione
+ * degli accenti e ordinamento pesato sulla popolazione.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class FuzzyCityIndexTest {
+
+    private static final long BUDGET = 1_000_000_000L;
+    private static final String[] CITY = {"Milano", "Milazzo", "Bologna", "Forlì", "São Paulo", "Łódź", "Molano",
+        "Cesena"};
+    private static final String[] ASCII = {"Milan", "Milazzo", "Bologna", "Forli", "Sao Paulo", "Lodz", "Molano",
+        "Cesena"};
+    private static final double[] POPULATION = {1_371_498, 31_000, 390_636, 117_000, 12_325_232, 672_185, 200,
+        Double.NaN};
+
+    private final FuzzyCityIndex index = new FuzzyCityIndex(CITY.length, row -> CITY[row], row -> ASCII[row],
+        row -> POPULATION[row]);
+
+    @Test
+    void testFold() {
+        assertEquals("forli", FuzzyCityIndex.fold("Forlì"));
+        assertEquals("sao paulo", FuzzyCityIndex.fold("São Paulo"));
+        assertEquals("lodz", FuzzyCityIndex.fold("Łódź"));
+        assertEquals("strasse", FuzzyCityIndex.fold("Straße"));
+        assertEquals("", FuzzyCityIndex.fold(null));
+    }
+
+    @Test
+    void testTypos() {
+        assertEquals(List.of("Milano"), names(index.search("Milno", 1, BUDGET)));
+        assertEquals(List.of("Bologna"), names(index.search("bolgona", 5, BUDGET)));
+        assertEquals(List.of("Cesena"), names(index.search("Cesna", 5, BUDGET)));
+        assertEquals(List.of("Łódź"), names(index.search("lodzz", 5, BUDGET)));
+        assertEquals(List.of("São Paulo"), names(index.search("paolo", 5, BUDGET)));
+        assertEquals(0, index.search("xyzw", 5, BUDGET).length);
+    }
+
+    @Test
+    void testPrefixesAndRanking() {
+        // "Molano" è a distanza 1 come Milano ma molto meno popolosa
+        assertEquals(List.of("Milano", "Milazzo", "Molano"), names(index.search("Milan", 5, BUDGET)));
+        assertEquals(List.of("Bologna"), names(index.search("Bolgn", 5, BUDGET)));
+    }
+
+    @Test
+    void testShortQueriesAndBudget() {
+        assertEquals(0, FuzzyCityIndex.maxDistance(3));
+        assertEquals(0, index.search("mil", 5, BUDGET).length);
+        assertEquals(0, index.search("Milno", 0, BUDGET).length);
+        assertEquals(0, index.search("Milno", 5, 0).length);
+    }
+
+    private static List<String> names(final int[] rows) {
+        return Arrays.stream(rows).mapToObj(row -> CITY[row]).toList();
+    }
+}
@@ -6,16 +6,20 @@ import org.mockito.MockedConstruction;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Optional;
 
+import com.google.gson.JsonPrimitive;
+
 import org.app.weathermode.model.pair.Pair;
 import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
+import org.app.weathermode.model.json.JsonPathGroup;
 import org.app.weathermode.model.lookup.LookUp;
 import org.app.weathermode.model.lookup.IPLookUp;
 
 // CHECKSTYLE: AvoidStarImport OFF
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 // CHECKSTYLE: AvoidStarImport ON
 
@@ -38,7 +42,7 @@ class IPLookUpTest {
     void lookupShouldReturnEmptyWhenAllAttemptsFail() {
         try (MockedConstruction<AdvancedJsonReaderImpl> mocked =
                 mockConstruction(AdvancedJsonReaderImpl.class,
-                (mock, ctx) -> when(mock.getString(anyString()))
+                (mock, ctx) -> when(mock.getAll(any(JsonPathGroup.class)))
                 .thenThrow(new RuntimeException("fail")))) {
             final Optional<Boolean> result = underTest.lookup();
             assertTrue(result.isEmpty(),
@@ -62,15 +66,16 @@ class IPLookUpTest {
         // CHECKSTYLE: MagicNumber OFF
         try (MockedConstruction<AdvancedJsonReaderImpl> mocked =
                 mockConstruction(AdvancedJsonReaderImpl.class, (mock, ctx) -> {
-            when(mock.getString("ip")).thenReturn(expectedIP);
-            when(mock.getString("country_code")).thenReturn("IT");
-            when(mock.getString("country_name")).thenReturn(expectedCountry);
-            when(mock.getString("region_name")).thenReturn("Lazio");
-            when(mock.getString("city")).thenReturn(expectedCity);
-            when(mock.getString("zip_code")).thenReturn("00100");
-            when(mock.getString("time_zone")).thenReturn("Europe/Rome");
-            when(mock.getDouble("latitude")).thenReturn(41.9);
-            when(mock.getDouble("longitude")).thenReturn(12.5);
+            when(mock.getAll(any(JsonPathGroup.class))).thenReturn(Map.of(
+                "ip", new JsonPrimitive(expectedIP),
+                "country_code", new JsonPrimitive("IT"),
+                "country_name", new JsonPrimitive(expectedCountry),
+                "region_name", new JsonPrimitive("Lazio"),
+                "city", new JsonPrimitive(expectedCity),
+                "zip_code", new JsonPrimitive("00100"),
+                "time_zone", new JsonPrimitive("Europe/Rome"),
+                "latitude", new JsonPrimitive(41.9),
+                "longitude", new JsonPrimitive(12.5)));
         })) {
             final Optional<Boolean> ok = underTest.lookup();
             assertTrue(ok.isPresent() && ok.get());
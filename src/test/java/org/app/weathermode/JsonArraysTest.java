@@ -0,0 +1,55 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+
+import org.app.weathermode.model.json.AdvancedJsonReader;
+import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
+import org.app.weathermode.model.json.JsonArrays;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per gli accessor ad array di primitive di {@link AdvancedJsonReader}
+ * e per {@link JsonArrays}: gestione dei <code>null</code> e degli errori.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class JsonArraysTest {
+
+    private static final String JSON = """
+        {
+          "hourly": {
+            "time": ["2025-06-27T22:00", null, "2025-06-28T00:00"],
+            "soil_temperature_0cm": [18.5, null, 17],
+            "weather_code": [0, 2, 61],
+            "is_day": [1, null, 0],
+            "nested": [{"a": 1}]
+          }
+        }
+        """;
+
+    private final AdvancedJsonReader reader = new AdvancedJsonReaderImpl().setJSON(JSON);
+
+    @Test
+    void decodesPrimitiveArraysWithNulls() throws Exception { // NOPMD
+        final double[] soil = this.reader.getDoubleArray("hourly.soil_temperature_0cm");
+        assertEquals(3, soil.length);
+        assertEquals(18.5, soil[0]);
+        assertTrue(Double.isNaN(soil[1]));
+        assertEquals(17.0, soil[2]);
+
+        assertArrayEquals(new int[] {0, 2, 61}, this.reader.getIntArray("hourly.weather_code"));
+        assertArrayEquals(new int[] {1, -1, 0}, this.reader.getIntArray("hourly.is_day", -1));
+        assertArrayEquals(new String[] {"2025-06-27T22:00", null, "2025-06-28T00:00"},
+            this.reader.getStringArray("hourly.time"));
+    }
+
+    @Test
+    void rejectsNullsAndNonPrimitives() {
+        assertThrows(IllegalArgumentException.class, () -> this.reader.getIntArray("hourly.is_day"));
+        assertThrows(IllegalArgumentException.class, () -> this.reader.getDoubleArray("hourly.nested"));
+        assertThrows(IllegalArgumentException.class, () -> this.reader.getDoubleArray("hourly.time"));
+        assertThrows(Exception.class, () -> this.reader.getDoubleArray("hourly.missing"));
+    }
+}
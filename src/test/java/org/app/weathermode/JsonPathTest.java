@@ -0,0 +1,65 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+
+import org.app.weathermode.model.json.AdvancedJsonReader;
+import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
+import org.app.weathermode.model.json.JsonPath;
+import org.app.weathermode.model.json.JsonPathGroup;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link JsonPath} e {@link JsonPathGroup}: riuso dei percorsi
+ * compilati ed estrazione di più percorsi con un’unica visita.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class JsonPathTest {
+
+    private static final String JSON = """
+        {
+          "current": { "temperature_2m": 21.5, "weather_code": 2, "wind": { "speed": 10.0 } },
+          "daily": { "time": ["2025-06-27"] },
+          "name": "Cesena"
+        }
+        """;
+
+    @Test
+    void compiledPathsAreCached() {
+        final JsonPath path = JsonPath.compile("current.wind.speed");
+        assertSame(path, JsonPath.compile("current.wind.speed"));
+        assertEquals(3, path.depth());
+        assertEquals("speed", path.last());
+        assertSame(JsonPathGroup.of("a.b", "a.c"), JsonPathGroup.of(List.of("a.b", "a.c")));
+    }
+
+    @Test
+    void getAllResolvesSharedPrefixesAndSkipsMissingPaths() throws Exception { // NOPMD
+        final AdvancedJsonReader reader = new AdvancedJsonReaderImpl().setJSON(JSON);
+        final Map<String, JsonElement> found = reader.getAll(
+            "name", "current.weather_code", "current.temperature_2m",
+            "current.wind.speed", "current.missing", "daily.time.nested");
+
+        assertEquals(List.of("name", "current.weather_code", "current.temperature_2m", "current.wind.speed"),
+            List.copyOf(found.keySet()));
+        assertEquals(21.5, found.get("current.temperature_2m").getAsDouble());
+        assertEquals(2, found.get("current.weather_code").getAsInt());
+        assertEquals("Cesena", found.get("name").getAsString());
+        assertEquals(10.0, reader.getFromJson(JsonPath.compile("current.wind.speed")).getAsDouble());
+    }
+
+    @Test
+    void invalidPathsStillFail() {
+        final AdvancedJsonReader reader = new AdvancedJsonReaderImpl().setJSON(JSON);
+        assertThrows(Exception.class, () -> reader.getFromJson("current.missing"));
+        assertThrows(Exception.class, () -> reader.getJsonArray("current.temperature_2m"));
+        assertThrows(Exception.class, () -> reader.walkthroughBody("name.inner"));
+    }
+}
@@ -0,0 +1,108 @@
+package org.app.weathermode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.app.weathermode.model.json.AdvancedJsonReader;
+import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
+import org.app.weathermode.model.json.TapeJsonReaderImpl;
+
+/**
+ * Micro-benchmark che confronta {@link AdvancedJsonReaderImpl} (albero Gson
+ * completo) e {@link TapeJsonReaderImpl} (tape lazy) sulle risposte Directions e
+ * Open‑Meteo (previsione di otto giorni con i campi richiesti dall’app) in
+ * <code>src/test/resources</code>.
+ * <p>Per ogni combinazione misura il tempo medio per caricare il documento e
+ * leggere i campi usati dall’app, e la memoria trattenuta da un lettore.
+ * Si esegue con <code>./gradlew jsonReaderBenchmark</code>.</p>
+ */
+// CHECKSTYLE: MagicNumber OFF
+public final class JsonReaderBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+    private static final int RETAINED = 200;
+    private static final String[] HOURLY = {
+        "temperature_2m", "relative_humidity_2m", "apparent_temperature", "precipitation_probability",
+        "precipitation", "weather_code", "wind_speed_10m", "wind_direction_10m", "pressure_msl",
+        "soil_temperature_0cm"
+    };
+
+    private JsonReaderBenchmark() { }
+
+    /**
+     * @param args non usati.
+     * @throws IOException se una delle risposte registrate non è leggibile.
+     */
+    public static void main(final String[] args) throws IOException {
+        final String directions = Files.readString(Paths.get("src/test/resources/directions_valid_response.json"));
+        final String forecast = Files.readString(Paths.get("src/test/resources/openmeteo_forecast_response.json"));
+
+        run("directions", directions, JsonReaderBenchmark::readDirections);
+        run("open-meteo", forecast, JsonReaderBenchmark::readForecast);
+    }
+
+    private static void run(final String name, final String json, final Function<AdvancedJsonReader, Object> read) {
+        bench(name, "tree", () -> new AdvancedJsonReaderImpl().setJSON(json), read);
+        bench(name, "tape", () -> new TapeJsonReaderImpl().setJSON(json), read);
+    }
+
+    @SuppressWarnings("PMD.SystemPrintln")
+    private static void bench(final String name, final String impl,
+                              final Supplier<AdvancedJsonReader> factory,
+                              final Function<AdvancedJsonReader, Object> read) {
+        int sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += read.apply(factory.get()).hashCode();
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += read.apply(factory.get()).hashCode();
+        }
+        final double micros = (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+
+        final long before = usedAfterGc();
+        final AdvancedJsonReader[] kept = new AdvancedJsonReader[RETAINED];
+        for (int i = 0; i < RETAINED; i++) {
+            kept[i] = factory.get();
+        }
+        final long retained = (usedAfterGc() - before) / RETAINED;
+
+        System.out.println(String.format(Locale.ROOT, "%-10s %-4s %10.1f us/op %10d KiB retained  (%d, %d)",
+            name, impl, micros, retained / 1024, sink & 1, kept.length));
+    }
+
+    /** Stima della memoria occupata, dopo alcuni cicli di GC per ridurre il rumore. */
+    private static long usedAfterGc() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc(); // NOPMD
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static Object readDirections(final AdvancedJsonReader reader) {
+        try {
+            return reader.getString("status") + reader.getJsonArray("geocoded_waypoints").size();
+        } catch (final Exception e) { // NOPMD
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object readForecast(final AdvancedJsonReader reader) {
+        try {
+            double sum = reader.getDouble("current.temperature_2m");
+            for (final String metric : HOURLY) {
+                final double[] values = reader.getDoubleArray("hourly." + metric);
+                sum += values[values.length - 1];
+            }
+            return sum;
+        } catch (final Exception e) { // NOPMD
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.app.weathermode.model.moon.MoonCalculator;
+import org.app.weathermode.model.moon.MoonImage;
+import org.app.weathermode.model.moon.MoonPhase;
+import org.app.weathermode.model.moon.MoonPhaseTable;
+import org.app.weathermode.model.moon.MoonPhases;
+import org.app.weathermode.model.moon.MoonPhasesImpl;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per il calcolo locale delle fasi lunari, confrontato con gli istanti
+ * pubblicati delle fasi principali del 2024 (UTC).
+ */
+// CHECKSTYLE: MagicNumber OFF
+class MoonPhasesTest {
+
+    private static final double TOLERANCE = 1.0;
+
+    @Test
+    void phaseAngleMatchesPublishedEvents() {
+        final double full = MoonCalculator.phaseAngle(Instant.parse("2024-04-23T23:49:00Z"));
+        final double quarter = MoonCalculator.phaseAngle(Instant.parse("2024-04-15T19:13:00Z"));
+        final double newMoon = MoonCalculator.phaseAngle(Instant.parse("2024-04-08T18:21:00Z"));
+        assertEquals(180, full, TOLERANCE);
+        assertEquals(90, quarter, TOLERANCE);
+        assertTrue(newMoon < TOLERANCE || newMoon > 360 - TOLERANCE, "angle " + newMoon);
+        assertTrue(MoonCalculator.illumination(full) > 0.99);
+        assertTrue(MoonCalculator.illumination(newMoon) < 0.01);
+    }
+
+    @Test
+    void yearTableListsEveryFullMoon() {
+        final MoonPhaseTable year = MoonPhaseTable.forYear(Year.of(2024), ZoneOffset.UTC);
+        assertEquals(366, year.size());
+        final List<LocalDate> expected = List.of(
+            LocalDate.of(2024, 1, 25), LocalDate.of(2024, 2, 24), LocalDate.of(2024, 3, 25),
+            LocalDate.of(2024, 4, 23), LocalDate.of(2024, 5, 23), LocalDate.of(2024, 6, 22),
+            LocalDate.of(2024, 7, 21), LocalDate.of(2024, 8, 19), LocalDate.of(2024, 9, 18),
+            LocalDate.of(2024, 10, 17), LocalDate.of(2024, 11, 15), LocalDate.of(2024, 12, 15));
+        assertEquals(expected, year.datesOf(MoonPhase.FULL));
+    }
+
+    @Test
+    void principalPhasesOccupyOneDayEach() {
+        final MoonPhaseTable year = MoonPhaseTable.forYear(Year.of(2024), ZoneOffset.UTC);
+        for (final MoonPhase phase : List.of(MoonPhase.NEW, MoonPhase.FIRST_QUARTER,
+                                             MoonPhase.FULL, MoonPhase.LAST_QUARTER)) {
+            final List<LocalDate> dates = year.datesOf(phase);
+            for (int i = 1; i < dates.size(); i++) {
+                final long gap = dates.get(i).toEpochDay() - dates.get(i - 1).toEpochDay();
+                assertTrue(gap >= 29 && gap <= 30, phase + " gap " + gap);
+            }
+        }
+    }
+
+    @Test
+    void monthTableIndexesDates() {
+        final MoonPhaseTable april = MoonPhaseTable.forMonth(YearMonth.of(2024, 4), ZoneOffset.UTC);
+        assertEquals(30, april.size());
+        assertEquals(22, april.indexOf(LocalDate.of(2024, 4, 23)));
+        assertEquals(-1, april.indexOf(LocalDate.of(2024, 5, 1)));
+        assertEquals(MoonPhase.FIRST_QUARTER, april.phase(april.indexOf(LocalDate.of(2024, 4, 15))));
+        assertEquals(MoonPhase.WAXING_GIBBOUS, april.phase(april.indexOf(LocalDate.of(2024, 4, 19))));
+        assertThrows(IllegalArgumentException.class,
+            () -> MoonPhaseTable.of(LocalDate.of(2024, 4, 2), LocalDate.of(2024, 4, 1), ZoneOffset.UTC));
+    }
+
+    @Test
+    void moonInfoForFullMoonDay() {
+        final MoonPhases moon = new MoonPhasesImpl(ZoneOffset.UTC);
+        moon.setDate(2024, 4, 23);
+        final Map<String, String> info = moon.getMoonInfo().orElseThrow();
+        assertEquals("23/04/2024", info.get("date"));
+        assertEquals("Luna piena", info.get("state"));
+        assertEquals("full_moon.png", info.get("image_name"));
+        assertTrue(Integer.parseInt(info.get("illumination").replace("%", "")) >= 99);
+    }
+
+    @Test
+    void imageShowsLitSide() {
+        final int size = 64;
+        final int centre = size / 2;
+        final BufferedImage full = MoonImage.render(180, size);
+        final BufferedImage dark = MoonImage.render(0, size);
+        final BufferedImage quarter = MoonImage.render(90, size);
+        assertEquals(0, full.getRGB(0, 0) >>> 24, "corner is transparent");
+        assertTrue(brightness(full.getRGB(centre, centre)) > 200);
+        assertTrue(brightness(dark.getRGB(centre, centre)) < 100);
+        assertTrue(brightness(quarter.getRGB(centre + 16, centre)) > 200);
+        assertTrue(brightness(quarter.getRGB(centre - 16, centre)) < 100);
+    }
+
+    private static int brightness(final int argb) {
+        return argb >> 16 & 0xFF;
+    }
+}
@@ -0,0 +1,124 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.app.weathermode.model.weather.DailyMetric;
+import org.app.weathermode.model.weather.ForecastCache;
+import org.app.weathermode.model.weather.ForecastStore;
+import org.app.weathermode.model.weather.HourlyMetric;
+import org.app.weathermode.model.weather.OfflineForecastStore;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link OfflineForecastStore}: il formato binario deve restituire
+ * esattamente le colonne, le mappe e il timestamp salvati.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class OfflineForecastStoreTest {
+
+    private static final String FORECAST = """
+        {
+          "hourly": {
+            "time": ["2025-06-27T22:00", "2025-06-27T23:00"],
+            "temperature_2m": [24.5, 25.5], "relative_humidity_2m": [55, 50],
+            "apparent_temperature": [25.1, 26.0], "precipitation_probability": [0, 5],
+            "precipitation": [0.0, 0.0], "weather_code": [1, 2], "wind_speed_10m": [8.0, 9.0],
+            "wind_direction_10m": [200, 210], "pressure_msl": [1015.0, 1014.6], "soil_temperature_0cm": [null, 31.2]
+          },
+          "daily": {
+            "time": ["2025-06-27"], "weather_code": [2], "temperature_2m_max": [31.0],
+            "temperature_2m_min": [19.0], "sunrise": ["2025-06-27T05:36"], "sunset": ["2025-06-27T21:01"],
+            "daylight_duration": [55000.0], "sunshine_duration": [48000.0], "uv_index_max": [8.0]
+          }
+        }
+        """;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void savedForecastShouldBeReadBackUnchanged() throws IOException {
+        final Map<String, Number> info = new HashMap<>();
+        info.put("meters_above_sea", 25.0);
+        info.put("inhabitants", null);
+        final ForecastCache.Entry saved = new ForecastCache.Entry(
+            ForecastStore.fromStream(new StringReader(FORECAST)), info,
+            Map.of("weather_code", 1, "temperature_C", 24.5), "2025-06-27T22:00", 1_751_054_400_000L);
+
+        final OfflineForecastStore store = new OfflineForecastStore(this.dir);
+        assertTrue(store.save("44.1391", "12.2431", saved));
+        final ForecastCache.Entry loaded = store.load("44.13910", "12.2431").orElseThrow();
+
+        assertEquals(saved.getFetchedAt(), loaded.getFetchedAt());
+        assertEquals(saved.getNowTime(), loaded.getNowTime());
+        assertEquals(saved.getNow(), loaded.getNow());
+        assertEquals(saved.getCityInfo(), loaded.getCityInfo());
+
+        final ForecastStore expected = saved.getForecast();
+        final ForecastStore actual = loaded.getForecast();
+        assertEquals(expected.hourlyStart(), actual.hourlyStart());
+        assertEquals(expected.hours(), actual.hours());
+        for (final HourlyMetric metric : HourlyMetric.values()) {
+            for (int h = 0; h < expected.hours(); h++) {
+                assertEquals(expected.hourly(metric, h), actual.hourly(metric, h), metric + "@" + h);
+            }
+        }
+        for (final DailyMetric metric : DailyMetric.values()) {
+            assertEquals(expected.daily(metric, 0), actual.daily(metric, 0), metric.toString());
+        }
+        assertEquals(expected.asSunMap(), actual.asSunMap());
+    }
+
+    @Test
+    void missingOrCorruptFilesShouldBeIgnored() throws IOException {
+        final OfflineForecastStore store = new OfflineForecastStore(this.dir);
+        assertEquals(Optional.empty(), store.load("0", "0"));
+
+        Files.write(this.dir.resolve("0.0000_0.0000.bin"), new byte[] {1, 2, 3});
+        assertEquals(Optional.empty(), store.load("0", "0"));
+    }
+
+    @Test
+    void corruptLengthsShouldNotBeAllocated() throws IOException {
+        final ForecastStore forecast = ForecastStore.fromStream(new StringReader(FORECAST));
+        final OfflineForecastStore store = new OfflineForecastStore(this.dir);
+        assertTrue(store.save("0", "0", new ForecastCache.Entry(forecast, Map.of(), Map.of(), "2025-06-27T22:00", 0L)));
+        final Path file = this.dir.resolve("0.0000_0.0000.bin");
+        final byte[] bytes = Files.readAllBytes(file);
+
+        /* lunghezza delle colonne orarie: con 10 metriche richiederebbe oltre 20 GB */
+        final ByteBuffer columns = ByteBuffer.wrap(bytes.clone());
+        int at = 0;
+        while (columns.getInt(at) != forecast.hours() || columns.getInt(at + 4) != HourlyMetric.values().length) {
+            at++;
+        }
+        columns.putInt(at, Integer.MAX_VALUE / 8);
+        Files.write(file, columns.array());
+        assertEquals(Optional.empty(), store.load("0", "0"));
+
+        /* lunghezza della prima stringa, subito dopo intestazione e timestamp */
+        final ByteBuffer string = ByteBuffer.wrap(bytes.clone());
+        string.putInt(16, Integer.MAX_VALUE - 8);
+        Files.write(file, string.array());
+        assertEquals(Optional.empty(), store.load("0", "0"));
+
+        string.putInt(16, -1);
+        Files.write(file, string.array());
+        assertEquals(Optional.empty(), store.load("0", "0"));
+    }
+
+}
+// CHECKSTYLE: MagicNumber ON
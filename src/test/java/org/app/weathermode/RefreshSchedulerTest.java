@@ -0,0 +1,119 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.app.weathermode.controller.RefreshScheduler;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link RefreshScheduler}: coalescing delle richieste in coda,
+ * interruzione del refresh in corso e scarto dei risultati superati.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class RefreshSchedulerTest {
+
+    private static final long WAIT = 5;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final List<Long> published = new CopyOnWriteArrayList<>();
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger interrupted = new AtomicInteger();
+    private final CountDownLatch firstRunning = new CountDownLatch(1);
+    private final CountDownLatch firstRelease = new CountDownLatch(1);
+
+    private RefreshScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** Il primo refresh resta bloccato finché non viene interrotto o rilasciato. */
+    private void body(final long generation) {
+        if (started.incrementAndGet() == 1) {
+            firstRunning.countDown();
+            try {
+                firstRelease.await();
+            } catch (final InterruptedException e) {
+                interrupted.incrementAndGet();
+                return;
+            }
+        }
+        if (scheduler.isCurrent(generation)) {
+            published.add(generation);
+        }
+    }
+
+    private void drain() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.submit(done::countDown);
+        assertTrue(done.await(WAIT, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void queuedRequestsAreCoalescedAndNeverStall() throws InterruptedException {
+        scheduler = new RefreshScheduler(executor, this::body);
+        scheduler.request();
+        assertTrue(firstRunning.await(WAIT, TimeUnit.SECONDS));
+
+        /* la prima interrompe il refresh in corso, le altre si accodano a quella */
+        scheduler.request();
+        scheduler.request();
+        scheduler.request();
+        drain();
+
+        assertEquals(1, interrupted.get());
+        assertEquals(2, started.get());
+        assertEquals(List.of(4L), published);
+
+        /* dopo richieste coalescenti la pipeline continua a funzionare */
+        scheduler.request();
+        drain();
+        assertEquals(3, started.get());
+        assertEquals(List.of(4L, 5L), published);
+    }
+
+    @Test
+    void supersededResultIsDiscarded() throws InterruptedException {
+        final CountDownLatch inBody = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        scheduler = new RefreshScheduler(executor, generation -> {
+            inBody.countDown();
+            try {
+                proceed.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (scheduler.isCurrent(generation)) {
+                published.add(generation);
+            }
+        });
+        scheduler.request();
+        assertTrue(inBody.await(WAIT, TimeUnit.SECONDS));
+        scheduler.request();
+        proceed.countDown();
+        drain();
+        assertEquals(List.of(2L), published);
+    }
+
+    @Test
+    void requestsAfterShutdownAreIgnored() {
+        scheduler = new RefreshScheduler(executor, this::body);
+        scheduler.shutdown();
+        assertDoesNotThrow(scheduler::request);
+        assertDoesNotThrow(scheduler::request);
+        assertEquals(0, started.get());
+    }
+}
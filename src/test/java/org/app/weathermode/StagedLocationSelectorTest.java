@@ -0,0 +1,162 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import org.app.weathermode.model.locationselector.CityRecordCache;
+import org.app.weathermode.model.locationselector.LocationSelector;
+import org.app.weathermode.model.locationselector.StagedLocationSelector;
+import org.app.weathermode.model.lookup.LookUp;
+import org.app.weathermode.model.pair.Pair;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link StagedLocationSelector} e {@link CityRecordCache}: la
+ * città in cache deve essere servita prima che il database completo sia
+ * pronto, e i record letti dal database devono finire nella cache.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class StagedLocationSelectorTest {
+
+    private static final Map<String, String> MILAN = Map.of("id", "1380724377", "city", "Milan",
+        "lat", "45.4669", "lng", "9.19");
+    private static final Map<String, String> ROME = Map.of("id", "1380382862", "city", "Rome",
+        "lat", "41.8933", "lng", "12.4828");
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void cacheShouldSurviveReopening() {
+        final Path file = this.dir.resolve("records.bin");
+        new CityRecordCache(file).put(1_380_724_377, MILAN);
+
+        final CityRecordCache reopened = new CityRecordCache(file);
+        assertEquals(Optional.of(MILAN), reopened.get(1_380_724_377));
+        assertTrue(reopened.get(1_380_382_862).isEmpty());
+    }
+
+    @Test
+    void cacheShouldKeepOnlyMostRecentRecords() {
+        final CityRecordCache cache = new CityRecordCache(this.dir.resolve("records.bin"));
+        for (int id = 0; id <= CityRecordCache.MAX_RECORDS; id++) {
+            cache.put(id, Map.of("id", Integer.toString(id)));
+        }
+        assertTrue(cache.get(0).isEmpty());
+        assertTrue(cache.get(CityRecordCache.MAX_RECORDS).isPresent());
+    }
+
+    @Test
+    void recencyShouldSurviveReopening() {
+        final Path file = this.dir.resolve("records.bin");
+        final CityRecordCache cache = new CityRecordCache(file);
+        for (int id = 0; id < CityRecordCache.MAX_RECORDS; id++) {
+            cache.put(id, Map.of("id", Integer.toString(id)));
+        }
+        cache.put(0, Map.of("id", "0"));
+
+        final CityRecordCache reopened = new CityRecordCache(file);
+        reopened.put(CityRecordCache.MAX_RECORDS, Map.of("id", Integer.toString(CityRecordCache.MAX_RECORDS)));
+        assertTrue(reopened.get(0).isPresent());
+        assertTrue(reopened.get(1).isEmpty());
+    }
+
+    @Test
+    void corruptedCacheShouldBeIgnored() throws IOException {
+        final Path file = this.dir.resolve("records.bin");
+        Files.write(file, new byte[] {1, 2, 3});
+        final CityRecordCache cache = new CityRecordCache(file);
+        assertTrue(cache.get(1).isEmpty());
+
+        cache.put(1, ROME);
+        assertEquals(Optional.of(ROME), new CityRecordCache(file).get(1));
+    }
+
+    @Test
+    void cachedCityShouldNotWaitForDatabase() throws InterruptedException {
+        final CityRecordCache cache = new CityRecordCache(this.dir.resolve("records.bin"));
+        cache.put(1_380_724_377, MILAN);
+        final CountDownLatch release = new CountDownLatch(1);
+        final StagedLocationSelector selector = new StagedLocationSelector(cache, () -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new FixedSelector();
+        });
+
+        assertTrue(selector.isAvailable(1_380_724_377));
+        assertFalse(selector.isAvailable(1_380_382_862));
+        assertEquals(Optional.of(MILAN), selector.getByID(1_380_724_377));
+        assertFalse(selector.ready().isDone());
+
+        release.countDown();
+        assertEquals(Optional.of(ROME), selector.getByID(1_380_382_862));
+        assertTrue(selector.ready().isDone());
+        assertEquals(Optional.of(ROME), cache.get(1_380_382_862));
+        assertEquals(1, selector.getPossibleLocations("Rom", 10).size());
+    }
+
+    @Test
+    void failedLoadShouldCompleteReadyExceptionally() {
+        final StagedLocationSelector selector = new StagedLocationSelector(
+            new CityRecordCache(this.dir.resolve("records.bin")), () -> {
+                throw new IllegalStateException("boom");
+            });
+        assertThrows(Exception.class, () -> selector.ready().join());
+        assertFalse(selector.isAvailable(1));
+    }
+
+    @Test
+    void failedLoadShouldStillServeCachedCity() {
+        final CityRecordCache cache = new CityRecordCache(this.dir.resolve("records.bin"));
+        cache.put(1_380_724_377, MILAN);
+        final StagedLocationSelector selector = new StagedLocationSelector(cache, () -> {
+            throw new IllegalStateException("boom");
+        });
+        assertThrows(CompletionException.class, () -> selector.ready().join());
+        assertEquals(Optional.of(MILAN), selector.getByID(1_380_724_377));
+        assertThrows(CompletionException.class, () -> selector.getPossibleLocations("Mil", 10));
+    }
+
+    /** Database fittizio con la sola Roma. */
+    private static final class FixedSelector implements LocationSelector {
+        @Override
+        public List<Pair<String, Integer>> getPossibleLocations(final String txt, final int limit) {
+            return List.of(new Pair<>("Rome, Lazio, Italy", 1_380_382_862));
+        }
+
+        @Override
+        public Optional<Map<String, String>> getByID(final int id) {
+            return id == 1_380_382_862 ? Optional.of(ROME) : Optional.empty();
+        }
+
+        @Override
+        public Optional<Integer> searchByLookUp(final LookUp lookUp) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Integer> nearest(final double lat, final double lng, final int k) {
+            return List.of();
+        }
+
+        @Override
+        public List<Integer> withinRadius(final double lat, final double lng, final double radiusKm) {
+            return List.of();
+        }
+    }
+}
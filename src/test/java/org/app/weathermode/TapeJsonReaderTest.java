@@ -0,0 +1,79 @@
+package org.app.weathermode;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.app.weathermode.model.json.AdvancedJsonReader;
+import org.app.weathermode.model.json.AdvancedJsonReaderImpl;
+import org.app.weathermode.model.json.TapeJsonReaderImpl;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link TapeJsonReaderImpl}: le letture devono coincidere con
+ * quelle di {@link AdvancedJsonReaderImpl} sullo stesso documento.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class TapeJsonReaderTest {
+
+    private static final String JSON = """
+        {
+          "name": "Ces\\u00e8na \\"centro\\"",
+          "skip": { "deep": [ { "x": [1, 2, {"y": "}]"}] } ] },
+          "current": { "temperature_2m": -3.5e0, "is_day": true, "code": 61, "big": 12345678901 },
+          "hourly": { "temperature_2m": [21.5, null, 19], "time": ["a", null, "c"] },
+          "k\\u0065y": 1
+        }
+        """;
+
+    @Test
+    void readsLikeTheTreeReader() throws Exception { // NOPMD
+        final AdvancedJsonReader tape = new TapeJsonReaderImpl().setJSON(JSON);
+        final AdvancedJsonReader tree = new AdvancedJsonReaderImpl().setJSON(JSON);
+
+        for (final AdvancedJsonReader reader : List.of(tape, tree)) {
+            assertEquals("Cesèna \"centro\"", reader.getString("name"));
+            assertEquals(Double.valueOf(-3.5), reader.getDouble("current.temperature_2m"));
+            assertTrue(reader.getBool("current.is_day"));
+            assertEquals(Integer.valueOf(61), reader.getInt("current.code"));
+            assertEquals(Long.valueOf(12_345_678_901L), reader.getLong("current.big"));
+            assertEquals(Integer.valueOf(1), reader.getInt("key"));
+            assertArrayEquals(new String[] {"a", null, "c"}, reader.getStringArray("hourly.time"));
+            assertTrue(reader.elementExists("skip.deep"));
+            assertFalse(reader.elementExists("skip.deep.x"));
+            assertThrows(IllegalArgumentException.class, () -> reader.getString("current.missing"));
+        }
+        assertArrayEquals(tree.getDoubleArray("hourly.temperature_2m"), tape.getDoubleArray("hourly.temperature_2m"));
+        assertArrayEquals(tree.getIntArray("hourly.temperature_2m", -1), tape.getIntArray("hourly.temperature_2m", -1));
+        assertEquals(tree.walkthroughBody("skip"), tape.walkthroughBody("skip"));
+        assertEquals(tree.getAll("current.code", "skip.deep", "nope"), tape.getAll("current.code", "skip.deep", "nope"));
+        assertSame(JSON, tape.getRawJSON());
+    }
+
+    @Test
+    void readsRecordedDirectionsResponse() throws Exception { // NOPMD
+        final String json = Files.readString(Paths.get("src/test/resources/directions_valid_response.json"));
+        final AdvancedJsonReader tape = new TapeJsonReaderImpl().setJSON(json);
+        final AdvancedJsonReader tree = new AdvancedJsonReaderImpl().setJSON(json);
+
+        assertEquals("OK", tape.getString("status"));
+        assertEquals(tree.getJsonArray("routes"), tape.getJsonArray("routes"));
+        assertEquals(tree.getJsonArray("geocoded_waypoints"), tape.getJsonArray("geocoded_waypoints"));
+    }
+
+    @Test
+    void handlesRootArraysAndRejectsMalformedInput() throws Exception { // NOPMD
+        final AdvancedJsonReader tape = new TapeJsonReaderImpl().setJSON("[{\"a\": 1}, {\"a\": 2}]");
+        assertEquals(2, tape.getJsonArray(AdvancedJsonReader.ROOT_ARRAY_KEY).size());
+
+        assertThrows(IllegalArgumentException.class, () -> new TapeJsonReaderImpl().setJSON("{\"a\": [1, 2}"));
+        assertThrows(IllegalArgumentException.class, () -> new TapeJsonReaderImpl().setJSON("{\"a\": \"open}"));
+        assertThrows(IllegalArgumentException.class, () -> new TapeJsonReaderImpl().setJSON("{} {}"));
+        assertThrows(IllegalStateException.class, () -> new TapeJsonReaderImpl().setJSON("{}").setJSON("{}"));
+    }
+}
@@ -0,0 +1,147 @@
+package org.app.weathermode.model.weather;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// CHECKSTYLE: AvoidStarImport OFF
+import static org.junit.jupiter.api.Assertions.*;
+// CHECKSTYLE: AvoidStarImport ON
+
+/**
+ * Test per {@link MinutelyDay} e {@link MinutelyDayCache}: aritmetica degli
+ * slot da 15 minuti (arrotondamento, passaggio al giorno successivo, istanti
+ * non allineati o fuori serie), stesso arrotondamento in
+ * {@link AllWeather#getWeatherOn} e condivisione delle celle di coordinate.
+ */
+// CHECKSTYLE: MagicNumber OFF
+class MinutelyDayTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 27);
+    private static final int SLOTS = 96;
+    /** Slot con visibilità mancante. */
+    private static final int MISSING = 5;
+
+    private MinutelyDay day;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        day = day(DAY, 0);
+    }
+
+    private static MinutelyDay day(final LocalDate date, final int offset) throws IOException {
+        return MinutelyDay.fromBlock(OpenMeteoStreamReader.single(OpenMeteoStreamReader.read(
+            new StringReader(response(date, offset)))).block(OpenMeteoStreamReader.MINUTELY_15),
+            System.currentTimeMillis());
+    }
+
+    /** Una giornata di 96 slot; ogni variabile vale l’indice dello slot più <code>offset</code>. */
+    private static String response(final LocalDate date, final int offset) {
+        final StringBuilder json = new StringBuilder("{\"minutely_15\": {\"time\": [");
+        for (int i = 0; i < SLOTS; i++) {
+            json.append(i == 0 ? "" : ",").append('"').append(date.atStartOfDay().plusMinutes(15L * i)).append('"');
+        }
+        json.append(']');
+        for (final MinutelyMetric metric : MinutelyMetric.values()) {
+            json.append(", \"").append(metric.getApiName()).append("\": [");
+            for (int i = 0; i < SLOTS; i++) {
+                json.append(i == 0 ? "" : ",")
+                    .append(metric == MinutelyMetric.VISIBILITY && i == MISSING ? "null" : String.valueOf(i + offset));
+            }
+            json.append(']');
+        }
+        return json.append("}}").toString();
+    }
+
+    private static LocalDateTime at(final int hour, final int minute) {
+        return DAY.atTime(hour, minute);
+    }
+
+    @Test
+    void nearestSlotRoundsToClosestQuarter() {
+        assertEquals(at(10, 0), MinutelyDay.nearestSlot(at(10, 7)));
+        assertEquals(at(10, 15), MinutelyDay.nearestSlot(at(10, 8)));
+        assertEquals(at(10, 0), MinutelyDay.nearestSlot(DAY.atTime(LocalTime.of(10, 7, 59))));
+        assertEquals(at(10, 45), MinutelyDay.nearestSlot(at(10, 45)));
+    }
+
+    @Test
+    void nearestSlotRollsOverToNextDay() {
+        assertEquals(at(23, 45), MinutelyDay.nearestSlot(at(23, 52)));
+        final LocalDateTime rolled = MinutelyDay.nearestSlot(at(23, 53));
+        assertEquals(DAY.plusDays(1).atStartOfDay(), rolled);
+        /* il chiamante sceglie la giornata dalla data dello slot, non dell’istante richiesto */
+        assertEquals(DAY.plusDays(1), rolled.toLocalDate());
+        assertEquals(-1, day.slotOf(rolled));
+    }
+
+    @Test
+    void slotOfIsPlainArithmetic() {
+        assertEquals(SLOTS, day.slots());
+        assertEquals(0, day.slotOf(at(0, 0)));
+        assertEquals(41, day.slotOf(at(10, 15)));
+        assertEquals(SLOTS - 1, day.slotOf(at(23, 45)));
+        assertEquals(41.0, day.value(MinutelyMetric.PRECIPITATION, day.slotOf(at(10, 15))));
+    }
+
+    @Test
+    void unalignedOrOutOfRangeTimesHaveNoSlot() {
+        assertEquals(-1, day.slotOf(at(10, 7)));
+        assertEquals(-1, day.slotOf(DAY.atTime(LocalTime.of(10, 15, 30))));
+        assertEquals(-1, day.slotOf(DAY.minusDays(1).atTime(23, 45)));
+        assertEquals(-1, day.slotOf(DAY.plusDays(1).atTime(0, 15)));
+    }
+
+    @Test
+    void weatherOnRoundsLikeNearestSlot() throws IOException {
+        final double lat = -33.8688;
+        final double lng = 151.2093;
+        MinutelyDayCache.SHARED.put(lat, lng, DAY, day);
+        MinutelyDayCache.SHARED.put(lat, lng, DAY.plusDays(1), day(DAY.plusDays(1), 1000));
+        final AllWeather weather = new AllWeather(new HashMap<>(Map.of(
+            "lat", String.valueOf(lat), "lng", String.valueOf(lng))));
+
+        assertEquals(41, weather.getWeatherOn(27, 6, 2025, "10:08")
+            .orElseThrow().get(MinutelyMetric.WEATHER_CODE.getKey()));
+        assertEquals(SLOTS - 1, weather.getWeatherOn(27, 6, 2025, "23:52")
+            .orElseThrow().get(MinutelyMetric.WEATHER_CODE.getKey()));
+        /* 23:53 è più vicino alla mezzanotte del giorno dopo, non a quella dello stesso giorno */
+        assertEquals(1000, weather.getWeatherOn(27, 6, 2025, "23:53")
+            .orElseThrow().get(MinutelyMetric.WEATHER_CODE.getKey()));
+    }
+
+    @Test
+    void missingValueGivesEmptyMap() {
+        assertEquals(Optional.empty(), day.asMap(MISSING));
+        assertEquals(Optional.empty(), day.asMap(-1));
+        assertEquals(Optional.empty(), day.asMap(SLOTS));
+
+        final Map<String, Number> slot = day.asMap(41).orElseThrow();
+        assertEquals(41, slot.get(MinutelyMetric.WEATHER_CODE.getKey()));
+        assertInstanceOf(Integer.class, slot.get(MinutelyMetric.WEATHER_CODE.getKey()));
+        assertEquals(41.0, slot.get(MinutelyMetric.VISIBILITY.getKey()));
+    }
+
+    @Test
+    void pointsInTheSameCellShareOneEntry() {
+        final MinutelyDayCache cache = new MinutelyDayCache(Duration.ofMinutes(30), 16);
+        cache.put(44.4912, 11.3418, DAY, day);
+
+        assertSame(day, cache.get(44.4938, 11.3441, DAY).orElseThrow());
+        assertEquals(1, cache.getHits());
+        assertEquals(MinutelyDayCache.format(44.4912), MinutelyDayCache.format(44.4938));
+
+        assertTrue(cache.get(44.5012, 11.3418, DAY).isEmpty(), "cella adiacente");
+        assertTrue(cache.get(44.4912, 11.3418, DAY.plusDays(1)).isEmpty(), "altro giorno");
+        assertEquals(2, cache.getMisses());
+    }
+}